@@ -0,0 +1,122 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.benchmarks;
+
+import java.io.File;
+
+import megamek.common.Board;
+import megamek.common.Configuration;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.EquipmentType;
+import megamek.common.IBoard;
+import megamek.common.IGame;
+import megamek.common.IPlayer;
+import megamek.common.MechFileParser;
+import megamek.common.Player;
+import megamek.common.loaders.EntityLoadingException;
+import megamek.common.util.fileUtils.MegaMekFile;
+
+/**
+ * Shared fixtures of the benchmarks: shipped boards and two lances of
+ * shipped units facing each other across one of them. The benchmarks must be run from
+ * the megamek directory, so that the data directory is found.
+ */
+public final class Fixtures {
+
+    /** A board with woods, hills and water, relative to data/boards */
+    public static final String BOARD = "MapSet2/16x17 River Valley.board";
+
+    /** A board with many buildings, relative to data/boards */
+    public static final String CITY_BOARD = "MapSet2/16x17 CityTech.board";
+
+    /** An open board with a few woods that the units are deployed on */
+    public static final String OPEN_BOARD = "Beginner Box/16x17 Grassland 1.board";
+
+    /** The units of the first player, relative to data/mechfiles */
+    public static final String[] ATTACKERS = {
+            "mechs/3039u/Atlas AS7-D.mtf",
+            "mechs/3039u/Marauder MAD-3R.mtf",
+            "mechs/3039u/Warhammer WHM-6R.mtf",
+            "mechs/3039u/Locust LCT-1V.mtf" };
+
+    /** The units of the second player, relative to data/mechfiles */
+    public static final String[] DEFENDERS = {
+            "mechs/3039u/Awesome AWS-8Q.mtf",
+            "mechs/3039u/Griffin GRF-1N.mtf",
+            "mechs/3039u/Hunchback HBK-4G.mtf",
+            "mechs/3039u/Shadow Hawk SHD-2H.mtf" };
+
+    /** A large BLK unit, relative to data/mechfiles */
+    public static final String WARSHIP = "warship/IE3/Faslane Yard Ship.blk";
+
+    private Fixtures() {
+    }
+
+    public static File boardFile(String name) {
+        return new MegaMekFile(Configuration.boardsDir(), name).getFile();
+    }
+
+    public static File unitFile(String name) {
+        return new MegaMekFile(Configuration.unitsDir(), name).getFile();
+    }
+
+    public static IBoard loadBoard(String name) {
+        IBoard board = new Board();
+        board.load(boardFile(name));
+        return board;
+    }
+
+    public static Entity loadEntity(String name) throws EntityLoadingException {
+        EquipmentType.initializeTypes();
+        return new MechFileParser(unitFile(name)).getEntity();
+    }
+
+    /**
+     * Sets up the given game on {@link #OPEN_BOARD}, with the {@link #ATTACKERS}
+     * deployed along the north edge and the {@link #DEFENDERS} in the middle of
+     * the board, within range and partly behind woods. The attackers have the
+     * ids 0 to 3, the defenders 4 to 7.
+     */
+    public static IGame populate(IGame game) throws EntityLoadingException {
+        game.setBoard(loadBoard(OPEN_BOARD));
+        IPlayer attacker = new Player(0, "Attacker");
+        attacker.setTeam(1);
+        IPlayer defender = new Player(1, "Defender");
+        defender.setTeam(2);
+        game.addPlayer(attacker.getId(), attacker);
+        game.addPlayer(defender.getId(), defender);
+
+        int id = 0;
+        for (int i = 0; i < ATTACKERS.length; i++) {
+            deploy(game, loadEntity(ATTACKERS[i]), id++, attacker, new Coords(2 + (4 * i), 2), 3);
+        }
+        for (int i = 0; i < DEFENDERS.length; i++) {
+            deploy(game, loadEntity(DEFENDERS[i]), id++, defender, new Coords(1 + (4 * i), 8), 0);
+        }
+        return game;
+    }
+
+    private static void deploy(IGame game, Entity entity, int id, IPlayer owner, Coords position,
+            int facing) {
+        entity.setId(id);
+        entity.setOwner(owner);
+        entity.setPosition(position);
+        entity.setFacing(facing);
+        entity.setSecondaryFacing(facing);
+        entity.setDeployed(true);
+        game.addEntity(entity);
+    }
+}
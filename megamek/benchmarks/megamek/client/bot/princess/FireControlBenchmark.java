@@ -0,0 +1,84 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.client.bot.princess;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import megamek.benchmarks.Fixtures;
+import megamek.client.bot.princess.FireControl.FireControlType;
+import megamek.common.Entity;
+import megamek.common.IGame;
+import megamek.common.Mounted;
+import megamek.common.loaders.EntityLoadingException;
+import megamek.common.logging.LogLevel;
+
+/**
+ * Princess choosing which weapons to fire at a target. The bot is not
+ * connected; its own game copy holds the fixture.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FireControlBenchmark {
+
+    private Princess princess;
+    private FireControl fireControl;
+    private IGame game;
+    private Entity shooter;
+    private Entity target;
+    private final Map<Mounted, Double> ammoConservation = new HashMap<>();
+
+    @Setup
+    public void setUp() throws EntityLoadingException {
+        princess = new Princess("Benchmark", "localhost", 0, LogLevel.ERROR);
+        game = Fixtures.populate(princess.getGame());
+        game.setPhase(IGame.Phase.PHASE_FIRING);
+        princess.initializeFireControls();
+        fireControl = princess.getFireControl(FireControlType.Basic);
+        shooter = game.getEntity(0);
+        target = game.getEntity(4);
+        // Fire every weapon regardless of the ammunition left
+        for (Mounted weapon : shooter.getWeaponList()) {
+            ammoConservation.put(weapon, 0.0);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        princess.die();
+    }
+
+    @Benchmark
+    public FiringPlan getBestFiringPlan() {
+        return fireControl.getBestFiringPlan(shooter, target, game, ammoConservation);
+    }
+}
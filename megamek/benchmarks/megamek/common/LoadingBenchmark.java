@@ -0,0 +1,64 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import megamek.benchmarks.Fixtures;
+import megamek.common.loaders.EntityLoadingException;
+
+/**
+ * Parsing unit files and loading boards, which the unit cache and the lobby
+ * do many times over.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadingBenchmark {
+
+    @Setup
+    public void setUp() {
+        EquipmentType.initializeTypes();
+    }
+
+    @Benchmark
+    public Entity parseMtf() throws EntityLoadingException {
+        return new MechFileParser(Fixtures.unitFile(Fixtures.ATTACKERS[0])).getEntity();
+    }
+
+    @Benchmark
+    public Entity parseBlk() throws EntityLoadingException {
+        return new MechFileParser(Fixtures.unitFile(Fixtures.WARSHIP)).getEntity();
+    }
+
+    @Benchmark
+    public IBoard loadBoard() {
+        return Fixtures.loadBoard(Fixtures.BOARD);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import megamek.benchmarks.Fixtures;
+
+/**
+ * Line of sight between random hexes of a shipped board, as calculated for
+ * every attack and for double blind visibility.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LosBenchmark {
+
+    private static final int PAIRS = 64;
+
+    @Param({ Fixtures.BOARD, Fixtures.CITY_BOARD })
+    public String board;
+
+    private IGame game;
+    private LosEffects.AttackInfo[] attacks;
+
+    @Setup
+    public void setUp() {
+        game = new Game();
+        game.setBoard(Fixtures.loadBoard(board));
+        IBoard b = game.getBoard();
+        Random random = new Random(4711);
+        attacks = new LosEffects.AttackInfo[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            LosEffects.AttackInfo ai = new LosEffects.AttackInfo();
+            ai.attackPos = new Coords(random.nextInt(b.getWidth()), random.nextInt(b.getHeight()));
+            ai.targetPos = new Coords(random.nextInt(b.getWidth()), random.nextInt(b.getHeight()));
+            ai.targetEntity = true;
+            ai.attackHeight = 1;
+            ai.targetHeight = 1;
+            ai.attackAbsHeight = b.getHex(ai.attackPos).surface() + 1;
+            ai.targetAbsHeight = b.getHex(ai.targetPos).surface() + 1;
+            ai.attOnLand = true;
+            ai.targetOnLand = true;
+            attacks[i] = ai;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void calculateLos(Blackhole blackhole) {
+        for (LosEffects.AttackInfo ai : attacks) {
+            blackhole.consume(LosEffects.calculateLos(game, ai));
+        }
+    }
+}
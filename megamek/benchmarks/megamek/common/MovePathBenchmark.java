@@ -0,0 +1,121 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import megamek.benchmarks.Fixtures;
+import megamek.common.MovePath.MoveStepType;
+import megamek.common.loaders.EntityLoadingException;
+import megamek.common.pathfinder.LongestPathFinder;
+import megamek.common.pathfinder.ShortestPathFinder;
+
+/**
+ * Building and copying movement paths, and the path finder that does both
+ * for every hex a unit can reach.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MovePathBenchmark {
+
+    private static final MoveStepType[] STEPS = { MoveStepType.FORWARDS, MoveStepType.FORWARDS,
+            MoveStepType.TURN_RIGHT, MoveStepType.FORWARDS, MoveStepType.FORWARDS,
+            MoveStepType.TURN_LEFT, MoveStepType.FORWARDS, MoveStepType.FORWARDS };
+
+    private IGame game;
+    private Entity entity;
+    private Entity jumper;
+    private MovePath path;
+    private Coords destination;
+
+    @Setup
+    public void setUp() throws EntityLoadingException {
+        game = Fixtures.populate(new Game());
+        game.setPhase(IGame.Phase.PHASE_MOVEMENT);
+        // The Marauder, a medium speed unit
+        entity = game.getEntity(1);
+        // The Shadow Hawk, which can jump
+        jumper = game.getEntity(7);
+        path = buildPath();
+        destination = new Coords(entity.getPosition().getX(), entity.getPosition().getY() + 6);
+    }
+
+    @Benchmark
+    public MovePath addStep() {
+        return buildPath();
+    }
+
+    @Benchmark
+    public MovePath cloneMovePath() {
+        return path.clone();
+    }
+
+    @Benchmark
+    public int shortestPathFinderOneToAll() {
+        ShortestPathFinder finder = ShortestPathFinder.newInstanceOfOneToAll(entity.getRunMP(),
+                MoveStepType.FORWARDS, game);
+        finder.run(new MovePath(game, entity));
+        return finder.getAllComputedPaths().size();
+    }
+
+    @Benchmark
+    public MovePath shortestPathFinderAStar() {
+        ShortestPathFinder finder = ShortestPathFinder.newInstanceOfAStar(destination,
+                MoveStepType.FORWARDS, game);
+        finder.run(new MovePath(game, entity));
+        return finder.getComputedPath(destination);
+    }
+
+    @Benchmark
+    public int shortestPathFinderJumping() {
+        ShortestPathFinder finder = ShortestPathFinder.newInstanceOfOneToAll(jumper.getJumpMP(),
+                MoveStepType.FORWARDS, game);
+        MovePath start = new MovePath(game, jumper);
+        start.addStep(MoveStepType.START_JUMP);
+        finder.run(start);
+        return finder.getAllComputedPaths().size();
+    }
+
+    @Benchmark
+    public int longestPathFinder() {
+        LongestPathFinder finder = LongestPathFinder.newInstanceOfLongestPath(entity.getRunMP(),
+                MoveStepType.FORWARDS, game);
+        finder.run(new MovePath(game, entity));
+        return finder.getLongestComputedPaths().size();
+    }
+
+    private MovePath buildPath() {
+        MovePath result = new MovePath(game, entity);
+        for (MoveStepType step : STEPS) {
+            result.addStep(step);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import megamek.benchmarks.Fixtures;
+import megamek.common.actions.WeaponAttackAction;
+import megamek.common.loaders.EntityLoadingException;
+
+/**
+ * The to-hit number of a weapon attack across the board, and the range
+ * modifiers that are part of it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ToHitBenchmark {
+
+    private IGame game;
+    private Entity attacker;
+    private Entity target;
+    private int weaponId;
+
+    @Setup
+    public void setUp() throws EntityLoadingException {
+        game = Fixtures.populate(new Game());
+        game.setPhase(IGame.Phase.PHASE_FIRING);
+        attacker = game.getEntity(0);
+        target = game.getEntity(4);
+        weaponId = attacker.getEquipmentNum(attacker.getWeaponList().get(0));
+    }
+
+    @Benchmark
+    public ToHitData getRangeMods() {
+        return Compute.getRangeMods(game, attacker, weaponId, target);
+    }
+
+    @Benchmark
+    public ToHitData toHit() {
+        return WeaponAttackAction.toHit(game, attacker.getId(), target, weaponId, false);
+    }
+}
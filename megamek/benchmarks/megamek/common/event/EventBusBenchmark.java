@@ -0,0 +1,88 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.event;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The cost of dispatching one event through the {@link EventBus} to a number
+ * of registered handlers, as happens for every entity change during movement
+ * resolution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBusBenchmark {
+
+    public static class BenchmarkEvent extends MMEvent {
+        long value;
+    }
+
+    public static class Handler {
+        private final Blackhole blackhole;
+
+        Handler(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe
+        public void handle(BenchmarkEvent event) {
+            blackhole.consume(event.value);
+        }
+
+        /** Registered for the superclass, so the hierarchy is walked as well */
+        @Subscribe(priority = -1)
+        public void handleAll(MMEvent event) {
+            blackhole.consume(event);
+        }
+    }
+
+    @Param({ "1", "10" })
+    public int handlers;
+
+    private EventBus bus;
+    private BenchmarkEvent event;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        bus = new EventBus();
+        for (int i = 0; i < handlers; i++) {
+            bus.register(new Handler(blackhole));
+        }
+        event = new BenchmarkEvent();
+    }
+
+    @Benchmark
+    public boolean trigger() {
+        event.value++;
+        return bus.trigger(event);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.server;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import megamek.benchmarks.Fixtures;
+import megamek.common.Entity;
+import megamek.common.Game;
+import megamek.common.IGame;
+import megamek.common.IPlayer;
+import megamek.common.loaders.EntityLoadingException;
+
+/**
+ * The double blind filtering of the entity list that the server does for
+ * every player on every entity update. The server listens on a free port.
+ * Server.filterEntities is private, so it is looked up once through a
+ * private lookup and called through a method handle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServerBenchmark {
+
+    private Server server;
+    private IGame game;
+    private IPlayer viewer;
+    private MethodHandle filterEntities;
+
+    @Setup
+    public void setUp() throws IOException, EntityLoadingException, ReflectiveOperationException {
+        server = new Server("", 0);
+        IGame fixture = Fixtures.populate(new Game());
+        server.setGame(fixture);
+        game = server.getGame();
+        viewer = game.getPlayer(0);
+        filterEntities = MethodHandles.privateLookupIn(Server.class, MethodHandles.lookup())
+                .findVirtual(Server.class, "filterEntities",
+                        MethodType.methodType(List.class, IPlayer.class, List.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.die();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Entity> filterEntities() throws Throwable {
+        return (List<Entity>) filterEntities.invokeExact(server, viewer, game.getEntitiesVector());
+    }
+}
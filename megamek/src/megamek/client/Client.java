@@ -24,14 +24,10 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
 
-
-import com.thoughtworks.xstream.XStream;
-
 import megamek.MegaMek;
 import megamek.client.commands.*;
 import megamek.client.generator.RandomSkillsGenerator;
@@ -46,12 +42,13 @@ import megamek.common.event.*;
 import megamek.common.force.Force;
 import megamek.common.force.Forces;
 import megamek.common.net.*;
+import megamek.common.net.marshall.PacketMarshaller;
 import megamek.common.options.GameOptions;
 import megamek.common.options.IBasicOption;
 import megamek.common.preference.PreferenceManager;
 import megamek.common.util.ImageUtil;
-import megamek.common.util.SerializationHelper;
 import megamek.common.util.StringUtil;
+import megamek.server.GameSnapshot;
 import megamek.server.SmokeCloud;
 
 /**
@@ -105,6 +102,37 @@ public class Client implements IClientCommandHandler {
     //Hashtable for storing image tags containing base64Text src
     private Hashtable<Integer, String> imgCache;
 
+    //the unit images the missing image tags are made from when a report needs them
+    private final Map<Integer, Image> imgSources = new HashMap<>();
+
+    //finds the unit ids in the sprite placeholders of report texts
+    private static final Pattern REPORT_UNIT_ID = Pattern.compile("<s(.*?)n>");
+
+    //report texts, formatted on the connection thread as the reports arrive
+    private final Map<Report, PreparedReport> preparedReports =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    //entity lookups of entity list packets, built on the connection thread
+    private final Map<Packet, EntityIndex> preparedEntities =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** The text of a report and the ids of the units whose sprites it shows */
+    private static class PreparedReport {
+        final String text;
+        final Set<Integer> unitIds = new HashSet<>();
+
+        PreparedReport(Report report) {
+            text = report.getText();
+            Matcher m = REPORT_UNIT_ID.matcher(text);
+            while (m.find()) {
+                String cleanedText = m.group(1).replaceAll("\\D", "");
+                if (cleanedText.length() > 0) {
+                    unitIds.add(Integer.parseInt(cleanedText));
+                }
+            }
+        }
+    }
+
     //board view for getting entity art assets
     private BoardView1 bv;
 
@@ -157,20 +185,11 @@ public class Client implements IClientCommandHandler {
 
         @Override
         public void packetReceived(final PacketReceivedEvent e) {
-            // We can't just run this directly, otherwise we open up all sorts
-            // of concurrency issues with the AWT event dispatch thread.
-            // Instead, if we will have the event dispatch thread handle it,
-            // by using SwingUtilities.invokeLater
-            // TODO: I don't think this is really what we should do: ideally
-            // Client.handlePacket should play well with the AWT event queue,
-            // but nothing appears to really be designed to be thread safe, so
-            // this is a reasonable hack for now
-            Runnable handlePacketEvent = new Runnable() {
-                public void run() {
-                    handlePacket(e.getPacket());
-                }
-            };
-            SwingUtilities.invokeLater(handlePacketEvent);
+            // The work that needs no game state is done right here on the
+            // connection thread; only applying the packet to the game is
+            // dispatched, see dispatchPacket()
+            preparePacket(e.getPacket());
+            dispatchPacket(e.getPacket());
         }
 
     };
@@ -943,11 +962,10 @@ public class Client implements IClientCommandHandler {
      * sends a load game file to the server
      */
     public void sendLoadGame(File f) {
-        try (InputStream is = new GZIPInputStream(new FileInputStream(f))) {
+        try {
             game.reset();
             
-            XStream xstream = SerializationHelper.getXStream();            
-            IGame newGame = (IGame) xstream.fromXML(is);
+            IGame newGame = GameSnapshot.readSaveGame(f);
 
             send(new Packet(Packet.COMMAND_LOAD_GAME, new Object[] { newGame }));
         } catch (Exception e) {
@@ -991,6 +1009,21 @@ public class Client implements IClientCommandHandler {
         game.setBoard(newBoard);
     }
 
+    /**
+     * Finishes setting up a board received from the server before
+     * {@link #receiveBoard(Packet)} makes it the game's board. The board
+     * arrives initialized and its buildings are indexed as it is read, so
+     * what remains is its elevation range, which the board view reads for
+     * its shadow map.
+     */
+    private void prepareBoard(Packet c) {
+        Board newBoard = (Board) c.getObject(0);
+        if (newBoard != null) {
+            newBoard.getMinElevation();
+            newBoard.getMaxElevation();
+        }
+    }
+
     /**
      * Loads the entities from the data in the net command.
      */
@@ -1003,7 +1036,8 @@ public class Client implements IClientCommandHandler {
         if (forces != null) {
             game.setForces(forces);
         }
-        game.setEntitiesVector(newEntities);
+        EntityIndex index = preparedEntities.remove(c);
+        game.setEntitiesVector((index != null) ? index : new EntityIndex(newEntities));
         if (newOutOfGame != null) {
             game.setOutOfGameEntitiesVector(newOutOfGame);
             for(Entity e: newOutOfGame) {
@@ -1063,8 +1097,44 @@ public class Client implements IClientCommandHandler {
     }
     
     /**
-     * Update multiple entities from the server. Used only in the lobby phase. 
+     * Receives the changed entities of a full entity list update. Entities
+     * that did not change are kept from the current entity list, those of
+     * which only the position, heat or damage changed get the new state.
      */
+    @SuppressWarnings("unchecked")
+    protected void receiveEntityDelta(Packet c) {
+        List<Entity> changed = (List<Entity>) c.getObject(0);
+        int[] ids = (int[]) c.getObject(1);
+        for (EntityStateUpdate update : (List<EntityStateUpdate>) c.getObject(2)) {
+            Entity entity = game.getEntity(update.getEntityId());
+            if (entity != null) {
+                update.applyTo(entity);
+            } else {
+                MegaMek.getLogger().error("Entity delta update refers to unknown entity " + update.getEntityId());
+            }
+        }
+        Map<Integer, Entity> changedById = new HashMap<>();
+        for (Entity e : changed) {
+            changedById.put(e.getId(), e);
+        }
+        List<Entity> newEntities = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Entity entity = changedById.get(id);
+            if (entity == null) {
+                entity = game.getEntity(id);
+            }
+            if (entity != null) {
+                newEntities.add(entity);
+            } else {
+                MegaMek.getLogger().error("Entity delta update refers to unknown entity " + id);
+            }
+        }
+        game.setEntitiesVector(newEntities);
+        for (Entity e : changed) {
+            cacheImgTag(e);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected void receiveEntitiesUpdate(Packet c) {
         Collection<Entity> entities = (Collection<Entity>) c.getObject(0);
@@ -1220,22 +1290,13 @@ public class Client implements IClientCommandHandler {
             return "[null report vector]";
         }
 
-        StringBuffer report = new StringBuffer();
-        for (Report r : v) {
-            report.append(r.getText());
-        }
-
+        StringBuilder report = new StringBuilder();
+        //the ids of the units in the spans, in a hashset to prevent duplicates
         Set<Integer> set = new HashSet<Integer>();
-        //find id stored in spans and extract it
-        Pattern p = Pattern.compile("<s(.*?)n>");
-        Matcher m = p.matcher(report.toString());
-
-        //add all instances to a hashset to prevent duplicates
-        while(m.find()){
-            String cleanedText = m.group(1).replaceAll("\\D", "");
-            if(cleanedText.length() > 0) {
-                set.add(Integer.parseInt(cleanedText));
-            }
+        for (Report r : v) {
+            PreparedReport prepared = preparedReports.computeIfAbsent(r, PreparedReport::new);
+            report.append(prepared.text);
+            set.addAll(prepared.unitIds);
         }
 
         String updatedReport = report.toString();
@@ -1249,13 +1310,42 @@ public class Client implements IClientCommandHandler {
     }
 
     /**
-     * returns the stored <img> tag for given unit id
+     * Formats the texts of the given reports ahead of {@link #receiveReport(Vector)}.
+     */
+    private void prepareReports(Vector<Report> v) {
+        if (v != null) {
+            for (Report r : v) {
+                preparedReports.computeIfAbsent(r, PreparedReport::new);
+            }
+        }
+    }
+
+    /**
+     * returns the stored <img> tag for given unit id, making it from the unit's
+     * image on first use
      */
     private String getCachedImgTag(int id){
         if (!GUIPreferences.getInstance().getBoolean(GUIPreferences.ADVANCED_ROUND_REPORT_SPRITES)
-                || (imgCache == null) || !imgCache.containsKey(id)) {
+                || (imgCache == null)) {
             return null;
         }
+        Image source = imgSources.remove(id);
+        if (source != null) {
+            //convert image to base64, add to to <img> tag and store in cache
+            Image image = ImageUtil.getScaledImage(source, 56, 48);
+            try {
+                String base64Text;
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                ImageIO.write((RenderedImage) image, "png", baos);
+                baos.flush();
+                base64Text = Base64.getEncoder().encodeToString(baos.toByteArray());
+                baos.close();
+                String img = "<img src='data:image/png;base64," + base64Text + "'>";
+                imgCache.put(id, img);
+            } catch (final IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
         return imgCache.get(id);
     }
 
@@ -1276,21 +1366,13 @@ public class Client implements IClientCommandHandler {
             imgCache.remove(entity.getId());
         }
 
-        if (getTargetImage(entity) != null) {
-            //convert image to base64, add to to <img> tag and store in cache
-            Image image = ImageUtil.getScaledImage(getTargetImage(entity), 56, 48);
-            try {
-                String base64Text;
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ImageIO.write((RenderedImage) image, "png", baos);
-                baos.flush();
-                base64Text = Base64.getEncoder().encodeToString(baos.toByteArray());
-                baos.close();
-                String img = "<img src='data:image/png;base64," + base64Text + "'>";
-                imgCache.put(entity.getId(), img);
-            } catch (final IOException ioe) {
-                throw new UncheckedIOException(ioe);
-            }
+        //the tag is only made when a report shows the unit, as encoding the
+        //image is too slow to do for every unit of every entity update
+        Image image = getTargetImage(entity);
+        if (image != null) {
+            imgSources.put(entity.getId(), image);
+        } else {
+            imgSources.remove(entity.getId());
         }
     }
 
@@ -1375,6 +1457,49 @@ public class Client implements IClientCommandHandler {
         }
     }
 
+    /**
+     * Does the expensive part of handling the packet that doesn't depend on
+     * the game state, such as formatting reports and building the lookups of
+     * new entity lists and boards. Called on the connection
+     * thread, in the order the packets arrive, before
+     * {@link #dispatchPacket(Packet)}.
+     */
+    @SuppressWarnings("unchecked")
+    protected void preparePacket(Packet c) {
+        if (c == null) {
+            return;
+        }
+        switch (c.getCommand()) {
+        case Packet.COMMAND_SENDING_REPORTS:
+        case Packet.COMMAND_SENDING_REPORTS_TACTICAL_GENIUS:
+        case Packet.COMMAND_SENDING_REPORTS_SPECIAL:
+            prepareReports((Vector<Report>) c.getObject(0));
+            break;
+        case Packet.COMMAND_SENDING_REPORTS_ALL:
+            for (Vector<Report> v : (Vector<Vector<Report>>) c.getObject(0)) {
+                prepareReports(v);
+            }
+            break;
+        case Packet.COMMAND_SENDING_ENTITIES:
+            preparedEntities.put(c, new EntityIndex((List<Entity>) c.getObject(0)));
+            break;
+        case Packet.COMMAND_SENDING_BOARD:
+            prepareBoard(c);
+            break;
+        }
+    }
+
+    /**
+     * Has the packet handled by {@link #handlePacket(Packet)}. We can't just
+     * run this directly, otherwise we open up all sorts of concurrency issues
+     * with the AWT event dispatch thread, as nothing appears to really be
+     * designed to be thread safe. So the event dispatch thread handles it, by
+     * using SwingUtilities.invokeLater.
+     */
+    protected void dispatchPacket(final Packet packet) {
+        SwingUtilities.invokeLater(() -> handlePacket(packet));
+    }
+
     @SuppressWarnings("unchecked")
     protected void handlePacket(Packet c) {
         if (c == null) {
@@ -1387,10 +1512,23 @@ public class Client implements IClientCommandHandler {
             break;
         case Packet.COMMAND_SERVER_GREETING:
             connected = true;
+            // Switch to the binary marshalling if the server offers it and
+            // acknowledge it, otherwise stay with native serialization
+            boolean binary = (c.getData() != null)
+                    && Integer.valueOf(PacketMarshaller.BINARY_MARSHALING).equals(c.getObject(0));
+            if (binary) {
+                connection.setMarshallingType(PacketMarshaller.BINARY_MARSHALING);
+            }
             send(new Packet(Packet.COMMAND_CLIENT_NAME, name));
-            Object[] versionData = new Object[2];
+            // The connection unpacks packet batches, so they are always
+            // accepted
+            Object[] versionData = new Object[4];
             versionData[0] = MegaMek.VERSION;
             versionData[1] = MegaMek.getMegaMekSHA256();
+            if (binary) {
+                versionData[2] = PacketMarshaller.BINARY_MARSHALING;
+            }
+            versionData[3] = Boolean.TRUE;
             send(new Packet(Packet.COMMAND_CLIENT_VERSIONS, versionData));
             break;
         case Packet.COMMAND_SERVER_CORRECT_NAME:
@@ -1435,6 +1573,9 @@ public class Client implements IClientCommandHandler {
         case Packet.COMMAND_ENTITY_MULTIUPDATE:
             receiveEntitiesUpdate(c);
             break;
+        case Packet.COMMAND_ENTITY_DELTA:
+            receiveEntityDelta(c);
+            break;
         case Packet.COMMAND_ENTITY_REMOVE:
             receiveEntityRemove(c);
             break;
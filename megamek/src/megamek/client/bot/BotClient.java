@@ -33,6 +33,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JScrollPane;
 import javax.swing.JTextPane;
 import javax.swing.ScrollPaneConstants;
+import javax.swing.SwingUtilities;
 
 import megamek.MegaMek;
 import megamek.client.Client;
@@ -1172,9 +1173,15 @@ public abstract class BotClient extends Client {
     }
 
     /**
-     * Pops up a dialog box showing an alert
+     * Pops up a dialog box showing an alert. Bot packets are handled on the
+     * connection thread, so the dialog is shown from the event dispatch
+     * thread.
      */
     public void doAlertDialog(String title, String message) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> doAlertDialog(title, message));
+            return;
+        }
         JTextPane textArea = new JTextPane();
         ReportDisplay.setupStylesheet(textArea);
 
@@ -1185,19 +1192,39 @@ public abstract class BotClient extends Client {
         JOptionPane.showMessageDialog(frame, scrollPane, title, JOptionPane.ERROR_MESSAGE);
     }
 
+    /**
+     * Bots have no GUI, so their packets are handled right away on the
+     * connection thread instead of waiting in the AWT event queue behind the
+     * GUI of the player hosting them. Only closing the connection, which
+     * notifies the close listeners, is still left to the event dispatch
+     * thread.
+     */
+    @Override
+    protected void dispatchPacket(Packet packet) {
+        if ((packet != null) && (packet.getCommand() == Packet.COMMAND_CLOSE_CONNECTION)) {
+            super.dispatchPacket(packet);
+        } else {
+            handlePacket(packet);
+        }
+    }
+
     @Override
     protected void correctName(Packet inP) {
         // If we have a clientgui, it keeps track of a Name -> Client map, and
-        //  we need to update that map with this name change.
-        if (getClientGUI() != null) {
-            Map<String, Client> bots = getClientGUI().getBots();
-            String oldName = getName();
-            String newName = (String) (inP.getObject(0));
-            assert (equals(bots.get(oldName)));
-            bots.remove(oldName);
-            bots.put(newName, this);
+        //  we need to update that map with this name change. The map belongs
+        //  to the GUI, so it is only changed on the event dispatch thread.
+        String oldName = getName();
+        String newName = (String) (inP.getObject(0));
+        final ClientGUI gui = getClientGUI();
+        if (gui != null) {
+            SwingUtilities.invokeLater(() -> {
+                Map<String, Client> bots = gui.getBots();
+                assert (equals(bots.get(oldName)));
+                bots.remove(oldName);
+                bots.put(newName, this);
+            });
         }
-        setName((String) (inP.getObject(0)));
+        setName(newName);
     }
 
     private ClientGUI getClientGUI() {
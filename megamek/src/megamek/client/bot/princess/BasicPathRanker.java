@@ -67,10 +67,11 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
     // what it's doing
     private final int UNIT_DESTRUCTION_FACTOR = 1000;
     
-    protected final DecimalFormat LOG_DECIMAL =
-            new DecimalFormat("0.00", DecimalFormatSymbols.getInstance());
-    private final NumberFormat LOG_INT = NumberFormat.getIntegerInstance();
-    protected final NumberFormat LOG_PERCENT = NumberFormat.getPercentInstance();
+    // formats are not thread safe, and paths may be ranked on several threads at once
+    protected final ThreadLocal<DecimalFormat> LOG_DECIMAL =
+            ThreadLocal.withInitial(() -> new DecimalFormat("0.00", DecimalFormatSymbols.getInstance()));
+    private final ThreadLocal<NumberFormat> LOG_INT = ThreadLocal.withInitial(NumberFormat::getIntegerInstance);
+    protected final ThreadLocal<NumberFormat> LOG_PERCENT = ThreadLocal.withInitial(NumberFormat::getPercentInstance);
 
     private PathEnumerator pathEnumerator;
 
@@ -230,8 +231,8 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
         double pilotingFailure = (1 - successProbability);
         double fallShame = getOwner().getBehaviorSettings().getFallShameValue();
         double fallMod = pilotingFailure * (pilotingFailure == 1 ? -UNIT_DESTRUCTION_FACTOR : fallShame);
-        formula.append("fall mod [").append(LOG_DECIMAL.format(fallMod)).append(" = ")
-               .append(LOG_DECIMAL.format(pilotingFailure)).append(" * ").append(LOG_DECIMAL.format(fallShame))
+        formula.append("fall mod [").append(LOG_DECIMAL.get().format(fallMod)).append(" = ")
+               .append(LOG_DECIMAL.get().format(pilotingFailure)).append(" * ").append(LOG_DECIMAL.get().format(fallShame))
                .append("]");
         return fallMod;
     }
@@ -408,9 +409,9 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
                                       .getHyperAggressionValue();
         double aggressionMod = distToEnemy * aggression;
         formula.append(" - aggressionMod [")
-               .append(LOG_DECIMAL.format(aggressionMod)).append(" = ")
-               .append(LOG_DECIMAL.format(distToEnemy)).append(" * ")
-               .append(LOG_DECIMAL.format(aggression)).append("]");
+               .append(LOG_DECIMAL.get().format(aggressionMod)).append(" = ")
+               .append(LOG_DECIMAL.get().format(distToEnemy)).append(" * ")
+               .append(LOG_DECIMAL.get().format(aggression)).append("]");
         return aggressionMod;
     }
 
@@ -427,10 +428,10 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
         double herding = getOwner().getBehaviorSettings()
                                    .getHerdMentalityValue();
         double herdingMod = distanceToAllies * herding;
-        formula.append(" - herdingMod [").append(LOG_DECIMAL.format(herdingMod))
+        formula.append(" - herdingMod [").append(LOG_DECIMAL.get().format(herdingMod))
                .append(" = ")
-               .append(LOG_DECIMAL.format(distanceToAllies)).append(" * ")
-               .append(LOG_DECIMAL.format(herding))
+               .append(LOG_DECIMAL.get().format(distanceToAllies)).append(" * ")
+               .append(LOG_DECIMAL.get().format(herding))
                .append("]");
         return herdingMod;
     }
@@ -460,12 +461,12 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
             facingDiff = 3;
         }
         double facingMod = Math.max(0.0, 50 * (facingDiff - 1));
-        formula.append(" - facingMod [").append(LOG_DECIMAL.format(facingMod))
+        formula.append(" - facingMod [").append(LOG_DECIMAL.get().format(facingMod))
                .append(" = max(")
-               .append(LOG_INT.format(0)).append(", ")
-               .append(LOG_INT.format(50)).append(" * {")
-               .append(LOG_INT.format(facingDiff)).append(" - ")
-               .append(LOG_INT.format(1)).append("})]");
+               .append(LOG_INT.get().format(0)).append(", ")
+               .append(LOG_INT.get().format(50)).append(" * {")
+               .append(LOG_INT.get().format(facingDiff)).append(" - ")
+               .append(LOG_INT.get().format(1)).append("})]");
         return facingMod;
     }
 
@@ -497,10 +498,10 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
             }
             
             formula.append(" - selfPreservationMod [")
-                   .append(LOG_DECIMAL.format(selfPreservationMod))
-                   .append(" = ").append(LOG_DECIMAL.format(newDistanceToHome))
+                   .append(LOG_DECIMAL.get().format(selfPreservationMod))
+                   .append(" = ").append(LOG_DECIMAL.get().format(newDistanceToHome))
                    .append(" * ")
-                   .append(LOG_DECIMAL.format(selfPreservation)).append("]");
+                   .append(LOG_DECIMAL.get().format(selfPreservation)).append("]");
             return selfPreservationMod;
         }
         return 0.0;
@@ -622,12 +623,12 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
                               braveryValue) -
                              expectedDamageTaken);
         formula.append(" + braveryMod [")
-               .append(LOG_DECIMAL.format(braveryMod)).append(" = ")
-               .append(LOG_PERCENT.format(successProbability))
+               .append(LOG_DECIMAL.get().format(braveryMod)).append(" = ")
+               .append(LOG_PERCENT.get().format(successProbability))
                .append(" * ((")
-               .append(LOG_DECIMAL.format(maximumDamageDone)).append(" * ")
-               .append(LOG_DECIMAL.format(braveryValue)).append(") - ")
-               .append(LOG_DECIMAL.format(expectedDamageTaken)).append("]");
+               .append(LOG_DECIMAL.get().format(maximumDamageDone)).append(" * ")
+               .append(LOG_DECIMAL.get().format(braveryValue)).append(") - ")
+               .append(LOG_DECIMAL.get().format(expectedDamageTaken)).append("]");
         utility += braveryMod;
 
         // the only critters not subject to aggression and herding mods are
@@ -932,7 +933,7 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
             }
         }
         logMsg.append("\n\tTotal Hazard = ")
-              .append(LOG_DECIMAL.format(hazardValue));
+              .append(LOG_DECIMAL.get().format(hazardValue));
 
         return hazardValue;
     }
@@ -958,17 +959,17 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
         double odds = (1.0 - (Compute.oddsAbove(movingUnit.getCrew()
                                                           .getPiloting()) / 100));
         logMsg.append("\n\t\tChance to fail piloting roll: ")
-              .append(LOG_PERCENT.format(odds));
+              .append(LOG_PERCENT.get().format(odds));
 
         // Hazard is based on potential damage taken.
         double dmg = board.getBuildingAt(step.getPosition())
                           .getCurrentCF(step.getPosition()) / 10D;
         logMsg.append("\n\t\tPotential building damage: ")
-              .append(LOG_DECIMAL.format(dmg));
+              .append(LOG_DECIMAL.get().format(dmg));
 
         double hazard = dmg * odds;
         logMsg.append("\n\t\tHazard value (")
-              .append(LOG_DECIMAL.format(hazard)).append(").");
+              .append(LOG_DECIMAL.get().format(hazard)).append(").");
         return hazard;
     }
     
@@ -1008,12 +1009,12 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
         // Hazard is based on chance to break through to the water underneath.
         double breakthroughMod = jumpLanding ? 0.5 : 0.1667;
         logMsg.append("\n\t\tChance to break through ice: ")
-              .append(LOG_PERCENT.format(breakthroughMod));
+              .append(LOG_PERCENT.get().format(breakthroughMod));
 
         double hazard = calcWaterHazard(movingUnit, hex, step, logMsg) *
                         breakthroughMod;
         logMsg.append("\n\t\tHazard value (")
-              .append(LOG_DECIMAL.format(hazard)).append(").");
+              .append(LOG_DECIMAL.get().format(hazard)).append(").");
         return hazard;
     }
 
@@ -1185,13 +1186,13 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
         } else {
             double breakThroughMod = jumpLanding ? 0.5 : 0.1667;
             logMsg.append("\n\t\tChance to break through crust = ")
-                  .append(LOG_PERCENT.format(breakThroughMod));
+                  .append(LOG_PERCENT.get().format(breakThroughMod));
 
             // Factor in the chance to break through.
             double lavalHazard = calcLavaHazard(endHex, movingUnit, step,
                                                 logMsg) * breakThroughMod;
             logMsg.append("\n\t\t\tLava hazard (")
-                  .append(LOG_DECIMAL.format(lavalHazard)).append(").");
+                  .append(LOG_DECIMAL.get().format(lavalHazard)).append(").");
             hazardValue += lavalHazard;
 
             // Factor in heat.
@@ -1199,7 +1200,7 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
                 double heatMod = (endHex ? 5 : 2) * (1 - breakThroughMod);
                 hazardValue += heatMod;
                 logMsg.append("\n\t\tHeat gain (")
-                      .append(LOG_DECIMAL.format(heatMod)).append(").");
+                      .append(LOG_DECIMAL.get().format(heatMod)).append(").");
             }
         }
 
@@ -1230,7 +1231,7 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
         double heat = endHex ? 10.0 : 5.0;
         hazardValue += heat;
         logMsg.append("\n\t\tHeat gain (").append(heat)
-              .append(LOG_DECIMAL.format(heat)).append(").");
+              .append(LOG_DECIMAL.get().format(heat)).append(").");
 
         // Factor in potential damage.
         double dmg;
@@ -1248,7 +1249,7 @@ public class BasicPathRanker extends PathRanker implements IPathRanker {
             dmg = 28;
             logMsg.append("legs (");
         }
-        logMsg.append(LOG_DECIMAL.format(dmg)).append(").");
+        logMsg.append(LOG_DECIMAL.get().format(dmg)).append(").");
         hazardValue += dmg;
 
         return hazardValue;
@@ -111,6 +111,7 @@ public class BehaviorSettings {
     private int herdMentalityIndex = 5; // How close do I want to stick to my teammates?
     private int braveryIndex = 5; // How quickly will I try to escape once damaged?
     private LogLevel verbosity = LogLevel.WARNING; // Verbosity of Princess chat messages.  Separate from the verbosity of the MegaMek log.
+    private int pathCalculationThreads = 1; // How many threads may I use to find and rank paths? 0 for one per processor.
 
     private MMLogger logger = null;
 
@@ -145,6 +146,7 @@ public class BehaviorSettings {
         copy.setHyperAggressionIndex(getHyperAggressionIndex());
         copy.setSelfPreservationIndex(getSelfPreservationIndex());
         copy.setVerbosity(getVerbosity());
+        copy.setPathCalculationThreads(getPathCalculationThreads());
         for (final String t : getStrategicBuildingTargets()) {
             copy.addStrategicTarget(t);
         }
@@ -168,6 +170,45 @@ public class BehaviorSettings {
         this.verbosity = verbosity;
     }
 
+    /**
+     * How many threads may be used to enumerate and rank the paths of my units.
+     *
+     * @return The configured number of threads, or 0 to use one per available processor.
+     */
+    public int getPathCalculationThreads() {
+        return pathCalculationThreads;
+    }
+
+    /**
+     * @return The number of threads to use to enumerate and rank paths; at least 1.
+     */
+    public int getEffectivePathCalculationThreads() {
+        if (0 == pathCalculationThreads) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return pathCalculationThreads;
+    }
+
+    /**
+     * @param pathCalculationThreads The number of threads that may be used to enumerate and rank paths, or 0 to
+     *                               use one per available processor. Negative counts are replaced by 1, which
+     *                               calculates the paths on the bot's own thread.
+     */
+    public void setPathCalculationThreads(final int pathCalculationThreads) {
+        this.pathCalculationThreads = (pathCalculationThreads < 0) ? 1 : pathCalculationThreads;
+    }
+
+    /**
+     * @param pathCalculationThreads The number ["0"-...] of threads that may be used to enumerate and rank paths.
+     */
+    public void setPathCalculationThreads(final String pathCalculationThreads) throws PrincessException {
+        try {
+            setPathCalculationThreads(Integer.parseInt(pathCalculationThreads));
+        } catch (final NumberFormatException ex) {
+            throw new PrincessException(ex);
+        }
+    }
+
     /**
      * @return TRUE if I should immediately proceed to my home board edge.
      */
@@ -692,6 +733,8 @@ public class BehaviorSettings {
                 setBraveryIndex(child.getTextContent());
             } else if ("verbosity".equalsIgnoreCase(child.getNodeName())) {
                 setVerbosity(LogLevel.getLogLevel(child.getTextContent()));
+            } else if ("pathCalculationThreads".equalsIgnoreCase(child.getNodeName())) {
+                setPathCalculationThreads(child.getTextContent());
             } else if ("strategicTargets".equalsIgnoreCase(child.getNodeName())) {
                 final NodeList targets = child.getChildNodes();
                 for (int j = 0; j < targets.getLength(); j++) {
@@ -773,6 +816,10 @@ public class BehaviorSettings {
             verbosityNode.setTextContent(getVerbosity().toString());
             behavior.appendChild(verbosityNode);
 
+            final Element pathCalculationThreadsNode = doc.createElement("pathCalculationThreads");
+            pathCalculationThreadsNode.setTextContent("" + getPathCalculationThreads());
+            behavior.appendChild(pathCalculationThreadsNode);
+
             final Element targetsNode = doc.createElement("strategicBuildingTargets");
             if (includeTargets) {
                 for (final String t : getStrategicBuildingTargets()) {
@@ -811,6 +858,7 @@ public class BehaviorSettings {
         out.append("\n\tBravery: ").append(getBraveryIndex());
         out.append("\n\tHerd Mentality: ").append(getHerdMentalityIndex());
         out.append("\n\tVerbosity: ").append(getVerbosity());
+        out.append("\n\tPath Calculation Threads: ").append(getPathCalculationThreads());
         out.append("\n\tTargets:");
         out.append("\n\t\tCoords: ");
         for (final String t : getStrategicBuildingTargets()) {
@@ -838,6 +886,7 @@ public class BehaviorSettings {
         if (herdMentalityIndex != that.herdMentalityIndex) return false;
         if (hyperAggressionIndex != that.hyperAggressionIndex) return false;
         if (selfPreservationIndex != that.selfPreservationIndex) return false;
+        if (pathCalculationThreads != that.pathCalculationThreads) return false;
         if (!description.equals(that.description)) return false;
         if (destinationEdge != that.destinationEdge) return false;
         if (retreatEdge != that.retreatEdge) return false;
@@ -869,6 +918,7 @@ public class BehaviorSettings {
         result = 31 * result + (null != priorityUnitTargets ? priorityUnitTargets.hashCode() : 0);
         result = 31 * result + herdMentalityIndex;
         result = 31 * result + braveryIndex;
+        result = 31 * result + pathCalculationThreads;
         return result;
     }
 }
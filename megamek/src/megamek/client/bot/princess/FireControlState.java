@@ -1,10 +1,10 @@
 package megamek.client.bot.princess;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import megamek.common.Entity;
 import megamek.common.Targetable;
@@ -24,12 +24,12 @@ public class FireControlState {
     
     public FireControlState() {
         additionalTargets = new ArrayList<>();
-        entityIDFStates = new HashMap<>();
+        entityIDFStates = new ConcurrentHashMap<>();
         orderedFiringEntities = new LinkedList<>();
-        weaponRanges = new HashMap<>();
-        airborneTargetWeaponRanges = new HashMap<>();
-        isCommander = new HashMap<>();
-        isSubCommander = new HashMap<>();
+        weaponRanges = new ConcurrentHashMap<>();
+        airborneTargetWeaponRanges = new ConcurrentHashMap<>();
+        isCommander = new ConcurrentHashMap<>();
+        isSubCommander = new ConcurrentHashMap<>();
     }
     
     /**
@@ -81,11 +81,11 @@ public class InfantryPathRanker extends BasicPathRanker implements IPathRanker {
          getOwner().getBehaviorSettings().getBraveryValue();
         double braveryMod = (maximumDamageDone * braveryValue) - expectedDamageTaken;
         formula.append(" + braveryMod [")
-        .append(LOG_DECIMAL.format(braveryMod)).append(" = ")
+        .append(LOG_DECIMAL.get().format(braveryMod)).append(" = ")
         .append("((")
-        .append(LOG_DECIMAL.format(maximumDamageDone)).append(" * ")
-        .append(LOG_DECIMAL.format(braveryValue)).append(") - ")
-        .append(LOG_DECIMAL.format(expectedDamageTaken)).append("]");
+        .append(LOG_DECIMAL.get().format(maximumDamageDone)).append(" * ")
+        .append(LOG_DECIMAL.get().format(braveryValue)).append(") - ")
+        .append(LOG_DECIMAL.get().format(expectedDamageTaken)).append("]");
         double utility = braveryMod;
         
         // If an infantry unit is not in range to do damage,
@@ -68,6 +68,7 @@ public class PathEnumerator {
     private final Map<Integer, ConvexBoardArea> unitMovableAreas = new ConcurrentHashMap<>();
     private final Map<Integer, Set<CoordFacingCombo>> unitPotentialLocations = new ConcurrentHashMap<>();
     private final Map<Integer, CoordFacingCombo> lastKnownLocations = new ConcurrentHashMap<>();
+    private final Map<Integer, Object> entityLocks = new ConcurrentHashMap<>();
 
     private AtomicBoolean mapHasBridges = null;
     private final Object BRIDGE_LOCK = new Object();
@@ -93,6 +94,18 @@ public class PathEnumerator {
         }
     }
 
+    /**
+     * Forgets everything known about a unit that has been removed from the game.
+     */
+    void removeEntity(final int entityId) {
+        getLastKnownLocations().remove(entityId);
+        getUnitMovableAreas().remove(entityId);
+        getUnitPaths().remove(entityId);
+        getUnitPotentialLocations().remove(entityId);
+        getLongRangePaths().remove(entityId);
+        entityLocks.remove(entityId);
+    }
+
     Coords getLastKnownCoords(Integer entityId) {
         CoordFacingCombo ccr = getLastKnownLocations().get(entityId);
         if (ccr == null) {
@@ -147,9 +160,16 @@ public class PathEnumerator {
 
     /**
      * Calculate what to do on my turn.
-     * Has a retry mechanism for when the turn calculation fails due to concurrency issues
+     * Has a retry mechanism for when the turn calculation fails due to concurrency issues.
+     * The moves of different units may be calculated concurrently; those of a single unit never are.
      */
-    public synchronized void recalculateMovesFor(final Entity mover) {
+    public void recalculateMovesFor(final Entity mover) {
+        synchronized (entityLocks.computeIfAbsent(mover.getId(), id -> new Object())) {
+            recalculateMovesForLocked(mover);
+        }
+    }
+
+    private void recalculateMovesForLocked(final Entity mover) {
         int retryCount = 0;
         boolean success = false;
         
@@ -21,6 +21,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import megamek.client.bot.princess.UnitBehavior.BehaviorType;
 import megamek.client.ui.SharedUtility;
@@ -104,24 +106,39 @@ public abstract class PathRanker implements IPathRanker {
         BigDecimal interval = new BigDecimal(5);
         
         boolean pathsHaveExpectedDamage = false;
-        
-        for (MovePath path : validPaths) {
-            count = count.add(BigDecimal.ONE);
+
+        // Rank the paths on the pool if there is one, but collect the results in order on this thread
+        ForkJoinPool pool = getOwner().acquirePathCalculationPool();
+        try {
+            List<ForkJoinTask<RankedPath>> rankings = new ArrayList<>(validPaths.size());
+            if (pool != null) {
+                for (MovePath path : validPaths) {
+                    rankings.add(pool.submit(() -> rankPath(path, game, maxRange, fallTolerance,
+                            startingHomeDistance, enemies, allyCenter)));
+                }
+            }
+
+            for (int i = 0; i < validPaths.size(); i++) {
+                count = count.add(BigDecimal.ONE);
             
-            RankedPath rankedPath = rankPath(path, game, maxRange, fallTolerance, startingHomeDistance, enemies,
-                    allyCenter);
+                RankedPath rankedPath = (pool != null) ? rankings.get(i).join()
+                        : rankPath(validPaths.get(i), game, maxRange, fallTolerance, startingHomeDistance, enemies,
+                                allyCenter);
             
-            returnPaths.add(rankedPath);
+                returnPaths.add(rankedPath);
             
-            // we want to keep track of if any of the paths we've considered have some kind of damage potential
-            pathsHaveExpectedDamage |= (rankedPath.getExpectedDamage() > 0);
+                // we want to keep track of if any of the paths we've considered have some kind of damage potential
+                pathsHaveExpectedDamage |= (rankedPath.getExpectedDamage() > 0);
             
-            BigDecimal percent = count.divide(numberPaths, 2, RoundingMode.DOWN).multiply(new BigDecimal(100))
-                                      .round(new MathContext(0, RoundingMode.DOWN));
-            if (percent.compareTo(interval) >= 0) {
-                getOwner().sendChat("... " + percent.intValue() + "% complete.", LogLevel.INFO);
-                interval = percent.add(new BigDecimal(5));
+                BigDecimal percent = count.divide(numberPaths, 2, RoundingMode.DOWN).multiply(new BigDecimal(100))
+                                          .round(new MathContext(0, RoundingMode.DOWN));
+                if (percent.compareTo(interval) >= 0) {
+                    getOwner().sendChat("... " + percent.intValue() + "% complete.", LogLevel.INFO);
+                    interval = percent.add(new BigDecimal(5));
+                }
             }
+        } finally {
+            getOwner().releasePathCalculationPool(pool);
         }
         
         Entity mover = movePaths.get(0).getEntity();
@@ -1,7 +1,7 @@
 package megamek.client.bot.princess;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import megamek.common.Coords;
 import megamek.common.MovePath;
@@ -12,8 +12,8 @@ import megamek.common.MovePath;
  *
  */
 public class PathRankerState {
-    private Map<MovePath.Key, Double> pathSuccessProbabilities = new HashMap<>();
-    private Map<Coords, Double> incomingFriendlyArtilleryDamage = new HashMap<>();
+    private Map<MovePath.Key, Double> pathSuccessProbabilities = new ConcurrentHashMap<>();
+    private Map<Coords, Double> incomingFriendlyArtilleryDamage = new ConcurrentHashMap<>();
     
     /**
      * The map of success probabilities for given move paths.
@@ -35,8 +35,9 @@ import java.text.NumberFormat;
  * @since 12/18/13 1:29 PM
  */
 public class PhysicalInfo {
-    private static final NumberFormat LOG_PER = NumberFormat.getPercentInstance();
-    private static final NumberFormat LOG_DEC = DecimalFormat.getInstance();
+    // formats are not thread safe, and paths may be ranked on several threads at once
+    private static final ThreadLocal<NumberFormat> LOG_PER = ThreadLocal.withInitial(NumberFormat::getPercentInstance);
+    private static final ThreadLocal<NumberFormat> LOG_DEC = ThreadLocal.withInitial(DecimalFormat::getInstance);
 
     private Entity shooter;
     private Targetable target;
@@ -382,11 +383,11 @@ public class PhysicalInfo {
     }
 
     String getDebugDescription() {
-        return getAttackType().toString() + " P. Hit: " + LOG_PER.format(getProbabilityToHit())
-               + ", Max Dam: " + LOG_DEC.format(getMaxDamage())
-               + ", Exp. Dam: " + LOG_DEC.format(getExpectedDamageOnHit())
-               + ", Num Crits: " + LOG_DEC.format(getExpectedCriticals())
-               + ", Kill Prob: " + LOG_PER.format(getKillProbability());
+        return getAttackType().toString() + " P. Hit: " + LOG_PER.get().format(getProbabilityToHit())
+               + ", Max Dam: " + LOG_DEC.get().format(getMaxDamage())
+               + ", Exp. Dam: " + LOG_DEC.get().format(getExpectedDamageOnHit())
+               + ", Num Crits: " + LOG_DEC.get().format(getExpectedCriticals())
+               + ", Kill Prob: " + LOG_PER.get().format(getKillProbability());
 
     }
 }
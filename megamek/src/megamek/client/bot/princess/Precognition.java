@@ -15,7 +15,6 @@ package megamek.client.bot.princess;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
@@ -26,6 +25,8 @@ import java.util.TreeSet;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -33,8 +34,8 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import megamek.client.bot.princess.BotGeometry.CoordFacingCombo;
 import megamek.common.Board;
 import megamek.common.Building;
-import megamek.common.ComputeECM;
 import megamek.common.Coords;
+import megamek.common.ECMField;
 import megamek.common.ECMInfo;
 import megamek.common.Entity;
 import megamek.common.Flare;
@@ -92,9 +93,10 @@ public class Precognition implements Runnable {
     /**
      * Computing ECMInfo requires iterating over all Entities in the Game and 
      * this can be an expensive operation, so it's cheaper to use cache it and
-     * re-use the cache.
+     * re-use the cache.  The field is updated in place after each batch of
+     * events, touching only the E(C)CM that changed.
      */
-    private List<ECMInfo> ecmInfo;
+    private final ECMField ecmField;
         
     private PathEnumerator pathEnumerator;
     private final ReentrantReadWriteLock PATH_ENUMERATOR_LOCK = new ReentrantReadWriteLock();
@@ -128,8 +130,7 @@ public class Precognition implements Runnable {
         });
         setPathEnumerator(new PathEnumerator(owner, getGame()));
         // Initialize ECM Info, especially important if Princess added mid-game
-        ecmInfo = ComputeECM.computeAllEntitiesECMInfo(
-                getGame().getEntitiesVector());
+        ecmField = new ECMField(getGame());
     }
     
     /**
@@ -389,25 +390,43 @@ public class Precognition implements Runnable {
                     dirtifyUnit(entity.getId());
                 }
             }
-            while (!getDirtyUnits().isEmpty()) {
-                // If Precog is done, just exit
-                if (getDone().get()) {
-                    return;
-                }
+            // The paths of different units are independent, so they can be recalculated in parallel
+            final ForkJoinPool pool = getOwner().acquirePathCalculationPool();
+            try {
+                final List<ForkJoinTask<?>> recalculations = new ArrayList<>();
+                while (!getDirtyUnits().isEmpty()) {
+                    // If Precog is done, just exit
+                    if (getDone().get()) {
+                        return;
+                    }
                 
-                Integer entityId = getDirtyUnits().pollFirst();
-                Entity entity = getGame().getEntity(entityId);
-                if (entity != null) {
-                    getOwner().getLogger().debug("recalculating paths for " + entity.getDisplayName());
-                    getPathEnumerator().recalculateMovesFor(entity);
-                    getOwner().getLogger().debug("finished recalculating paths for " + entity.getDisplayName());
+                    Integer entityId = getDirtyUnits().pollFirst();
+                    Entity entity = getGame().getEntity(entityId);
+                    if (entity != null) {
+                        if (pool != null) {
+                            recalculations.add(pool.submit(() -> recalculateMovesFor(entity)));
+                        } else {
+                            recalculateMovesFor(entity);
+                        }
+                    }
+                }
+                for (ForkJoinTask<?> recalculation : recalculations) {
+                    recalculation.join();
                 }
+            } finally {
+                getOwner().releasePathCalculationPool(pool);
             }
         } finally {
             getOwner().getLogger().methodEnd();
         }
     }
 
+    private void recalculateMovesFor(final Entity entity) {
+        getOwner().getLogger().debug("recalculating paths for " + entity.getDisplayName());
+        getPathEnumerator().recalculateMovesFor(entity);
+        getOwner().getLogger().debug("finished recalculating paths for " + entity.getDisplayName());
+    }
+
     public void run() {
         getOwner().getLogger().methodBegin();
 
@@ -417,8 +436,7 @@ public class Precognition implements Runnable {
             while (!getDone().get()) {
                 if (!getEventsToProcess().isEmpty()) {
                     processGameEvents();
-                    ecmInfo = ComputeECM.computeAllEntitiesECMInfo(
-                            getGame().getEntitiesVector());
+                    ecmField.update();
                 } else if (!getDirtyUnits().isEmpty()) {
                     Entity entity = getGame().getEntity(getDirtyUnits().pollFirst());
                     if ((entity != null) && isEntityOnMap(entity)) {
@@ -556,10 +574,7 @@ public class Precognition implements Runnable {
             // first of all, if a unit has been removed, remove it from the list and
             // stop
             if (getGame().getEntity(id) == null) {
-                getPathEnumerator().getLastKnownLocations().remove(id);
-                getPathEnumerator().getUnitMovableAreas().remove(id);
-                getPathEnumerator().getUnitPaths().remove(id);
-                getPathEnumerator().getUnitPotentialLocations().remove(id);
+                getPathEnumerator().removeEntity(id);
                 return;
             }
             // if a unit has moved or deployed, then it becomes dirty, and any units
@@ -649,7 +664,8 @@ public class Precognition implements Runnable {
     }
     
     public List<ECMInfo> getECMInfo() {
-        return Collections.unmodifiableList(ecmInfo);
+        // The field is a list that can't be modified
+        return ecmField;
     }
 
     private ConcurrentSkipListSet<Integer> getDirtyUnits() {
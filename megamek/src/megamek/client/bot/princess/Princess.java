@@ -22,12 +22,15 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 import megamek.client.bot.BotClient;
 import megamek.client.bot.ChatProcessor;
@@ -111,6 +114,10 @@ public class Princess extends BotClient {
     private double moveEvaluationTimeEstimate = 0;
     private final Precognition precognition;
     private final Thread precogThread;
+    private ForkJoinPool pathCalculationPool;
+    /** How many calculations are currently using each pool; guarded by pathCalculationPoolLock */
+    private final Map<ForkJoinPool, Integer> pathCalculationPoolUsers = new IdentityHashMap<>();
+    private final Object pathCalculationPoolLock = new Object();
     /**
      * Mapping to hold the damage allocated to each targetable, stored by ID.
      * Used to allocate damage more intelligently and avoid overkill.
@@ -293,6 +300,68 @@ public class Princess extends BotClient {
     Precognition getPrecognition() {
         return precognition;
     }
+
+    /**
+     * Returns the pool on which paths are enumerated and ranked, sized according to the behavior settings. Every
+     * call must be matched by a call to {@link #releasePathCalculationPool(ForkJoinPool)} once the calculation is
+     * done. A pool that is replaced because the settings changed is only shut down after all of its calculations
+     * have released it.
+     *
+     * @return The pool, or null if paths should be calculated on the calling thread.
+     */
+    ForkJoinPool acquirePathCalculationPool() {
+        final int threads = getBehaviorSettings().getEffectivePathCalculationThreads();
+        synchronized (pathCalculationPoolLock) {
+            if ((null != pathCalculationPool) && (pathCalculationPool.getParallelism() != threads)) {
+                shutdownPathCalculationPool();
+            }
+            if ((threads > 1) && (null == pathCalculationPool)) {
+                pathCalculationPool = new ForkJoinPool(threads, pool -> {
+                    final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                            .newThread(pool);
+                    thread.setName("Princess-paths (" + getName() + ")-" + thread.getPoolIndex());
+                    return thread;
+                }, null, false);
+            }
+            if (null != pathCalculationPool) {
+                pathCalculationPoolUsers.merge(pathCalculationPool, 1, Integer::sum);
+            }
+            return pathCalculationPool;
+        }
+    }
+
+    /**
+     * @param pool The pool returned by {@link #acquirePathCalculationPool()}, may be null.
+     */
+    void releasePathCalculationPool(final ForkJoinPool pool) {
+        if (null == pool) {
+            return;
+        }
+        synchronized (pathCalculationPoolLock) {
+            final Integer users = pathCalculationPoolUsers.merge(pool, -1, Integer::sum);
+            if ((null != users) && (users <= 0)) {
+                pathCalculationPoolUsers.remove(pool);
+                if (pool != pathCalculationPool) {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops using the current pool. It is shut down now if no calculation is using it, otherwise when the last one
+     * releases it.
+     */
+    private void shutdownPathCalculationPool() {
+        synchronized (pathCalculationPoolLock) {
+            if (null != pathCalculationPool) {
+                if (!pathCalculationPoolUsers.containsKey(pathCalculationPool)) {
+                    pathCalculationPool.shutdown();
+                }
+                pathCalculationPool = null;
+            }
+        }
+    }
     
     public int getMaxWeaponRange(Entity entity) {
         return getMaxWeaponRange(entity, false);
@@ -1834,6 +1903,7 @@ public class Princess extends BotClient {
             precognition.signalDone();
             precogThread.interrupt();
         }
+        shutdownPathCalculationPool();
     }
 
     @Override
@@ -1940,6 +2010,7 @@ public class Princess extends BotClient {
             precognition.signalDone();
             precogThread.interrupt();
         }
+        shutdownPathCalculationPool();
         super.disconnected();
     }
 
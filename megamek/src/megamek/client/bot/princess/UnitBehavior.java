@@ -1,7 +1,7 @@
 package megamek.client.bot.princess;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import megamek.common.Entity;
 
@@ -23,7 +23,7 @@ public class UnitBehavior {
         NoPathToDestination
     }
     
-    private Map<Integer, BehaviorType> entityBehaviors = new HashMap<>();
+    private Map<Integer, BehaviorType> entityBehaviors = new ConcurrentHashMap<>();
     
     /**
      * Worker function that calculates a unit's desired behavior
@@ -45,8 +45,9 @@ import megamek.common.weapons.capitalweapons.CapitalMissileWeapon;
  * @since: 11/24/14 2:50 PM
  */
 public class WeaponFireInfo {
-    private static final NumberFormat LOG_PER = NumberFormat.getPercentInstance();
-    private static final NumberFormat LOG_DEC = DecimalFormat.getInstance();
+    // formats are not thread safe, and paths may be ranked on several threads at once
+    private static final ThreadLocal<NumberFormat> LOG_PER = ThreadLocal.withInitial(NumberFormat::getPercentInstance);
+    private static final ThreadLocal<NumberFormat> LOG_DEC = ThreadLocal.withInitial(DecimalFormat::getInstance);
 
     private WeaponAttackAction action;
     private Entity shooter;
@@ -542,7 +543,7 @@ public class WeaponFireInfo {
         setProbabilityToHit(Compute.oddsAbove(getToHit().getValue(), getShooterState().hasNaturalAptGun()) / 100);
         
         if (debugging) {
-            msg.append("\n\tHit Chance: ").append(LOG_PER.format(getProbabilityToHit()));
+            msg.append("\n\tHit Chance: ").append(LOG_PER.get().format(getProbabilityToHit()));
         }
 
         // now that we've calculated hit odds, if we're shooting
@@ -563,7 +564,7 @@ public class WeaponFireInfo {
         setMaxDamage(getExpectedDamageOnHit());
         
         if (debugging) {
-            msg.append("\n\tMax Damage: ").append(LOG_DEC.format(maxDamage));
+            msg.append("\n\tMax Damage: ").append(LOG_DEC.get().format(maxDamage));
         }
 
         final double expectedCriticalHitCount = ProbabilityCalculator.getExpectedCriticalHitCount();
@@ -657,11 +658,11 @@ public class WeaponFireInfo {
     }
 
     String getDebugDescription() {
-        return getWeapon().getName() + " P. Hit: " + LOG_PER.format(getProbabilityToHit())
-                + ", Max Dam: " + LOG_DEC.format(getMaxDamage())
-                + ", Exp. Dam: " + LOG_DEC.format(getExpectedDamageOnHit())
-                + ", Num Crits: " + LOG_DEC.format(getExpectedCriticals())
-                + ", Kill Prob: " + LOG_PER.format(getKillProbability());
+        return getWeapon().getName() + " P. Hit: " + LOG_PER.get().format(getProbabilityToHit())
+                + ", Max Dam: " + LOG_DEC.get().format(getMaxDamage())
+                + ", Exp. Dam: " + LOG_DEC.get().format(getExpectedDamageOnHit())
+                + ", Num Crits: " + LOG_DEC.get().format(getExpectedCriticals())
+                + ", Kill Prob: " + LOG_PER.get().format(getKillProbability());
 
     }
 
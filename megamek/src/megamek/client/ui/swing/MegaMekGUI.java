@@ -40,9 +40,7 @@ import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
 import java.awt.Window;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -50,7 +48,6 @@ import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Vector;
-import java.util.zip.GZIPInputStream;
 
 import javax.swing.ImageIcon;
 import javax.swing.JComponent;
@@ -64,8 +61,6 @@ import javax.swing.ToolTipManager;
 import javax.swing.UIManager;
 import javax.swing.filechooser.FileFilter;
 
-import com.thoughtworks.xstream.XStream;
-
 import megamek.MegaMek;
 import megamek.client.Client;
 import megamek.client.bot.BotClient;
@@ -100,8 +95,8 @@ import megamek.common.preference.IPreferenceChangeListener;
 import megamek.common.preference.PreferenceChangeEvent;
 import megamek.common.preference.PreferenceManager;
 import megamek.common.util.ImageUtil;
-import megamek.common.util.SerializationHelper;
 import megamek.common.util.fileUtils.MegaMekFile;
+import megamek.server.GameSnapshot;
 import megamek.server.ScenarioLoader;
 import megamek.server.Server;
 
@@ -530,7 +525,8 @@ public class MegaMekGUI  implements IPreferenceChangeListener, IMegaMekGUI {
         fc.setFileFilter(new FileFilter() {
             @Override
             public boolean accept(File dir) {
-                return ((dir.getName().endsWith(".sav") || dir.getName().endsWith(".sav.gz") || dir.isDirectory()));
+                return ((dir.getName().endsWith(".sav") || dir.getName().endsWith(".sav.gz")
+                        || dir.getName().endsWith(GameSnapshot.BINARY_EXTENSION) || dir.isDirectory()));
             }
 
             @Override
@@ -545,9 +541,8 @@ public class MegaMekGUI  implements IPreferenceChangeListener, IMegaMekGUI {
         }
 
         IGame newGame = null;
-        try (InputStream is = new FileInputStream(fc.getSelectedFile()); InputStream gzi = new GZIPInputStream(is)) {
-            XStream xstream = SerializationHelper.getXStream();
-            newGame = (IGame) xstream.fromXML(gzi);
+        try {
+            newGame = GameSnapshot.readSaveGame(fc.getSelectedFile());
         } catch (Exception e) {
             MegaMek.getLogger().error("Unable to load file: " + fc.getSelectedFile(), e);
             JOptionPane.showMessageDialog(frame, Messages.getString("MegaMek.LoadGameAlert.message"),
@@ -23,6 +23,11 @@ import java.awt.Color;
 import java.awt.event.ActionEvent;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -31,12 +36,15 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
 
 import megamek.MegaMek;
 import megamek.client.event.BoardViewEvent;
@@ -54,6 +62,11 @@ import megamek.common.actions.AirmechRamAttackAction;
 import megamek.common.actions.ChargeAttackAction;
 import megamek.common.actions.DfaAttackAction;
 import megamek.common.actions.RamAttackAction;
+import megamek.common.event.GameBoardChangeEvent;
+import megamek.common.event.GameBoardNewEvent;
+import megamek.common.event.GameEntityChangeEvent;
+import megamek.common.event.GameEntityNewEvent;
+import megamek.common.event.GameEntityRemoveEvent;
 import megamek.common.event.GamePhaseChangeEvent;
 import megamek.common.event.GameTurnChangeEvent;
 import megamek.common.options.GameOptions;
@@ -292,6 +305,31 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
      */
     private List<Entity> towedUnits = null;
 
+    /**
+     * How often a running movement envelope computation shows the hexes it
+     * has reached so far, in milliseconds.
+     */
+    private static final long ENVELOPE_UPDATE_INTERVAL = 100;
+
+    /** The movement envelope being computed in the background, if any */
+    private EnvelopeWorker envelopeWorker;
+
+    /** The longest path being computed in the background, if any */
+    private LongestPathWorker longestPathWorker;
+
+    /**
+     * The copy of the game the background path finders run in, see
+     * {@link #copyForWorker(MovePath)}. Shared by the finders, which only
+     * read it, until the game changes.
+     */
+    private IGame workerGame;
+
+    /**
+     * The movement envelopes computed during the current turn. Units only
+     * move between turns, so an envelope stays valid until the turn changes.
+     */
+    private final Map<EnvelopeKey, Map<Coords, Integer>> envelopeCache = new HashMap<>();
+
     public static final int GEAR_LAND = 0;
     public static final int GEAR_BACKUP = 1;
     public static final int GEAR_JUMP = 2;
@@ -527,6 +565,7 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
                             computeMovementEnvelope(clientgui.mechD
                                     .getCurrentEntity());
                         } else {
+                            cancelMovementEnvelope();
                             clientgui.bv.clearMovementEnvelope();
                         }
                     }
@@ -1034,6 +1073,9 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
             tt = null;
         }
 
+        cancelMovementEnvelope();
+        cancelLongestPath();
+
         // end my turn, then.
         disableButtons();
         Entity next = clientgui.getClient().getGame()
@@ -1138,6 +1180,8 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
         // clear board cursors
         clientgui.getBoardView().select(null);
         clientgui.getBoardView().cursor(null);
+        cancelMovementEnvelope();
+        cancelLongestPath();
         clientgui.getBoardView().clearMovementEnvelope();
 
         if (ce == null) {
@@ -1560,6 +1604,8 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
         }
 
         disableButtons();
+        cancelMovementEnvelope();
+        cancelLongestPath();
         clientgui.bv.clearMovementData();
         clientgui.bv.clearMovementEnvelope();
         if (ce().hasUMU()) {
@@ -1587,6 +1633,9 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
      * Returns new MovePath for the currently selected movement type
      */
     private void currentMove(Coords dest) {
+        if ((gear != GEAR_LONGEST_WALK) && (gear != GEAR_LONGEST_RUN)) {
+            cancelLongestPath();
+        }
         if (shiftheld || (gear == GEAR_TURN)) {
             cmd.rotatePathfinder(cmd.getFinalCoords().direction(dest), false);
         } else if ((gear == GEAR_JUMP)
@@ -1696,33 +1745,162 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
             if (gear == GEAR_LONGEST_WALK) {
                 maxMp = ce().getWalkMP();
                 stepType = MoveStepType.BACKWARDS;
-                gear = GEAR_BACKUP;
             } else {
                 maxMp = ce().getRunMPwithoutMASC();
                 stepType = MoveStepType.FORWARDS;
-                gear = GEAR_LAND;
             }
 
+            // The longest paths from the start of the move don't depend on the
+            // destination, so while they are being computed only the
+            // destination needs to follow the mouse
+            if ((longestPathWorker != null) && longestPathWorker.startsFrom(cmd, maxMp, stepType)) {
+                longestPathWorker.dest = dest;
+            } else {
+                cancelLongestPath();
+                MovePath start = copyForWorker(cmd);
+                if (start != null) {
+                    longestPathWorker = new LongestPathWorker(cmd.clone(), start, maxMp, stepType, dest);
+                    longestPathWorker.execute();
+                }
+            }
+            return;
+        }
+        clientgui.bv.setWeaponFieldofFire(ce(), cmd);
+    }
+
+    /**
+     * Stops the longest path computation that is running, if any.
+     */
+    private void cancelLongestPath() {
+        if (longestPathWorker != null) {
+            longestPathWorker.cancel(false);
+            longestPathWorker = null;
+        }
+    }
+
+    /**
+     * Copies the path and its unit for a path finder that runs off the event
+     * thread. Compiling steps changes the moving unit, e.g. whether it is
+     * jumping, and the event thread keeps changing the game, so the finder
+     * must not touch the units the interface shows. The rest of the game is
+     * copied once and shared until a game event changes it.
+     *
+     * @return the copied path, bound to the copies of the game and the unit,
+     *         or null if they could not be copied
+     */
+    private MovePath copyForWorker(MovePath path) {
+        try {
+            if (workerGame == null) {
+                IGame game = (IGame) serialCopy(path.getGame());
+                for (Entity e : game.getEntitiesVector()) {
+                    e.setGame(game);
+                }
+                workerGame = game;
+            }
+            // The steps refer to the unit, so both are copied together
+            Object[] copies = (Object[]) serialCopy(new Object[] { path.getEntity(), path });
+            Entity entity = (Entity) copies[0];
+            MovePath copy = (MovePath) copies[1];
+            entity.setGame(workerGame);
+            copy.setGame(workerGame);
+            copy.setEntity(entity);
+            return copy;
+        } catch (IOException | ClassNotFoundException e) {
+            MegaMek.getLogger().error("Could not copy the game for path finding", e);
+            return null;
+        }
+    }
+
+    private static Object serialCopy(Object o) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(o);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+
+    /**
+     * Finds the longest paths from the start of a move off the event thread.
+     * The finder works on a copy of the game; when done, the steps of the
+     * path to the last hovered hex are added to the current move.
+     */
+    private class LongestPathWorker extends SwingWorker<LongestPathFinder, Void> {
+        private final MovePath origin;
+        private final MovePath start;
+        private final int maxMp;
+        private final MoveStepType stepType;
+        private Coords dest;
+
+        /**
+         * @param origin the current move
+         * @param start a copy of the current move made by {@link #copyForWorker(MovePath)}
+         */
+        LongestPathWorker(MovePath origin, MovePath start, int maxMp, MoveStepType stepType, Coords dest) {
+            this.origin = origin;
+            this.start = start;
+            this.maxMp = maxMp;
+            this.stepType = stepType;
+            this.dest = dest;
+        }
+
+        boolean startsFrom(MovePath path, int maxMp, MoveStepType stepType) {
+            return (this.maxMp == maxMp) && (this.stepType == stepType)
+                    && (origin.length() == path.length())
+                    && origin.getFinalCoords().equals(path.getFinalCoords())
+                    && (origin.getFinalFacing() == path.getFinalFacing());
+        }
+
+        @Override
+        protected LongestPathFinder doInBackground() {
             LongestPathFinder lpf;
-            if (ce().isAero()) {
-                lpf = LongestPathFinder.newInstanceOfAeroPath(maxMp, ce()
-                        .getGame());
+            if (start.getEntity().isAero()) {
+                lpf = LongestPathFinder.newInstanceOfAeroPath(maxMp, start.getGame());
             } else {
-                lpf = LongestPathFinder.newInstanceOfLongestPath(maxMp,
-                                                                 stepType, ce().getGame());
+                lpf = LongestPathFinder.newInstanceOfLongestPath(maxMp, stepType, start.getGame());
             }
+            // Off the event thread the search can be given more time than
+            // before without holding up the interface
             final int timeLimit = PreferenceManager.getClientPreferences()
                                                    .getMaxPathfinderTime();
             lpf.addStopCondition(new AbstractPathFinder.StopConditionTimeout<MovePath>(
-                    timeLimit * 4));
+                    timeLimit * 10));
+            lpf.addStopCondition(e -> isCancelled());
+            lpf.run(start);
+            return lpf;
+        }
 
-            lpf.run(cmd);
-            MovePath lPath = lpf.getComputedPath(dest);
-            if (lPath != null) {
-                cmd = lPath;
+        @Override
+        protected void done() {
+            if (isCancelled() || (longestPathWorker != this)) {
+                return;
+            }
+            longestPathWorker = null;
+            // Don't replace anything the player did in the meantime
+            int longestGear = (stepType == MoveStepType.BACKWARDS) ? GEAR_LONGEST_WALK : GEAR_LONGEST_RUN;
+            if ((gear != longestGear) || !startsFrom(cmd, maxMp, stepType)) {
+                return;
             }
+            gear = (stepType == MoveStepType.BACKWARDS) ? GEAR_BACKUP : GEAR_LAND;
+            try {
+                MovePath lPath = get().getComputedPath(dest);
+                if (lPath != null) {
+                    // The path belongs to the copy of the unit; the steps the
+                    // finder added are taken over by the unit itself
+                    Vector<MoveStep> steps = lPath.getStepVector();
+                    MovePath path = origin.clone();
+                    for (int i = origin.length(); i < steps.size(); i++) {
+                        path.addStep(steps.get(i).getType());
+                    }
+                    cmd = path;
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                MegaMek.getLogger().error(e);
+            }
+            clientgui.bv.drawMovementData(ce(), cmd);
+            clientgui.bv.setWeaponFieldofFire(ce(), cmd);
         }
-        clientgui.bv.setWeaponFieldofFire(ce(), cmd);
     }
 
     //
@@ -4341,8 +4519,37 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
     //
     // GameListener
     //
+    @Override
+    public void gameBoardNew(GameBoardNewEvent e) {
+        workerGame = null;
+    }
+
+    @Override
+    public void gameBoardChanged(GameBoardChangeEvent e) {
+        workerGame = null;
+    }
+
+    @Override
+    public void gameEntityNew(GameEntityNewEvent e) {
+        workerGame = null;
+    }
+
+    @Override
+    public void gameEntityRemove(GameEntityRemoveEvent e) {
+        workerGame = null;
+    }
+
+    @Override
+    public void gameEntityChange(GameEntityChangeEvent e) {
+        workerGame = null;
+    }
+
     @Override
     public void gameTurnChange(GameTurnChangeEvent e) {
+        // Units may have moved, so the envelopes are out of date
+        envelopeCache.clear();
+        workerGame = null;
+
         // Are we ignoring events?
         if (isIgnoringEvents()) {
             return;
@@ -4390,6 +4597,9 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
 
     @Override
     public void gamePhaseChange(GamePhaseChangeEvent e) {
+        envelopeCache.clear();
+        workerGame = null;
+
         // In case of a /reset command, ensure the state gets reset
         if (clientgui.getClient().getGame().getPhase() 
                 == IGame.Phase.PHASE_LOUNGE) {
@@ -4417,7 +4627,10 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
      * players turn), then the current gear is used (which is set by the user).
      * If there is no selected entity, then the current gear is invalid, and it
      * defaults to GEAR_LAND (standard "walk forward").
-     * 
+     * <p>
+     * The envelope is computed in the background and shown as it grows; a
+     * computation still running for an earlier call is cancelled.
+     *
      * @param suggestion  The suggested Entity to use to compute the movement
      *                      envelope.  If used, the gear will be set to 
      *                      GEAR_LAND.  This takes precendence over the
@@ -4428,6 +4641,7 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
         // do nothing if deactivated in the settings
         if (!GUIPreferences.getInstance()
                 .getBoolean(GUIPreferences.MOVE_ENVELOPE)) {
+            cancelMovementEnvelope();
             clientgui.bv.clearMovementEnvelope();
             return;
         }
@@ -4445,9 +4659,6 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
         if (en.isDone()) {
             return;
         }
-        
-        Map<Coords, MovePath> mvEnvData = new HashMap<Coords, MovePath>();
-        MovePath mp = new MovePath(clientgui.getClient().getGame(), en);
 
         int maxMP;
         if (mvMode == GEAR_JUMP || mvMode == GEAR_DFA) {
@@ -4468,21 +4679,160 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
         }
         MoveStepType stepType = (mvMode == GEAR_BACKUP) ? MoveStepType.BACKWARDS
                 : MoveStepType.FORWARDS;
+
+        cancelMovementEnvelope();
+        EnvelopeKey key = new EnvelopeKey(en, mvMode, maxMP);
+        Map<Coords, Integer> mvEnvMP = envelopeCache.get(key);
+        if (mvEnvMP != null) {
+            clientgui.bv.setMovementEnvelope(mvEnvMP, en.getWalkMP(), en
+                    .getRunMP(), en.getJumpMP(), mvMode);
+            return;
+        }
+
+        // The envelope is found on a copy of the game, see copyForWorker()
+        MovePath mp = copyForWorker(new MovePath(clientgui.getClient().getGame(), en));
+        if (mp == null) {
+            return;
+        }
         if (mvMode == GEAR_JUMP || mvMode == GEAR_DFA) {
             mp.addStep(MoveStepType.START_JUMP);
         }
+        envelopeWorker = new EnvelopeWorker(key, mp, maxMP, stepType, mvMode);
+        envelopeWorker.execute();
+    }
+
+    /**
+     * Stops the movement envelope computation that is running, if any.
+     */
+    private void cancelMovementEnvelope() {
+        if (envelopeWorker != null) {
+            envelopeWorker.cancel(false);
+            envelopeWorker = null;
+        }
+    }
 
-        ShortestPathFinder pf = ShortestPathFinder.newInstanceOfOneToAll(maxMP,
-                stepType, en.getGame());
-        pf.run(mp);
-        mvEnvData = pf.getAllComputedPaths();
-        Map<Coords, Integer> mvEnvMP = new HashMap<Coords, Integer>(
-                (int) ((mvEnvData.size() * 1.25) + 1));
-        for (Coords c : mvEnvData.keySet()) {
-            mvEnvMP.put(c, mvEnvData.get(c).countMp(mvMode == GEAR_JUMP));
+    /**
+     * Computes a movement envelope off the event thread. The hexes reached so
+     * far are shown while the computation runs; the complete envelope is
+     * cached for the rest of the turn.
+     */
+    private class EnvelopeWorker extends SwingWorker<Map<Coords, Integer>, Map<Coords, Integer>> {
+        private final EnvelopeKey key;
+        private final MovePath start;
+        private final int maxMP;
+        private final MoveStepType stepType;
+        private final int mvMode;
+        private final int walk;
+        private final int run;
+        private final int jump;
+        private long lastUpdate;
+
+        EnvelopeWorker(EnvelopeKey key, MovePath start, int maxMP, MoveStepType stepType, int mvMode) {
+            this.key = key;
+            this.start = start;
+            this.maxMP = maxMP;
+            this.stepType = stepType;
+            this.mvMode = mvMode;
+            walk = start.getEntity().getWalkMP();
+            run = start.getEntity().getRunMP();
+            jump = start.getEntity().getJumpMP();
+        }
+
+        @Override
+        protected Map<Coords, Integer> doInBackground() {
+            ShortestPathFinder pf = ShortestPathFinder.newInstanceOfOneToAll(maxMP,
+                    stepType, start.getGame());
+            lastUpdate = System.currentTimeMillis();
+            pf.addStopCondition(e -> {
+                if (isCancelled()) {
+                    return true;
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastUpdate >= ENVELOPE_UPDATE_INTERVAL) {
+                    lastUpdate = now;
+                    publish(countMp(pf.getAllComputedPaths()));
+                }
+                return false;
+            });
+            pf.run(start);
+            return isCancelled() ? null : countMp(pf.getAllComputedPaths());
+        }
+
+        private Map<Coords, Integer> countMp(Map<Coords, MovePath> mvEnvData) {
+            Map<Coords, Integer> mvEnvMP = new HashMap<Coords, Integer>(
+                    (int) ((mvEnvData.size() * 1.25) + 1));
+            for (Map.Entry<Coords, MovePath> entry : mvEnvData.entrySet()) {
+                mvEnvMP.put(entry.getKey(), entry.getValue().countMp(mvMode == GEAR_JUMP));
+            }
+            return mvEnvMP;
+        }
+
+        @Override
+        protected void process(List<Map<Coords, Integer>> chunks) {
+            if (!isCancelled() && (envelopeWorker == this)) {
+                // only the latest update matters
+                clientgui.bv.setMovementEnvelope(chunks.get(chunks.size() - 1),
+                        walk, run, jump, mvMode);
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled() || (envelopeWorker != this)) {
+                return;
+            }
+            envelopeWorker = null;
+            try {
+                Map<Coords, Integer> mvEnvMP = get();
+                envelopeCache.put(key, mvEnvMP);
+                clientgui.bv.setMovementEnvelope(mvEnvMP, walk, run, jump, mvMode);
+            } catch (InterruptedException | ExecutionException e) {
+                MegaMek.getLogger().error(e);
+            }
+        }
+    }
+
+    /**
+     * Identifies a movement envelope: the unit, where it starts and how it
+     * moves.
+     */
+    private static class EnvelopeKey {
+        private final int entityId;
+        private final Coords position;
+        private final int facing;
+        private final int elevation;
+        private final EntityMovementMode movementMode;
+        private final int mvMode;
+        private final int maxMP;
+
+        EnvelopeKey(Entity entity, int mvMode, int maxMP) {
+            entityId = entity.getId();
+            position = entity.getPosition();
+            facing = entity.getFacing();
+            elevation = entity.getElevation();
+            movementMode = entity.getMovementMode();
+            this.mvMode = mvMode;
+            this.maxMP = maxMP;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof EnvelopeKey)) {
+                return false;
+            }
+            EnvelopeKey other = (EnvelopeKey) obj;
+            return (entityId == other.entityId) && Objects.equals(position, other.position)
+                    && (facing == other.facing) && (elevation == other.elevation)
+                    && (movementMode == other.movementMode) && (mvMode == other.mvMode)
+                    && (maxMP == other.maxMP);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityId, position, facing, elevation, movementMode, mvMode, maxMP);
         }
-        clientgui.bv.setMovementEnvelope(mvEnvMP, en.getWalkMP(), en
-                .getRunMP(), en.getJumpMP(), mvMode);
     }
 
     public void computeModifierEnvelope() {
@@ -4541,6 +4891,13 @@ public class MovementDisplay extends StatusBarPhaseDisplay {
         }
         final String actionCmd = ev.getActionCommand();
         final IOptions opts = clientgui.getClient().getGame().getOptions();
+        // The other buttons change the move or the gear the longest path
+        // is being computed for
+        if (!actionCmd.equals(MoveCommand.MOVE_LONGEST_RUN.getCmd())
+                && !actionCmd.equals(MoveCommand.MOVE_LONGEST_WALK.getCmd())
+                && !ev.getSource().equals(getBtn(MoveCommand.MOVE_MORE))) {
+            cancelLongestPath();
+        }
         if (actionCmd.equals(MoveCommand.MOVE_NEXT.getCmd())) {
             selectEntity(clientgui.getClient().getNextEntityNum(cen));
         } else if (actionCmd.equals(
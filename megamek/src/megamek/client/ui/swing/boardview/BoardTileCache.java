@@ -0,0 +1,119 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.client.ui.swing.boardview;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import megamek.client.ui.swing.util.ImageCache;
+import megamek.common.Coords;
+
+/**
+ * Caches the flat (non-isometric) board in square tiles of a fixed size, one
+ * set of tiles per zoom level. A tile holds the finished hex images of the
+ * area it covers, with terrain, shadows, E(C)CM shading and the field of view
+ * already composited, so painting the board takes a few tile copies instead
+ * of one image per hex. Sprites are not part of the tiles and are painted on
+ * top of them.
+ * <p>
+ * Tiles are addressed in board pixels, the same coordinates as
+ * {@link BoardView1#getHexLocation(Coords)}. When a hex image changes, only
+ * the tiles it overlaps have to be dropped.
+ */
+class BoardTileCache {
+
+    /** The width and height of a tile in pixels */
+    static final int TILE_SIZE = 256;
+
+    /** The most memory the tiles of all zoom levels may use together */
+    private static final long MAX_BYTES = 96L * 1024 * 1024;
+
+    /** The hex width that is not overlapped by the next column of hexes */
+    private static final int HEX_WC = BoardView1.HEX_W - (BoardView1.HEX_W / 4);
+
+    private final ImageCache<Long, BufferedImage> tiles = new ImageCache<>(ImageCache.MAX_SIZE,
+            MAX_BYTES, true, ImageCache::estimateBytes);
+
+    /** The scale of each zoom level that may have tiles in the cache */
+    private final Map<Integer, Float> scales = new ConcurrentHashMap<>();
+
+    /**
+     * @return the tile at the given tile column and row, or null if it isn't
+     *         cached
+     */
+    BufferedImage get(int zoomIndex, int tileX, int tileY) {
+        return tiles.get(key(zoomIndex, tileX, tileY));
+    }
+
+    /**
+     * Caches a tile that was painted at the given zoom level and scale.
+     */
+    void put(int zoomIndex, float scale, int tileX, int tileY, BufferedImage tile) {
+        scales.put(zoomIndex, scale);
+        tiles.put(key(zoomIndex, tileX, tileY), tile);
+    }
+
+    /**
+     * Drops the tiles of all zoom levels that the images of the given hexes
+     * overlap.
+     */
+    void invalidate(Collection<Coords> hexes) {
+        for (Map.Entry<Integer, Float> zoom : scales.entrySet()) {
+            for (Coords c : hexes) {
+                Rectangle area = getHexArea(c, zoom.getValue());
+                int lastX = Math.floorDiv(area.x + area.width - 1, TILE_SIZE);
+                int lastY = Math.floorDiv(area.y + area.height - 1, TILE_SIZE);
+                for (int tileX = Math.floorDiv(area.x, TILE_SIZE); tileX <= lastX; tileX++) {
+                    for (int tileY = Math.floorDiv(area.y, TILE_SIZE); tileY <= lastY; tileY++) {
+                        tiles.remove(key(zoom.getKey(), tileX, tileY));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops all tiles.
+     */
+    void clear() {
+        tiles.clear();
+        scales.clear();
+    }
+
+    /**
+     * @return a short summary of the cache size and counters for display
+     */
+    String getStatistics() {
+        return tiles.getStatistics();
+    }
+
+    /**
+     * Returns the board pixels covered by the image of a hex in the flat
+     * view, the same way BoardView1 places the hex images.
+     */
+    static Rectangle getHexArea(Coords c, float scale) {
+        int y = (c.getY() * (int) (BoardView1.HEX_H * scale))
+                + (((c.getX() & 1) == 1) ? (int) ((BoardView1.HEX_H / 2) * scale) : 0);
+        return new Rectangle(c.getX() * (int) (HEX_WC * scale), y,
+                (int) (BoardView1.HEX_W * scale), (int) (BoardView1.HEX_H * scale));
+    }
+
+    private static Long key(int zoomIndex, int tileX, int tileY) {
+        return ((long) zoomIndex << 42) | ((tileX & 0x1fffffL) << 21) | (tileY & 0x1fffffL);
+    }
+}
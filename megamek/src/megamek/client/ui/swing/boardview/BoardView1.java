@@ -109,6 +109,7 @@ import megamek.common.Compute;
 import megamek.common.ComputeECM;
 import megamek.common.Configuration;
 import megamek.common.Coords;
+import megamek.common.ECMField;
 import megamek.common.ECMInfo;
 import megamek.common.Entity;
 import megamek.common.EntityVisibilityUtils;
@@ -370,7 +371,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
     // Initial scale factor for sprites and map
     float scale = 1.00f;
-    private ImageCache<Integer, Image> scaledImageCache = new ImageCache<>();
+    private ImageCache<Integer, Image> scaledImageCache = new ImageCache<>(ImageCache.MAX_SIZE,
+            ImageCache.DEFAULT_MAX_BYTES, true, ImageCache::estimateBytes);
     private ImageCache<Integer, BufferedImage> shadowImageCache = new ImageCache<>();
 
     private Set<Integer> animatedImages = new HashSet<>();
@@ -419,6 +421,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
     private Map<Coords, Color> eccmHexes = null;
     // hexes that are teh centers of ECCM effects
     private Map<Coords, Color> eccmCenters = null;
+    // the E(C)CM fields of all units, updated as they change
+    private ECMField ecmField = null;
 
     // reference to our timertask for redraw
     private TimerTask ourTask = null;
@@ -463,6 +467,17 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
     */
     ImageCache<Coords, HexImageCacheEntry> hexImageCache;
 
+    /**
+     * Cache of the flat board composited into tiles, built from the hex images
+     */
+    private final BoardTileCache boardTiles = new BoardTileCache();
+
+    /**
+     * The board area that moving unit sprites have covered since the last
+     * repaint, or null if there is none
+     */
+    private Rectangle movingUnitsArea;
+
 
     /**
      * Keeps track of whether all deployment zones should
@@ -516,11 +531,15 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         this.game = game;
         this.clientgui = clientgui;
 
-        hexImageCache = new ImageCache<Coords, HexImageCacheEntry>();
+        // Soft references let the hex images go when memory runs low
+        hexImageCache = new ImageCache<>(ImageCache.MAX_SIZE, ImageCache.DEFAULT_MAX_BYTES, true,
+                entry -> ImageCache.estimateBytes(entry.hexImage));
 
         tileManager = new TilesetManager(this);
         ToolTipManager.sharedInstance().registerComponent(this);
 
+        fovHighlightingAndDarkening = new FovHighlightingAndDarkening(this);
+
         game.addGameListener(gameListener);
         game.getBoard().addBoardListener(this);
         
@@ -736,8 +755,6 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         SpecialHexDisplay.Type.ARTILLERY_AUTOHIT.init();
         SpecialHexDisplay.Type.PLAYER_NOTE.init();
 
-        fovHighlightingAndDarkening = new FovHighlightingAndDarkening(this);
-
         flareImage = ImageUtil.loadImageFromFile(
                 new MegaMekFile(Configuration.miscImagesDir(), FILENAME_FLARE_IMAGE)
                         .toString());
@@ -1278,7 +1295,11 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             updateShadowMap();
         }
 
-        drawHexes(g, g.getClipBounds());
+        if (useIsometric()) {
+            drawHexes(g, g.getClipBounds());
+        } else {
+            drawHexTiles(g, g.getClipBounds());
+        }
 
         // draw wrecks
         if (guip.getShowWrecks() && !useIsometric()) {
@@ -1409,6 +1430,9 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             g.setFont(fpsFont);
             g.setColor(Color.YELLOW);
             g.drawString(s, -getX() + 5, -getY() + 20);
+            g.drawString("Hexes: " + hexImageCache.getStatistics(), -getX() + 5, -getY() + 45);
+            g.drawString("Scaled: " + scaledImageCache.getStatistics(), -getX() + 5, -getY() + 70);
+            g.drawString("Tiles: " + boardTiles.getStatistics(), -getX() + 5, -getY() + 95);
         }
 
         // debugging method that renders the bounding box of a unit's movement envelope.
@@ -2522,13 +2546,66 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                 drawIsometricSprites(g, isometricSprites);
             }
         } else {
-            // Draw hexes without regard to elevation when
-            // not using Isometric, since it does not matter.
-            for (int i = 0; i < drawHeight; i++) {
-                for (int j = 0; j < drawWidth; j++) {
-                    Coords c = new Coords(j + drawX, i + drawY);
-                    drawHex(c, g, saveBoardImage);
+            drawFlatHexes(g, view, saveBoardImage);
+        }
+    }
+
+    /**
+     * Draws the hexes in the specified rectangle without regard to
+     * elevation, as when not using Isometric, where it does not matter.
+     *
+     * @return true if all drawn hex images could be cached
+     */
+    private boolean drawFlatHexes(Graphics g, Rectangle view, boolean saveBoardImage) {
+        double xs = (int) (HEX_WC*scale);
+        double ys = (int) (HEX_H*scale);
+
+        int drawX = (int) (view.x / xs) - 1;
+        int drawY = (int) (view.y / ys) - 1;
+
+        int drawWidth = (int) (view.width / xs) + 3;
+        int drawHeight = (int) (view.height / ys) + 3;
+
+        boolean cacheable = true;
+        for (int i = 0; i < drawHeight; i++) {
+            for (int j = 0; j < drawWidth; j++) {
+                Coords c = new Coords(j + drawX, i + drawY);
+                cacheable &= drawHex(c, g, saveBoardImage);
+            }
+        }
+        return cacheable;
+    }
+
+    /**
+     * Draws the hexes in the specified rectangle from the board tiles,
+     * compositing the tiles that aren't cached yet. Only for the flat view;
+     * the isometric view has to draw the hexes and sprites interleaved.
+     */
+    private void drawHexTiles(Graphics g, Rectangle view) {
+        final int size = BoardTileCache.TILE_SIZE;
+        int firstX = Math.max(0, Math.floorDiv(view.x, size));
+        int firstY = Math.max(0, Math.floorDiv(view.y, size));
+        int lastX = Math.min(Math.floorDiv(view.x + view.width - 1, size),
+                Math.floorDiv(boardSize.width, size));
+        int lastY = Math.min(Math.floorDiv(view.y + view.height - 1, size),
+                Math.floorDiv(boardSize.height, size));
+        for (int tileY = firstY; tileY <= lastY; tileY++) {
+            for (int tileX = firstX; tileX <= lastX; tileX++) {
+                BufferedImage tile = boardTiles.get(zoomIndex, tileX, tileY);
+                if (tile == null) {
+                    tile = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+                    Rectangle area = new Rectangle(tileX * size, tileY * size, size, size);
+                    Graphics2D tileGraph = tile.createGraphics();
+                    tileGraph.translate(-area.x, -area.y);
+                    tileGraph.setClip(area);
+                    // Tiles with animated or unfinished hex images are drawn
+                    // again the next time
+                    if (drawFlatHexes(tileGraph, area, false)) {
+                        boardTiles.put(zoomIndex, scale, tileX, tileY, tile);
+                    }
+                    tileGraph.dispose();
                 }
+                g.drawImage(tile, tileX * size, tileY * size, this);
             }
         }
     }
@@ -2536,11 +2613,14 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
     /**
      * Draws a hex onto the board buffer. This assumes that drawRect is current,
      * and does not check if the hex is visible.
+     *
+     * @return false if the hex image could not be cached, because it is
+     *         animated or not completely loaded
      */
-    private void drawHex(Coords c, Graphics boardGraph,
-                         boolean saveBoardImage) {
+    private boolean drawHex(Coords c, Graphics boardGraph,
+                            boolean saveBoardImage) {
         if (!game.getBoard().contains(c)) {
-            return;
+            return true;
         }
 
         final GUIPreferences guip = GUIPreferences.getInstance();
@@ -2551,7 +2631,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         HexImageCacheEntry cacheEntry = hexImageCache.get(c);
         if ((cacheEntry != null) && !cacheEntry.needsUpdating) {
             boardGraph.drawImage(cacheEntry.hexImage, hexLoc.x, hexLoc.y, this);
-            return;
+            return true;
         }
 
         int level = hex.getLevel();
@@ -2612,7 +2692,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         // If the base image isn't ready, we should signal a repaint and stop
         if ((imgWidth < 0) || (imgHeight < 0)) {
             repaint();
-            return;
+            return false;
         }
 
         BufferedImage hexImage = new BufferedImage(imgWidth, imgHeight,
@@ -2833,7 +2913,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         } catch (Exception e) {
             MegaMek.getLogger().error("Exception, probably can't load file.", e);
             drawCenteredString("Loading Error", 0, (int) (50 * scale), font_note, g);
-            return;
+            return false;
         }
 
         // write hex coordinate unless deactivated or scale factor too small
@@ -2999,6 +3079,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             hexImageCache.put(c, cacheEntry);
         }
         boardGraph.drawImage(cacheEntry.hexImage, hexLoc.x, hexLoc.y, this);
+        return !dontCache;
     }
 
     /**
@@ -3439,6 +3520,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
         // Remove sprite for Entity, so it's not displayed while moving
         if (sprite != null) {
+            addMovingUnitsArea(sprite);
             newSprites = new PriorityQueue<EntitySprite>(entitySprites);
             newSpriteIds = new HashMap<>(entitySpriteIds);
 
@@ -3450,6 +3532,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         }
         // Remove iso sprite for Entity, so it's not displayed while moving
         if (isoSprite != null) {
+            addMovingUnitsArea(isoSprite);
             isoSprites = new PriorityQueue<IsometricSprite>(isometricSprites);
             newIsoSpriteIds = new HashMap<>(isometricSpriteIds);
 
@@ -3467,12 +3550,14 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                 movingEntitySpriteIds);
         // Remove any old movement sprite
         if (mSprite != null) {
+            addMovingUnitsArea(mSprite);
             newMovingSprites.remove(mSprite);
         }
         // Create new movement sprite
         if (entity.getPosition() != null) {
             mSprite = new MovingEntitySprite(this, entity, position, facing,
                     elevation);
+            addMovingUnitsArea(mSprite);
             newMovingSprites.add(mSprite);
             newMovingSpriteIds.put(entityId, mSprite);
         }
@@ -3485,6 +3570,41 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         return movingUnits.size() > 0;
     }
 
+    /**
+     * Adds the area of a sprite that appears, moves or disappears during unit
+     * movement to the area to repaint.
+     */
+    private synchronized void addMovingUnitsArea(Sprite sprite) {
+        Rectangle bounds = sprite.getBounds();
+        if (bounds == null) {
+            return;
+        }
+        if (movingUnitsArea == null) {
+            movingUnitsArea = new Rectangle(bounds);
+        } else {
+            movingUnitsArea.add(bounds);
+        }
+    }
+
+    /**
+     * Repaints only the area that moving units have changed, so moving a unit
+     * doesn't repaint the whole visible board.
+     */
+    private synchronized void repaintMovingUnits() {
+        if (movingUnitsArea != null) {
+            repaintBoardArea(movingUnitsArea);
+            movingUnitsArea = null;
+        }
+    }
+
+    /**
+     * Repaints an area given in board coordinates, as used by the sprites.
+     */
+    void repaintBoardArea(Rectangle area) {
+        // The board is drawn with a padding of one hex
+        repaint(area.x + HEX_W, area.y + HEX_H, area.width, area.height);
+    }
+
     /**
      * Clears the sprite for an entity and prepares it to be re-drawn. Replaces
      * the old sprite with the new! Try to prevent annoying
@@ -3827,8 +3947,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             cursor.setOffScreen();
         }
         // repaint affected area
-        repaint(oldBounds);
-        repaint(cursor.getBounds());
+        repaintBoardArea(oldBounds);
+        repaintBoardArea(cursor.getBounds());
     }
 
     /** Centers the board on hex c. Uses smooth centering
@@ -4799,6 +4919,12 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                 moveWait = 0;
 
                 if (movingUnits.size() == 0) {
+                    for (Sprite sprite : movingEntitySprites) {
+                        addMovingUnitsArea(sprite);
+                    }
+                    for (Sprite sprite : ghostEntitySprites) {
+                        addMovingUnitsArea(sprite);
+                    }
                     movingEntitySpriteIds.clear();
                     movingEntitySprites.clear();
                     ghostEntitySprites.clear();
@@ -5174,6 +5300,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
     public void boardNewBoard(BoardEvent b) {
         updateBoard();
         clearHexImageCache();
+        fovHighlightingAndDarkening.boardChanged();
         clearShadowMap();
         repaint();
     }
@@ -5185,12 +5312,15 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
      * megamek.common.BoardListener#boardChangedHex(megamek.common.BoardEvent)
      */
     public void boardChangedHex(BoardEvent b) {
-        hexImageCache.remove(b.getCoords());
+        Set<Coords> changed = new HashSet<>();
+        changed.add(b.getCoords());
         // Also repaint the surrounding hexes because of shadows, border etc.
         for (int dir: allDirections) { 
-            hexImageCache.remove(b.getCoords().translated(dir));
+            changed.add(b.getCoords().translated(dir));
         }
+        clearHexImageCache(changed);
         clearShadowMap();
+        fovHighlightingAndDarkening.boardChanged();
         repaint();
     }
 
@@ -5203,6 +5333,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
     public synchronized void boardChangedAllHexes(BoardEvent b) {
         clearHexImageCache();
         clearShadowMap();
+        fovHighlightingAndDarkening.boardChanged();
         repaint();
     }
 
@@ -5323,6 +5454,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         @Override
         public void gameBoardChanged(GameBoardChangeEvent e) {
             clearHexImageCache();
+            fovHighlightingAndDarkening.boardChanged();
             boardChanged();
         }
 
@@ -5427,9 +5559,10 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
                         redraw = redraw || disp.slide();
                     }
                 }
-                redraw = redraw || doMoveUnits(currentTime - lastTime);
                 if (redraw) {
                     repaint();
+                } else if (doMoveUnits(currentTime - lastTime)) {
+                    repaintMovingUnits();
                 }
                 centerOnHexSoftStep(currentTime - lastTime);
             }
@@ -5453,6 +5586,18 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         repaint();
     }
 
+    /**
+     * @return the E(C)CM fields of all units, brought up to date
+     */
+    ECMField getECMField() {
+        if (ecmField == null) {
+            ecmField = new ECMField(game);
+        } else {
+            ecmField.update();
+        }
+        return ecmField;
+    }
+
     /**
      *  Updates maps that determine how to shade hexes affected by E(C)CM. This
      *  is expensive, so precalculate only when entity changes occur
@@ -5464,8 +5609,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         Map<Coords, Color> newECCMCenters = new HashMap<Coords, Color>();
 
         // Compute info about all E(C)CM on the board
-        final List<ECMInfo> allEcmInfo = ComputeECM
-                .computeAllEntitiesECMInfo(game.getEntitiesVector());
+        final List<ECMInfo> allEcmInfo = getECMField();
 
         // First, mark the sources of E(C)CM
         // Used for highlighting hexes and tooltips
@@ -5574,15 +5718,12 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
             processAffectedCoords(c, ecm, eccm, newECMHexes, newECCMHexes);
         }
 
+        // Only the hexes whose shading changed need new images
         Set<Coords> updatedHexes = new HashSet<>();
-        if (ecmHexes != null) {
-            updatedHexes.addAll(ecmHexes.keySet());
-        }
-        if (eccmHexes != null) {
-            updatedHexes.addAll(eccmHexes.keySet());
-        }
-        updatedHexes.addAll(newECMHexes.keySet());
-        updatedHexes.addAll(newECCMHexes.keySet());
+        addChangedHexes(updatedHexes, ecmHexes, newECMHexes);
+        addChangedHexes(updatedHexes, ecmCenters, newECMCenters);
+        addChangedHexes(updatedHexes, eccmHexes, newECCMHexes);
+        addChangedHexes(updatedHexes, eccmCenters, newECCMCenters);
         clearHexImageCache(updatedHexes);
 
         synchronized (this) {
@@ -5595,6 +5736,28 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         repaint();
     }
 
+    /**
+     * Adds the hexes that have a different color in the new map than in the
+     * old one, or are only in one of them.
+     */
+    private static void addChangedHexes(Set<Coords> changed, Map<Coords, Color> oldColors,
+            Map<Coords, Color> newColors) {
+        if (oldColors == null) {
+            changed.addAll(newColors.keySet());
+            return;
+        }
+        for (Map.Entry<Coords, Color> entry : oldColors.entrySet()) {
+            if (!Objects.equals(entry.getValue(), newColors.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (Map.Entry<Coords, Color> entry : newColors.entrySet()) {
+            if (!Objects.equals(entry.getValue(), oldColors.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+    }
+
     private void processAffectedCoords(Coords c, ECMEffects ecm,
             ECMEffects eccm, Map<Coords, Color> newECMHexes,
             Map<Coords, Color> newECCMHexes) {
@@ -5755,8 +5918,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
                 if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_SENSORS)) {
                     LosEffects los = fovHighlightingAndDarkening.getCachedLosEffects(selectedEntity.getPosition(), mcoords);
-                    int bracket = Compute.getSensorRangeBracket(selectedEntity, null,
-                            fovHighlightingAndDarkening.cachedAllECMInfo);
+                    int bracket = fovHighlightingAndDarkening.cachedSensorBracket;
                     int range = Compute.getSensorRangeByBracket(game, selectedEntity, null, los);
 
                     int maxSensorRange = bracket * range;
@@ -6319,7 +6481,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
         hex_size = new Dimension((int) (HEX_W * scale), (int) (HEX_H * scale));
 
-        scaledImageCache = new ImageCache<Integer, Image>();
+        scaledImageCache = new ImageCache<>(ImageCache.MAX_SIZE, ImageCache.DEFAULT_MAX_BYTES, true,
+                ImageCache::estimateBytes);
 
         cursorSprite.prepare();
         highlightSprite.prepare();
@@ -6346,7 +6509,8 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         }
         this.setSize(boardSize);
 
-        clearHexImageCache();
+        // The board tiles are kept per zoom level, only the hex images change
+        hexImageCache.clear();
         repaint();
     }
 
@@ -6524,6 +6688,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
 
     public void clearHexImageCache() {
         hexImageCache.clear();
+        boardTiles.clear();
     }
 
     /**
@@ -6534,6 +6699,7 @@ public class BoardView1 extends JPanel implements IBoardView, Scrollable,
         for (Coords c : coords) {
             hexImageCache.remove(c);
         }
+        boardTiles.invalidate(coords);
     }
 
     /**
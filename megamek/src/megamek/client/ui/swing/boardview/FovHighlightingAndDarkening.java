@@ -4,15 +4,14 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Point;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import megamek.MegaMek;
 import megamek.client.ui.swing.GUIPreferences;
 import megamek.common.Compute;
-import megamek.common.ComputeECM;
 import megamek.common.Coords;
 import megamek.common.ECMInfo;
 import megamek.common.Entity;
@@ -58,7 +57,8 @@ class FovHighlightingAndDarkening {
         cacheGameListner = new GameListenerAdapter() {
             @Override
             public void gameTurnChange(GameTurnChangeEvent e) {
-                cacheGameChanged = true;
+                unitsVersion++;
+                visibilityFields.clear();
             }
         };
         this.boardView1.game.addGameListener(cacheGameListner);
@@ -183,9 +183,7 @@ class FovHighlightingAndDarkening {
                                 this.boardView1.selectedEntity, los,
                                 targetIlluminated);
                     }
-                    int bracket = Compute.getSensorRangeBracket(
-                            this.boardView1.selectedEntity, null,
-                            cachedAllECMInfo);
+                    int bracket = cachedSensorBracket;
                     int range = Compute.getSensorRangeByBracket(
                             this.boardView1.game,
                             this.boardView1.selectedEntity, null, los);
@@ -239,52 +237,111 @@ class FovHighlightingAndDarkening {
         return hasLoS;
     }
 
+    /** The most visibility fields that are kept at a time */
+    private static final int MAX_FIELDS = 8;
+
     List<ECMInfo> cachedAllECMInfo = null;
     Entity cachedSelectedEntity = null;
-    StepSprite cachedStepSprite = null;
-    Coords cachedSrc = null;
-    boolean cacheGameChanged = true;
-    Map<Coords, LosEffects> losCache = new HashMap<>();
+    int cachedUnitsVersion = -1;
+    int cachedSensorBracket = 0;
 
-    private void clearCache() {
-        losCache = new HashMap<>();
-    }
+    /**
+     * The visibility fields of the latest viewers, least recently used first.
+     * Tooltips look from the selected unit and the hexes are drawn from the
+     * selected hex, so both fields stay around while switching between them.
+     */
+    private final Map<VisibilityField.Key, VisibilityField> visibilityFields =
+            new LinkedHashMap<VisibilityField.Key, VisibilityField>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<VisibilityField.Key, VisibilityField> eldest) {
+                    return size() > MAX_FIELDS;
+                }
+            };
+
+    /** Changes whenever a hex of the board changes */
+    private int boardVersion = 0;
+
+    /** Changes whenever units may have moved */
+    private int unitsVersion = 0;
 
     GameListener cacheGameListner;
 
     /**
-     * Checks for los effects, preferably from cache, if not getLosEffects
-     * is invoked and it's return value is cached.
-     * If environment has changed between calls to this method the cache is
-     * cleared.
+     * Drops the visibility fields when the board or any of its hexes has
+     * changed.
+     */
+    void boardChanged() {
+        boardVersion++;
+        visibilityFields.clear();
+    }
+
+    /**
+     * Returns the los effects from src to dest, looked up in the visibility
+     * field of the viewer at src. The field is created when there is none for
+     * the viewer's position and height and the current board and units.
      */
     public @Nullable LosEffects getCachedLosEffects(Coords src, Coords dest) {
-        ArrayList<StepSprite> pathSprites = boardView1.pathSprites;
-        StepSprite lastStepSprite = pathSprites.size() > 0 ? pathSprites
-                .get(pathSprites.size() - 1) : null;
-        // lets check if cache should be cleared
         if ((cachedSelectedEntity != this.boardView1.selectedEntity)
-                || (cachedStepSprite != lastStepSprite)
-                || (!src.equals(cachedSrc)) || (cacheGameChanged)) {
-            clearCache();
+                || (cachedUnitsVersion != unitsVersion)) {
             cachedSelectedEntity = this.boardView1.selectedEntity;
-            cachedStepSprite = lastStepSprite;
-            cachedSrc = src;
-            cacheGameChanged = false;
-            cachedAllECMInfo = ComputeECM
-                    .computeAllEntitiesECMInfo(boardView1.game
-                            .getEntitiesVector());
+            cachedUnitsVersion = unitsVersion;
+            cachedAllECMInfo = boardView1.getECMField();
+            cachedSensorBracket = (cachedSelectedEntity == null) ? 0
+                    : Compute.getSensorRangeBracket(cachedSelectedEntity, null, cachedAllECMInfo);
         }
 
-        LosEffects los = losCache.get(dest);
-        if (los == null) {
-            los = boardView1.fovHighlightingAndDarkening.getLosEffects(src, dest);
-            if (los == null) {
-                return null;
+        VisibilityField field = getVisibilityField(src);
+        return (field == null) ? null : field.getLosEffects(dest);
+    }
+
+    /**
+     * Returns the visibility field of a viewer at src. Unit height for the
+     * source hex is determined by the selectedEntity if present otherwise
+     * the GUIPreference 'mechInFirst' is used. If pathSprites are not empty
+     * then elevation from last step is used for attacker elevation, also it
+     * is assumed that last step's position is equal to src.
+     * Unit height for the destination hexes is determined by the tallest
+     * unit present in that hex. If no units are present, the GUIPreference
+     * 'mechInSecond' is used.
+     */
+    private @Nullable VisibilityField getVisibilityField(final Coords src) {
+        GUIPreferences guip = GUIPreferences.getInstance();
+        IBoard board = this.boardView1.game.getBoard();
+        IHex srcHex = board.getHex(src);
+        if (srcHex == null) {
+            MegaMek.getLogger().error("Cannot process line of sight effects with a null source hex.");
+            return null;
+        }
+        int attackHeight;
+        int attackAbsHeight;
+        // First, we check for a selected unit and use its height. If
+        // there's no selected unit we use the mechInFirst GUIPref.
+        if (this.boardView1.selectedEntity != null) {
+            attackHeight = this.boardView1.selectedEntity.getHeight();
+            // Elevation of entity above the hex surface
+            int elevation;
+            if (this.boardView1.pathSprites.size() > 0) {
+                // If we've got a step, get the elevation from it
+                int lastStepIdx = this.boardView1.pathSprites.size() - 1;
+                MoveStep lastMS = this.boardView1.pathSprites.get(lastStepIdx)
+                        .getStep();
+                elevation = lastMS.getElevation();
+            } else {
+                // otherwise we use entity's elevation
+                elevation = this.boardView1.selectedEntity.getElevation();
             }
-            losCache.put(dest, los);
+            attackAbsHeight = srcHex.surface() + elevation
+                    + this.boardView1.selectedEntity.getHeight();
+        } else {
+            attackHeight = guip.getMechInFirst() ? 1 : 0;
+            attackAbsHeight = srcHex.surface() + attackHeight;
         }
-        return los;
+        VisibilityField.Key key = new VisibilityField.Key(board, src, attackHeight,
+                attackAbsHeight, guip.getMechInSecond() ? 1 : 0, boardVersion, unitsVersion);
+        return visibilityFields.computeIfAbsent(key,
+                k -> new VisibilityField(this.boardView1.game, k));
     }
 
     /**Parses the properties of rings received from GUIPreferencess.
@@ -335,77 +392,4 @@ class FovHighlightingAndDarkening {
             }
         }
     }
-
-    /**
-     * Calculate the LosEffects between the given Coords. Unit height for
-     * the source hex is determined by the selectedEntity if present
-     * otherwise the GUIPreference 'mechInFirst' is used. If pathSprites are
-     * not empty then elevation from last step is used for attacker
-     * elevation, also it is assumed that last step's position is equal to
-     * src.
-     * Unit height for the destination hex is determined by the tallest unit
-     * present in that hex. If no units are present, the GUIPreference
-     * 'mechInSecond' is used.
-     */
-    private @Nullable LosEffects getLosEffects(final Coords src, final Coords dest) {
-        /*
-         * The getCachedLos method depends that this method uses only
-         * information from src, dest, game, selectedEntity and the last
-         * stepSprite from path Sprites. If this behavior changes, please
-         * change the getCachedLos method accordingly.
-         */
-        GUIPreferences guip = GUIPreferences.getInstance();
-        IBoard board = this.boardView1.game.getBoard();
-        IHex srcHex = board.getHex(src);
-        if (srcHex == null) {
-            MegaMek.getLogger().error("Cannot process line of sight effects with a null source hex.");
-            return null;
-        }
-        IHex dstHex = board.getHex(dest);
-        if (dstHex == null) {
-            MegaMek.getLogger().error("Cannot process line of sight effects with a null destination hex.");
-            return null;
-        }
-        LosEffects.AttackInfo ai = new LosEffects.AttackInfo();
-        ai.attackPos = src;
-        ai.targetPos = dest;
-        // First, we check for a selected unit and use its height. If
-        // there's no selected unit we use the mechInFirst GUIPref.
-        if (this.boardView1.selectedEntity != null) {
-            ai.attackHeight = this.boardView1.selectedEntity.getHeight();
-            // Elevation of entity above the hex surface
-            int elevation;
-            if (this.boardView1.pathSprites.size() > 0) {
-                // If we've got a step, get the elevation from it
-                int lastStepIdx = this.boardView1.pathSprites.size() - 1;
-                MoveStep lastMS = this.boardView1.pathSprites.get(lastStepIdx)
-                        .getStep();
-                elevation = lastMS.getElevation();
-            } else {
-                // otherwise we use entity's elevation
-                elevation = this.boardView1.selectedEntity.getElevation();
-            }
-            ai.attackAbsHeight = srcHex.surface() + elevation
-                    + this.boardView1.selectedEntity.getHeight();
-        } else {
-            ai.attackHeight = guip.getMechInFirst() ? 1 : 0;
-            ai.attackAbsHeight = srcHex.surface() + ai.attackHeight;
-        }
-        // First, we take the tallest unit in the destination hex, if no units are present we use
-        // the mechInSecond GUIPref.
-        ai.targetHeight = ai.targetAbsHeight = Integer.MIN_VALUE;
-        for (Entity ent : boardView1.game.getEntitiesVector(dest)) {
-            int trAbsheight = dstHex.surface() + ent.relHeight();
-            if (trAbsheight > ai.targetAbsHeight) {
-                ai.targetHeight = ent.getHeight();
-                ai.targetAbsHeight = trAbsheight;
-            }
-        }
-        if ((ai.targetHeight == Integer.MIN_VALUE)
-                && (ai.targetAbsHeight == Integer.MIN_VALUE)) {
-            ai.targetHeight = guip.getMechInSecond() ? 1 : 0;
-            ai.targetAbsHeight = dstHex.surface() + ai.targetHeight;
-        }
-        return LosEffects.calculateLos(boardView1.game, ai);
-    }
-}
\ No newline at end of file
+}
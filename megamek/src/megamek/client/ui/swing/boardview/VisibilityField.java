@@ -0,0 +1,155 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.client.ui.swing.boardview;
+
+import java.util.Objects;
+
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.IBoard;
+import megamek.common.IGame;
+import megamek.common.IHex;
+import megamek.common.LosEffects;
+
+/**
+ * The line of sight from one viewer position and height to the hexes of the
+ * board, as used by the field of view highlighting and darkening. The LOS to
+ * a hex is worked out the first time it is asked for and then kept in an
+ * array over the whole board, so drawing a hex again or showing its tooltip
+ * is a lookup.
+ * <p>
+ * A field only depends on its {@link Key}: the viewer, the default target
+ * height and the versions of the board and of the units on it. Whoever
+ * changes one of those must use a new field.
+ */
+class VisibilityField {
+
+    /**
+     * Everything the line of sight of a field depends on.
+     */
+    static final class Key {
+        private final IBoard board;
+        private final Coords position;
+        private final int attackHeight;
+        private final int attackAbsHeight;
+        private final int defaultTargetHeight;
+        private final int boardVersion;
+        private final int unitsVersion;
+
+        /**
+         * @param board the board the field is for
+         * @param position the viewer's hex
+         * @param attackHeight the viewer's height
+         * @param attackAbsHeight the absolute height of the viewer's top
+         * @param defaultTargetHeight the target height for hexes without
+         *            units
+         * @param boardVersion changes whenever a hex of the board changes
+         * @param unitsVersion changes whenever units may have moved
+         */
+        Key(IBoard board, Coords position, int attackHeight, int attackAbsHeight,
+                int defaultTargetHeight, int boardVersion, int unitsVersion) {
+            this.board = board;
+            this.position = position;
+            this.attackHeight = attackHeight;
+            this.attackAbsHeight = attackAbsHeight;
+            this.defaultTargetHeight = defaultTargetHeight;
+            this.boardVersion = boardVersion;
+            this.unitsVersion = unitsVersion;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return (board == other.board) && position.equals(other.position)
+                    && (attackHeight == other.attackHeight)
+                    && (attackAbsHeight == other.attackAbsHeight)
+                    && (defaultTargetHeight == other.defaultTargetHeight)
+                    && (boardVersion == other.boardVersion)
+                    && (unitsVersion == other.unitsVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(board), position, attackHeight,
+                    attackAbsHeight, defaultTargetHeight, boardVersion, unitsVersion);
+        }
+    }
+
+    private final IGame game;
+    private final Key key;
+    private final int width;
+    private final int height;
+
+    /** The LOS to each hex by its index, null until first asked for */
+    private final LosEffects[] losEffects;
+
+    VisibilityField(IGame game, Key key) {
+        this.game = game;
+        this.key = key;
+        width = key.board.getWidth();
+        height = key.board.getHeight();
+        losEffects = new LosEffects[width * height];
+    }
+
+    /**
+     * @return the line of sight from the viewer to the hex, or null if the hex
+     *         is not on the board
+     */
+    LosEffects getLosEffects(Coords dest) {
+        if ((dest.getX() < 0) || (dest.getY() < 0) || (dest.getX() >= width)
+                || (dest.getY() >= height)) {
+            return null;
+        }
+        int index = (dest.getY() * width) + dest.getX();
+        LosEffects los = losEffects[index];
+        if (los == null) {
+            los = calculateLos(dest);
+            losEffects[index] = los;
+        }
+        return los;
+    }
+
+    /**
+     * Calculates the line of sight to the tallest unit in the destination
+     * hex. If no units are present, the default target height is used.
+     */
+    private LosEffects calculateLos(Coords dest) {
+        IHex dstHex = key.board.getHex(dest);
+        LosEffects.AttackInfo ai = new LosEffects.AttackInfo();
+        ai.attackPos = key.position;
+        ai.targetPos = dest;
+        ai.attackHeight = key.attackHeight;
+        ai.attackAbsHeight = key.attackAbsHeight;
+        ai.targetHeight = ai.targetAbsHeight = Integer.MIN_VALUE;
+        for (Entity ent : game.getEntitiesVector(dest)) {
+            int trAbsheight = dstHex.surface() + ent.relHeight();
+            if (trAbsheight > ai.targetAbsHeight) {
+                ai.targetHeight = ent.getHeight();
+                ai.targetAbsHeight = trAbsheight;
+            }
+        }
+        if ((ai.targetHeight == Integer.MIN_VALUE)
+                && (ai.targetAbsHeight == Integer.MIN_VALUE)) {
+            ai.targetHeight = key.defaultTargetHeight;
+            ai.targetAbsHeight = dstHex.surface() + ai.targetHeight;
+        }
+        return LosEffects.calculateLos(game, ai);
+    }
+}
@@ -25,6 +25,7 @@ import megamek.common.Entity;
 import megamek.common.EntityWeightClass;
 import megamek.common.MechFileParser;
 import megamek.common.MechSearchFilter;
+import megamek.common.MechSearchIndex;
 import megamek.common.MechSummary;
 import megamek.common.MechSummaryCache;
 import megamek.common.MechView;
@@ -53,6 +54,7 @@ import java.awt.event.KeyListener;
 import java.awt.event.WindowEvent;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -107,6 +109,8 @@ public abstract class AbstractUnitSelectorDialog extends JDialog implements Runn
 
     protected static MechSummaryCache mscInstance = MechSummaryCache.getInstance();
     protected MechSummary[] mechs;
+    /** The search index over {@link #mechs} */
+    protected MechSearchIndex searchIndex;
 
     private MechTableModel unitModel = new MechTableModel();
     protected MechSearchFilter searchFilter;
@@ -535,11 +539,25 @@ public abstract class AbstractUnitSelectorDialog extends JDialog implements Runn
         final int nUnit = comboUnitType.getSelectedIndex() - 1;
         final boolean checkSupportVee = Messages.getString("MechSelectorDialog.SupportVee")
                 .equals(comboUnitType.getSelectedItem());
+        final String text = textFilter.getText();
+        // The advanced search and name matches, looked up once instead of for every unit
+        final BitSet indexMatches;
+        if ((searchIndex != null) && (searchIndex.getUnits() == mechs)) {
+            indexMatches = searchIndex.match(searchFilter);
+            if (text.length() > 0) {
+                indexMatches.and(searchIndex.nameContains(text));
+            }
+        } else {
+            indexMatches = null;
+        }
         //If current expression doesn't parse, don't update.
         try {
             unitTypeFilter = new RowFilter<MechTableModel, Integer>() {
                 @Override
                 public boolean include(Entry<? extends MechTableModel, ? extends Integer> entry) {
+                    if ((indexMatches != null) && !indexMatches.get(entry.getIdentifier())) {
+                        return false;
+                    }
                     MechTableModel mechModel = entry.getModel();
                     MechSummary mech = mechModel.getMechSummary(entry.getIdentifier());
                     boolean techLevelMatch = false;
@@ -566,10 +584,10 @@ public abstract class AbstractUnitSelectorDialog extends JDialog implements Runn
                                     || (!checkSupportVee && mech.getUnitType().equals(UnitType.getTypeName(nUnit)))
                                     || (checkSupportVee && mech.isSupport()))
                             /* Advanced Search */
-                            && ((searchFilter == null) || MechSearchFilter.isMatch(mech, searchFilter))
+                            && ((indexMatches != null) || (searchFilter == null)
+                                    || MechSearchFilter.isMatch(mech, searchFilter))
                     ) {
-                        if (textFilter.getText().length() > 0) {
-                            String text = textFilter.getText();
+                        if ((indexMatches == null) && (text.length() > 0)) {
                             return mech.getName().toLowerCase().contains(text.toLowerCase());
                         }
                         return true;
@@ -645,6 +663,7 @@ public abstract class AbstractUnitSelectorDialog extends JDialog implements Runn
         // This prevents the UI from freezing, and allows the
         // "Please wait..." dialog to behave properly on various Java VMs.
         mechs = mscInstance.getAllMechs();
+        searchIndex = mscInstance.getSearchIndex();
         unitLoadingDialog.setVisible(false);
 
         // break out if there are no units to filter
@@ -981,9 +981,8 @@ public class ChatLounge extends AbstractPhaseDisplay implements
                         File boardFile = new MegaMekFile(Configuration.boardsDir(), boardForImage + ".board").getFile();
                         if (boardFile.exists()) {
                             buttonBoard = new Board(16, 17);
-                            buttonBoard.load(new MegaMekFile(Configuration.boardsDir(), boardForImage + ".board").getFile());
                             StringBuffer errs = new StringBuffer();
-                            try (InputStream is = new FileInputStream(new MegaMekFile(Configuration.boardsDir(), boardForImage + ".board").getFile())) {
+                            try (InputStream is = new FileInputStream(boardFile)) {
                                 buttonBoard.load(is, errs, true);
                             } catch (IOException ex) {
                                 buttonBoard = Board.createEmptyBoard(mapSettings.getBoardWidth(), mapSettings.getBoardHeight());
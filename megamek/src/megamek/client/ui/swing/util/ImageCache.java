@@ -15,70 +15,301 @@
 
 package megamek.client.ui.swing.util;
 
-import java.util.Hashtable;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
 
 /**
- * An ImageCache that keeps a Hashtable of mapped keys and values.
- * 
+ * A bounded cache of images. When either the number of entries or the
+ * estimated size of the cached images in bytes exceeds its limit, the least
+ * recently used entries are evicted. Values can optionally be held by soft
+ * references, so the garbage collector may drop them before the heap runs
+ * out. Hits, misses and evictions are counted.
+ * <p>
+ * Reads take no lock, as the board view reads an image for every hex on
+ * every paint. Each entry keeps the time it was last used on a clock that
+ * ticks with every put, so entries used between two puts count as equally
+ * recent and the eviction order is only approximately LRU. Eviction scans
+ * the whole cache under its own lock, so it removes somewhat more than
+ * needed to stay under the limits for a while.
+ *
  * @author Arlith
  */
 public class ImageCache<K, V> {
-    
+
     /**
-     * Default maximum size
+     * Default maximum number of entries
      */
     public static int MAX_SIZE = 30000;
-    
 
     /**
-     * The cache of Key/Value pairs.
+     * Default maximum estimated size of the cached images in bytes
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Estimated bytes of an entry on top of its image data
      */
-    private Hashtable<K, V> cache;
-        
+    private static final long ENTRY_OVERHEAD = 64;
+
+    /**
+     * An eviction brings the cache down to this share of its limits, in
+     * eighths
+     */
+    private static final int EVICT_TO_EIGHTHS = 7;
+
+    /**
+     * A cached value and the estimate of its size.
+     */
+    private static class Entry<V> {
+        private final V value;
+        private final SoftReference<V> reference;
+        private final long bytes;
+        /** The clock time of the last use, see {@link ImageCache#clock} */
+        private volatile long lastUsed;
+
+        Entry(V value, long bytes, boolean soft, long now) {
+            this.value = soft ? null : value;
+            reference = soft ? new SoftReference<>(value) : null;
+            this.bytes = bytes;
+            lastUsed = now;
+        }
+
+        /** Returns the value, or null if it was soft referenced and collected */
+        V get() {
+            return (reference == null) ? value : reference.get();
+        }
+    }
+
+    /** An entry to consider for eviction, with its time of last use at the start of the eviction */
+    private static class Candidate<K, V> {
+        private final K key;
+        private final Entry<V> entry;
+        private final long lastUsed;
+
+        Candidate(K key, Entry<V> entry) {
+            this.key = key;
+            this.entry = entry;
+            lastUsed = entry.lastUsed;
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final boolean softReferences;
+    private final ToLongFunction<? super V> weigher;
+
+    /** The cache of Key/Value pairs */
+    private final Map<K, Entry<V>> cache = new ConcurrentHashMap<>();
+
+    /** Ticks with every put; reads stamp their entry with the current time */
+    private final AtomicLong clock = new AtomicLong();
+
+    /** Only one thread at a time evicts entries */
+    private final Object evictionLock = new Object();
+
+    /** The estimated size of all cached values */
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
     /**
      * Create a cache with the default maximum size.
      */
     public ImageCache() {
-        cache = new Hashtable<K, V>(MAX_SIZE * 5 / 4, .75f);
+        this(MAX_SIZE);
     }
 
-    
+    /**
+     * Create a cache with the given maximum number of entries and the default
+     * maximum size in bytes.
+     */
     public ImageCache(int max) {
-        cache = new Hashtable<K, V>(max * 5 / 4, .75f);
+        this(max, DEFAULT_MAX_BYTES, false, ImageCache::estimateBytes);
+    }
+
+    /**
+     * Create a cache with the given limits.
+     *
+     * @param maxEntries the maximum number of entries
+     * @param maxBytes the maximum estimated size of the cached values in bytes
+     * @param softReferences true to let the garbage collector drop values
+     *            when memory runs low
+     * @param weigher estimates the size of a value in bytes, see
+     *            {@link #estimateBytes(Object)}
+     */
+    public ImageCache(int maxEntries, long maxBytes, boolean softReferences,
+            ToLongFunction<? super V> weigher) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.softReferences = softReferences;
+        this.weigher = weigher;
     }
 
     /**
      * Adds a new key/value pair into the cache.
-     * 
+     *
      * @param key
      * @param value
      * @return
      */
-    public synchronized V put(K key, V value) {
+    public V put(K key, V value) {
         if ((key == null) || (value == null))
             return null;
-      
-        cache.put(key, value);
+
+        Entry<V> entry = new Entry<>(value, weigher.applyAsLong(value) + ENTRY_OVERHEAD,
+                softReferences, clock.incrementAndGet());
+        Entry<V> old = cache.put(key, entry);
+        totalBytes.addAndGet((old == null) ? entry.bytes : entry.bytes - old.bytes);
+        if ((cache.size() > maxEntries) || (totalBytes.get() > maxBytes)) {
+            evict();
+        }
         return value;
     }
 
-    public synchronized V get(K key) {
-        if (!cache.containsKey(key))
+    public V get(K key) {
+        if (key == null) {
             return null;
-
-        return cache.get(key);
+        }
+        Entry<V> entry = cache.get(key);
+        V value = (entry == null) ? null : entry.get();
+        if (value == null) {
+            if ((entry != null) && cache.remove(key, entry)) {
+                removed(entry);
+            }
+            misses.increment();
+            return null;
+        }
+        // Only write the stamp when it changes, as most reads of a paint
+        // happen between the same two puts
+        long now = clock.get();
+        if (entry.lastUsed != now) {
+            entry.lastUsed = now;
+        }
+        hits.increment();
+        return value;
     }
 
     public void remove(Object key) {
-        cache.remove(key);
+        if (key == null) {
+            return;
+        }
+        Entry<V> entry = cache.remove(key);
+        if (entry != null) {
+            totalBytes.addAndGet(-entry.bytes);
+        }
     }
-    
+
     public int size(){
         return cache.size();
     }
-    
+
     public void clear() {
-        cache.clear();
+        for (Map.Entry<K, Entry<V>> e : cache.entrySet()) {
+            if (cache.remove(e.getKey(), e.getValue())) {
+                totalBytes.addAndGet(-e.getValue().bytes);
+            }
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache is back under
+     * {@link #EVICT_TO_EIGHTHS} of its limits. Large images may need more
+     * than one entry to make room; the newest entry is kept even if it alone
+     * exceeds the limit.
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            if ((cache.size() <= maxEntries) && (totalBytes.get() <= maxBytes)) {
+                // Another thread evicted in the meantime
+                return;
+            }
+            List<Candidate<K, V>> candidates = new ArrayList<>(cache.size());
+            for (Map.Entry<K, Entry<V>> e : cache.entrySet()) {
+                candidates.add(new Candidate<>(e.getKey(), e.getValue()));
+            }
+            candidates.sort(Comparator.comparingLong(c -> c.lastUsed));
+            long targetEntries = (long) maxEntries * EVICT_TO_EIGHTHS / 8;
+            long targetBytes = maxBytes / 8 * EVICT_TO_EIGHTHS;
+            for (Candidate<K, V> c : candidates) {
+                if (((cache.size() <= targetEntries) && (totalBytes.get() <= targetBytes))
+                        || (cache.size() <= 1)) {
+                    break;
+                }
+                if (cache.remove(c.key, c.entry)) {
+                    removed(c.entry);
+                }
+            }
+        }
+    }
+
+    /** Accounts for an entry that was evicted or collected */
+    private void removed(Entry<V> entry) {
+        totalBytes.addAndGet(-entry.bytes);
+        evictions.increment();
+    }
+
+    /** @return the number of reads that found their value */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** @return the number of reads that found no value */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** @return the number of entries evicted or collected */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /** @return the estimated size of the cached values in bytes */
+    public long getSizeInBytes() {
+        return totalBytes.get();
+    }
+
+    /**
+     * @return a short summary of the cache size and counters for display
+     */
+    public String getStatistics() {
+        long hitCount = getHits();
+        long readCount = hitCount + getMisses();
+        return String.format("%d images, %.1f MB, %.1f%% hits, %d evicted", size(),
+                getSizeInBytes() / (1024d * 1024d),
+                (readCount == 0) ? 0d : (100d * hitCount) / readCount, getEvictions());
+    }
+
+    /**
+     * Estimates the memory used by the pixels of an image, or of all the
+     * images in a collection. Other values are not counted.
+     */
+    public static long estimateBytes(Object value) {
+        if (value instanceof BufferedImage) {
+            BufferedImage image = (BufferedImage) value;
+            return (long) image.getWidth() * image.getHeight()
+                    * Math.max(1, image.getColorModel().getPixelSize() / 8);
+        } else if (value instanceof Image) {
+            // The size is unknown (-1) until the image is loaded
+            Image image = (Image) value;
+            return Math.max(0L, image.getWidth(null)) * Math.max(0L, image.getHeight(null)) * 4;
+        } else if (value instanceof Collection) {
+            long bytes = 0;
+            for (Object element : (Collection<?>) value) {
+                bytes += estimateBytes(element);
+            }
+            return bytes;
+        }
+        return 0;
     }
-    
 }
@@ -21,7 +21,6 @@ import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
@@ -41,6 +40,7 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.StringTokenizer;
 import java.util.Vector;
 
 import megamek.MegaMek;
@@ -947,101 +947,63 @@ public class Board implements Serializable, IBoard {
     }
 
     public void load(InputStream is, StringBuffer errBuff, boolean continueLoadOnError) {
-        int nw = 0, nh = 0, di = 0;
-        IHex[] nd = new IHex[0];
-        int index = 0;
         resetStoredElevation();
-        try (Reader r = new BufferedReader(new InputStreamReader(is))) {
-            StreamTokenizer st = new StreamTokenizer(r);
-            st.eolIsSignificant(true);
-            st.commentChar('#');
-            st.quoteChar('"');
-            st.wordChars('_', '_');
-            while (st.nextToken() != StreamTokenizer.TT_EOF) {
-                if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("size")) {
-                    // read rest of line
-                    String[] args = { "0", "0" };
-                    int i = 0;
-                    while ((st.nextToken() == StreamTokenizer.TT_WORD) || (st.ttype == '"')
-                            || (st.ttype == StreamTokenizer.TT_NUMBER)) {
-                        args[i++] = st.ttype == StreamTokenizer.TT_NUMBER ? (int) st.nval + "" : st.sval;
-                    }
-                    nw = Integer.parseInt(args[0]);
-                    nh = Integer.parseInt(args[1]);
-                    nd = new IHex[nw * nh];
-                    di = 0;
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("option")) {
-                    // read rest of line
-                    String[] args = { "", "" };
-                    int i = 0;
-                    while ((st.nextToken() == StreamTokenizer.TT_WORD) || (st.ttype == '"')
-                            || (st.ttype == StreamTokenizer.TT_NUMBER)) {
-                        args[i++] = st.ttype == StreamTokenizer.TT_NUMBER ? (int) st.nval + "" : st.sval;
-                    }
-                    // Only expect certain options.
-                    if (args[0].equalsIgnoreCase("exit_roads_to_pavement")) {
-                        if (args[1].equalsIgnoreCase("false")) {
-                            roadsAutoExit = false;
-                        } else {
-                            roadsAutoExit = true;
-                        }
-                    } // End exit_roads_to_pavement-option
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("hex")) {
-                    // read rest of line
-                    String[] args = { "", "0", "", "" };
-                    int i = 0;
-                    while ((st.nextToken() == StreamTokenizer.TT_WORD) || (st.ttype == '"')
-                            || (st.ttype == StreamTokenizer.TT_NUMBER)) {
-                        args[i++] = st.ttype == StreamTokenizer.TT_NUMBER ? (int) st.nval + "" : st.sval;
-                    }
-                    int elevation = Integer.parseInt(args[1]);
-                    // The coordinates in the .board file are ignored!
-                    nd[index] = new Hex(elevation, args[2], args[3], new Coords(index % nw, index / nw));
-                    index++;
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("background")) {
-                    st.nextToken();
-                    File bgFile = new MegaMekFile(Configuration.boardBackgroundsDir(),
-                            st.sval).getFile();
-                    if (bgFile.exists()) {
-                        backgroundPaths.add(bgFile.getPath());
-                    } else {
-                        MegaMek.getLogger().error("Board specified background image, but path couldn't be found! Path: " + bgFile.getPath());
-                    }
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("description")) {
-                    st.nextToken();
-                    if (st.ttype == '"') {
-                        String d = getDescription();
-                        if (null == d) {
-                            setDescription(st.sval);
-                        } else {
-                            setDescription(d + "\n\n" + st.sval);
-                        }
-                    }
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("note")) {
-                    st.nextToken();
-                    if (st.ttype == StreamTokenizer.TT_NUMBER) {
-                        int x, y, coordWidth = 100;
-                        int coords = (int)st.nval;
-                        if (coords > 9999) {
-                            coordWidth = 1000;
-                        }
-                        y = coords % coordWidth;
-                        coords /= coordWidth;
-                        x = coords;
-                        st.nextToken();
-                        Coords c = new Coords(x, y);
-                        if (st.ttype == '"') {
-                            Collection<String> a = new ArrayList<>(getAnnotations(c));
-                            a.add(st.sval);
-                            setAnnotations(c, a);
-                        }
-                    }
-                } else if ((st.ttype == StreamTokenizer.TT_WORD) && st.sval.equalsIgnoreCase("end")) {
-                    break;
-                }
-            }
+        BoardFile boardFile;
+        try (InputStream in = is) {
+            boardFile = BoardFileCache.get(in.readAllBytes());
         } catch (IOException ex) {
             MegaMek.getLogger().error("I/O Error: " + ex);
+            boardFile = new BoardFile();
+        }
+
+        int nw = boardFile.width, nh = boardFile.height, di = 0;
+        IHex[] nd = new IHex[nw * nh];
+        // The terrains of each distinct terrain string, parsed only once
+        ITerrain[][] terrainTemplates = new ITerrain[boardFile.strings.size()][];
+        ITerrainFactory terrainFactory = Terrains.getTerrainFactory();
+        for (int index = boardFile.hexOffset; index < boardFile.hexCount; index++) {
+            int terrainIndex = boardFile.terrains[index];
+            ITerrain[] template = terrainTemplates[terrainIndex];
+            if (template == null) {
+                StringTokenizer st = new StringTokenizer(boardFile.strings.get(terrainIndex), ";", false);
+                template = new ITerrain[st.countTokens()];
+                for (int i = 0; i < template.length; i++) {
+                    template[i] = terrainFactory.createTerrain(st.nextToken());
+                }
+                terrainTemplates[terrainIndex] = template;
+            }
+            ITerrain[] hexTerrains = new ITerrain[template.length];
+            for (int i = 0; i < template.length; i++) {
+                hexTerrains[i] = terrainFactory.createTerrain(template[i]);
+            }
+            // The coordinates in the .board file are ignored!
+            nd[index] = new Hex(boardFile.levels[index], hexTerrains,
+                    boardFile.strings.get(boardFile.themes[index]), new Coords(index % nw, index / nw));
+        }
+        if (boardFile.roadsAutoExit != BoardFile.OPTION_UNSET) {
+            roadsAutoExit = boardFile.roadsAutoExit != 0;
+        }
+        for (String background : boardFile.backgrounds) {
+            File bgFile = new MegaMekFile(Configuration.boardBackgroundsDir(), background).getFile();
+            if (bgFile.exists()) {
+                backgroundPaths.add(bgFile.getPath());
+            } else {
+                MegaMek.getLogger().error("Board specified background image, but path couldn't be found! Path: " + bgFile.getPath());
+            }
+        }
+        for (String description : boardFile.descriptions) {
+            String d = getDescription();
+            if (null == d) {
+                setDescription(description);
+            } else {
+                setDescription(d + "\n\n" + description);
+            }
+        }
+        for (BoardFile.Note note : boardFile.notes) {
+            Coords c = new Coords(note.x, note.y);
+            Collection<String> a = new ArrayList<>(getAnnotations(c));
+            a.add(note.text);
+            setAnnotations(c, a);
         }
 
         // fill nulls with blank hexes
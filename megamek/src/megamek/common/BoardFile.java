@@ -0,0 +1,524 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The contents of a .board file as read by {@link #parse(String)}, before
+ * they are turned into hexes. Each distinct terrain string and theme is kept
+ * only once, and the hexes refer to them by index, so a board can also be
+ * written to and read from the binary board cache without parsing its text
+ * again.
+ * <p>
+ * The parser reads the text in a single pass. It splits it into tokens the
+ * same way the {@link java.io.StreamTokenizer} set up by earlier versions of
+ * {@link Board#load(java.io.InputStream, StringBuffer, boolean)} did, so
+ * existing board files, including malformed ones, load as before.
+ */
+final class BoardFile {
+
+    /** "MMBC" */
+    private static final int MAGIC = 0x4D4D4243;
+
+    /** Increase whenever the format changes, so that old caches are rebuilt */
+    static final int VERSION = 1;
+
+    /** The value of {@link #roadsAutoExit} when the board has no such option */
+    static final byte OPTION_UNSET = -1;
+
+    int width;
+    int height;
+    /** The hexes read before the last size line, which are dropped */
+    int hexOffset;
+    /** 1 or 0 when the exit_roads_to_pavement option is given */
+    byte roadsAutoExit = OPTION_UNSET;
+
+    /** The distinct strings of the board; the hexes refer to them by index */
+    final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+
+    int hexCount;
+    int[] levels = new int[64];
+    int[] terrains = new int[64];
+    int[] themes = new int[64];
+
+    /** The background lines; may contain null for a missing file name */
+    final List<String> backgrounds = new ArrayList<>();
+    final List<String> descriptions = new ArrayList<>();
+    final List<Note> notes = new ArrayList<>();
+
+    static final class Note {
+        final int x;
+        final int y;
+        final String text;
+
+        Note(int x, int y, String text) {
+            this.x = x;
+            this.y = y;
+            this.text = text;
+        }
+    }
+
+    /**
+     * @return the index of the string in {@link #strings}
+     */
+    private int indexOf(String string) {
+        Integer index = stringIndex.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.add(string);
+            stringIndex.put(string, index);
+        }
+        return index;
+    }
+
+    private void addHex(int level, String terrain, String theme) {
+        if (hexCount == levels.length) {
+            int length = levels.length * 2;
+            levels = Arrays.copyOf(levels, length);
+            terrains = Arrays.copyOf(terrains, length);
+            themes = Arrays.copyOf(themes, length);
+        }
+        levels[hexCount] = level;
+        terrains[hexCount] = indexOf(terrain);
+        themes[hexCount] = indexOf(theme);
+        hexCount++;
+    }
+
+    /**
+     * Parses the text of a .board file.
+     *
+     * @throws NumberFormatException if a hex has an elevation that is not a
+     *             number
+     * @throws ArrayIndexOutOfBoundsException if a line has more values than
+     *             expected
+     * @throws IllegalArgumentException if a hex comes before the size of the
+     *             board
+     */
+    static BoardFile parse(String text) {
+        BoardFile board = new BoardFile();
+        Tokenizer st = new Tokenizer(text);
+        while (st.nextToken() != Tokenizer.TT_EOF) {
+            if (st.ttype != Tokenizer.TT_WORD) {
+                continue;
+            }
+            if (st.sval.equalsIgnoreCase("size")) {
+                // read rest of line
+                String[] args = { "0", "0" };
+                int i = 0;
+                while (st.nextToken() == Tokenizer.TT_WORD || st.ttype == '"' || st.ttype == Tokenizer.TT_NUMBER) {
+                    args[i++] = st.stringValue();
+                }
+                board.width = Integer.parseInt(args[0]);
+                board.height = Integer.parseInt(args[1]);
+                board.hexOffset = board.hexCount;
+            } else if (st.sval.equalsIgnoreCase("option")) {
+                // read rest of line
+                String[] args = { "", "" };
+                int i = 0;
+                while (st.nextToken() == Tokenizer.TT_WORD || st.ttype == '"' || st.ttype == Tokenizer.TT_NUMBER) {
+                    args[i++] = st.stringValue();
+                }
+                // Only expect certain options.
+                if (args[0].equalsIgnoreCase("exit_roads_to_pavement")) {
+                    board.roadsAutoExit = (byte) (args[1].equalsIgnoreCase("false") ? 0 : 1);
+                }
+            } else if (st.sval.equalsIgnoreCase("hex")) {
+                // read rest of line; the coordinates in the .board file are ignored
+                int level = 0;
+                String terrain = "";
+                String theme = "";
+                int i = 0;
+                while (st.nextToken() == Tokenizer.TT_WORD || st.ttype == '"' || st.ttype == Tokenizer.TT_NUMBER) {
+                    switch (i++) {
+                        case 0:
+                            break;
+                        case 1:
+                            level = (st.ttype == Tokenizer.TT_NUMBER) ? (int) st.nval : Integer.parseInt(st.sval);
+                            break;
+                        case 2:
+                            terrain = st.stringValue();
+                            break;
+                        case 3:
+                            theme = st.stringValue();
+                            break;
+                        default:
+                            throw new ArrayIndexOutOfBoundsException("Too many values for hex " + board.hexCount);
+                    }
+                }
+                if (board.width == 0) {
+                    throw new IllegalArgumentException("Hex " + board.hexCount + " comes before the board size");
+                }
+                board.addHex(level, terrain, theme);
+            } else if (st.sval.equalsIgnoreCase("background")) {
+                st.nextToken();
+                board.backgrounds.add(st.sval);
+            } else if (st.sval.equalsIgnoreCase("description")) {
+                st.nextToken();
+                if (st.ttype == '"') {
+                    board.descriptions.add(st.sval);
+                }
+            } else if (st.sval.equalsIgnoreCase("note")) {
+                st.nextToken();
+                if (st.ttype == Tokenizer.TT_NUMBER) {
+                    int coordWidth = 100;
+                    int coords = (int) st.nval;
+                    if (coords > 9999) {
+                        coordWidth = 1000;
+                    }
+                    int y = coords % coordWidth;
+                    int x = coords / coordWidth;
+                    st.nextToken();
+                    if (st.ttype == '"') {
+                        board.notes.add(new Note(x, y, st.sval));
+                    }
+                }
+            } else if (st.sval.equalsIgnoreCase("end")) {
+                break;
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Writes the board in the format of the binary board cache.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(hexOffset);
+        out.writeByte(roadsAutoExit);
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            writeString(out, string);
+        }
+        out.writeInt(hexCount);
+        for (int i = 0; i < hexCount; i++) {
+            out.writeInt(levels[i]);
+            out.writeInt(terrains[i]);
+            out.writeInt(themes[i]);
+        }
+        out.writeInt(backgrounds.size());
+        for (String background : backgrounds) {
+            out.writeBoolean(background != null);
+            if (background != null) {
+                writeString(out, background);
+            }
+        }
+        out.writeInt(descriptions.size());
+        for (String description : descriptions) {
+            writeString(out, description);
+        }
+        out.writeInt(notes.size());
+        for (Note note : notes) {
+            out.writeInt(note.x);
+            out.writeInt(note.y);
+            writeString(out, note.text);
+        }
+    }
+
+    /**
+     * Reads a board written by {@link #write(DataOutputStream)}.
+     *
+     * @throws IOException if the data is not a board of the current version
+     */
+    static BoardFile read(DataInputStream in) throws IOException {
+        if ((in.readInt() != MAGIC) || (in.readInt() != VERSION)) {
+            throw new IOException("Not a board cache file of version " + VERSION);
+        }
+        BoardFile board = new BoardFile();
+        board.width = in.readInt();
+        board.height = in.readInt();
+        board.hexOffset = in.readInt();
+        board.roadsAutoExit = in.readByte();
+        int stringCount = in.readInt();
+        for (int i = 0; i < stringCount; i++) {
+            board.indexOf(readString(in));
+        }
+        board.hexCount = in.readInt();
+        if ((board.hexCount < 0) || (board.hexOffset < 0) || (board.hexOffset > board.hexCount)) {
+            throw new IOException("Invalid hex count " + board.hexCount);
+        }
+        board.levels = new int[board.hexCount];
+        board.terrains = new int[board.hexCount];
+        board.themes = new int[board.hexCount];
+        for (int i = 0; i < board.hexCount; i++) {
+            board.levels[i] = in.readInt();
+            board.terrains[i] = checkIndex(in.readInt(), stringCount);
+            board.themes[i] = checkIndex(in.readInt(), stringCount);
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            board.backgrounds.add(in.readBoolean() ? readString(in) : null);
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            board.descriptions.add(readString(in));
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            board.notes.add(new Note(in.readInt(), in.readInt(), readString(in)));
+        }
+        return board;
+    }
+
+    private static int checkIndex(int index, int size) throws IOException {
+        if ((index < 0) || (index >= size)) {
+            throw new IOException("Invalid string index " + index);
+        }
+        return index;
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if ((length < 0) || (length > in.available())) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Splits the text into tokens like a {@link java.io.StreamTokenizer} with
+     * its default syntax, significant line ends, '#' as an additional comment
+     * character and '_' as an additional word character, but without reading
+     * the text one synchronized call per character.
+     */
+    static final class Tokenizer {
+        static final int TT_EOF = -1;
+        static final int TT_EOL = '\n';
+        static final int TT_NUMBER = -2;
+        static final int TT_WORD = -3;
+
+        private final String text;
+        private final int length;
+        private int pos;
+
+        /** The type of the last token, or the character for quotes and ordinary characters */
+        int ttype;
+        /** The text of the last word or quoted string */
+        String sval;
+        /** The value of the last number */
+        double nval;
+
+        Tokenizer(String text) {
+            this.text = text;
+            this.length = text.length();
+        }
+
+        private static boolean isWordStart(int c) {
+            return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || (c == '_') || (c >= 160);
+        }
+
+        private static boolean isNumberPart(int c) {
+            return ((c >= '0') && (c <= '9')) || (c == '.') || (c == '-');
+        }
+
+        /**
+         * @return the last word or quoted string, or the last number as an
+         *         integer string, as earlier versions stored the values
+         */
+        String stringValue() {
+            return (ttype == TT_NUMBER) ? Integer.toString((int) nval) : sval;
+        }
+
+        private int read() {
+            return (pos < length) ? text.charAt(pos++) : -1;
+        }
+
+        int nextToken() {
+            sval = null;
+            int c = read();
+            // Whitespace; line ends are tokens of their own
+            while ((c >= 0) && (c <= ' ')) {
+                if (c == '\r') {
+                    if ((pos < length) && (text.charAt(pos) == '\n')) {
+                        pos++;
+                    }
+                    return ttype = TT_EOL;
+                } else if (c == '\n') {
+                    return ttype = TT_EOL;
+                }
+                c = read();
+            }
+            if (c < 0) {
+                return ttype = TT_EOF;
+            }
+
+            if (isNumberPart(c)) {
+                boolean negative = false;
+                if (c == '-') {
+                    c = read();
+                    if ((c != '.') && ((c < '0') || (c > '9'))) {
+                        unread(c);
+                        return ttype = '-';
+                    }
+                    negative = true;
+                }
+                double value = 0;
+                int decimals = 0;
+                boolean seenDot = false;
+                while (true) {
+                    if ((c == '.') && !seenDot) {
+                        seenDot = true;
+                    } else if ((c >= '0') && (c <= '9')) {
+                        value = (value * 10) + (c - '0');
+                        if (seenDot) {
+                            decimals++;
+                        }
+                    } else {
+                        break;
+                    }
+                    c = read();
+                }
+                unread(c);
+                if (decimals != 0) {
+                    value /= Math.pow(10, decimals);
+                }
+                nval = negative ? -value : value;
+                return ttype = TT_NUMBER;
+            }
+
+            if (isWordStart(c)) {
+                int start = pos - 1;
+                do {
+                    c = read();
+                } while (isWordStart(c) || isNumberPart(c));
+                unread(c);
+                sval = text.substring(start, pos);
+                return ttype = TT_WORD;
+            }
+
+            if ((c == '"') || (c == '\'')) {
+                return readQuoted(c);
+            }
+
+            if ((c == '#') || (c == '/')) {
+                // A comment runs up to the end of the line, which remains a token
+                do {
+                    c = read();
+                } while ((c != '\n') && (c != '\r') && (c >= 0));
+                unread(c);
+                return nextToken();
+            }
+
+            return ttype = c;
+        }
+
+        private void unread(int c) {
+            if (c >= 0) {
+                pos--;
+            }
+        }
+
+        private int readQuoted(int quote) {
+            int start = pos;
+            // Fast path for the usual string without escapes
+            int end = start;
+            while (end < length) {
+                char d = text.charAt(end);
+                if ((d == quote) || (d == '\n') || (d == '\r') || (d == '\\')) {
+                    break;
+                }
+                end++;
+            }
+            if ((end == length) || (text.charAt(end) != '\\')) {
+                sval = text.substring(start, end);
+                pos = ((end < length) && (text.charAt(end) == quote)) ? end + 1 : end;
+                return ttype = quote;
+            }
+
+            StringBuilder sb = new StringBuilder();
+            int d = read();
+            while ((d >= 0) && (d != quote) && (d != '\n') && (d != '\r')) {
+                int c;
+                if (d == '\\') {
+                    c = read();
+                    int first = c;
+                    if ((c >= '0') && (c <= '7')) {
+                        c = c - '0';
+                        int c2 = read();
+                        if (('0' <= c2) && (c2 <= '7')) {
+                            c = (c << 3) + (c2 - '0');
+                            c2 = read();
+                            if (('0' <= c2) && (c2 <= '7') && (first <= '3')) {
+                                c = (c << 3) + (c2 - '0');
+                                d = read();
+                            } else {
+                                d = c2;
+                            }
+                        } else {
+                            d = c2;
+                        }
+                    } else {
+                        switch (c) {
+                            case 'a':
+                                c = 0x7;
+                                break;
+                            case 'b':
+                                c = '\b';
+                                break;
+                            case 'f':
+                                c = 0xC;
+                                break;
+                            case 'n':
+                                c = '\n';
+                                break;
+                            case 'r':
+                                c = '\r';
+                                break;
+                            case 't':
+                                c = '\t';
+                                break;
+                            case 'v':
+                                c = 0xB;
+                                break;
+                            default:
+                                break;
+                        }
+                        d = read();
+                    }
+                } else {
+                    c = d;
+                    d = read();
+                }
+                sb.append((char) c);
+            }
+            if (d != quote) {
+                unread(d);
+            }
+            sval = sb.toString();
+            return ttype = quote;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import megamek.MegaMek;
+import megamek.common.preference.PreferenceManager;
+
+/**
+ * Keeps parsed boards, keyed by a hash of the board file's contents, so that
+ * loading the same board again does not parse its text. The most recently
+ * used boards are kept in memory; all others are stored in the boardcache
+ * directory of the userdata directory, one binary file per board. As the
+ * key is a hash of the contents, a changed board file never matches its old
+ * cache entry. Such stale entries are removed once the directory grows past
+ * {@link #MAX_DIR_BYTES}: a cache file's modification time is updated
+ * whenever it is read, and the least recently used files are deleted first.
+ * <p>
+ * The cache can be turned off with the UseBoardCache client preference.
+ */
+final class BoardFileCache {
+
+    private static final String CACHE_DIR = "boardcache";
+
+    private static final String CACHE_EXTENSION = ".cache";
+
+    /** The number of boards kept in memory */
+    private static final int MEMORY_SIZE = 32;
+
+    /** The size of the cache directory above which old cache files are deleted */
+    static final long MAX_DIR_BYTES = 64L * 1024 * 1024;
+
+    /** Temporary files older than this are left over from a failed write */
+    private static final long TEMP_FILE_AGE = 24L * 60 * 60 * 1000;
+
+    private static final Map<String, BoardFile> memory = new LinkedHashMap<String, BoardFile>(16,
+            0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BoardFile> eldest) {
+            return size() > MEMORY_SIZE;
+        }
+    };
+
+    private BoardFileCache() {
+    }
+
+    /**
+     * @return the directory of the binary board cache
+     */
+    static File getCacheDir() {
+        return new File(Configuration.userdataDir(), CACHE_DIR);
+    }
+
+    /**
+     * Returns the contents of a board file, from the cache if possible.
+     *
+     * @param data the bytes of the board file
+     */
+    static BoardFile get(byte[] data) {
+        Charset charset = Charset.defaultCharset();
+        if (!PreferenceManager.getClientPreferences().useBoardCache()) {
+            return BoardFile.parse(new String(data, charset));
+        }
+        String key = hash(data, charset);
+        synchronized (memory) {
+            BoardFile board = memory.get(key);
+            if (board != null) {
+                return board;
+            }
+        }
+
+        File cacheFile = new File(getCacheDir(), key + CACHE_EXTENSION);
+        BoardFile board = read(cacheFile);
+        if (board == null) {
+            board = BoardFile.parse(new String(data, charset));
+            if (write(cacheFile, board)) {
+                prune(getCacheDir(), MAX_DIR_BYTES);
+            }
+        } else {
+            // Mark the file as recently used, so pruning keeps it
+            cacheFile.setLastModified(System.currentTimeMillis());
+        }
+        synchronized (memory) {
+            memory.put(key, board);
+        }
+        return board;
+    }
+
+    /**
+     * Forgets the boards kept in memory; the cache files remain.
+     */
+    static void clearMemory() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+
+    /**
+     * Deletes the least recently used cache files until the cache files in
+     * the directory take up no more than three quarters of the given size,
+     * if they take up more than the size. Temporary files left over from
+     * failed writes are deleted as well.
+     */
+    static void prune(File dir, long maxBytes) {
+        File[] tempFiles = dir.listFiles((d, name) -> name.endsWith(".tmp"));
+        if (tempFiles != null) {
+            long now = System.currentTimeMillis();
+            for (File tempFile : tempFiles) {
+                if (now - tempFile.lastModified() > TEMP_FILE_AGE) {
+                    tempFile.delete();
+                }
+            }
+        }
+
+        File[] files = dir.listFiles((d, name) -> name.endsWith(CACHE_EXTENSION));
+        if (files == null) {
+            return;
+        }
+        long total = 0;
+        long[] lastUsed = new long[files.length];
+        for (int i = 0; i < files.length; i++) {
+            total += files[i].length();
+            lastUsed[i] = files[i].lastModified();
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // The modification times are read once, as other instances may touch the files meanwhile
+        Arrays.sort(order, Comparator.comparingLong(i -> lastUsed[i]));
+        long target = maxBytes / 4 * 3;
+        for (int i = 0; (i < order.length) && (total > target); i++) {
+            File file = files[order[i]];
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    /**
+     * @return the hex encoded SHA-1 hash of the data and the charset used to
+     *         decode it
+     */
+    private static String hash(byte[] data, Charset charset) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(charset.name().getBytes(StandardCharsets.UTF_8));
+            digest.update(data);
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-1
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static BoardFile read(File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            return BoardFile.read(in);
+        } catch (IOException ex) {
+            MegaMek.getLogger().debug("Ignoring unreadable board cache file " + cacheFile + ": " + ex);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the board to the cache file. The file is written under a
+     * temporary name first and then moved into place, so that other
+     * instances never see a half written file.
+     *
+     * @return true if the file was written
+     */
+    private static boolean write(File cacheFile, BoardFile board) {
+        File dir = cacheFile.getParentFile();
+        File tempFile = null;
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                MegaMek.getLogger().debug("Can't create the board cache directory " + dir);
+                return false;
+            }
+            tempFile = File.createTempFile("board", ".tmp", dir);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(tempFile)))) {
+                board.write(out);
+            }
+            try {
+                Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException ex) {
+            MegaMek.getLogger().debug("Could not write board cache file " + cacheFile + ": " + ex);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+            return false;
+        }
+    }
+}
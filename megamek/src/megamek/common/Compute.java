@@ -120,6 +120,9 @@ public class Compute {
 
     private static MMRandom random = MMRandom.generate(MMRandom.R_DEFAULT);
 
+    /** The line buffer of {@link #getMetalInPath(Entity, Coords, Coords)}, one per thread */
+    private static final ThreadLocal<HexLine> METAL_LINE = ThreadLocal.withInitial(HexLine::new);
+
     private static final int[][] clusterHitsTable = new int[][]{
             {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1},
             {2, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2, 2},
@@ -5174,13 +5177,11 @@ public class Compute {
             return 0;
         }
 
-        // get intervening Coords.
-        ArrayList<Coords> coords = Coords.intervening(a, b);
-        // loop through all intervening coords, check each if they are ECM
-        // affected
+        // loop through all intervening hexes and add up their metal content
+        HexLine line = METAL_LINE.get().fill(a, b);
         int metalContent = 0;
-        for (Coords c : coords) {
-            IHex hex = board.getHex(c);
+        for (int i = 0; i < line.size(); i++) {
+            IHex hex = board.getHex(line.getX(i), line.getY(i));
             if (hex != null && hex.containsTerrain(Terrains.METAL_CONTENT)) {
                 metalContent += hex.terrainLevel(Terrains.METAL_CONTENT);
             }
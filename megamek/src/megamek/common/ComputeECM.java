@@ -23,6 +23,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Vector;
+import java.util.function.Function;
 
 import megamek.common.options.OptionsConstants;
 import megamek.server.SmokeCloud;
@@ -37,6 +38,9 @@ import megamek.server.SmokeCloud;
  */
 public class ComputeECM {
 
+    /** The line buffer of the space ECM checks, one per thread */
+    private static final ThreadLocal<HexLine> SPACE_LINE = ThreadLocal.withInitial(HexLine::new);
+
     /**
      * This method checks to see if a line from a to b is affected by any ECM
      * field (including Angel) of the enemy of ae
@@ -167,23 +171,24 @@ public class ComputeECM {
         }
     
         // get intervening Coords.
-        ArrayList<Coords> coords = Coords.intervening(a, b);
+        HexLine line = SPACE_LINE.get().fill(a, b);
         // loop through all intervening coords, check each if they are ECM
         // affected
         int totalECM = 0;
         // check for split hexes
         boolean bDivided = ((a.degree(b) % 60) == 30);
-        int x = 0;
         int prevEcmStatus = 0;
         boolean prevEccmPresent = false;
-        for (Coords c : coords) {
+        for (int x = 0; x < line.size(); x++) {
+            int cx = line.getX(x);
+            int cy = line.getY(x);
             int ecmStatus = 0;
             boolean eccmPresent = false;
             // first, subtract 1 for each enemy ECM that affects us
             Enumeration<Integer> ranges = vEnemyECMRanges.elements();
             for (Coords enemyECMCoords : vEnemyECMCoords) {
                 int range = ranges.nextElement().intValue();
-                int nDist = c.distance(enemyECMCoords);
+                int nDist = enemyECMCoords.distance(cx, cy);
                 if (nDist <= range) {
                     ecmStatus++;
                 }
@@ -192,7 +197,7 @@ public class ComputeECM {
             ranges = vFriendlyECCMRanges.elements();
             for (Coords friendlyECCMCoords : vFriendlyECCMCoords) {
                 int range = ranges.nextElement().intValue();
-                int nDist = c.distance(friendlyECCMCoords);
+                int nDist = friendlyECCMCoords.distance(cx, cy);
                 if (nDist <= range) {
                     eccmPresent = true;
                     break;
@@ -204,14 +209,14 @@ public class ComputeECM {
                 Enumeration<Integer> facings = vFriendlyBAPFacings.elements();
                 for (Coords friendlyBAPCoords : vFriendlyBAPCoords) {
                     int range = ranges.nextElement().intValue();
-                    int nDist = c.distance(friendlyBAPCoords);
+                    int nDist = friendlyBAPCoords.distance(cx, cy);
                     int facing = facings.nextElement().intValue();
                     if (nDist <= range) {
                         // still might need to check for right arc if using
                         // medium range
                         if ((range < 7)
                             || Compute.isInArc(friendlyBAPCoords, facing,
-                                               c, Compute.ARC_NOSE)) {
+                                               new Coords(cx, cy), Compute.ARC_NOSE)) {
                             eccmPresent = true;
                             break;
                         }
@@ -232,7 +237,6 @@ public class ComputeECM {
                     totalECM++;
                 }
             }
-            x++;
             prevEccmPresent = eccmPresent;
             prevEcmStatus = ecmStatus;
     
@@ -290,14 +294,15 @@ public class ComputeECM {
         }
     
         // get intervening Coords.
-        ArrayList<Coords> coords = Coords.intervening(a, b);
+        HexLine line = SPACE_LINE.get().fill(a, b);
         // loop through all intervening coords, check each if they are ECM
         // affected
         int totalECM = 0;
         boolean bDivided = ((a.degree(b) % 60) == 30);
-        int x = 0;
         int prevEcmStatus = 0;
-        for (Coords c : coords) {
+        for (int x = 0; x < line.size(); x++) {
+            int cx = line.getX(x);
+            int cy = line.getY(x);
             // > 0: in friendly ECCM
             // 0: unaffected by enemy ECM
             // <0: affected by enemy ECM
@@ -306,7 +311,7 @@ public class ComputeECM {
             Enumeration<Integer> ranges = vEnemyECMRanges.elements();
             for (Coords enemyECMCoords : vEnemyECMCoords) {
                 int range = ranges.nextElement().intValue();
-                int nDist = c.distance(enemyECMCoords);
+                int nDist = enemyECMCoords.distance(cx, cy);
                 if (nDist <= range) {
                     ecmStatus++;
                 }
@@ -315,7 +320,7 @@ public class ComputeECM {
             ranges = vFriendlyECCMRanges.elements();
             for (Coords friendlyECCMCoords : vFriendlyECCMCoords) {
                 int range = ranges.nextElement().intValue();
-                int nDist = c.distance(friendlyECCMCoords);
+                int nDist = friendlyECCMCoords.distance(cx, cy);
                 if (nDist <= range) {
                     ecmStatus--;
                 }
@@ -325,14 +330,14 @@ public class ComputeECM {
             Enumeration<Integer> facings = vFriendlyBAPFacings.elements();
             for (Coords friendlyBAPCoords : vFriendlyBAPCoords) {
                 int range = ranges.nextElement().intValue();
-                int nDist = c.distance(friendlyBAPCoords);
+                int nDist = friendlyBAPCoords.distance(cx, cy);
                 int facing = facings.nextElement().intValue();
                 if (nDist <= range) {
                     // still might need to check for right arc if using medium
                     // range
                     if ((range < 7)
-                        || Compute.isInArc(friendlyBAPCoords, facing, c,
-                                           Compute.ARC_NOSE)) {
+                        || Compute.isInArc(friendlyBAPCoords, facing,
+                                           new Coords(cx, cy), Compute.ARC_NOSE)) {
                         ecmStatus = ecmStatus - 2;
                     }
                 }
@@ -350,7 +355,6 @@ public class ComputeECM {
                     totalECM++;
                 }
             }
-            x++;
             prevEcmStatus = ecmStatus;
         }
         return totalECM;
@@ -365,13 +369,8 @@ public class ComputeECM {
      */
     public static List<ECMInfo> computeAllEntitiesECMInfo(
             List<Entity> entities) {
-        Comparator<ECMInfo> ecmComparator;
-        ecmComparator = new ECMInfo.ECCMComparator();
-        
         ArrayList<ECMInfo> allEcmInfo = new ArrayList<ECMInfo>(entities.size());
         ArrayList<ECMInfo> allEccmInfo = new ArrayList<ECMInfo>(entities.size());
-        // ECCM that counter an ECM need to get removed from allEcmInfo later
-        LinkedList<ECMInfo> eccmToRemove = new LinkedList<ECMInfo>();
         
         IGame game = null;
         for (Entity e : entities) {
@@ -393,17 +392,40 @@ public class ComputeECM {
         if ((entities.size() < 1) || (game == null)) {
             return allEcmInfo;
         }
-        
-        // Add ECMInfo for chaff 
+        allEcmInfo.addAll(getChaffECMInfo(game));
+        resolveECCM(allEcmInfo, allEccmInfo, game);
+        return allEcmInfo;
+    }
+    
+    /**
+     * @return an ECMInfo for each hex covered by light chaff
+     */
+    static List<ECMInfo> getChaffECMInfo(IGame game) {
+        List<ECMInfo> chaffInfo = new ArrayList<ECMInfo>();
         for (SmokeCloud cloud : game.getSmokeCloudList()) {
             if (cloud.getSmokeLevel() == SmokeCloud.SMOKE_CHAFF_LIGHT) {
                 for (Coords c : cloud.getCoordsList()) {
                     ECMInfo ecmInfo = new ECMInfo(1, c, null, 1, 0);
-                    allEcmInfo.add(ecmInfo);
+                    chaffInfo.add(ecmInfo);
                 }
             }
         }
-        
+        return chaffInfo;
+    }
+
+    /**
+     * Sorts the ECM and ECCM fields by strength and removes the ECM negated by
+     * ECCM, and the ECCM used up doing so, from allEcmInfo.
+     *
+     * @param allEcmInfo  All ECM and ECCM fields
+     * @param allEccmInfo The ECCM fields among them
+     */
+    static void resolveECCM(List<ECMInfo> allEcmInfo, List<ECMInfo> allEccmInfo,
+            IGame game) {
+        Comparator<ECMInfo> ecmComparator = new ECMInfo.ECCMComparator();
+        // ECCM that counter an ECM need to get removed from allEcmInfo later
+        LinkedList<ECMInfo> eccmToRemove = new LinkedList<ECMInfo>();
+
         // Sort the ECM, as we need to take care of the stronger ECM/ECCM first
         // ie; Angel ECCM can counter any number of ECM, however if an angel
         //  ECM counters it first...
@@ -463,10 +485,8 @@ public class ComputeECM {
             }
             allEcmInfo.removeAll(eccmToRemove);
         }
-        
-        return allEcmInfo;
     }
-    
+
     /**
      * Returns the total ECM effects on the supplied unit.
      *
@@ -499,6 +519,24 @@ public class ComputeECM {
         
         // Get intervening Coords
         ArrayList<Coords> coords = Coords.intervening(a, b);
+        if (allEcmInfo instanceof ECMField) {
+            // Only look at the fields covering each hex
+            return ((ECMField) allEcmInfo).getECMEffects(ae, coords,
+                    ecmComparator);
+        }
+        final List<ECMInfo> fields = allEcmInfo;
+        return getECMEffects(ae, coords, ecmComparator, c -> fields);
+    }
+
+    /**
+     * Returns the worst ECM effects on the supplied unit along the coords.
+     *
+     * @param fieldsAt Gives the E(C)CM fields that may cover a hex; fields
+     *                 that are out of range of the hex are skipped
+     */
+    static ECMInfo getECMEffects(Entity ae, List<Coords> coords,
+            Comparator<ECMInfo> ecmComparator,
+            Function<Coords, List<ECMInfo>> fieldsAt) {
         ECMInfo worstECMEffects = null;
         // Loop through intervening coords, and find the worst effects        
         for (Coords c : coords) {
@@ -506,7 +544,7 @@ public class ComputeECM {
             if (c.equals(ae.getPosition()) && ae.isINarcedWith(INarcPod.ECM)) {
                 affectedInfo = new ECMInfo(0, 1, ae.getOwner(), c);
             }
-            for (ECMInfo ecmInfo : allEcmInfo) {
+            for (ECMInfo ecmInfo : fieldsAt.apply(c)) {
                 // Is the ECMInfo in range of this position?
                 int dist = c.distance(ecmInfo.getPos());
                 if (dist <= ecmInfo.getRange()) {
@@ -366,6 +366,15 @@ public class Coords implements Serializable {
      * @return The list of intervening coordinates.
      */
     public static ArrayList<Coords> intervening(Coords src, Coords dest, boolean split) {
+        return HexLineTable.intervening(src, dest, split);
+    }
+
+    /**
+     * Computes the list returned by {@link #intervening(Coords, Coords, boolean)}
+     * by intersecting the line with the hexes along it. Used to fill the
+     * {@link HexLineTable}.
+     */
+    static ArrayList<Coords> computeIntervening(Coords src, Coords dest, boolean split) {
         IdealHex iSrc = IdealHex.get(src);
         IdealHex iDest = IdealHex.get(dest);
 
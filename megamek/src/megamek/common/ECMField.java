@@ -0,0 +1,212 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The E(C)CM fields of a game together with the fields covering each hex.
+ * <p>
+ * As a list, it holds the same fields as
+ * {@link ComputeECM#computeAllEntitiesECMInfo(List)} returns and can be passed
+ * wherever such a list is expected. {@link ComputeECM} then only looks at the
+ * fields covering each hex of a line instead of measuring the distance to
+ * every field.
+ * <p>
+ * {@link #update()} brings the fields up to date after units have moved,
+ * changed the mode of their E(C)CM or were destroyed or removed. Only the
+ * hexes of the fields that changed are touched. The field may be updated by
+ * one thread while others look up ECM effects.
+ */
+public class ECMField extends AbstractList<ECMInfo> {
+
+    private final IGame game;
+
+    /** Per entity id, its ECM and ECCM fields as of the last update */
+    private final Map<Integer, ECMInfo[]> entityFields = new HashMap<>();
+
+    /** The fields of light chaff as of the last update */
+    private List<ECMInfo> chaffFields = Collections.emptyList();
+
+    /** The fields in effect, in the order of computeAllEntitiesECMInfo */
+    private volatile List<ECMInfo> fields = Collections.emptyList();
+
+    /** Per hex, the fields in effect that cover it */
+    private final Map<Coords, List<ECMInfo>> hexFields = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ECMField(IGame game) {
+        this.game = game;
+        update();
+    }
+
+    public IGame getGame() {
+        return game;
+    }
+
+    /**
+     * Brings the fields up to date with the game's entities and smoke
+     * clouds.
+     */
+    public void update() {
+        lock.writeLock().lock();
+        try {
+            List<ECMInfo> allEcmInfo = new ArrayList<>();
+            List<ECMInfo> allEccmInfo = new ArrayList<>();
+            Map<Integer, ECMInfo[]> oldEntityFields = new HashMap<>(entityFields);
+            entityFields.clear();
+            List<Entity> entities = game.getEntitiesVector();
+            for (Entity e : entities) {
+                ECMInfo[] oldFields = oldEntityFields.get(e.getId());
+                // Keep the old field when it is unchanged, so its hexes stay as they are
+                ECMInfo ecmInfo = unchanged(e.getECMInfo(), (oldFields == null) ? null : oldFields[0]);
+                ECMInfo eccmInfo = unchanged(e.getECCMInfo(), (oldFields == null) ? null : oldFields[1]);
+                entityFields.put(e.getId(), new ECMInfo[] { ecmInfo, eccmInfo });
+                if (ecmInfo != null) {
+                    allEcmInfo.add(ecmInfo);
+                }
+                if (eccmInfo != null) {
+                    allEcmInfo.add(eccmInfo);
+                    allEccmInfo.add(eccmInfo);
+                }
+            }
+
+            if (!entities.isEmpty()) {
+                List<ECMInfo> newChaffFields = ComputeECM.getChaffECMInfo(game);
+                if (!newChaffFields.equals(chaffFields)) {
+                    chaffFields = newChaffFields;
+                }
+                allEcmInfo.addAll(chaffFields);
+                ComputeECM.resolveECCM(allEcmInfo, allEccmInfo, game);
+            }
+
+            Set<ECMInfo> oldInEffect = Collections.newSetFromMap(new IdentityHashMap<>());
+            oldInEffect.addAll(fields);
+            Set<ECMInfo> newInEffect = Collections.newSetFromMap(new IdentityHashMap<>());
+            newInEffect.addAll(allEcmInfo);
+            for (ECMInfo info : fields) {
+                if (!newInEffect.contains(info)) {
+                    removeFromHexes(info);
+                }
+            }
+            for (ECMInfo info : allEcmInfo) {
+                if (!oldInEffect.contains(info)) {
+                    addToHexes(info);
+                }
+            }
+            fields = Collections.unmodifiableList(allEcmInfo);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the old field if the new one is the same, otherwise the new one
+     */
+    private static ECMInfo unchanged(ECMInfo info, ECMInfo oldInfo) {
+        // Clients replace the entity and player objects on updates; the
+        // fields should refer to the current ones
+        if ((oldInfo != null) && oldInfo.equals(info) && (oldInfo.getEntity() == info.getEntity())
+                && (oldInfo.getOwner() == info.getOwner())) {
+            return oldInfo;
+        }
+        return info;
+    }
+
+    private void addToHexes(ECMInfo info) {
+        if (info.getPos() == null) {
+            return;
+        }
+        for (int dist = 0; dist <= info.getRange(); dist++) {
+            for (Coords c : info.getPos().allAtDistance(dist)) {
+                hexFields.computeIfAbsent(c, k -> new ArrayList<>(2)).add(info);
+            }
+        }
+    }
+
+    private void removeFromHexes(ECMInfo info) {
+        if (info.getPos() == null) {
+            return;
+        }
+        for (int dist = 0; dist <= info.getRange(); dist++) {
+            for (Coords c : info.getPos().allAtDistance(dist)) {
+                List<ECMInfo> covering = hexFields.get(c);
+                if (covering == null) {
+                    continue;
+                }
+                // Equal fields of different units are different entries
+                for (Iterator<ECMInfo> iter = covering.iterator(); iter.hasNext();) {
+                    if (iter.next() == info) {
+                        iter.remove();
+                        break;
+                    }
+                }
+                if (covering.isEmpty()) {
+                    hexFields.remove(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the fields in effect that cover the hex; the list must not be
+     *         kept beyond the current lookup
+     */
+    private List<ECMInfo> getFields(Coords c) {
+        List<ECMInfo> covering = hexFields.get(c);
+        return (covering == null) ? Collections.emptyList() : covering;
+    }
+
+    /**
+     * Returns the worst ECM effects on the unit along the coords, looking up
+     * the fields of each hex once.
+     */
+    ECMInfo getECMEffects(Entity ae, List<Coords> coords, Comparator<ECMInfo> ecmComparator) {
+        lock.readLock().lock();
+        try {
+            return ComputeECM.getECMEffects(ae, coords, ecmComparator, this::getFields);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public ECMInfo get(int index) {
+        return fields.get(index);
+    }
+
+    @Override
+    public int size() {
+        return fields.size();
+    }
+
+    @Override
+    public Iterator<ECMInfo> iterator() {
+        // Iterate over the fields as they are now, even when updated meanwhile
+        return fields.iterator();
+    }
+}
@@ -3288,6 +3288,40 @@ public abstract class Entity extends TurnOrdered implements Transporter, Targeta
         armor[loc] = val;
     }
 
+    /**
+     * Returns a copy of the front or rear armor of all locations, as kept in
+     * an {@link EntityStateUpdate}, or null if the entity has no such armor.
+     */
+    int[] copyArmorValues(boolean rear) {
+        return rear ? null : armor.clone();
+    }
+
+    /**
+     * Replaces the front or rear armor of all locations with the values of
+     * {@link #copyArmorValues(boolean)}.
+     */
+    void restoreArmorValues(int[] values, boolean rear) {
+        if (!rear) {
+            armor = values.clone();
+        }
+    }
+
+    /**
+     * Returns a copy of the internal structure of all locations, as kept in
+     * an {@link EntityStateUpdate}.
+     */
+    int[] copyInternalValues() {
+        return internal.clone();
+    }
+
+    /**
+     * Replaces the internal structure of all locations with the values of
+     * {@link #copyInternalValues()}.
+     */
+    void restoreInternalValues(int[] values) {
+        internal = values.clone();
+    }
+
     public void refreshLocations() {
         armor = new int[locations()];
         internal = new int[locations()];
@@ -0,0 +1,67 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A list of entities together with the lookups a game keeps for them, by id
+ * and by position. Building it doesn't touch any game, so a client can build
+ * it on its connection thread and have the game take it over with
+ * {@link IGame#setEntitiesVector(EntityIndex)} on the event dispatch thread.
+ * The index is used up by the game that takes it over.
+ */
+public final class EntityIndex {
+
+    private final List<Entity> entities;
+    private final Hashtable<Integer, Entity> byId = new Hashtable<>();
+    private final Map<Coords, HashSet<Integer>> byPosition = new HashMap<>();
+    private int lastId;
+
+    public EntityIndex(List<Entity> entities) {
+        this.entities = new ArrayList<>(entities);
+        for (Entity entity : this.entities) {
+            final int id = entity.getId();
+            byId.put(id, entity);
+            if (id > lastId) {
+                lastId = id;
+            }
+            for (Coords pos : entity.getOccupiedCoords()) {
+                byPosition.computeIfAbsent(pos, c -> new HashSet<>()).add(id);
+            }
+        }
+    }
+
+    List<Entity> getEntities() {
+        return entities;
+    }
+
+    Hashtable<Integer, Entity> getById() {
+        return byId;
+    }
+
+    Map<Coords, HashSet<Integer>> getByPosition() {
+        return byPosition;
+    }
+
+    int getLastId() {
+        return lastId;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+
+import megamek.common.net.marshall.BinaryCodec;
+
+/**
+ * The fields of an entity that change most often during a game: its
+ * position, facings, heat, armor and internal structure. When nothing else
+ * about an entity changed, the server sends these instead of the whole
+ * entity, and the client copies them into the entity it already has.
+ * <p>
+ * The fields are copied as they are stored, without the side effects of the
+ * entity's setters, so an entity that had the state of an update applied is
+ * the same as the one the update was taken from.
+ */
+public final class EntityStateUpdate implements Serializable {
+
+    private static final long serialVersionUID = 3907612383520916416L;
+
+    /** The names of the fields of {@link Entity} that an update carries */
+    private static final Set<String> ENTITY_FIELDS = Set.of("position", "facing", "sec_facing", "heat", "armor",
+            "internal");
+
+    /** The name of the field of {@link Mech} that an update carries */
+    private static final String MECH_FIELD = "rearArmor";
+
+    private final int entityId;
+    private final Coords position;
+    private final int facing;
+    private final int secondaryFacing;
+    private final int heat;
+    private final int[] armor;
+    private final int[] rearArmor;
+    private final int[] internal;
+
+    /**
+     * Creates an update holding the current state of the given entity.
+     */
+    public EntityStateUpdate(Entity entity) {
+        this(entity.getId(), entity.getPosition(), entity.facing, entity.sec_facing, entity.heat,
+                entity.copyArmorValues(false), entity.copyArmorValues(true), entity.copyInternalValues());
+    }
+
+    /**
+     * Creates an update from its fields, e.g. when it is read from a packet.
+     */
+    public EntityStateUpdate(int entityId, Coords position, int facing, int secondaryFacing, int heat,
+            int[] armor, int[] rearArmor, int[] internal) {
+        this.entityId = entityId;
+        this.position = position;
+        this.facing = facing;
+        this.secondaryFacing = secondaryFacing;
+        this.heat = heat;
+        this.armor = Objects.requireNonNull(armor);
+        this.rearArmor = rearArmor;
+        this.internal = Objects.requireNonNull(internal);
+    }
+
+    /**
+     * Copies the state held by this update into the given entity, which must
+     * be the one the update was taken from.
+     */
+    public void applyTo(Entity entity) {
+        // the game's position lookup is rebuilt along with the entity list
+        entity.setPosition(position, false);
+        entity.facing = facing;
+        entity.sec_facing = secondaryFacing;
+        entity.heat = heat;
+        entity.restoreArmorValues(armor, false);
+        if (rearArmor != null) {
+            entity.restoreArmorValues(rearArmor, true);
+        }
+        entity.restoreInternalValues(internal);
+    }
+
+    /**
+     * Writes this update in the compact form of the binary marshalling.
+     *
+     * @see #readCompact(DataInput)
+     */
+    public void writeCompact(DataOutput out) throws IOException {
+        out.writeInt(entityId);
+        BinaryCodec.writeCoords(out, position);
+        out.writeInt(facing);
+        out.writeInt(secondaryFacing);
+        out.writeInt(heat);
+        BinaryCodec.writeInts(out, armor);
+        BinaryCodec.writeInts(out, rearArmor);
+        BinaryCodec.writeInts(out, internal);
+    }
+
+    /**
+     * Reads an update previously written by {@link #writeCompact(DataOutput)}.
+     */
+    public static EntityStateUpdate readCompact(DataInput in) throws IOException {
+        int entityId = in.readInt();
+        Coords position = BinaryCodec.readCoords(in);
+        int facing = in.readInt();
+        int secondaryFacing = in.readInt();
+        int heat = in.readInt();
+        int[] armor = BinaryCodec.readInts(in);
+        int[] rearArmor = BinaryCodec.readInts(in);
+        int[] internal = BinaryCodec.readInts(in);
+        if ((armor == null) || (internal == null)) {
+            throw new IOException("Entity state update without armor or internal structure");
+        }
+        return new EntityStateUpdate(entityId, position, facing, secondaryFacing, heat, armor, rearArmor,
+                internal);
+    }
+
+    /**
+     * Returns true if the given field is one of the entity fields an update
+     * carries. Comparing entities while leaving these fields out tells
+     * whether an update is enough to bring one up to date.
+     */
+    public static boolean isStateField(Field field) {
+        if (field.getDeclaringClass() == Entity.class) {
+            return ENTITY_FIELDS.contains(field.getName());
+        }
+        return (field.getDeclaringClass() == Mech.class) && MECH_FIELD.equals(field.getName());
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public Coords getPosition() {
+        return position;
+    }
+
+    public int getFacing() {
+        return facing;
+    }
+
+    public int getSecondaryFacing() {
+        return secondaryFacing;
+    }
+
+    public int getHeat() {
+        return heat;
+    }
+
+    public int[] getArmor() {
+        return armor;
+    }
+
+    /**
+     * @return the rear armor of all locations, or null if the entity has none
+     */
+    public int[] getRearArmor() {
+        return rearArmor;
+    }
+
+    public int[] getInternal() {
+        return internal;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof EntityStateUpdate)) {
+            return false;
+        }
+        EntityStateUpdate other = (EntityStateUpdate) obj;
+        return (entityId == other.entityId) && Objects.equals(position, other.position)
+                && (facing == other.facing) && (secondaryFacing == other.secondaryFacing)
+                && (heat == other.heat) && Arrays.equals(armor, other.armor)
+                && Arrays.equals(rearArmor, other.rearArmor) && Arrays.equals(internal, other.internal);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entityId, position, facing, secondaryFacing, heat) * 31 + Arrays.hashCode(armor);
+    }
+}
@@ -513,6 +513,11 @@ public class EquipmentType implements ITechnology {
     }
 
     public boolean hasFlag(BigInteger flag) {
+        // The flags are single bits; testing the bit doesn't create a new
+        // BigInteger, which matters as this is called for every move step
+        if (flag.bitCount() == 1) {
+            return (flag.signum() > 0) && flags.testBit(flag.getLowestSetBit());
+        }
         return !(flags.and(flag)).equals(BigInteger.valueOf(0));
     }
 
@@ -101,7 +101,7 @@ public class Game implements Serializable, IGame {
 
     private Hashtable<Integer, IPlayer> playerIds = new Hashtable<Integer, IPlayer>();
 
-    private final Map<Coords, HashSet<Integer>> entityPosLookup = new HashMap<>();
+    private Map<Coords, HashSet<Integer>> entityPosLookup = new HashMap<>();
 
     /**
      * have the entities been deployed?
@@ -949,12 +949,27 @@ public class Game implements Serializable, IGame {
     }
 
     public synchronized void setEntitiesVector(List<Entity> entities) {
+        setEntitiesVector(new EntityIndex(entities));
+    }
+
+    /**
+     * Replaces the entities with those of the given index, taking over its
+     * lookups instead of building them.
+     */
+    public synchronized void setEntitiesVector(EntityIndex index) {
         //checkPositionCacheConsistency();
-        this.entities.clear();
-        this.entities.addAll(entities);
-        reindexEntities();
-        resetEntityPositionLookup();
-        processGameEvent(new GameEntityNewEvent(this, entities));
+        entities.clear();
+        entities.addAll(index.getEntities());
+        entityIds = index.getById();
+        lastEntityId = index.getLastId();
+        // We need to ensure that each entity has the propery Game reference
+        //  however, the entityIds Hashmap must be fully formed before this
+        //  is called, since setGame also calls setGame for loaded Entities
+        for (Entity entity : entities) {
+            entity.setGame(this);
+        }
+        entityPosLookup = index.getByPosition();
+        processGameEvent(new GameEntityNewEvent(this, index.getEntities()));
     }
 
     /**
@@ -1505,33 +1520,6 @@ public class Game implements Serializable, IGame {
 //        }
 //    }
 
-    /**
-     * Regenerates the entities by id hashtable by going thru all entities in
-     * the Vector
-     */
-    private void reindexEntities() {
-        entityIds.clear();
-        lastEntityId = 0;
-
-        if (entities != null) {
-            // Add these entities to the game.
-            for (Entity entity : entities) {
-                final int id = entity.getId();
-                entityIds.put(Integer.valueOf(id), entity);
-
-                if (id > lastEntityId) {
-                    lastEntityId = id;
-                }
-            }
-            // We need to ensure that each entity has the propery Game reference
-            //  however, the entityIds Hashmap must be fully formed before this
-            //  is called, since setGame also calls setGame for loaded Entities
-            for (Entity entity : entities) {
-                entity.setGame(this);
-            }
-        }
-    }
-
     /**
      * Returns the first entity at the given coordinate, if any. Only returns
      * targetable (non-dead) entities.
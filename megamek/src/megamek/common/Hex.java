@@ -31,14 +31,39 @@ public class Hex implements IHex, Serializable {
      *
      */
     private static final long serialVersionUID = 82483704768044698L;
+    private static final ITerrain[] NO_TERRAINS = new ITerrain[0];
+    private static final int[] NO_LEVELS = new int[0];
+
+    static {
+        // terrainMask has one bit per terrain type. Widen it to a long[]
+        // before adding terrain types beyond what a long can hold.
+        if (Terrains.SIZE > Long.SIZE) {
+            throw new ExceptionInInitializerError("Hex supports at most " + Long.SIZE
+                    + " terrain types, but there are " + Terrains.SIZE);
+        }
+    }
+
     private int level;
     /**
-     * A HashMap to <code>terrains</code>. It contains the exact same terrain
-     * types that the old <code>terrains</code> did, however it allows an
-     * efficient way to access all present terrains.
-     *
+     * The terrain types present in this hex: bit <code>n</code> is set when the
+     * hex contains a terrain of type <code>n</code>.
+     */
+    private long terrainMask;
+    /**
+     * The terrains present in this hex, ordered by type. The index of a type
+     * is the number of lower types present, see {@link #indexOf(int)}.
+     */
+    private ITerrain[] terrainArray = NO_TERRAINS;
+    /**
+     * The levels of the terrains in <code>terrainArray</code>. Terrain levels
+     * never change, so they can be read without touching the terrains.
      */
-    private HashMap<Integer, ITerrain> terrains = new HashMap<Integer, ITerrain>(1);
+    private int[] terrainLevels = NO_LEVELS;
+    /**
+     * The terrains as stored by older versions. Only set while reading such a
+     * hex from a save game, see {@link #readResolve()}.
+     */
+    private HashMap<Integer, ITerrain> terrains;
     private String theme;
     private String originalTheme;
     private int fireTurn;
@@ -64,7 +89,7 @@ public class Hex implements IHex, Serializable {
         coords = c;
         for (ITerrain t : terrains) {
             if (t != null)
-                this.terrains.put(t.getType(), t);
+                addTerrain(t);
         }
 
         if ((theme == null) || (theme.length() > 0)) {
@@ -93,7 +118,13 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#getTerrainTypes()
      */
     public int[] getTerrainTypes() {
-        return terrains.keySet().stream().mapToInt(Integer::intValue).toArray();
+        int[] types = new int[terrainArray.length];
+        long mask = terrainMask;
+        for (int i = 0; mask != 0; i++) {
+            types[i] = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+        }
+        return types;
     }
 
     /*
@@ -143,9 +174,8 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#clearExits()
      */
     public void clearExits() {
-        for (Integer i : terrains.keySet()) {
-            ITerrain t = terrains.get(i);
-            if ((t != null) && !t.hasExitsSpecified()) {
+        for (ITerrain t : terrainArray) {
+            if (!t.hasExitsSpecified()) {
                 t.setExits(0);
             }
         }
@@ -166,16 +196,15 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#setExits(megamek.common.IHex, int, boolean)
      */
     public void setExits(IHex other, int direction, boolean roadsAutoExit) {
-        for (Integer i : terrains.keySet()) {
-            ITerrain cTerr = getTerrain(i);
+        for (ITerrain cTerr : terrainArray) {
             ITerrain oTerr;
 
-            if ((cTerr == null) || cTerr.hasExitsSpecified()) {
+            if (cTerr.hasExitsSpecified()) {
                 continue;
             }
 
             if (other != null) {
-                oTerr = other.getTerrain(i);
+                oTerr = other.getTerrain(cTerr.getType());
             } else {
                 oTerr = null;
             }
@@ -231,11 +260,12 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#containsExit(int)
      */
     public boolean containsExit(int direction) {
-        boolean rv = false;
-        for (Integer terrType : terrains.keySet()) {
-            rv |= containsTerrainExit(terrType, direction);
+        for (ITerrain terrain : terrainArray) {
+            if (containsTerrainExit(terrain.getType(), direction)) {
+                return true;
+            }
         }
-        return rv;
+        return false;
     }
 
     /*
@@ -244,11 +274,12 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#hasExitableTerrain()
      */
     public boolean hasExitableTerrain() {
-        boolean rv = false;
-        for (Integer terrType : terrains.keySet()) {
-            rv |= Terrains.exitableTerrain(terrType);
+        for (ITerrain terrain : terrainArray) {
+            if (Terrains.exitableTerrain(terrain.getType())) {
+                return true;
+            }
         }
-        return rv;
+        return false;
     }
 
     /*
@@ -267,11 +298,13 @@ public class Hex implements IHex, Serializable {
     public int maxTerrainFeatureElevation(boolean inAtmo) {
         int maxFeature = 0;
         int featureElev;
-        for (Integer terrainType : terrains.keySet()) {
-            featureElev = terrains.get(terrainType).getTerrainElevation(inAtmo);
+        long mask = terrainMask;
+        for (int i = 0; mask != 0; i++) {
+            featureElev = Terrains.getTerrainElevation(Long.numberOfTrailingZeros(mask), terrainLevels[i], inAtmo);
             if (featureElev > maxFeature) {
                 maxFeature = featureElev;
             }
+            mask &= mask - 1;
         }
         return maxFeature;
     }
@@ -310,16 +343,11 @@ public class Hex implements IHex, Serializable {
      */
     public int depth(boolean hidden) {
         int depth = 0;
-        ITerrain water = getTerrain(Terrains.WATER);
-        ITerrain basement = getTerrain(Terrains.BLDG_BASEMENT_TYPE);
-
-        if (water != null) {
-            depth += water.getLevel();
+        if (containsTerrain(Terrains.WATER)) {
+            depth += terrainLevel(Terrains.WATER);
         }
-        if (basement != null) {
-            if (hidden) {
-                depth += BasementType.getType(basement.getLevel()).getDepth();
-            }
+        if (hidden && containsTerrain(Terrains.BLDG_BASEMENT_TYPE)) {
+            depth += BasementType.getType(terrainLevel(Terrains.BLDG_BASEMENT_TYPE)).getDepth();
         }
 
         return depth;
@@ -331,8 +359,8 @@ public class Hex implements IHex, Serializable {
      * @return
      */
     public boolean hasTerrainfactor() {
-        for (int type : terrains.keySet()) {
-            if (terrains.get(type).getTerrainFactor() > 0) {
+        for (ITerrain terrain : terrainArray) {
+            if (terrain.getTerrainFactor() > 0) {
                 return true;
             }
         }
@@ -345,7 +373,7 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#contains(int)
      */
     public boolean containsTerrain(int type) {
-        return getTerrain(type) != null;
+        return (type >= 0) && (type < Long.SIZE) && ((terrainMask & (1L << type)) != 0);
     }
     
     /*
@@ -382,11 +410,7 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#contains(int, int)
      */
     public boolean containsTerrain(int type, int level) {
-        ITerrain terrain = getTerrain(type);
-        if (terrain != null) {
-            return terrain.getLevel() == level;
-        }
-        return false;
+        return containsTerrain(type) && (terrainLevels[indexOf(type)] == level);
     }
 
     /*
@@ -404,9 +428,8 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#levelOf(int)
      */
     public int terrainLevel(int type) {
-        ITerrain terrain = getTerrain(type);
-        if (terrain != null) {
-            return terrain.getLevel();
+        if (containsTerrain(type)) {
+            return terrainLevels[indexOf(type)];
         }
         return ITerrain.LEVEL_NONE;
     }
@@ -417,7 +440,18 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#getTerrain(int)
      */
     public ITerrain getTerrain(int type) {
-        return terrains.get(type);
+        if (containsTerrain(type)) {
+            return terrainArray[indexOf(type)];
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the given terrain type in the terrain arrays, or
+     * the index it would be inserted at if it is not present.
+     */
+    private int indexOf(int type) {
+        return Long.bitCount(terrainMask & ((1L << type) - 1));
     }
 
     /*
@@ -426,7 +460,25 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#addTerrain(megamek.common.Terrain)
      */
     public void addTerrain(ITerrain terrain) {
-        terrains.put(terrain.getType(), terrain);
+        int type = terrain.getType();
+        if ((type < 0) || (type >= Long.SIZE)) {
+            throw new IllegalArgumentException("Invalid terrain type: " + type);
+        }
+        int index = indexOf(type);
+        if (!containsTerrain(type)) {
+            int count = terrainArray.length;
+            ITerrain[] newTerrains = new ITerrain[count + 1];
+            int[] newLevels = new int[count + 1];
+            System.arraycopy(terrainArray, 0, newTerrains, 0, index);
+            System.arraycopy(terrainArray, index, newTerrains, index + 1, count - index);
+            System.arraycopy(terrainLevels, 0, newLevels, 0, index);
+            System.arraycopy(terrainLevels, index, newLevels, index + 1, count - index);
+            terrainArray = newTerrains;
+            terrainLevels = newLevels;
+            terrainMask |= 1L << type;
+        }
+        terrainArray[index] = terrain;
+        terrainLevels[index] = terrain.getLevel();
     }
 
     /*
@@ -435,7 +487,24 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#removeTerrain(int)
      */
     public void removeTerrain(int type) {
-        terrains.remove(type);
+        if (!containsTerrain(type)) {
+            return;
+        }
+        int count = terrainArray.length;
+        if (count == 1) {
+            removeAllTerrains();
+            return;
+        }
+        int index = indexOf(type);
+        ITerrain[] newTerrains = new ITerrain[count - 1];
+        int[] newLevels = new int[count - 1];
+        System.arraycopy(terrainArray, 0, newTerrains, 0, index);
+        System.arraycopy(terrainArray, index + 1, newTerrains, index, count - index - 1);
+        System.arraycopy(terrainLevels, 0, newLevels, 0, index);
+        System.arraycopy(terrainLevels, index + 1, newLevels, index, count - index - 1);
+        terrainArray = newTerrains;
+        terrainLevels = newLevels;
+        terrainMask &= ~(1L << type);
     }
 
     /*
@@ -444,7 +513,9 @@ public class Hex implements IHex, Serializable {
      * @see megamek.common.IHex#removeAllTerrains()
      */
     public void removeAllTerrains() {
-        terrains.clear();
+        terrainMask = 0;
+        terrainArray = NO_TERRAINS;
+        terrainLevels = NO_LEVELS;
     }
 
     /*
@@ -454,8 +525,8 @@ public class Hex implements IHex, Serializable {
      */
     public int displayableTerrainsPresent() {
         int present = 0;
-        for (Integer i : terrains.keySet()) {
-            if ((null != Terrains.getDisplayName(i, terrains.get(i).getLevel()))) {
+        for (int i = 0; i < terrainArray.length; i++) {
+            if ((null != Terrains.getDisplayName(terrainArray[i].getType(), terrainLevels[i]))) {
                 present++;
             }
         }
@@ -466,7 +537,7 @@ public class Hex implements IHex, Serializable {
      * report the number of terrains present for the tooltips.
      */
     public int terrainsPresent() {
-        return terrains.size();
+        return terrainArray.length;
     }
 
     /*
@@ -477,21 +548,21 @@ public class Hex implements IHex, Serializable {
     public IHex duplicate() {
         ITerrain[] tcopy = new ITerrain[Terrains.SIZE];
         ITerrainFactory f = Terrains.getTerrainFactory();
-        for (Integer i : terrains.keySet()) {
-            tcopy[i] = f.createTerrain(terrains.get(i));
+        for (ITerrain terrain : terrainArray) {
+            tcopy[terrain.getType()] = f.createTerrain(terrain);
         }
         return new Hex(level, tcopy, theme, coords);
     }
 
     public void terrainPilotingModifier(EntityMovementMode moveMode, PilotingRollData roll, boolean enteringRubble) {
-        for (Integer i : terrains.keySet()) {
-            terrains.get(i).pilotingModifier(moveMode, roll, enteringRubble);
+        for (ITerrain terrain : terrainArray) {
+            terrain.pilotingModifier(moveMode, roll, enteringRubble);
         }
     }
 
     public int movementCost(Entity entity) {
         int rv = 0;
-        for (ITerrain terrain : terrains.values()) {
+        for (ITerrain terrain : terrainArray) {
             rv += terrain.movementCost(entity);
         }
         return rv;
@@ -502,7 +573,7 @@ public class Hex implements IHex, Serializable {
         String temp;
         temp = "Level: " + getLevel();
         temp = temp + "  Features: ";
-        for (ITerrain terrain : terrains.values()) {
+        for (ITerrain terrain : terrainArray) {
             if (terrain != null) {
                 switch (terrain.getType()) {
                 case Terrains.WOODS:
@@ -550,7 +621,7 @@ public class Hex implements IHex, Serializable {
      */
     public int getIgnitionModifier() {
         int mod = 0;
-        for (ITerrain terrain : terrains.values()) {
+        for (ITerrain terrain : terrainArray) {
             if (terrain != null) {
                 mod += terrain.ignitionModifier();
             }
@@ -569,8 +640,9 @@ public class Hex implements IHex, Serializable {
     }
 
     public boolean isClearForTakeoff() {
-        for (Integer i : terrains.keySet()) {
-            if (containsTerrain(i) && (i != Terrains.PAVEMENT) && (i != Terrains.ROAD) && (i != Terrains.FLUFF)
+        for (ITerrain terrain : terrainArray) {
+            int i = terrain.getType();
+            if ((i != Terrains.PAVEMENT) && (i != Terrains.ROAD) && (i != Terrains.FLUFF)
                     && (i != Terrains.ARMS) && (i != Terrains.LEGS) && (i != Terrains.SNOW) && (i != Terrains.MUD)
                     && (i != Terrains.SMOKE) && (i != Terrains.METAL_CONTENT)) {
                 return false;
@@ -602,7 +674,7 @@ public class Hex implements IHex, Serializable {
      */
     public int getBogDownModifier(EntityMovementMode moveMode, boolean largeVee) {
         int mod = TargetRoll.AUTOMATIC_SUCCESS;
-        for (ITerrain terrain : terrains.values()) {
+        for (ITerrain terrain : terrainArray) {
             if ((terrain != null) && (mod < terrain.getBogDownModifier(moveMode, largeVee))) {
                 mod = terrain.getBogDownModifier(moveMode, largeVee);
             }
@@ -614,7 +686,7 @@ public class Hex implements IHex, Serializable {
      * get any modifiers to a an unstuck roll in this hex.
      */
     public void getUnstuckModifier(int elev, PilotingRollData rollTarget) {
-        for (ITerrain terrain : terrains.values()) {
+        for (ITerrain terrain : terrainArray) {
             terrain.getUnstuckModifier(elev, rollTarget);
         }
     }
@@ -645,6 +717,24 @@ public class Hex implements IHex, Serializable {
         coords = c;
     }
 
+    /**
+     * Hexes of older versions kept their terrains in a map; move them into the
+     * terrain arrays. XStream does not run field initializers, so the arrays
+     * may be missing entirely. Also shares the empty arrays again.
+     */
+    private Object readResolve() {
+        if ((terrainArray == null) || (terrainArray.length == 0)) {
+            removeAllTerrains();
+        }
+        if (terrains != null) {
+            for (ITerrain terrain : terrains.values()) {
+                addTerrain(terrain);
+            }
+            terrains = null;
+        }
+        return this;
+    }
+
     @Override
     public boolean isClearHex() {
         for (int t = 1; t <= Terrains.BLDG_BASE_COLLAPSED; t++) {
@@ -670,7 +760,7 @@ public class Hex implements IHex, Serializable {
         }
         
         // Check individual terrains for validity
-        for (ITerrain terrain : terrains.values()) {
+        for (ITerrain terrain : terrainArray) {
             if (terrain == null) {
                 valid = false;
                 errBuff.append("Hex contains a null terrain!\n");
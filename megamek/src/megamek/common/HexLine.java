@@ -0,0 +1,86 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer for the hexes of a line, in the order of
+ * {@link Coords#intervening(Coords, Coords, boolean)}, held as plain x and y
+ * coordinates. Filling it from the precomputed lines of {@link HexLineTable}
+ * creates no objects once the buffer is large enough, so callers that only
+ * need the positions of the hexes, e.g. to look up their terrain, can walk
+ * lines without allocating.
+ */
+public final class HexLine {
+
+    private int[] xs = new int[32];
+    private int[] ys = new int[32];
+    private int size;
+
+    /**
+     * Fills the buffer with the hexes of the line from src to dest, replacing
+     * its contents.
+     *
+     * @return this buffer
+     */
+    public HexLine fill(Coords src, Coords dest) {
+        return fill(src, dest, false);
+    }
+
+    /**
+     * Fills the buffer with the hexes of the line from src to dest, replacing
+     * its contents. See {@link Coords#intervening(Coords, Coords, boolean)}
+     * for the meaning of split.
+     *
+     * @return this buffer
+     */
+    public HexLine fill(Coords src, Coords dest, boolean split) {
+        size = 0;
+        HexLineTable.fill(this, src, dest, split);
+        return this;
+    }
+
+    /**
+     * @return the number of hexes of the line
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the x coordinate of the hex at the given position of the line
+     */
+    public int getX(int index) {
+        return xs[index];
+    }
+
+    /**
+     * @return the y coordinate of the hex at the given position of the line
+     */
+    public int getY(int index) {
+        return ys[index];
+    }
+
+    void add(int x, int y) {
+        if (size == xs.length) {
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        size++;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Precomputed hex lines for {@link Coords#intervening(Coords, Coords, boolean)}.
+ * The hexes crossed by a line only depend on the offset between its end points
+ * and on whether the start column is odd, so each line is computed once, as a
+ * list of offsets from the start hex, and then reused wherever on the board it
+ * is drawn. This saves the geometric hex intersection tests of every step.
+ * {@link HexLine} buffers are filled from the same lines without creating a
+ * <code>Coords</code> for every hex.
+ * <p>
+ * Only offsets up to {@link #MAX_OFFSET} hexes in each axis are cached. Lines
+ * whose centre direction lies exactly between two hex directions are never
+ * cached either, as the floating point rounding of their direction, and with
+ * it the order of the hexes, may depend on the absolute position.
+ */
+final class HexLineTable {
+
+    /** The largest cached offset between the end points in either axis */
+    static final int MAX_OFFSET = 64;
+
+    private static final int SPAN = (2 * MAX_OFFSET) + 1;
+
+    /** Marks a line that must always be computed directly */
+    private static final int[] UNCACHEABLE = new int[0];
+
+    /** Ambiguity tolerance for the rounding of a line's direction */
+    private static final double ROUNDING_TOLERANCE = 1e-9;
+
+    /**
+     * Lines by {@link #index(boolean, boolean, int, int)}; each holds the x and
+     * y offsets of the crossed hexes from the start hex, interleaved.
+     */
+    private static final AtomicReferenceArray<int[]> lines = new AtomicReferenceArray<>(4 * SPAN * SPAN);
+
+    /**
+     * When false, every line is computed directly. Only meant to compare the
+     * cached lines against the direct computation in tests.
+     */
+    static volatile boolean enabled = true;
+
+    private HexLineTable() {
+    }
+
+    /**
+     * Returns the same list as {@link Coords#computeIntervening(Coords, Coords, boolean)}.
+     */
+    static ArrayList<Coords> intervening(Coords src, Coords dest, boolean split) {
+        int[] offsets = getOffsets(src, dest, split);
+        if (offsets == null) {
+            return Coords.computeIntervening(src, dest, split);
+        }
+        ArrayList<Coords> hexes = new ArrayList<>(offsets.length / 2);
+        hexes.add(src);
+        for (int i = 2; i < offsets.length; i += 2) {
+            hexes.add(new Coords(src.getX() + offsets[i], src.getY() + offsets[i + 1]));
+        }
+        return hexes;
+    }
+
+    /**
+     * Adds the hexes of {@link #intervening(Coords, Coords, boolean)} to the
+     * line buffer. Only lines that are not cached create objects.
+     */
+    static void fill(HexLine line, Coords src, Coords dest, boolean split) {
+        int[] offsets = getOffsets(src, dest, split);
+        if (offsets == null) {
+            for (Coords c : Coords.computeIntervening(src, dest, split)) {
+                line.add(c.getX(), c.getY());
+            }
+            return;
+        }
+        for (int i = 0; i < offsets.length; i += 2) {
+            line.add(src.getX() + offsets[i], src.getY() + offsets[i + 1]);
+        }
+    }
+
+    /**
+     * Returns the cached offsets of the line, computing them if needed, or
+     * null when the line must be computed directly.
+     */
+    private static int[] getOffsets(Coords src, Coords dest, boolean split) {
+        int dx = dest.getX() - src.getX();
+        int dy = dest.getY() - src.getY();
+        if (!enabled || (Math.abs(dx) > MAX_OFFSET) || (Math.abs(dy) > MAX_OFFSET)) {
+            return null;
+        }
+        int index = index(src.isXOdd(), split, dx, dy);
+        int[] offsets = lines.get(index);
+        if (offsets == null) {
+            offsets = computeOffsets(src.isXOdd(), split, dx, dy);
+            lines.set(index, offsets);
+        }
+        return (offsets == UNCACHEABLE) ? null : offsets;
+    }
+
+    private static int index(boolean oddX, boolean split, int dx, int dy) {
+        int variant = (oddX ? 2 : 0) + (split ? 1 : 0);
+        return (((variant * SPAN) + dx + MAX_OFFSET) * SPAN) + dy + MAX_OFFSET;
+    }
+
+    /**
+     * Computes the line from a start hex in column 0 or 1, which has the same
+     * shape as any line with the same offset and start column parity.
+     */
+    private static int[] computeOffsets(boolean oddX, boolean split, int dx, int dy) {
+        Coords src = new Coords(oddX ? 1 : 0, 0);
+        Coords dest = new Coords(src.getX() + dx, dy);
+        if (!src.equals(dest) && isDirectionAmbiguous(src, dest, split)) {
+            return UNCACHEABLE;
+        }
+        ArrayList<Coords> hexes = Coords.computeIntervening(src, dest, split);
+        int[] offsets = new int[hexes.size() * 2];
+        for (int i = 0; i < hexes.size(); i++) {
+            offsets[2 * i] = hexes.get(i).getX() - src.getX();
+            offsets[(2 * i) + 1] = hexes.get(i).getY() - src.getY();
+        }
+        return offsets;
+    }
+
+    /**
+     * Returns true when the rounding that determines the centre direction of
+     * the line is within floating point noise of a tie.
+     */
+    private static boolean isDirectionAmbiguous(Coords src, Coords dest, boolean split) {
+        double rounded = split ? (src.radian(dest) + (0.0001 / Coords.HEXSIDE))
+                : (src.radian(dest) / Coords.HEXSIDE);
+        double fraction = rounded - Math.floor(rounded);
+        return Math.abs(fraction - 0.5) < ROUNDING_TOLERANCE;
+    }
+}
@@ -569,6 +569,12 @@ public interface IGame {
 
     abstract void setEntitiesVector(List<Entity> entities);
 
+    /**
+     * Replaces the entities with those of the given index, see
+     * {@link EntityIndex}.
+     */
+    abstract void setEntitiesVector(EntityIndex index);
+
     /**
      * Returns the actual vector for the out-of-game entities
      */
@@ -21,6 +21,8 @@
 package megamek.common;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Vector;
 
 import megamek.client.ui.Messages;
@@ -76,6 +78,14 @@ public class LosEffects {
         public int attackerId;
         public int targetId;
         int minimumWaterDepth = -1;
+
+        /**
+         * The grounded DropShips that may block this LOS, found on first use,
+         * see {@link LosEffects#groundedDropshipAt(IGame, AttackInfo, int, int)}
+         */
+        private List<Entity> groundedDropships;
+        /** The x, y coordinates and dropship index of each hex they cover */
+        private int[] groundedDropshipHexes;
     }
 
     // MAXTECH BMR
@@ -95,6 +105,12 @@ public class LosEffects {
     public static final int DAMAGABLE_COVER_DROPSHIP = 0x1;
     public static final int DAMAGABLE_COVER_BUILDING = 0x2;
 
+    /**
+     * The line buffer of the LOS walks, one per thread. The walks don't nest,
+     * so they share it.
+     */
+    private static final ThreadLocal<HexLine> LOS_LINE = ThreadLocal.withInitial(HexLine::new);
+
     boolean blocked = false;
     boolean deadZone = false;
     boolean infProtected = false;
@@ -718,7 +734,7 @@ public class LosEffects {
      */
     private static LosEffects losStraight(IGame game, AttackInfo ai, 
             boolean diagramLoS, boolean partialCover) {
-        ArrayList<Coords> in = Coords.intervening(ai.attackPos, ai.targetPos);
+        HexLine in = LOS_LINE.get().fill(ai.attackPos, ai.targetPos);
         LosEffects los = new LosEffects();
         boolean targetInBuilding = false;
         if (ai.targetEntity) {
@@ -733,14 +749,14 @@ public class LosEffects {
                 && Compute.isInBuilding(game, ai.attackAbsHeight
                         - game.getBoard().getHex(ai.attackPos).surface(),
                         ai.attackPos)) {
-            los.setThruBldg(game.getBoard().getBuildingAt(in.get(0)));
+            los.setThruBldg(game.getBoard().getBuildingAt(ai.attackPos));
             //elevation differences count as building hexes passed through
             los.buildingLevelsOrHexes += (Math.abs((ai.attackAbsHeight-ai.attackHeight) - (ai.targetAbsHeight-ai.targetHeight)));
         }
 
-        for (Coords c : in) {
-            los.add(LosEffects.losForCoords(game, ai, c, los.getThruBldg(),
-                    diagramLoS, partialCover));
+        for (int i = 0; i < in.size(); i++) {
+            los.add(LosEffects.losForCoords(game, ai, in.getX(i), in.getY(i),
+                    los.getThruBldg(), diagramLoS, partialCover));
         }      
 
         if ((ai.minimumWaterDepth < 1) && ai.underWaterCombat) {
@@ -783,8 +799,7 @@ public class LosEffects {
      */
     private static LosEffects losDivided(IGame game, AttackInfo ai,
             boolean diagramLoS, boolean partialCover) {
-        ArrayList<Coords> in = Coords.intervening(ai.attackPos, ai.targetPos,
-                true);
+        HexLine in = LOS_LINE.get().fill(ai.attackPos, ai.targetPos, true);
         LosEffects los = new LosEffects();
         boolean targetInBuilding = false;
         if (ai.targetEntity) {
@@ -799,7 +814,7 @@ public class LosEffects {
                 && Compute.isInBuilding(game, ai.attackAbsHeight
                         - game.getBoard().getHex(ai.attackPos).surface(),
                         ai.attackPos)) {
-            los.setThruBldg(game.getBoard().getBuildingAt(in.get(0)));
+            los.setThruBldg(game.getBoard().getBuildingAt(ai.attackPos));
             //elevation differences count as building hexes passed through
             los.buildingLevelsOrHexes += (Math
                     .abs((ai.attackAbsHeight - ai.attackHeight)
@@ -808,8 +823,8 @@ public class LosEffects {
 
         // add non-divided line segments
         for (int i = 3; i < in.size() - 2; i += 3) {
-            los.add(losForCoords(game, ai, in.get(i), los.getThruBldg(),
-                    diagramLoS, partialCover));
+            los.add(losForCoords(game, ai, in.getX(i), in.getY(i),
+                    los.getThruBldg(), diagramLoS, partialCover));
         }
 
         if ((ai.minimumWaterDepth < 1) && ai.underWaterCombat) {
@@ -830,10 +845,10 @@ public class LosEffects {
         LosEffects totalLeftLos = new LosEffects();
         LosEffects totalRightLos = new LosEffects();
         for (int i = 1; i < in.size() - 2; i += 3) {
-            LosEffects leftLos = losForCoords(game, ai, in.get(i), los
-                    .getThruBldg(), diagramLoS, partialCover);
-            LosEffects rightLos = losForCoords(game, ai, in.get(i + 1), los
-                    .getThruBldg(), diagramLoS, partialCover);
+            LosEffects leftLos = losForCoords(game, ai, in.getX(i), in.getY(i),
+                    los.getThruBldg(), diagramLoS, partialCover);
+            LosEffects rightLos = losForCoords(game, ai, in.getX(i + 1), in.getY(i + 1),
+                    los.getThruBldg(), diagramLoS, partialCover);
 
             // Infantry inside a building can only be
             // targeted by units in the same building.
@@ -1024,43 +1039,41 @@ public class LosEffects {
 
     /**
      * Returns a LosEffects object representing the LOS effects of anything at
-     * the specified coordinate.
+     * the specified coordinate. The hex is given by its x and y coordinates,
+     * so that walking a {@link HexLine} creates no <code>Coords</code>.
      */
     private static LosEffects losForCoords(IGame game, AttackInfo ai,
-            Coords coords, Building thruBldg, 
+            int x, int y, Building thruBldg, 
             boolean diagramLoS, boolean partialCover) {
         LosEffects los = new LosEffects();
+        IBoard board = game.getBoard();
         // ignore hexes not on board
-        if (!game.getBoard().contains(coords)) {
+        if (!board.contains(x, y)) {
             return los;
         }
 
-        // Is there a building in this hex?
-        Building bldg = game.getBoard().getBuildingAt(coords);
-
         // We're only tracing thru a single building if there
         // is a building in this hex, and if it isn't the same
         // building that we'be been tracing LOS thru.
-        if ((bldg != null) && bldg.equals(thruBldg)) {
+        if ((thruBldg != null) && thruBldg.equals(board.getBuildingAt(new Coords(x, y)))) {
             los.setThruBldg(thruBldg);
         }
 
         // ignore hexes the attacker or target are in
-        if (coords.equals(ai.attackPos) || coords.equals(ai.targetPos)) {
+        if (((x == ai.attackPos.getX()) && (y == ai.attackPos.getY()))
+                || ((x == ai.targetPos.getX()) && (y == ai.targetPos.getY()))) {
             return los;
         }
 
         // we are an attack in a building, +1 for each building hex between the
         // 2 units
-        if ((game.getBoard().getBuildingAt(ai.attackPos) != null)
-                && (game.getBoard().getBuildingAt(ai.targetPos) != null)
-                && (thruBldg != null)
-                && game.getBoard().getBuildingAt(ai.attackPos).equals(game.getBoard().getBuildingAt(ai.targetPos))
-                && ai.targetEntity && thruBldg.equals(game.getBoard().getBuildingAt(ai.attackPos))) {
+        if ((thruBldg != null) && ai.targetEntity
+                && thruBldg.equals(board.getBuildingAt(ai.attackPos))
+                && thruBldg.equals(board.getBuildingAt(ai.targetPos))) {
             los.buildingLevelsOrHexes += 1;
         }
 
-        IHex hex = game.getBoard().getHex(coords);
+        IHex hex = board.getHex(x, y);
         int hexEl = ai.underWaterCombat ? hex.floor() : hex.surface();
 
         // Handle minimum water depth.
@@ -1092,15 +1105,10 @@ public class LosEffects {
         Entity coveringDropship = null;
         //check for grounded dropships - treat like a building 10 elevations tall
         if(bldgEl < 10) {
-            for (Entity inHex : game.getEntitiesVector(coords)) {
-                if(ai.attackerId == inHex.getId() || ai.targetId == inHex.getId()) {
-                    continue;
-                }
-                if(inHex instanceof Dropship && !inHex.isAirborne() && !inHex.isSpaceborne()) {
-                    bldgEl = 10;
-                    coveredByDropship = true;
-                    coveringDropship = inHex;
-                }
+            coveringDropship = groundedDropshipAt(game, ai, x, y);
+            if (coveringDropship != null) {
+                bldgEl = 10;
+                coveredByDropship = true;
             }
         }
         
@@ -1121,15 +1129,17 @@ public class LosEffects {
         // and the comparison in here should follow TW/TO "higher or equal" rules.
         
         // The interpolated elevation for TacOps LOS diagramming
-        double weightedHeight = ai.targetAbsHeight * ai.attackPos.distance(coords) 
-                + ai.attackAbsHeight * ai.targetPos.distance(coords);
-        double totalDistance = ai.targetPos.distance(coords) + ai.attackPos.distance(coords);
+        int attackerDistance = ai.attackPos.distance(x, y);
+        int targetDistance = ai.targetPos.distance(x, y);
+        double weightedHeight = ai.targetAbsHeight * attackerDistance 
+                + ai.attackAbsHeight * targetDistance;
+        double totalDistance = targetDistance + attackerDistance;
         double losElevation = 1 + weightedHeight / totalDistance;
         
         // The higher of the attacker's height and defender's height
         int maxUnitHeight = Math.max(ai.attackAbsHeight, ai.targetAbsHeight);
-        boolean attackerAdjc = ai.attackPos.distance(coords) == 1;
-        boolean targetAdjc = ai.targetPos.distance(coords) == 1;
+        boolean attackerAdjc = attackerDistance == 1;
+        boolean targetAdjc = targetDistance == 1;
         boolean affectsLos;
 
         // Intervening building or hill
@@ -1296,6 +1306,8 @@ public class LosEffects {
         // damagable assets that are providing cover, so we can damage them if
         // they block a shot.
         if (potentialCover){
+            Coords coords = new Coords(x, y);
+            Building bldg = board.getBuildingAt(coords);
             if (coveredByDropship){
                 los.setDamagableCoverTypePrimary(DAMAGABLE_COVER_DROPSHIP);
                 los.coverDropshipPrimary = coveringDropship;
@@ -1312,15 +1324,53 @@ public class LosEffects {
         return los;
     }
 
-    public static boolean hasFireBetween(Coords start, Coords end, IGame game) {
+    /**
+     * Returns the grounded DropShip covering the given hex, which blocks LOS
+     * like a building 10 levels tall, or null if there is none. The attacker
+     * and target are not counted. The DropShips are looked up once per
+     * <code>AttackInfo</code>, rather than once per hex of the line.
+     */
+    private static Entity groundedDropshipAt(IGame game, AttackInfo ai, int x, int y) {
+        if (ai.groundedDropships == null) {
+            List<Entity> dropships = new ArrayList<>();
+            int[] hexes = new int[0];
+            for (Entity entity : game.getEntitiesVector()) {
+                if ((entity instanceof Dropship) && (entity.getPosition() != null)
+                        && !entity.isAirborne() && !entity.isSpaceborne() && entity.isTargetable()
+                        && (ai.attackerId != entity.getId()) && (ai.targetId != entity.getId())) {
+                    for (Coords c : entity.getOccupiedCoords()) {
+                        int next = hexes.length;
+                        hexes = Arrays.copyOf(hexes, next + 3);
+                        hexes[next] = c.getX();
+                        hexes[next + 1] = c.getY();
+                        hexes[next + 2] = dropships.size();
+                    }
+                    dropships.add(entity);
+                }
+            }
+            ai.groundedDropships = dropships;
+            ai.groundedDropshipHexes = hexes;
+        }
+        // like the position lookup, the last DropShip found in the hex covers it
+        Entity dropship = null;
+        int[] hexes = ai.groundedDropshipHexes;
+        for (int i = 0; i < hexes.length; i += 3) {
+            if ((hexes[i] == x) && (hexes[i + 1] == y)) {
+                dropship = ai.groundedDropships.get(hexes[i + 2]);
+            }
+        }
+        return dropship;
+    }
 
-        ArrayList<Coords> in = Coords.intervening(start, end);
-        for ( Coords hex : in ) {
+    public static boolean hasFireBetween(Coords start, Coords end, IGame game) {
+        IBoard board = game.getBoard();
+        HexLine in = LOS_LINE.get().fill(start, end);
+        for (int i = 0; i < in.size(); i++) {
             // ignore off-board hexes
-            if (!game.getBoard().contains(hex)) {
+            if (!board.contains(in.getX(i), in.getY(i))) {
                 continue;
             }
-            if ( game.getBoard().getHex(hex).containsTerrain(Terrains.FIRE) ) {
+            if (board.getHex(in.getX(i), in.getY(i)).containsTerrain(Terrains.FIRE)) {
                 return true;
             }
         }
@@ -1371,10 +1421,10 @@ public class LosEffects {
         LosEffects rightTotal = new LosEffects();
         for (int i = 1; i < in.size() - 2; i += 3) {
             // get effects of each side
-            LosEffects left = losForCoords(game, ai, in.get(i), los
-                    .getThruBldg(), diagramLos, partialCover);
-            LosEffects right = losForCoords(game, ai, in.get(i + 1), los
-                    .getThruBldg(), diagramLos, partialCover);
+            LosEffects left = losForCoords(game, ai, in.get(i).getX(), in.get(i).getY(),
+                    los.getThruBldg(), diagramLos, partialCover);
+            LosEffects right = losForCoords(game, ai, in.get(i + 1).getX(), in.get(i + 1).getY(),
+                    los.getThruBldg(), diagramLos, partialCover);
 
             // Include all previous LOS effects.
             left.add(los);
@@ -1423,16 +1473,20 @@ public class LosEffects {
             lowPos = ai.attackPos;
         }
         //TODO: check if this works right for splits (thinks like expanded partial cover for example)
-        ArrayList<Coords> in = Coords.intervening(lowPos, highPos, true);
+        IBoard board = game.getBoard();
+        HexLine in = LOS_LINE.get().fill(lowPos, highPos, true);
         int IntElev = lowElev;
-        Coords IntPos = lowPos;
-        for(Coords c : in) {
+        int IntX = lowPos.getX();
+        int IntY = lowPos.getY();
+        for (int i = 0; i < in.size(); i++) {
+            int x = in.getX(i);
+            int y = in.getY(i);
             // ignore off-board coords
-            if (!game.getBoard().contains(c)) {
+            if (!board.contains(x, y)) {
                 continue;
             }
-           if(!c.equals(lowPos)) {
-               IHex hex = game.getBoard().getHex(c);
+           if((x != lowPos.getX()) || (y != lowPos.getY())) {
+               IHex hex = board.getHex(x, y);
                int hexEl = ai.underWaterCombat ? hex.floor() : hex.surface();
                // Handle building elevation.
                // Attacks thru a building are not blocked by that building.
@@ -1442,26 +1496,22 @@ public class LosEffects {
                    bldgEl = hex.terrainLevel(Terrains.BLDG_ELEV);
                }
                //check for grounded dropships - treat like a building 10 elevations tall
-               if(bldgEl < 10) {
-                   for (Entity inHex : game.getEntitiesVector(c)) {
-                       if(ai.attackerId == inHex.getId() || ai.targetId == inHex.getId()) {
-                           continue;
-                       }
-                       if(inHex instanceof Dropship && !inHex.isAirborne() && !inHex.isSpaceborne()) {
-                           bldgEl = 10;
-                       }
-                   }
+               if((bldgEl < 10) && (groundedDropshipAt(game, ai, x, y) != null)) {
+                   bldgEl = 10;
                }
                int totalEl = hexEl + bldgEl;
                if(totalEl > IntElev) {
                    IntElev = totalEl;
-                   IntPos = c;
+                   IntX = x;
+                   IntY = y;
                }
            }
         }
         //the intervening hex cannot be either the low or high position
-        if(!IntPos.equals(lowPos) && !IntPos.equals(highPos)) {
-            return  0 < 2 * (2*IntElev - highElev - lowElev) + IntPos.distance(highPos) - IntPos.distance(lowPos);
+        if(((IntX != lowPos.getX()) || (IntY != lowPos.getY()))
+                && ((IntX != highPos.getX()) || (IntY != highPos.getY()))) {
+            return  0 < 2 * (2*IntElev - highElev - lowElev) + highPos.distance(IntX, IntY)
+                    - lowPos.distance(IntX, IntY);
         }
         return false;
     }
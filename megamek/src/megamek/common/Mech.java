@@ -1998,6 +1998,20 @@ public abstract class Mech extends Entity {
         }
     }
 
+    @Override
+    int[] copyArmorValues(boolean rear) {
+        return rear ? rearArmor.clone() : super.copyArmorValues(false);
+    }
+
+    @Override
+    void restoreArmorValues(int[] values, boolean rear) {
+        if (rear) {
+            rearArmor = values.clone();
+        } else {
+            super.restoreArmorValues(values, false);
+        }
+    }
+
     /**
      * Initializes the rear armor on the mech. Sets the original and starting
      * point of the armor to the same number.
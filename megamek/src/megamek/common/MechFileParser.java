@@ -72,7 +72,7 @@ import megamek.common.weapons.ppc.ISSnubNosePPC;
 
 public class MechFileParser {
     private Entity m_entity = null;
-    private static Vector<String> canonUnitNames = null;
+    private static volatile Vector<String> canonUnitNames = null;
     public static final String FILENAME_OFFICIAL_UNITS = "OfficialUnitList.txt"; //$NON-NLS-1$
 
     public MechFileParser(File f) throws EntityLoadingException {
@@ -851,9 +851,12 @@ public class MechFileParser {
         
         // Check if it's canon; if it is, mark it as such.
         ent.setCanon(false);// Guilty until proven innocent
+        // Units may be parsed on several threads, so the list is only
+        // published once it is complete and sorted.
+        Vector<String> canonNames = canonUnitNames;
         try {
-            if (canonUnitNames == null) {
-                canonUnitNames = new Vector<String>();
+            if (canonNames == null) {
+                canonNames = new Vector<String>();
                 // init the list.
                 try(BufferedReader br = new BufferedReader(new FileReader(new MegaMekFile(
                             Configuration.docsDir(), FILENAME_OFFICIAL_UNITS).getFile()))) {
@@ -863,16 +866,17 @@ public class MechFileParser {
                         int nIndex1 = s.indexOf('|');
                         if (nIndex1 > -1) {
                             name = s.substring(0, nIndex1);
-                            canonUnitNames.addElement(name);
+                            canonNames.addElement(name);
                         }
                     }
-                    Collections.sort(canonUnitNames);
+                    Collections.sort(canonNames);
                 } catch (FileNotFoundException e) {
                 }
+                canonUnitNames = canonNames;
             }
         } catch (IOException e) {
         }
-        int index = Collections.binarySearch(canonUnitNames,
+        int index = Collections.binarySearch(canonNames,
                 ent.getShortNameRaw()); 
         if (index >= 0) {
             ent.setCanon(true);
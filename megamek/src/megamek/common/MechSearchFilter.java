@@ -458,6 +458,10 @@ public class MechSearchFilter {
             root = new ExpNode(n, q);
         }
 
+        ExpNode getRoot() {
+            return root;
+        }
+
         public String toString() {
             if (root.children.size() == 0)
                 return "";
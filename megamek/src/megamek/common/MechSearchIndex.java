@@ -0,0 +1,370 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory index over the unit summaries, built once when the units are
+ * loaded, so that searches don't need to look at every unit. A search
+ * returns a {@link BitSet} in which bit <code>i</code> is set when the unit
+ * at index <code>i</code> of {@link #getUnits()} matches; criteria are
+ * combined by intersecting these sets.
+ * <p>
+ * The index has a posting list per equipment name, the units sorted by each
+ * of the numeric {@link Attribute}s and the three letter sequences (trigrams)
+ * of the lower case unit names.
+ */
+public class MechSearchIndex {
+
+    /** The numeric unit values that can be searched by range */
+    public enum Attribute {
+        TONNAGE, BV, YEAR, WALK, JUMP
+    }
+
+    private final MechSummary[] units;
+
+    /** The units' names in lower case, for the name search */
+    private final String[] lowerCaseNames;
+
+    /** Per equipment name, the units carrying it and the largest quantity of it on each */
+    private final Map<String, Postings> equipment = new HashMap<>();
+
+    /** Per trigram of the lower case names, the units whose name contains it */
+    private final Map<String, int[]> trigrams;
+
+    /** Per attribute, the unit indices sorted by the attribute's value */
+    private final int[][] sortedUnits = new int[Attribute.values().length][];
+
+    /** Per attribute, the attribute's values in the order of sortedUnits */
+    private final double[][] sortedValues = new double[Attribute.values().length][];
+
+    private final int[] internalsTypes;
+    private final int[] cockpitTypes;
+    private final int[] armor;
+    private final int[] maxArmor;
+
+    /** Per armor type, the units having it at any location */
+    private final Map<Integer, BitSet> armorTypes = new HashMap<>();
+
+    /**
+     * A list of unit indices with one quantity for each.
+     */
+    private static class Postings {
+        int size;
+        int[] units = new int[4];
+        int[] quantities = new int[4];
+
+        void add(int unit, int quantity) {
+            // Units are added in order, so a repeated name is always the last entry
+            if ((size > 0) && (units[size - 1] == unit)) {
+                quantities[size - 1] = Math.max(quantities[size - 1], quantity);
+                return;
+            }
+            if (size == units.length) {
+                units = Arrays.copyOf(units, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            units[size] = unit;
+            quantities[size] = quantity;
+            size++;
+        }
+    }
+
+    public MechSearchIndex(MechSummary[] units) {
+        this.units = units;
+        int count = units.length;
+        lowerCaseNames = new String[count];
+        internalsTypes = new int[count];
+        cockpitTypes = new int[count];
+        armor = new int[count];
+        maxArmor = new int[count];
+        Map<String, Postings> trigramPostings = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            MechSummary ms = units[i];
+            lowerCaseNames[i] = (ms.getName() == null) ? "" : ms.getName().toLowerCase();
+            String name = lowerCaseNames[i];
+            for (int j = 0; j + 3 <= name.length(); j++) {
+                trigramPostings.computeIfAbsent(name.substring(j, j + 3), k -> new Postings()).add(i, 0);
+            }
+
+            List<String> names = ms.getEquipmentNames();
+            List<Integer> quantities = ms.getEquipmentQuantities();
+            if ((names != null) && (quantities != null)) {
+                for (int j = 0; j < Math.min(names.size(), quantities.size()); j++) {
+                    if (names.get(j) != null) {
+                        equipment.computeIfAbsent(names.get(j), k -> new Postings()).add(i, quantities.get(j));
+                    }
+                }
+            }
+
+            internalsTypes[i] = ms.getInternalsType();
+            cockpitTypes[i] = ms.getCockpitType();
+            armor[i] = ms.getTotalArmor();
+            maxArmor[i] = (ms.getTotalInternal() * 2) + 3;
+            for (Integer type : ms.getArmorType()) {
+                armorTypes.computeIfAbsent(type, k -> new BitSet(count)).set(i);
+            }
+        }
+        trigrams = new HashMap<>(trigramPostings.size() * 2);
+        for (Map.Entry<String, Postings> entry : trigramPostings.entrySet()) {
+            trigrams.put(entry.getKey(), Arrays.copyOf(entry.getValue().units, entry.getValue().size));
+        }
+
+        for (Attribute attribute : Attribute.values()) {
+            double[] values = new double[count];
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = valueOf(units[i], attribute);
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+            int[] sorted = new int[count];
+            double[] sortedVals = new double[count];
+            for (int i = 0; i < count; i++) {
+                sorted[i] = order[i];
+                sortedVals[i] = values[order[i]];
+            }
+            sortedUnits[attribute.ordinal()] = sorted;
+            sortedValues[attribute.ordinal()] = sortedVals;
+        }
+    }
+
+    private static double valueOf(MechSummary ms, Attribute attribute) {
+        switch (attribute) {
+            case TONNAGE:
+                return ms.getTons();
+            case BV:
+                return ms.getBV();
+            case YEAR:
+                return ms.getYear();
+            case WALK:
+                return ms.getWalkMp();
+            case JUMP:
+                return ms.getJumpMp();
+            default:
+                throw new IllegalArgumentException("Unknown attribute " + attribute);
+        }
+    }
+
+    /**
+     * @return the indexed units; the bits of all search results refer to
+     *         indices of this array
+     */
+    public MechSummary[] getUnits() {
+        return units;
+    }
+
+    /**
+     * @return a set of all units
+     */
+    public BitSet all() {
+        BitSet result = new BitSet(units.length);
+        result.set(0, units.length);
+        return result;
+    }
+
+    /**
+     * @return the units carrying at least the given quantity of the equipment
+     *         in a single entry of their equipment list, as
+     *         {@link MechSearchFilter} counts it
+     */
+    public BitSet withEquipment(String name, int minQuantity) {
+        BitSet result = new BitSet(units.length);
+        Postings postings = equipment.get(name);
+        if (postings != null) {
+            for (int i = 0; i < postings.size; i++) {
+                if (postings.quantities[i] >= minQuantity) {
+                    result.set(postings.units[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the units whose value of the attribute is between min and max,
+     *         both inclusive
+     */
+    public BitSet range(Attribute attribute, double min, double max) {
+        BitSet result = new BitSet(units.length);
+        int[] sorted = sortedUnits[attribute.ordinal()];
+        double[] values = sortedValues[attribute.ordinal()];
+        for (int i = lowerBound(values, min); (i < values.length) && (values[i] <= max); i++) {
+            result.set(sorted[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return the index of the first value that is not less than the key
+     */
+    private static int lowerBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the units whose name contains the text, ignoring case like
+     *         <code>name.toLowerCase().contains(text.toLowerCase())</code>
+     */
+    public BitSet nameContains(String text) {
+        String lowerCaseText = text.toLowerCase();
+        BitSet result = new BitSet(units.length);
+        if (lowerCaseText.length() < 3) {
+            for (int i = 0; i < units.length; i++) {
+                if (lowerCaseNames[i].contains(lowerCaseText)) {
+                    result.set(i);
+                }
+            }
+            return result;
+        }
+        // Only the units having the rarest trigram of the text need to be checked
+        int[] candidates = null;
+        for (int j = 0; j + 3 <= lowerCaseText.length(); j++) {
+            int[] postings = trigrams.get(lowerCaseText.substring(j, j + 3));
+            if (postings == null) {
+                return result;
+            }
+            if ((candidates == null) || (postings.length < candidates.length)) {
+                candidates = postings;
+            }
+        }
+        for (int i : candidates) {
+            if (lowerCaseNames[i].contains(lowerCaseText)) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the units matching the filter, the same as calling
+     *         {@link MechSearchFilter#isMatch(MechSummary, MechSearchFilter)}
+     *         for each of them
+     */
+    public BitSet match(MechSearchFilter f) {
+        BitSet result = all();
+        if ((f == null) || f.isDisabled) {
+            return result;
+        }
+
+        int walk = parseInt(f.sWalk, -1);
+        if (walk > -1) {
+            restrict(result, Attribute.WALK, f.iWalk, walk);
+        }
+        int jump = parseInt(f.sJump, -1);
+        if (jump > -1) {
+            restrict(result, Attribute.JUMP, f.iJump, jump);
+        }
+
+        if (f.checkArmorType) {
+            BitSet withArmor = armorTypes.get(f.armorType);
+            if (withArmor == null) {
+                return new BitSet();
+            }
+            result.and(withArmor);
+        }
+
+        double armorFraction;
+        switch (f.iArmor) {
+            case 1:
+                armorFraction = .25;
+                break;
+            case 2:
+                armorFraction = .5;
+                break;
+            case 3:
+                armorFraction = .75;
+                break;
+            case 4:
+                armorFraction = .9;
+                break;
+            default:
+                armorFraction = 0;
+        }
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            if ((f.checkInternalsType && (internalsTypes[i] != f.internalsType))
+                    || (f.checkCockpitType && (cockpitTypes[i] != f.cockpitType))
+                    || ((armorFraction > 0) && (armor[i] < (maxArmor[i] * armorFraction)))) {
+                result.clear(i);
+            }
+        }
+
+        if (f.checkEquipment) {
+            result.and(evaluate(f.equipmentCriteria.getRoot()));
+        }
+
+        int startYear = parseInt(f.sStartYear, Integer.MIN_VALUE);
+        int endYear = parseInt(f.sEndYear, Integer.MAX_VALUE);
+        if ((startYear != Integer.MIN_VALUE) || (endYear != Integer.MAX_VALUE)) {
+            result.and(range(Attribute.YEAR, startYear, endYear));
+        }
+        return result;
+    }
+
+    /**
+     * Restricts the units to those whose attribute is at least (comparison
+     * 0), equal to (1) or at most (2) the value.
+     */
+    private void restrict(BitSet result, Attribute attribute, int comparison, int value) {
+        if (comparison == 0) {
+            result.and(range(attribute, value, Double.POSITIVE_INFINITY));
+        } else if (comparison == 1) {
+            result.and(range(attribute, value, value));
+        } else if (comparison == 2) {
+            result.and(range(attribute, Double.NEGATIVE_INFINITY, value));
+        }
+    }
+
+    private BitSet evaluate(MechSearchFilter.ExpNode node) {
+        if (node.children.isEmpty()) {
+            return (node.name == null) ? new BitSet() : withEquipment(node.name, node.qty);
+        }
+        BitSet result = null;
+        for (MechSearchFilter.ExpNode child : node.children) {
+            BitSet childResult = evaluate(child);
+            if (result == null) {
+                result = childResult;
+            } else if (node.operation == MechSearchFilter.BoolOp.AND) {
+                result.and(childResult);
+            } else {
+                result.or(childResult);
+            }
+        }
+        return result;
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            return defaultValue;
+        }
+    }
+}
@@ -429,6 +429,15 @@ public class MechSummary implements Serializable {
         }
     }
     
+    /**
+     * Sets the unique names of the equipment mounted on this unit and the
+     * number of times each of them appears, as read from the unit cache.
+     */
+    void setEquipment(Vector<String> names, Vector<Integer> quantities) {
+        equipmentNames = names;
+        equipmentQuantities = quantities;
+    }
+
     public Vector<String> getEquipmentNames()
     {
         return equipmentNames;
@@ -15,21 +15,22 @@
 
 package megamek.common;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -57,6 +58,9 @@ public class MechSummaryCache {
     private static final String FILENAME_UNITS_CACHE = "units.cache";
     private static final String FILENAME_LOOKUP = "name_changes.txt";
 
+    /** The number of threads that parse unit files */
+    private static final int PARSER_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
     private static MechSummaryCache m_instance;
     private static boolean disposeInstance = false;
     private static boolean interrupted = false;
@@ -65,12 +69,16 @@ public class MechSummaryCache {
     private boolean initializing = false;
 
     private MechSummary[] m_data;
+    private MechSearchIndex searchIndex;
     private final Map<String, MechSummary> m_nameMap;
     private final Map<String, MechSummary> m_fileNameMap;
     private Map<String, String> hFailedFiles;
     private int cacheCount;
-    private int fileCount;
-    private int zipCount;
+    private final AtomicInteger fileCount = new AtomicInteger();
+    private final AtomicInteger zipCount = new AtomicInteger();
+
+    /** The unit files the current units were read from, by key */
+    private Map<String, MechSummaryIndex.Source> sources = new LinkedHashMap<>();
 
     private final List<Listener> listeners = new ArrayList<>();
 
@@ -112,11 +120,7 @@ public class MechSummaryCache {
         m_instance.initialized = false;
         interrupted = false;
         disposeInstance = false;
-        File unit_cache_path = new MegaMekFile(getUnitCacheDir(), FILENAME_UNITS_CACHE).getFile();
-        long lastModified = unit_cache_path.exists() ?
-                unit_cache_path.lastModified() : megamek.MegaMek.TIMESTAMP;
-
-        m_instance.loader = new Thread(() -> m_instance.refreshCache(lastModified, ignoreUnofficial),
+        m_instance.loader = new Thread(() -> m_instance.refreshCache(ignoreUnofficial),
                 "Mech Cache Loader");
         m_instance.loader.setPriority(Thread.NORM_PRIORITY - 1);
         m_instance.loader.start();
@@ -170,6 +174,14 @@ public class MechSummaryCache {
         return m_data;
     }
 
+    /**
+     * @return the search index over the units returned by {@link #getAllMechs()}
+     */
+    public MechSearchIndex getSearchIndex() {
+        block();
+        return searchIndex;
+    }
+
     private void block() {
         if (!initialized) {
             synchronized (lock) {
@@ -200,14 +212,14 @@ public class MechSummaryCache {
     }
 
     public void loadMechData(boolean ignoreUnofficial) {
-        Vector<MechSummary> vMechs = new Vector<>();
-        Set<String> sKnownFiles = new HashSet<>();
-        long lLastCheck = 0;
+        long start = System.nanoTime();
+        Map<String, MechSummaryIndex.Source> cached = new HashMap<>();
         entityVerifier = EntityVerifier.getInstance(new MegaMekFile(getUnitCacheDir(),
                 EntityVerifier.CONFIG_FILENAME).getFile());
         hFailedFiles = new HashMap<>();
 
         EquipmentType.initializeTypes(); // load master equipment lists
+        reportTime("Loaded equipment", start);
 
         loadReport.append("\n");
         loadReport.append("Reading unit files:\n");
@@ -220,71 +232,221 @@ public class MechSummaryCache {
                 if (unit_cache_path.exists()
                         && (unit_cache_path.lastModified() >= megamek.MegaMek.TIMESTAMP)) {
                     loadReport.append("  Reading from unit cache file...\n");
-                    lLastCheck = unit_cache_path.lastModified();
-                    InputStream istream = new BufferedInputStream(
-                            new FileInputStream(unit_cache_path));
-                    ObjectInputStream fin = new ObjectInputStream(istream);
-                    Integer num_units = (Integer) fin.readObject();
-                    for (int i = 0; i < num_units; i++) {
-                        if (interrupted) {
-                            done();
-                            fin.close();
-                            istream.close();
-                            return;
-                        }
-                        MechSummary ms = (MechSummary) fin.readObject();
-                        // Verify that this file still exists and is older than
-                        // the cache.
-                        File fSource = ms.getSourceFile();
-                        if (fSource.exists()) {
-                            vMechs.addElement(ms);
-                            if (null == ms.getEntryName()) {
-                                sKnownFiles.add(fSource.toString());
-                            } else {
-                                sKnownFiles.add(ms.getEntryName());
-                            }
-                            cacheCount++;
-                        }
-                    }
-                    fin.close();
-                    istream.close();
+                    long phaseStart = System.nanoTime();
+                    cached = MechSummaryIndex.read(unit_cache_path);
+                    reportTime("Read " + cached.size() + " cached unit files", phaseStart);
                 }
             } catch (Exception e) {
                 loadReport.append("  Unable to load unit cache: ")
                         .append(e.getMessage()).append("\n");
                 MegaMek.getLogger().error(e);
+                cached = new HashMap<>();
             }
         }
 
-        checkForChanges(ignoreUnofficial, vMechs, sKnownFiles, lLastCheck);
-        updateData(vMechs);
-        addLookupNames();
-        logReport();
-
+        if (updateSources(cached, ignoreUnofficial)) {
+            reportTime("Total", start);
+            logReport();
+        }
         done();
     }
 
-    private void checkForChanges(boolean ignoreUnofficial, Vector<MechSummary> vMechs,
-                                 Set<String> sKnownFiles, long lLastCheck) {
-        // load any changes since the last check time
-        boolean bNeedsUpdate = loadMechsFromDirectory(vMechs, sKnownFiles,
-                lLastCheck, Configuration.unitsDir(), ignoreUnofficial);
+    /**
+     * Brings the units up to date with the unit files. Unit files that are
+     * unchanged since they were cached are taken from the cache; all others
+     * are parsed in parallel. The cache is saved if anything changed.
+     *
+     * @param cached The cached unit files by {@link MechSummaryIndex.Source#getKey()};
+     *               the entries still present in the directories are removed
+     * @param ignoreUnofficial If true, skips unofficial directories
+     * @return false if loading was interrupted
+     */
+    private boolean updateSources(Map<String, MechSummaryIndex.Source> cached,
+                                  boolean ignoreUnofficial) {
+        long phaseStart = System.nanoTime();
+        List<MechSummaryIndex.Source> current = new ArrayList<>();
+        List<ParseTask> tasks = new ArrayList<>();
+        List<ZipFile> zipFiles = new ArrayList<>();
+        try {
+            scanDirectory(Configuration.unitsDir(), ignoreUnofficial, cached, current, tasks, zipFiles);
+            File userDataUnits = new File(Configuration.userdataDir(), Configuration.unitsDir().toString());
+            if (userDataUnits.isDirectory()) {
+                scanDirectory(userDataUnits, ignoreUnofficial, cached, current, tasks, zipFiles);
+            }
+            if (interrupted) {
+                return false;
+            }
+            reportTime("Found " + current.size() + " unit files, " + tasks.size() + " new or changed",
+                    phaseStart);
+
+            phaseStart = System.nanoTime();
+            if (!parseAll(tasks)) {
+                return false;
+            }
+        } finally {
+            for (ZipFile zipFile : zipFiles) {
+                try {
+                    zipFile.close();
+                } catch (IOException ex) {
+                    MegaMek.getLogger().error(ex);
+                }
+            }
+        }
+        if (!tasks.isEmpty()) {
+            reportTime("Parsed " + tasks.size() + " unit files on " + PARSER_THREADS + " threads",
+                    phaseStart);
+        }
 
-        File userDataUnits = new File(Configuration.userdataDir(), Configuration.unitsDir().toString());
-        if (userDataUnits.isDirectory()) {
-            bNeedsUpdate |= loadMechsFromDirectory(vMechs, sKnownFiles, lLastCheck, userDataUnits, ignoreUnofficial);
+        // removed files are left in cached
+        boolean needsUpdate = !tasks.isEmpty() || !cached.isEmpty();
+        phaseStart = System.nanoTime();
+        List<MechSummary> units = new ArrayList<>();
+        Map<String, MechSummaryIndex.Source> sources = new LinkedHashMap<>();
+        for (MechSummaryIndex.Source source : current) {
+            if (interrupted) {
+                return false;
+            }
+            if (source.getFailure() != null) {
+                hFailedFiles.put((source.getEntryName() == null) ? source.getFile().toString()
+                        : source.getEntryName(), source.getFailure());
+            }
+            try {
+                units.addAll(source.getSummaries());
+                sources.put(source.getKey(), source);
+            } catch (IOException ex) {
+                // Leave the file out of the cache, so it is parsed again next time
+                MegaMek.getLogger().error(ex);
+                hFailedFiles.put(source.getKey(), ex.getMessage());
+                needsUpdate = true;
+            }
         }
+        cacheCount = units.size() - fileCount.get() - zipCount.get();
+        reportTime("Decoded " + units.size() + " units", phaseStart);
 
         // save updated cache back to disk
-        if (bNeedsUpdate) {
-            saveCache(vMechs);
+        if (needsUpdate) {
+            phaseStart = System.nanoTime();
+            saveCache(sources.values());
+            reportTime("Saved unit cache", phaseStart);
+        }
+
+        phaseStart = System.nanoTime();
+        this.sources = sources;
+        updateData(units);
+        addLookupNames();
+        reportTime("Indexed units", phaseStart);
+        return !interrupted;
+    }
+
+    /**
+     * A unit file to parse, or an entry of an open zip file.
+     */
+    private static class ParseTask {
+        private final MechSummaryIndex.Source source;
+        private final ZipFile zipFile;
+
+        ParseTask(MechSummaryIndex.Source source, ZipFile zipFile) {
+            this.source = source;
+            this.zipFile = zipFile;
         }
     }
 
-    private void updateData(Vector<MechSummary> vMechs) {
+    /**
+     * Parses the unit files on {@link #PARSER_THREADS} threads. The results
+     * and the load report are collected in the order of the tasks, so the
+     * report does not depend on the order in which the threads finish.
+     *
+     * @return false if loading was interrupted
+     */
+    private boolean parseAll(List<ParseTask> tasks) {
+        if (tasks.isEmpty()) {
+            return true;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(PARSER_THREADS, r -> {
+            Thread thread = new Thread(r, "Mech Cache Parser " + threadCount.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<String>> results = new ArrayList<>(tasks.size());
+            for (ParseTask task : tasks) {
+                results.add(executor.submit(() -> parse(task)));
+            }
+            for (Future<String> result : results) {
+                loadReport.append(result.get());
+            }
+            return !interrupted;
+        } catch (InterruptedException ex) {
+            return false;
+        } catch (ExecutionException ex) {
+            MegaMek.getLogger().error(ex);
+            return false;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses a single unit file and stores its units, or the reason it failed,
+     * in its source.
+     *
+     * @return the part of the load report for this file
+     */
+    private String parse(ParseTask task) {
+        if (interrupted) {
+            return "";
+        }
+        MechSummaryIndex.Source source = task.source;
+        StringBuilder report = new StringBuilder();
+        String location = (task.zipFile == null) ? source.getFile().toString()
+                : "zip file >> " + source.getEntryName();
+        try {
+            MechFileParser mfp;
+            if (task.zipFile == null) {
+                mfp = new MechFileParser(source.getFile());
+            } else {
+                mfp = new MechFileParser(task.zipFile.getInputStream(
+                        task.zipFile.getEntry(source.getEntryName())), source.getEntryName());
+            }
+            Entity e = mfp.getEntity();
+            source.setSummaries(Collections.singletonList(
+                    getSummary(e, source.getFile(), source.getEntryName())));
+            if (task.zipFile == null) {
+                fileCount.incrementAndGet();
+            } else {
+                zipCount.incrementAndGet();
+            }
+            Iterator<String> failedEquipment = e.getFailedEquipment();
+            if (failedEquipment.hasNext()) {
+                report.append("    Loading from ").append(location).append("\n");
+                while (failedEquipment.hasNext()) {
+                    report.append("      Failed to load equipment: ")
+                            .append(failedEquipment.next()).append("\n");
+                }
+            }
+        } catch (Exception ex) {
+            report.append("    Loading from ").append(location).append("\n");
+            report.append("***   Unable to load file: ");
+            StringWriter stringWriter = new StringWriter();
+            PrintWriter printWriter = new PrintWriter(stringWriter);
+            ex.printStackTrace(printWriter);
+            report.append(stringWriter.getBuffer()).append("\n");
+            source.setFailure(String.valueOf(ex.getMessage()));
+        }
+        return report.toString();
+    }
+
+    private void reportTime(String phase, long startNanos) {
+        loadReport.append("  ").append(phase).append(" in ")
+                .append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+                .append(" ms\n");
+    }
+
+    private void updateData(List<MechSummary> units) {
         // convert to array
-        m_data = new MechSummary[vMechs.size()];
-        vMechs.copyInto(m_data);
+        m_data = units.toArray(new MechSummary[0]);
         m_nameMap.clear();
         m_fileNameMap.clear();
 
@@ -314,6 +476,7 @@ public class MechSummaryCache {
                 m_fileNameMap.put(unitName, element);
             }
         }
+        searchIndex = new MechSearchIndex(m_data);
     }
 
     private void logReport() {
@@ -344,50 +507,29 @@ public class MechSummaryCache {
         }
     }
 
-    private void saveCache(List<MechSummary> data) {
+    private void saveCache(Collection<MechSummaryIndex.Source> data) {
         loadReport.append("Saving unit cache.\n");
         File unit_cache_path = new MegaMekFile(getUnitCacheDir(), FILENAME_UNITS_CACHE).getFile();
-        try (ObjectOutputStream wr = new ObjectOutputStream(
-                new BufferedOutputStream(new FileOutputStream(unit_cache_path)))) {
-            wr.writeObject(data.size());
-            for (MechSummary element : data) {
-                wr.writeObject(element);
-            }
+        try {
+            MechSummaryIndex.write(unit_cache_path, data);
         } catch (Exception e) {
             loadReport.append(" Unable to save mech cache\n");
             MegaMek.getLogger().error(e);
         }
     }
 
-    private void refreshCache(long lastCheck, boolean ignoreUnofficial) {
+    private void refreshCache(boolean ignoreUnofficial) {
         loadReport = new StringBuffer();
         loadReport.append("Refreshing unit cache:\n");
-        Vector<MechSummary> units = new Vector<>();
-        Set<String> knownFiles = new HashSet<>();
-        // Loop through current contents and make sure the file is still there.
-        // Note which files are represented so we can skip them if they haven't changed
-        for (MechSummary ms : m_data) {
-            if (interrupted) {
-                done();
-                return;
-            }
-            File source = ms.getSourceFile();
-            if (source.exists()) {
-                units.add(ms);
-                if (null == ms.getEntryName()) {
-                    knownFiles.add(source.toString());
-                } else {
-                    knownFiles.add(ms.getEntryName());
-                }
-            }
+        hFailedFiles = new HashMap<>();
+        fileCount.set(0);
+        zipCount.set(0);
+        long start = System.nanoTime();
+        // Files that haven't changed are taken from the current contents
+        if (updateSources(new HashMap<>(sources), ignoreUnofficial)) {
+            reportTime("Total", start);
+            logReport();
         }
-
-        // load any changes since the last check time
-        checkForChanges(ignoreUnofficial, units, knownFiles, lastCheck);
-        updateData(units);
-        addLookupNames();
-        logReport();
-
         done();
     }
 
@@ -535,29 +677,28 @@ public class MechSummaryCache {
      * Loading a complete {@link Entity} object for each summary is a bear and should be
      * changed, but it lets me use the existing parsers
      *
-     * @param vMechs      List to add units to as they are loaded
-     * @param sKnownFiles Files that have been processed so far and can be skipped
-     * @param lLastCheck  The timestamp of the last time the cache was updated
-     * @param fDir        The directory to load units from
-     * @return            Whether the list of units has changed, requiring rewriting the cache
+     * @param fDir     The directory to load units from
+     * @param cached   The cached unit files; those found are moved to current
+     * @param current  List to add all unit files found to
+     * @param tasks    List to add the unit files that must be parsed to
+     * @param zipFiles List to add the opened zip files to, which must be closed after parsing
      */
-    private boolean loadMechsFromDirectory(Vector<MechSummary> vMechs,
-            Set<String> sKnownFiles, long lLastCheck, File fDir,
-            boolean ignoreUnofficial) {
-        boolean bNeedsUpdate = false;
+    private void scanDirectory(File fDir, boolean ignoreUnofficial,
+            Map<String, MechSummaryIndex.Source> cached, List<MechSummaryIndex.Source> current,
+            List<ParseTask> tasks, List<ZipFile> zipFiles) {
         loadReport.append("  Looking in ").append(fDir.getPath())
                 .append("...\n");
         int thisDirectoriesFileCount = 0;
         String[] sa = fDir.list();
+        File cacheFile = new MegaMekFile(getUnitCacheDir(), FILENAME_UNITS_CACHE).getFile();
 
         if (sa != null) {
             for (String element : sa) {
                 if (interrupted) {
-                    done();
-                    return false;
+                    return;
                 }
                 File f = new MegaMekFile(fDir, element).getFile();
-                if (f.equals(new MegaMekFile(getUnitCacheDir(), FILENAME_UNITS_CACHE).getFile())) {
+                if (MechSummaryIndex.isCacheFile(f, cacheFile)) {
                     continue;
                 }
                 if (f.isDirectory()) {
@@ -576,8 +717,7 @@ public class MechSummaryCache {
                         continue;
                     }
                     // recursion is fun
-                    bNeedsUpdate |= loadMechsFromDirectory(vMechs, sKnownFiles,
-                            lLastCheck, f, ignoreUnofficial);
+                    scanDirectory(f, ignoreUnofficial, cached, current, tasks, zipFiles);
                     continue;
                 }
                 if (f.getName().indexOf('.') == -1) {
@@ -608,61 +748,21 @@ public class MechSummaryCache {
                     continue;
                 }
                 if (f.getName().toLowerCase().endsWith(".zip")) {
-                    bNeedsUpdate |= loadMechsFromZipFile(vMechs, sKnownFiles,
-                            lLastCheck, f);
+                    scanZipFile(f, cached, current, tasks, zipFiles);
                     continue;
                 }
-                if ((f.lastModified() < lLastCheck)
-                        && sKnownFiles.contains(f.toString())) {
-                    continue;
-                }
-                try {
-                    MechFileParser mfp = new MechFileParser(f);
-                    Entity e = mfp.getEntity();
-                    MechSummary ms = getSummary(e, f, null);
-                    // if this is unit's MechSummary is already known,
-                    // remove it first, so we don't get duplicates
-                    if (sKnownFiles.contains(f.toString())) {
-                        vMechs.removeElement(ms);
-                    }
-                    vMechs.addElement(ms);
-                    sKnownFiles.add(f.toString());
-                    bNeedsUpdate = true;
+                if (addSource(f, null, f.length(), f.lastModified(), null, cached, current, tasks)) {
                     thisDirectoriesFileCount++;
-                    fileCount++;
-                    Iterator<String> failedEquipment = e.getFailedEquipment();
-                    if (failedEquipment.hasNext()) {
-                        loadReport.append("    Loading from ").append(f)
-                                .append("\n");
-                        while (failedEquipment.hasNext()) {
-                            loadReport
-                                    .append("      Failed to load equipment: ")
-                                    .append(failedEquipment.next())
-                                    .append("\n");
-                        }
-                    }
-                } catch (EntityLoadingException ex) {
-                    loadReport.append("    Loading from ").append(f)
-                            .append("\n");
-                    loadReport.append("***   Unable to load file: ");
-                    StringWriter stringWriter = new StringWriter();
-                    PrintWriter printWriter = new PrintWriter(stringWriter);
-                    ex.printStackTrace(printWriter);
-                    loadReport.append(stringWriter.getBuffer()).append("\n");
-                    hFailedFiles.put(f.toString(), ex.getMessage());
                 }
             }
         }
 
-        loadReport.append("  ...loaded ").append(thisDirectoriesFileCount)
-                .append(" files.\n");
-
-        return bNeedsUpdate;
+        loadReport.append("  ...found ").append(thisDirectoriesFileCount)
+                .append(" new or changed files.\n");
     }
 
-    private boolean loadMechsFromZipFile(Vector<MechSummary> vMechs,
-            Set<String> sKnownFiles, long lLastCheck, File fZipFile) {
-        boolean bNeedsUpdate = false;
+    private void scanZipFile(File fZipFile, Map<String, MechSummaryIndex.Source> cached,
+            List<MechSummaryIndex.Source> current, List<ParseTask> tasks, List<ZipFile> zipFiles) {
         ZipFile zFile;
         int thisZipFileCount = 0;
         try {
@@ -674,22 +774,17 @@ public class MechSummaryCache {
             PrintWriter printWriter = new PrintWriter(stringWriter);
             ex.printStackTrace(printWriter);
             loadReport.append(stringWriter.getBuffer()).append("\n");
-            return false;
+            return;
         }
+        zipFiles.add(zFile);
         loadReport.append("  Looking in zip file ").append(fZipFile.getPath())
                 .append("...\n");
 
-        for (Enumeration<?> i = zFile.entries(); i.hasMoreElements();) {
+        for (Enumeration<? extends ZipEntry> i = zFile.entries(); i.hasMoreElements();) {
             if (interrupted) {
-                done();
-                try {
-                    zFile.close();
-                    return false;
-                } catch (IOException e) {
-                    MegaMek.getLogger().error(e);
-                }
+                return;
             }
-            ZipEntry zEntry = (ZipEntry) i.nextElement();
+            ZipEntry zEntry = i.nextElement();
 
             if (zEntry.isDirectory()) {
                 if (zEntry.getName().equalsIgnoreCase("unsupported")) {
@@ -703,55 +798,35 @@ public class MechSummaryCache {
             if (zEntry.getName().toLowerCase().endsWith(".yml")) {
                 continue;
             }
-            if ((Math.max(fZipFile.lastModified(), zEntry.getTime()) < lLastCheck)
-                    && sKnownFiles.contains(zEntry.getName())) {
-                continue;
-            }
-
-            try {
-                MechFileParser mfp = new MechFileParser(
-                        zFile.getInputStream(zEntry), zEntry.getName());
-                Entity e = mfp.getEntity();
-                MechSummary ms = getSummary(e, fZipFile, zEntry.getName());
-                vMechs.addElement(ms);
-                sKnownFiles.add(zEntry.getName());
-                bNeedsUpdate = true;
+            if (addSource(fZipFile, zEntry.getName(), zEntry.getSize(), zEntry.getTime(), zFile,
+                    cached, current, tasks)) {
                 thisZipFileCount++;
-                zipCount++;
-                Iterator<String> failedEquipment = e.getFailedEquipment();
-                if (failedEquipment.hasNext()) {
-                    loadReport.append("    Loading from zip file")
-                            .append(" >> ").append(zEntry.getName())
-                            .append("\n");
-                    while (failedEquipment.hasNext()) {
-                        loadReport.append("      Failed to load equipment: ")
-                                .append(failedEquipment.next()).append("\n");
-                    }
-                }
-            } catch (Exception ex) {
-                loadReport.append("    Loading from zip file").append(" >> ")
-                        .append(zEntry.getName()).append("\n");
-                loadReport.append("      Unable to load file: ");
-                StringWriter stringWriter = new StringWriter();
-                PrintWriter printWriter = new PrintWriter(stringWriter);
-                ex.printStackTrace(printWriter);
-                loadReport.append(stringWriter.getBuffer()).append("\n");
-                if (!(ex.getMessage() == null)) {
-                    hFailedFiles.put(zEntry.getName(), ex.getMessage());
-                }
             }
         }
 
-        try {
-            zFile.close();
-        } catch (Exception ex) {
-            MegaMek.getLogger().error(ex);
-        }
-
-        loadReport.append("  ...loaded ").append(thisZipFileCount)
-                .append(" files.\n");
+        loadReport.append("  ...found ").append(thisZipFileCount)
+                .append(" new or changed files.\n");
+    }
 
-        return bNeedsUpdate;
+    /**
+     * Adds a unit file to the current ones. The cached units are used if the
+     * size and time of the file are unchanged, otherwise it is added to the
+     * files to parse.
+     *
+     * @return true if the unit file must be parsed
+     */
+    private boolean addSource(File file, String entryName, long size, long modified, ZipFile zipFile,
+            Map<String, MechSummaryIndex.Source> cached, List<MechSummaryIndex.Source> current,
+            List<ParseTask> tasks) {
+        MechSummaryIndex.Source source = cached.remove(MechSummaryIndex.key(file, entryName));
+        if ((source != null) && source.isUnchanged(size, modified)) {
+            current.add(source);
+            return false;
+        }
+        source = new MechSummaryIndex.Source(file, entryName, size, modified);
+        current.add(source);
+        tasks.add(new ParseTask(source, zipFile));
+        return true;
     }
 
     private void addLookupNames() {
@@ -790,11 +865,11 @@ public class MechSummaryCache {
     }
 
     public int getFileCount() {
-        return fileCount;
+        return fileCount.get();
     }
 
     public int getZipCount() {
-        return zipCount;
+        return zipCount.get();
     }
 
 }
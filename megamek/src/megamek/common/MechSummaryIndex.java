@@ -0,0 +1,435 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * The binary file format of the unit cache. The cache is a list of sources,
+ * each of them a unit file or an entry of a zip file, together with the size
+ * and modification time the source had when it was parsed and the units read
+ * from it (or the reason it could not be read). A source whose size and time
+ * are unchanged does not need to be parsed again.
+ * <p>
+ * The file starts with a magic number and a format version, followed by a
+ * table of all strings, which the records refer to by index, and then the
+ * sources. The units of each source are stored as a length-prefixed record
+ * that is only decoded when the units are requested, so the records of
+ * sources that have changed are skipped without being decoded.
+ */
+final class MechSummaryIndex {
+
+    /** "MMUC" */
+    private static final int MAGIC = 0x4D4D5543;
+
+    /** Increase whenever the format changes, so that old caches are rebuilt */
+    static final int VERSION = 1;
+
+    private static final int NULL = -1;
+
+    /**
+     * A unit file, or an entry of a zip file, and the units read from it.
+     */
+    static final class Source {
+        private final File file;
+        private final String entryName;
+        private final long size;
+        private final long modified;
+
+        private List<MechSummary> summaries = Collections.emptyList();
+        private String failure;
+
+        /** The undecoded units, if read from a cache file */
+        private ByteBuffer record;
+        private String[] strings;
+
+        /**
+         * @param file the unit file, or the zip file containing the unit file
+         * @param entryName the name of the zip file entry, or null
+         * @param size the size of the unit file in bytes
+         * @param modified the modification time of the unit file
+         */
+        Source(File file, String entryName, long size, long modified) {
+            this.file = file;
+            this.entryName = entryName;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        String getEntryName() {
+            return entryName;
+        }
+
+        String getKey() {
+            return key(file, entryName);
+        }
+
+        /**
+         * @return true when the source had the given size and time when it was
+         *         read, i.e. it does not need to be parsed again
+         */
+        boolean isUnchanged(long size, long modified) {
+            return (this.size == size) && (this.modified == modified);
+        }
+
+        /**
+         * @return the units read from this source; empty if it failed to load
+         */
+        synchronized List<MechSummary> getSummaries() throws IOException {
+            if (record != null) {
+                try {
+                    summaries = readSummaries(this, record, strings);
+                } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+                    throw new IOException("Corrupt unit cache record for " + getKey(), ex);
+                }
+                record = null;
+                strings = null;
+            }
+            return summaries;
+        }
+
+        synchronized void setSummaries(List<MechSummary> summaries) {
+            this.summaries = summaries;
+            failure = null;
+            record = null;
+        }
+
+        /**
+         * @return the reason this source could not be loaded, or null
+         */
+        String getFailure() {
+            return failure;
+        }
+
+        synchronized void setFailure(String failure) {
+            this.failure = failure;
+            summaries = Collections.emptyList();
+            record = null;
+        }
+    }
+
+    private MechSummaryIndex() {
+    }
+
+    /**
+     * @return the key under which a source is stored
+     */
+    static String key(File file, String entryName) {
+        return (entryName == null) ? file.toString() : file + "!" + entryName;
+    }
+
+    /**
+     * Reads the sources of a cache file. The units of each source are only
+     * decoded when they are first requested.
+     *
+     * @return the sources by {@link Source#getKey()}, in the order of the file
+     * @throws IOException if the file cannot be read or is not a cache file of
+     *             the current version
+     */
+    static Map<String, Source> read(File cacheFile) throws IOException {
+        // The file is small enough to be read at once. Memory mapping it would
+        // keep it locked on some systems, so it could not be replaced.
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(cacheFile.toPath()));
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a unit cache file: " + cacheFile);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unit cache version " + version + " is not " + VERSION);
+            }
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            int count = buffer.getInt();
+            Map<String, Source> sources = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                File file = new File(string(buffer, strings));
+                String entryName = string(buffer, strings);
+                Source source = new Source(file, entryName, buffer.getLong(), buffer.getLong());
+                source.failure = string(buffer, strings);
+                int length = buffer.getInt();
+                ByteBuffer record = buffer.slice();
+                record.limit(length);
+                buffer.position(buffer.position() + length);
+                source.record = record;
+                source.strings = strings;
+                sources.put(source.getKey(), source);
+            }
+            return sources;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            throw new IOException("Corrupt unit cache file: " + cacheFile, ex);
+        }
+    }
+
+    /**
+     * Writes the sources to a cache file. The file is written under a
+     * temporary name first and then moved into place, so an interrupted
+     * write does not leave a broken cache.
+     */
+    static void write(File cacheFile, Collection<Source> sources) throws IOException {
+        StringTable table = new StringTable();
+        List<byte[]> records = new ArrayList<>(sources.size());
+        for (Source source : sources) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                writeSummaries(out, source.getSummaries(), table);
+            }
+            records.add(bytes.toByteArray());
+            table.indexOf(source.file.toString());
+            table.indexOf(source.entryName);
+            table.indexOf(source.failure);
+        }
+
+        File tempFile = new File(cacheFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(table.strings.size());
+            for (String string : table.strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(sources.size());
+            int i = 0;
+            for (Source source : sources) {
+                out.writeInt(table.indexOf(source.file.toString()));
+                out.writeInt(table.indexOf(source.entryName));
+                out.writeLong(source.size);
+                out.writeLong(source.modified);
+                out.writeInt(table.indexOf(source.failure));
+                byte[] record = records.get(i++);
+                out.writeInt(record.length);
+                out.write(record);
+            }
+        }
+        try {
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return true if the file is the cache file or its temporary copy
+     */
+    static boolean isCacheFile(File file, File cacheFile) {
+        return file.equals(cacheFile) || file.equals(new File(cacheFile.getPath() + ".tmp"));
+    }
+
+    /**
+     * Assigns each distinct string an index in the string table.
+     */
+    private static class StringTable {
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> indices = new HashMap<>();
+
+        int indexOf(String string) {
+            if (string == null) {
+                return NULL;
+            }
+            Integer index = indices.get(string);
+            if (index == null) {
+                index = strings.size();
+                strings.add(string);
+                indices.put(string, index);
+            }
+            return index;
+        }
+    }
+
+    private static String string(ByteBuffer in, String[] strings) {
+        int index = in.getInt();
+        return (index == NULL) ? null : strings[index];
+    }
+
+    private static void writeSummaries(DataOutputStream out, List<MechSummary> summaries,
+            StringTable table) throws IOException {
+        out.writeInt(summaries.size());
+        for (MechSummary ms : summaries) {
+            out.writeInt(table.indexOf(ms.getName()));
+            out.writeInt(table.indexOf(ms.getChassis()));
+            out.writeInt(table.indexOf(ms.getModel()));
+            out.writeInt(table.indexOf(ms.getUnitType()));
+            out.writeInt(table.indexOf(ms.getUnitSubType()));
+            out.writeInt(table.indexOf(ms.getLevel()));
+            out.writeInt(table.indexOf(ms.getEngineName()));
+            out.writeInt(table.indexOf(ms.getMyomerName()));
+            out.writeInt(ms.getYear());
+            out.writeInt(ms.getType());
+            writeInts(out, ms.getAltTypes());
+            out.writeDouble(ms.getTons());
+            out.writeDouble(ms.getTOweight());
+            out.writeDouble(ms.getTWweight());
+            out.writeDouble(ms.getSuitWeight());
+            out.writeInt(ms.getBV());
+            out.writeInt(ms.getGMBV());
+            out.writeInt(ms.getRHBV());
+            out.writeInt(ms.getRHGMBV());
+            out.writeLong(ms.getCost());
+            out.writeLong(ms.getUnloadedCost());
+            out.writeLong(ms.getAlternateCost());
+            out.writeLong(ms.getModified());
+            out.writeInt(ms.getAdvancedTechYear());
+            out.writeInt(ms.getStandardTechYear());
+            out.writeBoolean(ms.isCanon());
+            out.writeBoolean(ms.isClan());
+            out.writeBoolean(ms.isSupport());
+            out.writeInt(ms.getWalkMp());
+            out.writeInt(ms.getRunMp());
+            out.writeInt(ms.getJumpMp());
+            out.writeInt(ms.getTotalArmor());
+            out.writeInt(ms.getTotalInternal());
+            out.writeInt(ms.getInternalsType());
+            out.writeInt(ms.getCockpitType());
+            out.writeInt(ms.getGyroType());
+            int[] armorTypeSet = new int[ms.getArmorType().size()];
+            int i = 0;
+            for (int armorType : ms.getArmorType()) {
+                armorTypeSet[i++] = armorType;
+            }
+            writeInts(out, armorTypeSet);
+            writeInts(out, ms.getArmorTypes());
+            writeInts(out, ms.getArmorTechTypes());
+            Vector<String> equipmentNames = ms.getEquipmentNames();
+            Vector<Integer> equipmentQuantities = ms.getEquipmentQuantities();
+            if ((equipmentNames == null) || (equipmentQuantities == null)) {
+                out.writeInt(NULL);
+            } else {
+                out.writeInt(equipmentNames.size());
+                for (int j = 0; j < equipmentNames.size(); j++) {
+                    out.writeInt(table.indexOf(equipmentNames.get(j)));
+                    out.writeInt(equipmentQuantities.get(j));
+                }
+            }
+        }
+    }
+
+    private static List<MechSummary> readSummaries(Source source, ByteBuffer in, String[] strings) {
+        int count = in.getInt();
+        List<MechSummary> summaries = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            MechSummary ms = new MechSummary();
+            ms.setSourceFile(source.file);
+            ms.setEntryName(source.entryName);
+            ms.setName(string(in, strings));
+            ms.setChassis(string(in, strings));
+            ms.setModel(string(in, strings));
+            ms.setUnitType(string(in, strings));
+            ms.setUnitSubType(string(in, strings));
+            ms.setLevel(string(in, strings));
+            ms.setEngineName(string(in, strings));
+            ms.setMyomerName(string(in, strings));
+            ms.setYear(in.getInt());
+            ms.setType(in.getInt());
+            ms.setAltTypes(readInts(in));
+            ms.setTons(in.getDouble());
+            ms.setTOweight(in.getDouble());
+            ms.setTWweight(in.getDouble());
+            ms.setSuitWeight(in.getDouble());
+            ms.setBV(in.getInt());
+            ms.setGMBV(in.getInt());
+            ms.setRHBV(in.getInt());
+            ms.setRHGMBV(in.getInt());
+            ms.setCost(in.getLong());
+            ms.setUnloadedCost(in.getLong());
+            ms.setAlternateCost(in.getLong());
+            ms.setModified(in.getLong());
+            ms.setAdvancedYear(in.getInt());
+            ms.setStandardYear(in.getInt());
+            ms.setCanon(in.get() != 0);
+            ms.setClan(in.get() != 0);
+            ms.setSupport(in.get() != 0);
+            ms.setWalkMp(in.getInt());
+            ms.setRunMp(in.getInt());
+            ms.setJumpMp(in.getInt());
+            ms.setTotalArmor(in.getInt());
+            ms.setTotalInternal(in.getInt());
+            ms.setInternalsType(in.getInt());
+            ms.setCockpitType(in.getInt());
+            ms.setGyroType(in.getInt());
+            int[] armorTypeSet = readInts(in);
+            if (armorTypeSet != null) {
+                ms.setArmorType(armorTypeSet);
+            }
+            ms.setArmorTypes(readInts(in));
+            ms.setArmorTechTypes(readInts(in));
+            int equipmentCount = in.getInt();
+            if (equipmentCount != NULL) {
+                Vector<String> equipmentNames = new Vector<>(equipmentCount);
+                Vector<Integer> equipmentQuantities = new Vector<>(equipmentCount);
+                for (int j = 0; j < equipmentCount; j++) {
+                    equipmentNames.add(string(in, strings));
+                    equipmentQuantities.add(in.getInt());
+                }
+                ms.setEquipment(equipmentNames, equipmentQuantities);
+            }
+            summaries.add(ms);
+        }
+        return summaries;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        if (values == null) {
+            out.writeInt(NULL);
+            return;
+        }
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == NULL) {
+            return null;
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.getInt();
+        }
+        return values;
+    }
+}
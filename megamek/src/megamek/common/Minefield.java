@@ -15,9 +15,14 @@
 
 package megamek.common;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Objects;
 
+import megamek.common.net.marshall.BinaryCodec;
+
 public class Minefield implements Serializable, Cloneable {
 
     /**
@@ -191,6 +196,40 @@ public class Minefield implements Serializable, Cloneable {
         return playerId;
     }
     
+    /**
+     * Writes this minefield in the compact form of the binary marshalling.
+     *
+     * @see #readCompact(DataInput)
+     */
+    public void writeCompact(DataOutput out) throws IOException {
+        BinaryCodec.writeCoords(out, coords);
+        out.writeInt(playerId);
+        out.writeInt(density);
+        out.writeInt(type);
+        out.writeInt(setting);
+        out.writeBoolean(oneUse);
+        out.writeBoolean(sea);
+        out.writeInt(depth);
+        out.writeBoolean(detonated);
+    }
+
+    /**
+     * Reads a minefield previously written by {@link #writeCompact(DataOutput)}.
+     */
+    public static Minefield readCompact(DataInput in) throws IOException {
+        Minefield mf = new Minefield();
+        mf.coords = BinaryCodec.readCoords(in);
+        mf.playerId = in.readInt();
+        mf.density = in.readInt();
+        mf.type = in.readInt();
+        mf.setting = in.readInt();
+        mf.oneUse = in.readBoolean();
+        mf.sea = in.readBoolean();
+        mf.depth = in.readInt();
+        mf.detonated = in.readBoolean();
+        return mf;
+    }
+
     public void setDetonated(boolean b) {
         this.detonated = b;
     }
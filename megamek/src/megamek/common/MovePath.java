@@ -15,10 +15,14 @@
 
 package megamek.common;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -32,6 +36,7 @@ import java.util.Vector;
 import megamek.client.bot.princess.Princess;
 import megamek.common.annotations.Nullable;
 import megamek.common.logging.LogLevel;
+import megamek.common.net.marshall.BinaryCodec;
 import megamek.common.options.OptionsConstants;
 import megamek.common.pathfinder.AbstractPathFinder;
 import megamek.common.pathfinder.CachedEntityState;
@@ -45,8 +50,7 @@ import megamek.common.preference.PreferenceManager;
 public class MovePath implements Cloneable, Serializable {
     private static final long serialVersionUID = -4258296679177532986L;
 
-    private Set<Coords> coordsSet = null;
-    private final transient Object COORD_SET_LOCK = new Object();
+    private volatile Set<Coords> coordsSet = null;
     private transient CachedEntityState cachedEntityState;
 
     public IGame getGame() {
@@ -60,6 +64,54 @@ public class MovePath implements Cloneable, Serializable {
     public void setEntity(Entity entity) {
         this.entity = entity;
         cachedEntityState = new CachedEntityState(entity);
+        // steps read from a packet don't know their entity yet
+        for (MoveStep step : steps) {
+            if (step.getEntity() == null) {
+                step.setEntity(entity);
+            }
+        }
+    }
+
+    /**
+     * Writes this path in the compact form of the binary marshalling. The
+     * game and entity aren't written; the receiver sets them.
+     *
+     * @see #readCompact(DataInput)
+     */
+    public void writeCompact(DataOutput out) throws IOException {
+        out.writeInt(steps.size());
+        for (MoveStep step : steps) {
+            step.writeCompact(out);
+        }
+        out.writeInt(containedStepTypes.size());
+        for (MoveStepType type : containedStepTypes) {
+            BinaryCodec.writeEnum(out, type);
+        }
+        out.writeBoolean(fliesOverEnemy);
+        out.writeBoolean(careful);
+    }
+
+    /**
+     * Reads a path previously written by {@link #writeCompact(DataOutput)}.
+     * Like a deserialized path, it needs its game and entity set before use.
+     */
+    public static MovePath readCompact(DataInput in) throws IOException {
+        MovePath path = new MovePath(null, null, null);
+        int size = BinaryCodec.readCount(in);
+        path.steps = new Vector<>(BinaryCodec.initialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            path.steps.add(MoveStep.readCompact(in));
+        }
+        for (int count = BinaryCodec.readCount(in); count > 0; count--) {
+            MoveStepType type = BinaryCodec.readEnum(in, MoveStepType.class);
+            if (type == null) {
+                throw new IOException("Missing move step type");
+            }
+            path.containedStepTypes.add(type);
+        }
+        path.fliesOverEnemy = in.readBoolean();
+        path.careful = in.readBoolean();
+        return path;
     }
 
     public enum MoveStepType {
@@ -104,7 +156,7 @@ public class MovePath implements Cloneable, Serializable {
     private transient Entity entity;
     
     // holds the types of steps present in this movement 
-    private Set<MoveStepType> containedStepTypes = new HashSet<>();
+    private Set<MoveStepType> containedStepTypes = EnumSet.noneOf(MoveStepType.class);
     
     // whether this movePath take us directly over an enemy unit
     // useful for aircraft
@@ -123,6 +175,16 @@ public class MovePath implements Cloneable, Serializable {
         this.setGame(game);
     }
 
+    /**
+     * Generates a new, empty, movement path object sharing the given entity
+     * state, for clones.
+     */
+    private MovePath(final IGame game, final Entity entity, final CachedEntityState cachedEntityState) {
+        this.entity = entity;
+        this.cachedEntityState = cachedEntityState;
+        this.setGame(game);
+    }
+
     public Entity getEntity() {
         return entity;
     }
@@ -267,24 +329,30 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public Set<Coords> getCoordsSet() {
-        if (coordsSet != null) {
-            return coordsSet;
+        Set<Coords> result = coordsSet;
+        if (result != null) {
+            return result;
         }
 
-        synchronized (COORD_SET_LOCK) {
-            if (coordsSet != null) {
-                return coordsSet;
-            }
-
-            coordsSet = new HashSet<>();
-            for (MoveStep step : getStepVector()) {
-                if (step.getPosition() == null) {
-                    continue;
-                }
-                coordsSet.add(step.getPosition());
+        // Concurrent callers may each build the set; they are all the same
+        result = new HashSet<>();
+        for (MoveStep step : getStepVector()) {
+            if (step.getPosition() == null) {
+                continue;
             }
+            result.add(step.getPosition());
         }
-        return coordsSet;
+        coordsSet = result;
+        return result;
+    }
+
+    /**
+     * Returns the steps for changing them, dropping the coords set built from
+     * the current steps.
+     */
+    private Vector<MoveStep> stepsToChange() {
+        coordsSet = null;
+        return steps;
     }
 
     /**
@@ -299,7 +367,7 @@ public class MovePath implements Cloneable, Serializable {
             return this;
         }
 
-        steps.addElement(step);
+        stepsToChange().addElement(step);
         containedStepTypes.add(step.getType());
         
         final MoveStep prev = getStep(steps.size() - 2);
@@ -520,7 +588,7 @@ public class MovePath implements Cloneable, Serializable {
         setGame(g);
         setEntity(en);
         final Vector<MoveStep> temp = new Vector<MoveStep>(steps);
-        steps.removeAllElements();
+        stepsToChange().removeAllElements();
         for (int i = 0; i < temp.size(); i++) {
             MoveStep step = temp.elementAt(i);
             if ((step.getTargetPosition() != null) && (step.getTarget(getGame()) != null)) {
@@ -610,7 +678,7 @@ public class MovePath implements Cloneable, Serializable {
                 getEntity().setIsJumpingNow(false);
             }
             
-            steps.removeElementAt(steps.size() - 1);
+            stepsToChange().removeElementAt(steps.size() - 1);
             
             if (getEntity().isConvertingNow() && !this.contains(MovePath.MoveStepType.CONVERT_MODE)) {
                 getEntity().setConvertingNow(false);
@@ -654,7 +722,7 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public void clear() {
-        steps.removeAllElements();
+        stepsToChange().removeAllElements();
     }
 
     public Enumeration<MoveStep> getSteps() {
@@ -986,7 +1054,7 @@ public class MovePath implements Cloneable, Serializable {
         }
         // Do final check for bad moves, and clip movement after first bad one
         // also clear and re-constitute "contained steps" cache
-        containedStepTypes = new HashSet<>();
+        containedStepTypes = EnumSet.noneOf(MoveStepType.class);
         final Vector<MoveStep> goodSteps = new Vector<>();
         for (MoveStep step : steps) {
             if (step.getMovementType(isEndStep(step)) != EntityMovementType.MOVE_ILLEGAL) {
@@ -998,6 +1066,7 @@ public class MovePath implements Cloneable, Serializable {
 
         }
         steps = goodSteps;
+        coordsSet = null;
     }
 
     /**
@@ -1021,7 +1090,7 @@ public class MovePath implements Cloneable, Serializable {
             final MoveStepType stepType = step1.getType();
             final MoveStepType direction = step2.getType();
             // remove all old steps
-            steps.removeElementAt(index);
+            stepsToChange().removeElementAt(index);
             steps.removeElementAt(index);
             steps.removeElementAt(index);
             // add new step
@@ -1219,6 +1288,7 @@ public class MovePath implements Cloneable, Serializable {
         if (finPath != null) {
             finPath.compile(game, entity, false);
             this.steps = finPath.steps;
+            coordsSet = null;
         } else {
             System.out.println("Error: " +
                     "Unable to find a path to the destination hex!");
@@ -1377,6 +1447,7 @@ public class MovePath implements Cloneable, Serializable {
         if (getFinalCoords().distance(dest) > bestPath.getFinalCoords().distance(dest)) {
             // Make the path we found, this path.
             steps = bestPath.steps;
+            coordsSet = null;
         }
         if (!getFinalCoords().equals(dest)) {
             lazyPathfinder(dest, type);
@@ -1520,7 +1591,7 @@ public class MovePath implements Cloneable, Serializable {
      */
     @Override
     public MovePath clone() {
-        final MovePath copy = new MovePath(getGame(), getEntity());
+        final MovePath copy = new MovePath(getGame(), getEntity(), cachedEntityState);
         copyFields(copy);
         return copy;
     }
@@ -1528,7 +1599,8 @@ public class MovePath implements Cloneable, Serializable {
     protected void copyFields(MovePath copy) {
         copy.steps = new Vector<MoveStep>(steps);
         copy.careful = careful;
-        copy.containedStepTypes = new HashSet<>(containedStepTypes);
+        copy.containedStepTypes = EnumSet.noneOf(MoveStepType.class);
+        copy.containedStepTypes.addAll(containedStepTypes);
         copy.fliesOverEnemy = fliesOverEnemy;
         copy.cachedEntityState = cachedEntityState; // intentional pointer copy
     }
@@ -1737,7 +1809,7 @@ public class MovePath implements Cloneable, Serializable {
     }
 
     public void replaceSteps(Vector<MoveStep> path) {
-        steps.clear();
+        stepsToChange().clear();
         addSteps(path, true);
     }
     
@@ -22,9 +22,13 @@
  */
 package megamek.common;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.TreeMap;
 import java.util.Vector;
 
@@ -32,6 +36,7 @@ import megamek.common.IGame.Phase;
 import megamek.common.MovePath.MoveStepType;
 import megamek.common.logging.DefaultMmLogger;
 import megamek.common.logging.MMLogger;
+import megamek.common.net.marshall.BinaryCodec;
 import megamek.common.options.OptionsConstants;
 import megamek.common.pathfinder.CachedEntityState;
 
@@ -560,7 +565,7 @@ public class MoveStep implements Serializable {
             setElevation(getElevation() + 1);
         } else if (isJumping()) {
             IHex hex = game.getBoard().getHex(getPosition());
-            int maxElevation = (entity.getJumpMP() + entity.getElevation() + game
+            int maxElevation = (cachedEntityState.getJumpMP() + entity.getElevation() + game
                     .getBoard().getHex(entity.getPosition()).surface())
                     - hex.surface();
             int building = hex.terrainLevel(Terrains.BLDG_ELEV);
@@ -1063,7 +1068,7 @@ public class MoveStep implements Serializable {
                 setMp(0);
                 break;
             case THRUST:
-                setVectors(Compute.changeVectors(getVectors(), getFacing()));
+                setVectors(Compute.changeVectors(getVectors().clone(), getFacing()));
                 setMp(1);
                 break;
             case YAW:
@@ -1208,7 +1213,8 @@ public class MoveStep implements Serializable {
         isSelfDestructing = prev.isSelfDestructing;
         nRolls = prev.nRolls;
         isRolled = prev.isRolled;
-        mv = prev.mv.clone();
+        // Shared until a step changes its vectors
+        mv = prev.mv;
         freeTurn = prev.freeTurn;
         nStraight = prev.nStraight;
         nDown = prev.nDown;
@@ -2244,7 +2250,7 @@ public class MoveStep implements Serializable {
 
         // check for valid jump mp
         if (isJumping()
-                && (getMpUsed() <= entity.getJumpMPWithTerrain())
+                && (getMpUsed() <= cachedEntityState.getJumpMPWithTerrain())
                 && !isProne()
                 && !isHullDown()
                 && !((entity instanceof Protomech) && (entity
@@ -3536,7 +3542,7 @@ public class MoveStep implements Serializable {
         if ((movementType == EntityMovementType.MOVE_JUMP)
                 && (destAlt > (entity.getElevation()
                 + entity.game.getBoard().getHex(entity.getPosition())
-                .getLevel() + entity.getJumpMPWithTerrain() + (type == MoveStepType.DFA ? 1
+                .getLevel() + cachedEntityState.getJumpMPWithTerrain() + (type == MoveStepType.DFA ? 1
                 : 0)))) {
             // System.err.println("can't jump over too-high terrain");
             return false;
@@ -4046,6 +4052,204 @@ public class MoveStep implements Serializable {
         return entity;
     }
 
+    /**
+     * Sets the entity of a step that was read without one, see
+     * {@link #readCompact(DataInput)}.
+     */
+    void setEntity(Entity entity) {
+        this.entity = entity;
+    }
+
+    /**
+     * Writes this step in the compact form of the binary marshalling. The
+     * entity isn't written; the path the step is read into provides it.
+     *
+     * @see #readCompact(DataInput)
+     */
+    public void writeCompact(DataOutput out) throws IOException {
+        BinaryCodec.writeEnum(out, type);
+        out.writeInt(targetId);
+        out.writeInt(targetType);
+        BinaryCodec.writeCoords(out, targetPos);
+        BinaryCodec.writeCoords(out, position);
+        out.writeInt(facing);
+        out.writeInt(mp);
+        out.writeInt(mpUsed);
+        out.writeInt(heat);
+        out.writeInt(totalHeat);
+        out.writeInt(distance);
+        out.writeInt(leapDistance);
+        out.writeInt(elevation);
+        out.writeInt(altitude);
+        out.writeInt(mineToLay);
+        BinaryCodec.writeEnum(out, movementType);
+        BinaryCodec.writeEnum(out, movementMode);
+        out.writeBoolean(isProne);
+        out.writeBoolean(isFlying);
+        out.writeBoolean(isHullDown);
+        out.writeBoolean(climbMode);
+        out.writeBoolean(danger);
+        out.writeBoolean(pastDanger);
+        out.writeBoolean(docking);
+        out.writeBoolean(isUsingMASC);
+        out.writeInt(targetNumberMASC);
+        out.writeBoolean(firstStep);
+        out.writeBoolean(isTurning);
+        out.writeBoolean(isUnloaded);
+        out.writeBoolean(hasEverUnloaded);
+        out.writeBoolean(prevStepOnPavement);
+        out.writeBoolean(hasJustStood);
+        out.writeBoolean(thisStepBackwards);
+        out.writeBoolean(onlyPavement);
+        out.writeBoolean(isPavementStep);
+        out.writeBoolean(isRunProhibited);
+        out.writeBoolean(isStackingViolation);
+        out.writeBoolean(isDiggingIn);
+        out.writeBoolean(isTakingCover);
+        out.writeInt(wigeBonus);
+        out.writeInt(nWigeDescent);
+        out.writeBoolean(isJumpingPath);
+        out.writeBoolean(isCarefulPath);
+        out.writeInt(velocity);
+        out.writeInt(velocityN);
+        out.writeInt(velocityLeft);
+        out.writeInt(nTurns);
+        out.writeInt(nRolls);
+        out.writeBoolean(freeTurn);
+        out.writeInt(nStraight);
+        out.writeInt(nDown);
+        out.writeInt(nMoved);
+        out.writeBoolean(offBoard);
+        BinaryCodec.writeInts(out, mv);
+        out.writeInt(recoveryUnit);
+        out.writeBoolean(launched != null);
+        if (launched != null) {
+            out.writeInt(launched.size());
+            for (Map.Entry<Integer, Vector<Integer>> entry : launched.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (int id : entry.getValue()) {
+                    out.writeInt(id);
+                }
+            }
+        }
+        out.writeBoolean(isEvading);
+        out.writeBoolean(isShuttingDown);
+        out.writeBoolean(isStartingUp);
+        out.writeBoolean(isSelfDestructing);
+        out.writeBoolean(isRolled);
+        out.writeInt(maneuverType);
+        out.writeBoolean(noCost);
+        out.writeBoolean(maneuver);
+        out.writeBoolean(mf != null);
+        if (mf != null) {
+            mf.writeCompact(out);
+        }
+        out.writeBoolean(terrainInvalid);
+        out.writeBoolean(crushedBuildingLocs != null);
+        if (crushedBuildingLocs != null) {
+            out.writeInt(crushedBuildingLocs.size());
+            for (Coords c : crushedBuildingLocs) {
+                BinaryCodec.writeCoords(out, c);
+            }
+        }
+    }
+
+    /**
+     * Reads a step previously written by {@link #writeCompact(DataOutput)}.
+     * The step has no entity until it is set by
+     * {@link MovePath#setEntity(Entity)}.
+     */
+    public static MoveStep readCompact(DataInput in) throws IOException {
+        MoveStep step = new MoveStep(null, BinaryCodec.readEnum(in, MoveStepType.class));
+        step.targetId = in.readInt();
+        step.targetType = in.readInt();
+        step.targetPos = BinaryCodec.readCoords(in);
+        step.position = BinaryCodec.readCoords(in);
+        step.facing = in.readInt();
+        step.mp = in.readInt();
+        step.mpUsed = in.readInt();
+        step.heat = in.readInt();
+        step.totalHeat = in.readInt();
+        step.distance = in.readInt();
+        step.leapDistance = in.readInt();
+        step.elevation = in.readInt();
+        step.altitude = in.readInt();
+        step.mineToLay = in.readInt();
+        step.movementType = BinaryCodec.readEnum(in, EntityMovementType.class);
+        step.movementMode = BinaryCodec.readEnum(in, EntityMovementMode.class);
+        step.isProne = in.readBoolean();
+        step.isFlying = in.readBoolean();
+        step.isHullDown = in.readBoolean();
+        step.climbMode = in.readBoolean();
+        step.danger = in.readBoolean();
+        step.pastDanger = in.readBoolean();
+        step.docking = in.readBoolean();
+        step.isUsingMASC = in.readBoolean();
+        step.targetNumberMASC = in.readInt();
+        step.firstStep = in.readBoolean();
+        step.isTurning = in.readBoolean();
+        step.isUnloaded = in.readBoolean();
+        step.hasEverUnloaded = in.readBoolean();
+        step.prevStepOnPavement = in.readBoolean();
+        step.hasJustStood = in.readBoolean();
+        step.thisStepBackwards = in.readBoolean();
+        step.onlyPavement = in.readBoolean();
+        step.isPavementStep = in.readBoolean();
+        step.isRunProhibited = in.readBoolean();
+        step.isStackingViolation = in.readBoolean();
+        step.isDiggingIn = in.readBoolean();
+        step.isTakingCover = in.readBoolean();
+        step.wigeBonus = in.readInt();
+        step.nWigeDescent = in.readInt();
+        step.isJumpingPath = in.readBoolean();
+        step.isCarefulPath = in.readBoolean();
+        step.velocity = in.readInt();
+        step.velocityN = in.readInt();
+        step.velocityLeft = in.readInt();
+        step.nTurns = in.readInt();
+        step.nRolls = in.readInt();
+        step.freeTurn = in.readBoolean();
+        step.nStraight = in.readInt();
+        step.nDown = in.readInt();
+        step.nMoved = in.readInt();
+        step.offBoard = in.readBoolean();
+        step.mv = BinaryCodec.readInts(in);
+        step.recoveryUnit = in.readInt();
+        if (in.readBoolean()) {
+            step.launched = new TreeMap<>();
+            for (int count = BinaryCodec.readCount(in); count > 0; count--) {
+                int bay = in.readInt();
+                int size = BinaryCodec.readCount(in);
+                Vector<Integer> ids = new Vector<>(BinaryCodec.initialCapacity(size));
+                for (int i = 0; i < size; i++) {
+                    ids.add(in.readInt());
+                }
+                step.launched.put(bay, ids);
+            }
+        }
+        step.isEvading = in.readBoolean();
+        step.isShuttingDown = in.readBoolean();
+        step.isStartingUp = in.readBoolean();
+        step.isSelfDestructing = in.readBoolean();
+        step.isRolled = in.readBoolean();
+        step.maneuverType = in.readInt();
+        step.noCost = in.readBoolean();
+        step.maneuver = in.readBoolean();
+        if (in.readBoolean()) {
+            step.mf = Minefield.readCompact(in);
+        }
+        step.terrainInvalid = in.readBoolean();
+        if (in.readBoolean()) {
+            int size = BinaryCodec.readCount(in);
+            step.crushedBuildingLocs = new ArrayList<>(BinaryCodec.initialCapacity(size));
+            for (int i = 0; i < size; i++) {
+                step.crushedBuildingLocs.add(BinaryCodec.readCoords(in));
+            }
+        }
+        return step;
+    }
+
     public IGame getGame() {
         if (getEntity() != null) {
             return getEntity().getGame();
@@ -14,11 +14,16 @@
  */
 package megamek.common;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Enumeration;
 import java.util.Hashtable;
 import java.util.Vector;
 
+import megamek.common.net.marshall.BinaryCodec;
+
 /**
  * This class defines a single server report. It holds information such as the
  * report ID, who the report is about, who should see the report, and some
@@ -602,6 +607,63 @@ public class Report implements Serializable {
         return false;
     }
 
+    /**
+     * Writes the fields of this report that are sent over the network, without
+     * any class descriptors. Transient fields are not written, matching
+     * native serialization.
+     *
+     * @param out the output to write to
+     * @throws IOException if the underlying output fails
+     * @see #readCompact(DataInput)
+     */
+    public void writeCompact(DataOutput out) throws IOException {
+        out.writeInt(messageId);
+        out.writeInt(indentation);
+        out.writeInt(newlines);
+        writeCompactStrings(out, tagData);
+        BinaryCodec.writeString(out, tagTranslate);
+        out.writeInt(obscuredIndexes.size());
+        for (Integer index : obscuredIndexes.keySet()) {
+            out.writeInt(index);
+        }
+        writeCompactStrings(out, obscuredRecipients);
+        BinaryCodec.writeString(out, imageCode);
+    }
+
+    /**
+     * Reads a report previously written by {@link #writeCompact(DataOutput)}.
+     *
+     * @param in the input to read from
+     * @return the new report
+     * @throws IOException if the underlying input fails
+     */
+    public static Report readCompact(DataInput in) throws IOException {
+        Report r = new Report(in.readInt());
+        r.indentation = in.readInt();
+        r.newlines = in.readInt();
+        readCompactStrings(in, r.tagData);
+        r.tagTranslate = BinaryCodec.readString(in);
+        for (int count = BinaryCodec.readCount(in); count > 0; count--) {
+            r.obscuredIndexes.put(in.readInt(), Boolean.TRUE);
+        }
+        readCompactStrings(in, r.obscuredRecipients);
+        r.imageCode = BinaryCodec.readString(in);
+        return r;
+    }
+
+    private static void writeCompactStrings(DataOutput out, Vector<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String s : strings) {
+            BinaryCodec.writeString(out, s);
+        }
+    }
+
+    private static void readCompactStrings(DataInput in, Vector<String> strings) throws IOException {
+        for (int count = BinaryCodec.readCount(in); count > 0; count--) {
+            strings.add(BinaryCodec.readString(in));
+        }
+    }
+
     /**
      * Useful for debugging purposes.
      *
@@ -12,7 +12,6 @@ package megamek.common.event;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.IdentityHashMap;
 import java.util.List;
@@ -29,8 +28,16 @@ public final class EventBus {
     
     private ConcurrentHashMap<Object, List<EventListener>> handlerMap = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Class<? extends MMEvent>, List<EventListener>> eventMap = new ConcurrentHashMap<>();
+    /**
+     * The listeners to call for each concrete event class, in calling order: those
+     * of the class itself first, then those of each superclass, each sorted by priority.
+     * Cleared whenever a handler is registered or unregistered.
+     */
+    private ConcurrentHashMap<Class<? extends MMEvent>, EventListener[]> dispatchCache = new ConcurrentHashMap<>();
     // There is no Java-supplied IdentityHashSet ...
     private Map<Object, Object> unregisterQueue = new IdentityHashMap<>();
+    /** Set while unregisterQueue has entries, so triggering doesn't need to take the lock */
+    private volatile boolean unregisterPending = false;
     
     public static EventBus getInstance() {
         synchronized(INSTANCE_LOCK) {
@@ -111,16 +118,21 @@ public final class EventBus {
                 eventMap.put(eventType, eventListeners);
             }
             eventListeners.add(listener);
+            dispatchCache.clear();
         }
     }
     
     public void unregister(Object handler) {
         synchronized(REGISTER_LOCK) {
             unregisterQueue.put(handler, handler);
+            unregisterPending = true;
         }
     }
     
     private void internalUnregister() {
+        if(!unregisterPending) {
+            return;
+        }
         synchronized(REGISTER_LOCK) {
             for(Object handler : unregisterQueue.keySet()) {
                 List<EventListener> listenerList = handlerMap.remove(handler);
@@ -134,30 +146,43 @@ public final class EventBus {
                 }
             }
             unregisterQueue.clear();
+            unregisterPending = false;
+            dispatchCache.clear();
         }
     }
     
     /** @return true if the event was cancelled along the way */
-    @SuppressWarnings("unchecked")
     public boolean trigger(MMEvent event) {
         internalUnregister(); // Clean up unregister queue
-        for(Class<?> cls : getClasses(event.getClass())) {
-            if(MMEvent.class.isAssignableFrom(cls)) {
-                // Run through the triggers for each superclass up to MMEvent itself
-                internalTrigger((Class<? extends MMEvent>) cls, event);
-            }
+        // A snapshot; handlers registered or unregistered along the way take effect with the next event
+        for(EventListener listener : getListeners(event.getClass())) {
+            listener.trigger(event);
         }
         return event.isCancellable() ? event.isCancelled() : false;
     }
     
-    private void internalTrigger(Class<? extends MMEvent> eventClass, MMEvent event) {
-        List<EventListener> eventListeners = eventMap.get(eventClass);
-        if(null != eventListeners) {
-            Collections.sort(eventListeners, EVENT_SORTER);
-            for(EventListener listener : eventListeners) {
-                listener.trigger(event);
+    private EventListener[] getListeners(Class<? extends MMEvent> eventClass) {
+        EventListener[] listeners = dispatchCache.get(eventClass);
+        if(null == listeners) {
+            synchronized(REGISTER_LOCK) {
+                listeners = dispatchCache.computeIfAbsent(eventClass, this::collectListeners);
+            }
+        }
+        return listeners;
+    }
+    
+    private EventListener[] collectListeners(Class<? extends MMEvent> eventClass) {
+        List<EventListener> result = new ArrayList<>();
+        for(Class<?> cls : getClasses(eventClass)) {
+            // Run through the triggers for each superclass up to MMEvent itself
+            List<EventListener> eventListeners = MMEvent.class.isAssignableFrom(cls) ? eventMap.get(cls) : null;
+            if(null != eventListeners) {
+                List<EventListener> sorted = new ArrayList<>(eventListeners);
+                sorted.sort(EVENT_SORTER);
+                result.addAll(sorted);
             }
         }
+        return result.toArray(new EventListener[0]);
     }
     
     private static class EventSorter implements Comparator<EventListener> {
@@ -10,32 +10,43 @@
 
 package megamek.common.event;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Objects;
 
 class EventListener {
-    private final Object handler;
-    private final Method method;
+    /** The type every invoker is adapted to, so that it can be called with invokeExact */
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, MMEvent.class);
+
+    /** The handler method, bound to the handler */
+    private final MethodHandle invoker;
     private final Class<? extends MMEvent> eventType;
     private final Subscribe info;
 
     public EventListener(Object handler, Method method, Class<? extends MMEvent> eventType) {
-        this.handler = Objects.requireNonNull(handler);
-        this.method = Objects.requireNonNull(method);
         this.eventType = Objects.requireNonNull(eventType);
-        this.info = method.getAnnotation(Subscribe.class);
+        this.info = Objects.requireNonNull(method).getAnnotation(Subscribe.class);
+        this.invoker = createInvoker(Objects.requireNonNull(handler), method);
+    }
+
+    private static MethodHandle createInvoker(Object handler, Method method) {
+        try {
+            // Handlers may well be anonymous or otherwise non-public classes
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method).bindTo(handler).asType(INVOKER_TYPE);
+        } catch(IllegalAccessException | SecurityException e) {
+            throw new IllegalArgumentException(
+                String.format("Can't access event handler method %s", method), e); //$NON-NLS-1$
+        }
     }
     
     public void trigger(MMEvent event) {
         if(!event.isCancellable() || !event.isCancelled()) {
             try {
-                method.invoke(handler, event);
-            } catch(IllegalAccessException e) {
-                e.printStackTrace();
-            } catch(IllegalArgumentException e) {
-                e.printStackTrace();
-            } catch(InvocationTargetException e) {
+                invoker.invokeExact(event);
+            } catch(Throwable e) {
                 e.printStackTrace();
             }
         }
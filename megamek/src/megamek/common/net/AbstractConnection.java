@@ -156,16 +156,17 @@ public abstract class AbstractConnection implements IConnection {
      *
      * @return the type of the marshalling used to send packets
      */
-    protected int getMarshallingType() {
+    public synchronized int getMarshallingType() {
         return marshallingType;
     }
 
     /**
-     * Sets the type of the marshalling used to send packets
+     * Sets the type of the marshalling used to send packets. Packets already
+     * queued keep the marshalling they were created with.
      *
      * @param marshallingType new marhalling type
      */
-    protected void setMarshallingType(int marshallingType) {
+    public synchronized void setMarshallingType(int marshallingType) {
         PacketMarshaller pm = marshallerFactory.getMarshaller(marshallingType);
         assert (pm != null) : "Unknown marshalling type";
         this.marshallingType = marshallingType;
@@ -278,7 +279,8 @@ public abstract class AbstractConnection implements IConnection {
      */
     public void sendNow(SendPacket packet) {
         try {
-            sendNetworkPacket(packet.getData(), packet.isCompressed());
+            sendNetworkPacket(packet.getData(), packet.isCompressed(),
+                    packet.getMarshallingType());
             debugLastFewCommandsSent.push(packet.getCommand());
         } catch (Exception e) {
             e.printStackTrace();
@@ -503,13 +505,21 @@ public abstract class AbstractConnection implements IConnection {
             in = bis;
         }
         packet = pm.unmarshall(in);
-        if (packet != null) {
-            debugLastFewCommandsReceived.push(packet.getCommand());
-            processConnectionEvent(new PacketReceivedEvent(
-                    AbstractConnection.this, packet));
+        if ((packet != null) && (packet.getCommand() == Packet.COMMAND_PACKET_BATCH)) {
+            for (Packet batched : PacketBatch.unpack(packet)) {
+                packetReceived(batched);
+            }
+        } else if (packet != null) {
+            packetReceived(packet);
         }
     }
 
+    private void packetReceived(Packet packet) {
+        debugLastFewCommandsReceived.push(packet.getCommand());
+        processConnectionEvent(new PacketReceivedEvent(
+                AbstractConnection.this, packet));
+    }
+
     /**
      * process a packet to be sent
      */
@@ -530,10 +540,11 @@ public abstract class AbstractConnection implements IConnection {
      *
      * @param data data to send
      * @param zipped should the data be compressed
+     * @param marshallingType the marshalling used for the data
      * @throws Exception
      */
-    protected abstract void sendNetworkPacket(byte[] data, boolean zipped)
-            throws Exception;
+    protected abstract void sendNetworkPacket(byte[] data, boolean zipped,
+            int marshallingType) throws Exception;
 
     /**
      * Wrapper around a <code>LinkedList</code> for keeping a queue of packets
@@ -610,9 +621,11 @@ public abstract class AbstractConnection implements IConnection {
         byte[] data;
         boolean zipped = false;
         int command;
+        int type;
 
         public SendPacket(Packet packet) {
             command = packet.getCommand();
+            type = marshallingType;
             ByteArrayOutputStream bos = new ByteArrayOutputStream();
             OutputStream out;
             try {
@@ -632,7 +645,7 @@ public abstract class AbstractConnection implements IConnection {
         }
 
         public int getMarshallingType() {
-            return marshallingType;
+            return type;
         }
 
         public byte[] getData() {
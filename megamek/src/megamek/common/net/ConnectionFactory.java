@@ -14,6 +14,7 @@
 package megamek.common.net;
 
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 
 /**
  * Connections factory. Creates the Client/Server connections
@@ -56,4 +57,18 @@ public class ConnectionFactory {
     public IConnection createServerConnection(Socket socket, int id) {
         return new DataStreamConnection(socket, id);
     }
+
+    /**
+     * Creates new Server connection that is served by a selector instead of
+     * a thread of its own
+     * 
+     * @param channel accepted channel to read/write
+     * @param id connection ID
+     * @param selector the selector serving the connection
+     * @return new Server connection
+     */
+    public IConnection createServerConnection(SocketChannel channel, int id,
+            ConnectionSelector selector) {
+        return new NioConnection(channel, id, selector);
+    }
 }
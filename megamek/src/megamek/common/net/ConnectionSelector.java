@@ -0,0 +1,182 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import megamek.MegaMek;
+
+/**
+ * Serves all the {@link NioConnection}s of a server on a single thread,
+ * instead of one <code>ConnectionHandler</code> thread per client. The
+ * selector thread only moves bytes; the received packets are unmarshalled
+ * and handed to the connection listeners on a separate dispatch thread, in
+ * the order they arrived, so that a listener waiting for a lock can't stall
+ * the I/O of the other connections.
+ */
+public class ConnectionSelector implements Runnable {
+
+    /**
+     * The size of the pooled read and write buffers
+     */
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The number of idle buffers kept for reuse
+     */
+    private static final int MAX_POOLED_BUFFERS = 256;
+
+    private final Selector selector;
+
+    private final DirectBufferPool bufferPool = new DirectBufferPool(BUFFER_SIZE,
+            MAX_POOLED_BUFFERS);
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "Connection Dispatcher"));
+
+    private final Queue<NioConnection> registrations = new ConcurrentLinkedQueue<>();
+
+    private final Queue<NioConnection> writeRequests = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running = true;
+
+    private volatile Thread thread;
+
+    public ConnectionSelector() throws IOException {
+        selector = Selector.open();
+    }
+
+    /**
+     * Starts the selector thread.
+     */
+    public synchronized void start() {
+        if (thread == null) {
+            thread = new Thread(this, "Connection Selector");
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops the selector and the dispatch thread. The connections should be
+     * closed beforehand.
+     */
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+        dispatcher.shutdown();
+    }
+
+    boolean isSelectorThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    DirectBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Queues the channel of the connection for registration with the selector.
+     */
+    void register(NioConnection connection) {
+        registrations.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Asks the selector thread to write the queued data of the connection.
+     */
+    void requestWrite(NioConnection connection) {
+        writeRequests.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Runs the task on the dispatch thread, after all previously dispatched
+     * tasks. Tasks dispatched after the shutdown are dropped.
+     */
+    void dispatch(Runnable task) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // Shutting down
+        }
+    }
+
+    @Override
+    public void run() {
+        ByteBuffer readBuffer = bufferPool.acquire();
+        try {
+            while (running) {
+                selector.select();
+                NioConnection connection;
+                while ((connection = registrations.poll()) != null) {
+                    try {
+                        connection.register(selector);
+                    } catch (IOException e) {
+                        connection.fail();
+                    }
+                }
+                while ((connection = writeRequests.poll()) != null) {
+                    try {
+                        connection.writeRequested();
+                    } catch (IOException | CancelledKeyException e) {
+                        connection.fail();
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    connection = (NioConnection) key.attachment();
+                    try {
+                        if (key.isValid() && key.isReadable()) {
+                            connection.read(readBuffer);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.write();
+                        }
+                    } catch (IOException | CancelledKeyException e) {
+                        connection.fail();
+                    } catch (RuntimeException e) {
+                        MegaMek.getLogger().error("s: error serving " + connection, e);
+                        connection.fail();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            MegaMek.getLogger().error("s: connection selector failed", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                ((NioConnection) key.attachment()).fail();
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Nothing left to do
+            }
+            bufferPool.release(readBuffer);
+        }
+    }
+}
@@ -100,8 +100,8 @@ class DataStreamConnection extends AbstractConnection {
     }
 
     @Override
-    protected void sendNetworkPacket(byte[] data, boolean iszipped)
-            throws Exception {
+    protected void sendNetworkPacket(byte[] data, boolean iszipped,
+            int type) throws Exception {
         
         if (out == null) {
             out = new DataOutputStream(new BufferedOutputStream(
@@ -109,7 +109,7 @@ class DataStreamConnection extends AbstractConnection {
         }
         synchronized (out){
             out.writeBoolean(iszipped);
-            out.writeInt(marshallingType);
+            out.writeInt(type);
             out.writeInt(data.length);
             out.write(data);
         }
@@ -0,0 +1,87 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct <code>ByteBuffer</code>s of a fixed size. Direct buffers
+ * are expensive to allocate and are only freed by the garbage collector, so
+ * they are handed back here once written instead of being dropped. At most
+ * <code>maxPooled</code> buffers are kept; any more are left to the garbage
+ * collector.
+ */
+class DirectBufferPool {
+
+    private final int bufferSize;
+
+    private final int maxPooled;
+
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    DirectBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * @return the capacity of the buffers of this pool
+     */
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the number of buffers that are currently waiting to be reused
+     */
+    int getPooledCount() {
+        return pooled.get();
+    }
+
+    /**
+     * Returns a cleared buffer of {@link #getBufferSize()} bytes, either a
+     * pooled one or a newly allocated one.
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooled.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Hands a buffer back for reuse. The buffer must not be used by the caller
+     * afterwards. Buffers not taken from this pool are ignored.
+     */
+    void release(ByteBuffer buffer) {
+        if ((buffer == null) || !buffer.isDirect() || (buffer.capacity() != bufferSize)) {
+            return;
+        }
+        if (pooled.incrementAndGet() <= maxPooled) {
+            buffer.clear();
+            buffers.offer(buffer);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reassembles the frames sent by a {@link DataStreamConnection} from the
+ * chunks that a non-blocking channel hands out. A frame is a header of a
+ * boolean compression flag, the int marshalling type and the int data length,
+ * followed by the data, all in the byte order of a
+ * <code>DataOutputStream</code>. Chunks may end anywhere within a frame, so
+ * the decoder keeps the partial frame between calls.
+ */
+class FrameDecoder {
+
+    /**
+     * The length of the frame header
+     */
+    static final int HEADER_LENGTH = 9;
+
+    /**
+     * Frames longer than this are rejected rather than allocated
+     */
+    static final int MAX_FRAME_LENGTH = 256 << 20;
+
+    /**
+     * Receiver of the completed frames
+     */
+    interface FrameHandler {
+        void frameReceived(AbstractConnection.INetworkPacket frame) throws IOException;
+    }
+
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+
+    private boolean compressed;
+
+    private int marshallingType;
+
+    /**
+     * The data of the frame being read, or null while reading a header
+     */
+    private byte[] data;
+
+    private int position;
+
+    /**
+     * Consumes all remaining bytes of the given buffer, passing every frame
+     * that is completed by them to the handler.
+     *
+     * @throws IOException if a header announces an impossible length
+     */
+    void decode(ByteBuffer in, FrameHandler handler) throws IOException {
+        while (true) {
+            if (data == null) {
+                if (!in.hasRemaining()) {
+                    return;
+                }
+                while (header.hasRemaining() && in.hasRemaining()) {
+                    header.put(in.get());
+                }
+                if (header.hasRemaining()) {
+                    return;
+                }
+                header.flip();
+                compressed = header.get() != 0;
+                marshallingType = header.getInt();
+                int length = header.getInt();
+                header.clear();
+                if ((length < 0) || (length > MAX_FRAME_LENGTH)) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                data = new byte[length];
+                position = 0;
+            }
+            int count = Math.min(in.remaining(), data.length - position);
+            in.get(data, position, count);
+            position += count;
+            if (position < data.length) {
+                return;
+            }
+            Frame frame = new Frame(compressed, marshallingType, data);
+            data = null;
+            handler.frameReceived(frame);
+        }
+    }
+
+    /**
+     * Writes the header of a frame with the given properties to the buffer.
+     */
+    static void putHeader(ByteBuffer out, boolean compressed, int marshallingType, int length) {
+        out.put((byte) (compressed ? 1 : 0));
+        out.putInt(marshallingType);
+        out.putInt(length);
+    }
+
+    private static class Frame implements AbstractConnection.INetworkPacket {
+
+        private final boolean compressed;
+
+        private final int marshallingType;
+
+        private final byte[] data;
+
+        Frame(boolean compressed, int marshallingType, byte[] data) {
+            this.compressed = compressed;
+            this.marshallingType = marshallingType;
+            this.data = data;
+        }
+
+        public int getMarshallingType() {
+            return marshallingType;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public boolean isCompressed() {
+            return compressed;
+        }
+    }
+}
@@ -58,6 +58,23 @@ public interface IConnection {
      */
     public String getInetAddress();
 
+    /**
+     * Returns the type of the marshalling used to send packets
+     *
+     * @return the type of the marshalling used to send packets, one of the
+     *         <code>PacketMarshaller</code> constants
+     */
+    public int getMarshallingType();
+
+    /**
+     * Sets the type of the marshalling used to send packets. The peer must be
+     * able to unmarshall the given type.
+     *
+     * @param marshallingType one of the <code>PacketMarshaller</code>
+     *            constants
+     */
+    public void setMarshallingType(int marshallingType);
+
     /**
      * Process all incoming data, blocking on the input stream until new input
      * is available.
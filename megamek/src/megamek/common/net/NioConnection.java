@@ -0,0 +1,358 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import megamek.MegaMek;
+
+/**
+ * Server connection on a non-blocking <code>SocketChannel</code>. Unlike the
+ * {@link DataStreamConnection}, it needs no thread of its own: the
+ * {@link ConnectionSelector} reads and writes the channel, and received
+ * packets are unmarshalled and dispatched on the selector's dispatch thread.
+ * Sent packets are framed into pooled direct buffers and queued; senders wait
+ * while more than {@link #HIGH_WATER_MARK} bytes are queued, so that a client
+ * that stops reading can't exhaust the server's memory. The frames are the
+ * same as those of the <code>DataStreamConnection</code>, so clients don't
+ * notice the difference.
+ */
+class NioConnection extends AbstractConnection {
+
+    /**
+     * Queued bytes above which senders wait for the queue to drain
+     */
+    static final int HIGH_WATER_MARK = 4 << 20;
+
+    /**
+     * Queued bytes below which waiting senders are woken up again
+     */
+    static final int LOW_WATER_MARK = 1 << 20;
+
+    /**
+     * How long a sender waits for a full queue to drain before the peer is
+     * considered dead, in milliseconds
+     */
+    static final long SEND_TIMEOUT = 30000;
+
+    private static final int MAX_GATHERED_BUFFERS = 16;
+
+    private static final int MAX_READS_PER_SELECT = 16;
+
+    private final SocketChannel channel;
+
+    private final ConnectionSelector selector;
+
+    /**
+     * Only used by the selector thread
+     */
+    private final FrameDecoder decoder = new FrameDecoder();
+
+    /**
+     * Only used by the selector thread
+     */
+    private SelectionKey key;
+
+    /**
+     * Guards the write queue and the queued byte count
+     */
+    private final Object writeLock = new Object();
+
+    private final ArrayDeque<ByteBuffer> writeQueue = new ArrayDeque<>();
+
+    private long queuedBytes;
+
+    /**
+     * Set while a write request is waiting for the selector thread
+     */
+    private final AtomicBoolean writeRequested = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Set once the channel has been handed to the selector
+     */
+    private boolean registered;
+
+    private volatile boolean broken;
+
+    /**
+     * Creates new server connection
+     *
+     * @param channel the accepted channel
+     * @param id connection ID
+     * @param selector the selector that will serve this connection
+     */
+    NioConnection(SocketChannel channel, int id, ConnectionSelector selector) {
+        super(channel.socket(), id);
+        this.channel = channel;
+        this.selector = selector;
+    }
+
+    @Override
+    public synchronized boolean open() {
+        if (!registered && !isClosed() && super.open()) {
+            registered = true;
+            selector.register(this);
+        }
+        return !isClosed();
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (!broken) {
+            writeRemaining();
+        }
+        broken = true;
+        clearWriteQueue();
+        super.close();
+    }
+
+    /**
+     * Writes what the channel takes right away of the queued packets, such as
+     * the close command the server sends before closing the connection.
+     */
+    private void writeRemaining() {
+        synchronized (writeLock) {
+            try {
+                while (!writeQueue.isEmpty() && (channel.write(writeQueue.peek()) > 0)) {
+                    if (!writeQueue.peek().hasRemaining()) {
+                        selector.getBufferPool().release(writeQueue.poll());
+                    }
+                }
+            } catch (IOException ignored) {
+                // We're closing it anyway
+            }
+        }
+    }
+
+    /**
+     * Incoming data is read by the selector thread and dispatched as soon as a
+     * packet is complete, so there is nothing to do here.
+     */
+    @Override
+    public void update() {
+    }
+
+    /**
+     * Packets are never read on demand, see {@link #update()}.
+     */
+    @Override
+    protected INetworkPacket readNetworkPacket() {
+        return null;
+    }
+
+    @Override
+    protected void sendNetworkPacket(byte[] data, boolean zipped, int marshallingType)
+            throws IOException {
+        DirectBufferPool pool = selector.getBufferPool();
+        synchronized (writeLock) {
+            // The selector thread must never wait for itself
+            if (!selector.isSelectorThread()) {
+                awaitQueueSpace();
+            }
+            if (broken) {
+                throw new IOException("Connection #" + getId() + " is closed");
+            }
+            ByteBuffer buffer = pool.acquire();
+            FrameDecoder.putHeader(buffer, zipped, marshallingType, data.length);
+            int offset = 0;
+            while (offset < data.length) {
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    writeQueue.add(buffer);
+                    buffer = pool.acquire();
+                }
+                int count = Math.min(buffer.remaining(), data.length - offset);
+                buffer.put(data, offset, count);
+                offset += count;
+            }
+            buffer.flip();
+            writeQueue.add(buffer);
+            queuedBytes += FrameDecoder.HEADER_LENGTH + data.length;
+        }
+        if (writeRequested.compareAndSet(false, true)) {
+            selector.requestWrite(this);
+        }
+    }
+
+    /**
+     * Waits until the write queue has drained below the high water mark. Must
+     * be called with the write lock held. Closes the connection if it doesn't
+     * drain within {@link #SEND_TIMEOUT}.
+     */
+    private void awaitQueueSpace() throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SEND_TIMEOUT);
+        while ((queuedBytes > HIGH_WATER_MARK) && !broken) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                MegaMek.getLogger().error("s: connection #" + getId() + " has not read "
+                        + queuedBytes + " bytes for " + SEND_TIMEOUT + " ms, closing it");
+                broken = true;
+                selector.dispatch(this::close);
+                throw new IOException("Send to connection #" + getId() + " timed out");
+            }
+            try {
+                writeLock.wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to send");
+            }
+        }
+    }
+
+    private void clearWriteQueue() {
+        synchronized (writeLock) {
+            ByteBuffer buffer;
+            while ((buffer = writeQueue.poll()) != null) {
+                selector.getBufferPool().release(buffer);
+            }
+            queuedBytes = 0;
+            writeLock.notifyAll();
+        }
+    }
+
+    /**
+     * Registers the channel with the selector. Called on the selector thread.
+     */
+    void register(Selector nioSelector) throws IOException {
+        channel.configureBlocking(false);
+        key = channel.register(nioSelector, SelectionKey.OP_READ, this);
+        writeRequested.set(false);
+        write();
+    }
+
+    /**
+     * Writes after a request from a sender. Called on the selector thread.
+     */
+    void writeRequested() throws IOException {
+        writeRequested.set(false);
+        if (key != null) {
+            write();
+        }
+    }
+
+    /**
+     * Writes as much of the queue as the channel takes without blocking, and
+     * asks the selector to report the channel as writable if anything is
+     * left. Called on the selector thread.
+     */
+    void write() throws IOException {
+        boolean drained;
+        synchronized (writeLock) {
+            ByteBuffer[] buffers = new ByteBuffer[MAX_GATHERED_BUFFERS];
+            while (!writeQueue.isEmpty()) {
+                int count = 0;
+                for (ByteBuffer buffer : writeQueue) {
+                    buffers[count++] = buffer;
+                    if (count == buffers.length) {
+                        break;
+                    }
+                }
+                long written = channel.write(buffers, 0, count);
+                queuedBytes -= written;
+                while (!writeQueue.isEmpty() && !writeQueue.peek().hasRemaining()) {
+                    selector.getBufferPool().release(writeQueue.poll());
+                }
+                if (written == 0) {
+                    break;
+                }
+            }
+            if (queuedBytes <= LOW_WATER_MARK) {
+                writeLock.notifyAll();
+            }
+            drained = writeQueue.isEmpty();
+        }
+        if (key.isValid()) {
+            key.interestOps(drained ? SelectionKey.OP_READ
+                    : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Reads whatever the channel has and dispatches the completed packets.
+     * Called on the selector thread with its read buffer.
+     */
+    void read(ByteBuffer buffer) throws IOException {
+        for (int i = 0; i < MAX_READS_PER_SELECT; i++) {
+            buffer.clear();
+            int count = channel.read(buffer);
+            if (count < 0) {
+                throw new EOFException();
+            }
+            if (count == 0) {
+                return;
+            }
+            buffer.flip();
+            decoder.decode(buffer, frame -> selector.dispatch(() -> receive(frame)));
+            if (count < buffer.capacity()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Unmarshalls a received frame and notifies the listeners. Called on the
+     * dispatch thread, which also runs the {@link #close()} after a failure,
+     * so the packets read before it are still delivered.
+     */
+    private void receive(INetworkPacket frame) {
+        if (closed.get()) {
+            return;
+        }
+        try {
+            processPacket(frame);
+        } catch (Exception e) {
+            reportReceiveException(e);
+            close();
+        }
+    }
+
+    /**
+     * Stops all I/O after the channel failed. Called on the selector thread,
+     * which must not run the listeners, so the connection is closed on the
+     * dispatch thread.
+     */
+    void fail() {
+        broken = true;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // We're closing it anyway
+        }
+        clearWriteQueue();
+        selector.dispatch(this::close);
+    }
+
+    @Override
+    public String toString() {
+        return "NioConnection Id " + getId();
+    }
+}
@@ -24,6 +24,8 @@ public class Packet {
     public static final int COMMAND_SERVER_GREETING = 10;
     public static final int COMMAND_CLIENT_NAME = 20;
     public static final int COMMAND_CLIENT_VERSIONS = 25;
+    // Several packets in one, see PacketBatch
+    public static final int COMMAND_PACKET_BATCH = 27;
     public static final int COMMAND_LOCAL_PN = 30;
 
     public static final int COMMAND_PLAYER_ADD = 40;
@@ -43,6 +45,7 @@ public class Packet {
     public static final int COMMAND_ENTITY_GTA_HEX_SELECT = 135;
     public static final int COMMAND_ENTITY_UPDATE = 140;
     public static final int COMMAND_ENTITY_MULTIUPDATE = 142;
+    public static final int COMMAND_ENTITY_DELTA = 143;
     public static final int COMMAND_ENTITY_WORDER_UPDATE = 145;
     public static final int COMMAND_ENTITY_ASSIGN = 147;
     public static final int COMMAND_ENTITY_MODECHANGE = 150;
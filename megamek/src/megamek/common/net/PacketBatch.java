@@ -0,0 +1,113 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import megamek.common.net.marshall.PacketMarshaller;
+import megamek.common.net.marshall.PacketMarshallerFactory;
+
+/**
+ * Several already marshalled packets that are sent as a single
+ * {@link Packet#COMMAND_PACKET_BATCH} packet, so that they are compressed
+ * together and need only one frame and one flush. Each entry keeps the
+ * marshalling type it was marshalled with, followed by the length and the
+ * marshalled bytes. The receiving connection unpacks the batch and reports
+ * the packets in their original order, so listeners never see the batch.
+ */
+public class PacketBatch {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    private final DataOutputStream out = new DataOutputStream(bytes);
+
+    private int size;
+
+    /**
+     * Appends a marshalled packet to the batch.
+     *
+     * @param marshallingType the marshalling the packet was marshalled with
+     * @param marshalled the marshalled packet
+     */
+    public void add(int marshallingType, byte[] marshalled) {
+        try {
+            out.writeInt(marshallingType);
+            out.writeInt(marshalled.length);
+            out.write(marshalled);
+            size++;
+        } catch (IOException e) {
+            // Can't happen with a ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the number of packets in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a new {@link Packet#COMMAND_PACKET_BATCH} packet carrying the
+     *         packets of this batch
+     */
+    public Packet toPacket() {
+        return new Packet(Packet.COMMAND_PACKET_BATCH, bytes.toByteArray());
+    }
+
+    /**
+     * Returns the packets of a {@link Packet#COMMAND_PACKET_BATCH} packet in
+     * the order they were added.
+     *
+     * @throws IOException if the batch is malformed or uses an unknown
+     *             marshalling
+     */
+    public static List<Packet> unpack(Packet batch) throws IOException {
+        if (!(batch.getObject(0) instanceof byte[])) {
+            throw new IOException("Batch without data");
+        }
+        byte[] data = (byte[]) batch.getObject(0);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        List<Packet> packets = new ArrayList<>();
+        while (in.available() > 0) {
+            int marshallingType = in.readInt();
+            int length = in.readInt();
+            // The length comes from the peer; it must fit in what is left of the batch
+            if ((length < 0) || (length > in.available())) {
+                throw new IOException("Packet " + packets.size() + " of the batch claims " + length
+                        + " bytes, but only " + in.available() + " are left");
+            }
+            byte[] marshalled = new byte[length];
+            in.readFully(marshalled);
+            PacketMarshaller pm = PacketMarshallerFactory.getInstance().getMarshaller(marshallingType);
+            if (pm == null) {
+                throw new IOException("Unknown marshalling type " + marshallingType);
+            }
+            Packet packet = pm.unmarshall(marshalled);
+            if (packet == null) {
+                throw new IOException("Could not unmarshall packet " + packets.size() + " of the batch");
+            }
+            packets.add(packet);
+        }
+        return packets;
+    }
+}
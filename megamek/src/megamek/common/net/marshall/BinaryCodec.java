@@ -0,0 +1,190 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net.marshall;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import megamek.common.Coords;
+
+/**
+ * The length-prefixed values of the binary marshalling, for the classes that
+ * write their own compact form, such as <code>Report</code> and
+ * <code>MovePath</code>. All lengths
+ * read are checked, so corrupt or hostile data fails with an
+ * <code>IOException</code> instead of allocating huge arrays.
+ */
+public final class BinaryCodec {
+
+    /** The largest length read, the same as the largest frame a connection accepts */
+    static final int MAX_LENGTH = 256 << 20;
+
+    /**
+     * The most elements allocated ahead of reading them. Longer arrays grow
+     * as their data arrives, so a corrupt length runs into the end of the
+     * data instead of allocating its full size.
+     */
+    static final int CHUNK_LENGTH = 1 << 16;
+
+    /** Length written for a null string */
+    private static final int NULL_LENGTH = -1;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * Writes a string, which may be null, as its UTF-8 length and bytes.
+     * Unlike <code>DataOutput.writeUTF</code>, there is no 64k limit.
+     */
+    public static void writeString(DataOutput out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(NULL_LENGTH);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     */
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        return new String(readBytes(in, checkLength(length)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the number of elements that follow, e.g. the size of a
+     * collection.
+     *
+     * @return the count, between 0 and the largest frame length
+     * @throws IOException if the count is out of range or can't be read
+     */
+    public static int readCount(DataInput in) throws IOException {
+        return checkLength(in.readInt());
+    }
+
+    /**
+     * Returns the capacity to allocate for the given count of elements read
+     * by {@link #readCount(DataInput)}; the rest grows as the elements arrive.
+     */
+    public static int initialCapacity(int count) {
+        return Math.min(count, CHUNK_LENGTH);
+    }
+
+    static int checkLength(int length) throws IOException {
+        if ((length < 0) || (length > MAX_LENGTH)) {
+            throw new IOException("Invalid binary marshalling length " + length);
+        }
+        return length;
+    }
+
+    static byte[] readBytes(DataInput in) throws IOException {
+        return readBytes(in, readCount(in));
+    }
+
+    private static byte[] readBytes(DataInput in, int length) throws IOException {
+        byte[] bytes = new byte[initialCapacity(length)];
+        in.readFully(bytes);
+        while (bytes.length < length) {
+            int read = bytes.length;
+            bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * read));
+            in.readFully(bytes, read, bytes.length - read);
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes a position, which may be null.
+     */
+    public static void writeCoords(DataOutput out, Coords coords) throws IOException {
+        out.writeBoolean(coords != null);
+        if (coords != null) {
+            out.writeInt(coords.getX());
+            out.writeInt(coords.getY());
+        }
+    }
+
+    /**
+     * Reads a position written by {@link #writeCoords(DataOutput, Coords)}.
+     */
+    public static Coords readCoords(DataInput in) throws IOException {
+        return in.readBoolean() ? new Coords(in.readInt(), in.readInt()) : null;
+    }
+
+    /**
+     * Writes an enum constant, which may be null, as its ordinal.
+     */
+    public static void writeEnum(DataOutput out, Enum<?> value) throws IOException {
+        out.writeInt((value == null) ? NULL_LENGTH : value.ordinal());
+    }
+
+    /**
+     * Reads an enum constant written by {@link #writeEnum(DataOutput, Enum)}.
+     *
+     * @throws IOException if the ordinal is not one of the given enum
+     */
+    public static <E extends Enum<E>> E readEnum(DataInput in, Class<E> type) throws IOException {
+        int ordinal = in.readInt();
+        if (ordinal == NULL_LENGTH) {
+            return null;
+        }
+        E[] values = type.getEnumConstants();
+        if ((ordinal < 0) || (ordinal >= values.length)) {
+            throw new IOException("Invalid " + type.getSimpleName() + " ordinal " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    /**
+     * Writes an int array, which may be null, as its length and values.
+     */
+    public static void writeInts(DataOutput out, int[] values) throws IOException {
+        if (values == null) {
+            out.writeInt(NULL_LENGTH);
+        } else {
+            out.writeInt(values.length);
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    /**
+     * Reads an int array written by {@link #writeInts(DataOutput, int[])}.
+     */
+    public static int[] readInts(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        checkLength(length);
+        int[] values = new int[initialCapacity(length)];
+        for (int i = 0; i < length; i++) {
+            if (i == values.length) {
+                values = Arrays.copyOf(values, (int) Math.min(length, 2L * i));
+            }
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+}
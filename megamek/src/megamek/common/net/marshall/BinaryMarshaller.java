@@ -0,0 +1,260 @@
+/*
+ * MegaMek - Copyright (C) 2020 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.net.marshall;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Vector;
+
+import megamek.common.Coords;
+import megamek.common.EntityStateUpdate;
+import megamek.common.MovePath;
+import megamek.common.Report;
+import megamek.common.net.Packet;
+import megamek.common.util.ClassWhitelistFilter;
+
+/**
+ * Marshaller that writes the common packet payloads (boxed primitives,
+ * strings, <code>Coords</code>, <code>Report</code>s, move paths, entity
+ * state updates and the collections holding them) in a tagged binary format
+ * without class descriptors. Any packet data element that contains other
+ * types is written as an embedded Java native serialization blob, so every
+ * packet can still be sent. That includes whole entities; entity list
+ * updates keep them small by sending only the state of entities that merely
+ * moved or took damage.
+ */
+class BinaryMarshaller extends PacketMarshaller {
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_INTEGER = 1;
+    private static final byte TAG_BOOLEAN = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_STRING = 5;
+    private static final byte TAG_COORDS = 6;
+    private static final byte TAG_INT_ARRAY = 7;
+    private static final byte TAG_VECTOR = 8;
+    private static final byte TAG_ARRAY_LIST = 9;
+    private static final byte TAG_HASH_SET = 10;
+    private static final byte TAG_REPORT = 11;
+    private static final byte TAG_SERIALIZED = 12;
+    private static final byte TAG_BYTE_ARRAY = 13;
+    private static final byte TAG_MOVE_PATH = 14;
+    private static final byte TAG_ENTITY_STATE = 15;
+
+    /** Data length written for packets without a data array */
+    private static final int NO_DATA = -1;
+
+    /** The classes allowed in natively serialized elements, the same as for whole packets */
+    private static final ObjectInputFilter SERIAL_FILTER = ClassWhitelistFilter
+            .fromConfigs("/megamek/serialkiller.xml");
+
+    @Override
+    public void marshall(Packet packet, OutputStream stream) throws Exception {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(packet.getCommand());
+        Object[] data = packet.getData();
+        if (data == null) {
+            out.writeInt(NO_DATA);
+        } else {
+            out.writeInt(data.length);
+            for (Object o : data) {
+                if (isEncodable(o)) {
+                    writeValue(out, o);
+                } else {
+                    writeSerialized(out, o);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    public Packet unmarshall(InputStream stream) throws Exception {
+        DataInputStream in = new DataInputStream(stream);
+        int command = in.readInt();
+        int length = in.readInt();
+        if (length == NO_DATA) {
+            return new Packet(command);
+        }
+        BinaryCodec.checkLength(length);
+        List<Object> data = new ArrayList<>(BinaryCodec.initialCapacity(length));
+        for (int i = 0; i < length; i++) {
+            data.add(readValue(in));
+        }
+        return new Packet(command, data.toArray());
+    }
+
+    /**
+     * Returns <code>true</code> if the given object and everything it
+     * contains can be written by the schema encoding. Objects that fail this
+     * test are serialized natively as a whole so that object identity within
+     * them is preserved.
+     */
+    static boolean isEncodable(Object o) {
+        if ((o == null) || (o instanceof Integer) || (o instanceof Boolean)
+                || (o instanceof Long) || (o instanceof Double)
+                || (o instanceof String) || (o instanceof int[])
+                || (o instanceof byte[])
+                || (o.getClass() == Coords.class)
+                || (o.getClass() == Report.class)
+                || (o.getClass() == MovePath.class)
+                || (o.getClass() == EntityStateUpdate.class)) {
+            return true;
+        }
+        if ((o.getClass() == Vector.class) || (o.getClass() == ArrayList.class)
+                || (o.getClass() == HashSet.class)) {
+            for (Object element : (Collection<?>) o) {
+                if (!isEncodable(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void writeValue(DataOutputStream out, Object o) throws IOException {
+        if (o == null) {
+            out.writeByte(TAG_NULL);
+        } else if (o instanceof Integer) {
+            out.writeByte(TAG_INTEGER);
+            out.writeInt((Integer) o);
+        } else if (o instanceof Boolean) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) o);
+        } else if (o instanceof Long) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) o);
+        } else if (o instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) o);
+        } else if (o instanceof String) {
+            out.writeByte(TAG_STRING);
+            BinaryCodec.writeString(out, (String) o);
+        } else if (o instanceof Coords) {
+            Coords c = (Coords) o;
+            out.writeByte(TAG_COORDS);
+            out.writeInt(c.getX());
+            out.writeInt(c.getY());
+        } else if (o instanceof int[]) {
+            out.writeByte(TAG_INT_ARRAY);
+            BinaryCodec.writeInts(out, (int[]) o);
+        } else if (o instanceof byte[]) {
+            byte[] bytes = (byte[]) o;
+            out.writeByte(TAG_BYTE_ARRAY);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (o instanceof Report) {
+            out.writeByte(TAG_REPORT);
+            ((Report) o).writeCompact(out);
+        } else if (o instanceof MovePath) {
+            out.writeByte(TAG_MOVE_PATH);
+            ((MovePath) o).writeCompact(out);
+        } else if (o instanceof EntityStateUpdate) {
+            out.writeByte(TAG_ENTITY_STATE);
+            ((EntityStateUpdate) o).writeCompact(out);
+        } else if (o instanceof Collection) {
+            Collection<?> collection = (Collection<?>) o;
+            if (o instanceof Vector) {
+                out.writeByte(TAG_VECTOR);
+            } else if (o instanceof ArrayList) {
+                out.writeByte(TAG_ARRAY_LIST);
+            } else {
+                out.writeByte(TAG_HASH_SET);
+            }
+            out.writeInt(collection.size());
+            for (Object element : collection) {
+                writeValue(out, element);
+            }
+        } else {
+            writeSerialized(out, o);
+        }
+    }
+
+    private void writeSerialized(DataOutputStream out, Object o) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(o);
+        oos.close();
+        out.writeByte(TAG_SERIALIZED);
+        out.writeInt(bos.size());
+        bos.writeTo(out);
+    }
+
+    private Object readValue(DataInputStream in) throws Exception {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_INTEGER:
+                return in.readInt();
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_STRING:
+                return BinaryCodec.readString(in);
+            case TAG_COORDS:
+                return new Coords(in.readInt(), in.readInt());
+            case TAG_INT_ARRAY:
+                return BinaryCodec.readInts(in);
+            case TAG_BYTE_ARRAY:
+                return BinaryCodec.readBytes(in);
+            case TAG_REPORT:
+                return Report.readCompact(in);
+            case TAG_MOVE_PATH:
+                return MovePath.readCompact(in);
+            case TAG_ENTITY_STATE:
+                return EntityStateUpdate.readCompact(in);
+            case TAG_VECTOR:
+                return readCollection(in, new Vector<>());
+            case TAG_ARRAY_LIST:
+                return readCollection(in, new ArrayList<>());
+            case TAG_HASH_SET:
+                return readCollection(in, new HashSet<>());
+            case TAG_SERIALIZED: {
+                ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(BinaryCodec.readBytes(in)));
+                ois.setObjectInputFilter(SERIAL_FILTER);
+                return ois.readObject();
+            }
+            default:
+                throw new IOException("Unknown binary marshalling tag " + tag);
+        }
+    }
+
+    private Collection<Object> readCollection(DataInputStream in, Collection<Object> collection)
+            throws Exception {
+        int size = BinaryCodec.readCount(in);
+        for (int i = 0; i < size; i++) {
+            collection.add(readValue(in));
+        }
+        return collection;
+    }
+}
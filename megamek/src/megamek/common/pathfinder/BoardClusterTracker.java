@@ -15,13 +15,12 @@
 
 package megamek.common.pathfinder;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import megamek.client.bot.princess.CardinalEdge;
 import megamek.common.Building;
@@ -102,10 +101,12 @@ public class BoardClusterTracker {
         }
     }
     
-    private Map<MovementType, Map<Coords, BoardCluster>> movableAreas = new HashMap<>();
-    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasWithTerrainReduction = new HashMap<>();
-    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasBridges = new HashMap<>();
-    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasBridgesWithTerrainReduction = new HashMap<>();
+    // concurrent, as the clusters may be looked up by several path calculation threads at once
+    private Map<MovementType, Map<Coords, BoardCluster>> movableAreas = new ConcurrentHashMap<>();
+    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasWithTerrainReduction = new ConcurrentHashMap<>();
+    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasBridges = new ConcurrentHashMap<>();
+    private Map<MovementType, Map<Coords, BoardCluster>> movableAreasBridgesWithTerrainReduction = new ConcurrentHashMap<>();
+    private Map<MovementType, RegionGraph> regionGraphs = new ConcurrentHashMap<>();
     
     /**
      * Returns the size of the biggest terrain-reduced or non-terrain-reduced
@@ -209,6 +210,7 @@ public class BoardClusterTracker {
         movableAreasWithTerrainReduction.clear();
         movableAreasBridges.clear();
         movableAreasBridgesWithTerrainReduction.clear();
+        regionGraphs.clear();
     }
     
     /**
@@ -235,27 +237,34 @@ public class BoardClusterTracker {
         }
     }
 
+    /**
+     * Returns the graph of regions for long-range path finding of the given entity,
+     * building it if there is none yet for its movement type.
+     */
+    public RegionGraph getRegionGraph(Entity entity) {
+        return regionGraphs.computeIfAbsent(MovementType.getMovementType(entity), movementType -> new RegionGraph(entity));
+    }
+
     /**
      * Returns accessible clusters for the given entity.
      */
     public Map<Coords, BoardCluster> generateClusters(Entity entity, boolean destructionAware, boolean useBridgeTop) { 
         Map<Coords, BoardCluster> clusters = new HashMap<>();
         
-        // start with (0, 0)
-        // for each hex:
+        // for each hex, in order of x and then y:
         // if hex is not accessible to this entity, move on
-        // if hex is accessible, check if its neighbors are in a cluster
-        // for each neighbor in a cluster, check if we can move from this hex to the neighbor and back 
-        //      if yes, flag for joining neighbor's cluster
-        //      note that if any other neighbor is in a different cluster, and we can move back and forth, we merge the two clusters
-        // if no neighbors or cannot move back and forth between hex and neighbors, start new cluster
+        // if hex is accessible, it is joined with each accessible neighbor before it
+        //      that we can move from this hex to and back, which is the case if the elevation difference
+        //      isn't too large and we don't have to plow through a building in the neighbor
+        // the clusters are the groups of joined hexes
         
         if (entity == null || entity.getGame() == null) {
             return clusters;
         }
         
         IBoard board = entity.getGame().getBoard();
-        int clusterID = 0;
+        int width = board.getWidth();
+        int height = board.getHeight();
         
         MovementType movementType = MovementType.getMovementType(entity);
         boolean isHovercraft = movementType == MovementType.Hover;
@@ -263,98 +272,119 @@ public class BoardClusterTracker {
                                 movementType == MovementType.TrackedAmphi;
         
         boolean canUseBridge = MovementType.canUseBridge(movementType);
+        int maxElevationChange = entity.getMaxElevationChange();
         
-        for(int x = 0; x < board.getWidth(); x++) {
-            for(int y = 0; y < board.getHeight(); y++) {
+        // look at every hex once; hexes are numbered in the order they're visited
+        boolean[] accessible = new boolean[width * height];
+        boolean[] plowThrough = new boolean[width * height];
+        int[] elevation = new int[width * height];
+        for(int x = 0; x < width; x++) {
+            for(int y = 0; y < height; y++) {
                 Coords c = new Coords(x, y);
+                int index = (x * height) + y;
+                plowThrough[index] = buildingPlowThroughRequired(entity, movementType, c);
                 
                 // hex is either inaccessible
                 // or it is inaccessible AND we can't level it, then we move on
-                if ((entity.isLocationProhibited(c) || buildingPlowThroughRequired(entity, movementType, c)) &&
+                if ((entity.isLocationProhibited(c) || plowThrough[index]) &&
                         (!destructionAware || (destructionAware && !canLevel(entity, c)))) {
                     continue;
                 }
                 
-                int myElevation = 0; 
-                        
+                accessible[index] = true;
                 if (useBridgeTop && board.getHex(c).containsTerrain(Terrains.BRIDGE) &&
                         canUseBridge && (entity.getWeight() <= board.getBuildingAt(c).getCurrentCF(c))) {
-                    myElevation = board.getHex(c).ceiling();
+                    elevation[index] = board.getHex(c).ceiling();
                 } else {
-                    myElevation = BoardEdgePathFinder.calculateUnitElevationInHex(board.getHex(c), entity, isHovercraft, isAmphibious);
+                    elevation[index] = BoardEdgePathFinder.calculateUnitElevationInHex(board.getHex(c), entity, isHovercraft, isAmphibious);
                 }
-                
-                List<Coords> neighborsToJoin = new ArrayList<>();
-                BoardCluster biggestNeighbor = null; 
-                
-                // hex is accessible one way or another
+            }
+        }
+        
+        // join hexes with a union-find over the hex numbers
+        int[] parent = new int[width * height];
+        for (int index = 0; index < parent.length; index++) {
+            parent[index] = index;
+        }
+        for(int x = 0; x < width; x++) {
+            for(int y = 0; y < height; y++) {
+                int index = (x * height) + y;
+                if (!accessible[index]) {
+                    continue;
+                }
+                Coords c = new Coords(x, y);
                 for(int direction = 0; direction < 6; direction++) {
                     Coords neighbor = c.translated(direction);
+                    if (!board.contains(neighbor)) {
+                        continue;
+                    }
+                    int neighborIndex = (neighbor.getX() * height) + neighbor.getY();
                     
-                    if(clusters.containsKey(neighbor)) {
-                        int neighborElevation = 0;
-                        
-                        if (useBridgeTop && board.getHex(neighbor).containsTerrain(Terrains.BRIDGE) &&
-                                canUseBridge && (entity.getWeight() <= board.getBuildingAt(neighbor).getCurrentCF(neighbor))) {
-                            neighborElevation = board.getHex(neighbor).ceiling();
-                        } else {
-                            neighborElevation = BoardEdgePathFinder.calculateUnitElevationInHex(board.getHex(neighbor), entity, isHovercraft, isAmphibious);
-                        }
-                        
-                        // if we can't reach from here to the neighbor due to elevation differences, move on
-                        // buildings require special handling - while a tank technically CAN plow through a building
-                        // it is highly inadvisable and we will avoid it for now.
-                        int elevationDiff = Math.abs(neighborElevation - myElevation);
-                        if ((elevationDiff > entity.getMaxElevationChange())
-                                || buildingPlowThroughRequired(entity, movementType, neighbor)) {
-                            continue;
-                        }
-                        
-                        // we can "freely" go back and forth between ourselves and the neighbor, so let's join that cluster 
-                        neighborsToJoin.add(neighbor);
-                        
-                        if((biggestNeighbor == null) || 
-                                (clusters.get(neighbor).contents.size() > biggestNeighbor.contents.size())) {
-                            biggestNeighbor = clusters.get(neighbor);
-                        }
+                    // neighbors after this hex join it when they are visited
+                    if ((neighborIndex > index) || !accessible[neighborIndex]) {
+                        continue;
                     }
-                }
-                
-                // start up a new cluster if we have no mutually accessible neighbors
-                if(neighborsToJoin.isEmpty() || biggestNeighbor == null) {
-                    BoardCluster newCluster = new BoardCluster(clusterID++);
-                    newCluster.contents.put(c, myElevation);
-                    clusters.put(c, newCluster);
-                // otherwise, join an existing cluster, bringing any other mutually accessible neighbors and their clusters with me
-                // join the biggest neighbor to reduce shuffling.
-                } else {
-                    biggestNeighbor.contents.put(c, myElevation);
-                    clusters.put(c, biggestNeighbor);
                     
-                    // merge any other clusters belonging to joined neighbors to this cluster
-                    for(int neighborIndex = 0; neighborIndex < neighborsToJoin.size(); neighborIndex++) {
-                        BoardCluster oldCluster = clusters.get(neighborsToJoin.get(neighborIndex));
-                        if(oldCluster == biggestNeighbor) {
-                            continue;
-                        }
-                        
-                        for(Coords member : oldCluster.contents.keySet()) {
-                            biggestNeighbor.contents.put(member, oldCluster.contents.get(member));
-                            clusters.put(member, biggestNeighbor);
-                        }
+                    // if we can't reach from here to the neighbor due to elevation differences, move on
+                    // buildings require special handling - while a tank technically CAN plow through a building
+                    // it is highly inadvisable and we will avoid it for now.
+                    int elevationDiff = Math.abs(elevation[neighborIndex] - elevation[index]);
+                    if ((elevationDiff > maxElevationChange) || plowThrough[neighborIndex]) {
+                        continue;
                     }
                     
+                    int root = find(parent, index);
+                    int neighborRoot = find(parent, neighborIndex);
+                    if (root != neighborRoot) {
+                        parent[Math.max(root, neighborRoot)] = Math.min(root, neighborRoot);
+                    }
+                }
+            }
+        }
+        
+        // a cluster for each group of joined hexes
+        BoardCluster[] clustersByRoot = new BoardCluster[width * height];
+        int clusterID = 0;
+        for(int x = 0; x < width; x++) {
+            for(int y = 0; y < height; y++) {
+                int index = (x * height) + y;
+                if (!accessible[index]) {
+                    continue;
                 }
+                int root = find(parent, index);
+                if (clustersByRoot[root] == null) {
+                    clustersByRoot[root] = new BoardCluster(clusterID++);
+                }
+                Coords c = new Coords(x, y);
+                clustersByRoot[root].contents.put(c, elevation[index]);
+                clusters.put(c, clustersByRoot[root]);
             }
         }
         
         return clusters;
     }
     
+    /**
+     * Returns the hex number at the root of the group of the given one,
+     * shortening the way there for the next time.
+     */
+    private static int find(int[] parent, int index) {
+        int root = index;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[index] != root) {
+            int next = parent[index];
+            parent[index] = root;
+            index = next;
+        }
+        return root;
+    }
+    
     /**
      * Whether or not we are required to plow through a building if we enter this hex.
      */
-    private boolean buildingPlowThroughRequired(Entity entity, MovementType relevantMovementType, Coords coords) {
+    static boolean buildingPlowThroughRequired(Entity entity, MovementType relevantMovementType, Coords coords) {
         // basic premise:
         // ground tanks cannot climb over buildings and must plow through
         // mechs can climb over buildings that won't collapse under them
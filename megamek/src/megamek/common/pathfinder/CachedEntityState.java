@@ -1,10 +1,13 @@
 package megamek.common.pathfinder;
 
 import java.math.BigInteger;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 
+import megamek.common.Coords;
 import megamek.common.Entity;
+import megamek.common.IBoard;
 import megamek.common.Mech;
 import megamek.common.MiscType;
 
@@ -26,6 +29,9 @@ public class CachedEntityState {
     private Map<BigInteger, Boolean> hasWorkingMisc;
     private Integer torsoJumpJets;
     private Integer jumpMPNoGravity;
+    private IBoard prohibitedBoard;
+    private BitSet prohibitedChecked;
+    private BitSet prohibited;
     
     public CachedEntityState(Entity entity) {
         backingEntity = entity;
@@ -132,4 +138,25 @@ public class CachedEntityState {
                 hasWorkingMisc(MiscType.F_AMPHIBIOUS) ||
                 hasWorkingMisc(MiscType.F_LIMITED_AMPHIBIOUS);
     }
+    
+    /**
+     * Whether the entity is prohibited from the hex, which must be on the
+     * board. Only for units whose prohibited terrain doesn't depend on their
+     * elevation in the hex.
+     */
+    public boolean isLocationProhibited(Coords coords) {
+        IBoard board = backingEntity.getGame().getBoard();
+        if (board != prohibitedBoard) {
+            prohibitedBoard = board;
+            prohibitedChecked = new BitSet();
+            prohibited = new BitSet();
+        }
+        int index = (coords.getY() * board.getWidth()) + coords.getX();
+        if (!prohibitedChecked.get(index)) {
+            prohibitedChecked.set(index);
+            prohibited.set(index, backingEntity.isLocationProhibited(coords));
+        }
+        
+        return prohibited.get(index);
+    }
 }
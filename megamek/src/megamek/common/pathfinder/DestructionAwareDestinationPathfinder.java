@@ -44,6 +44,7 @@ public class DestructionAwareDestinationPathfinder extends BoardEdgePathFinder {
 
     private Comparator<BulldozerMovePath> movePathComparator;
     private int maximumCost = Integer.MAX_VALUE;
+    private RegionGraph.Route corridor;
     private Map<Coords, Boolean> friendlyFireCheckResults = new HashMap<>();
     
     /**
@@ -98,6 +99,36 @@ public class DestructionAwareDestinationPathfinder extends BoardEdgePathFinder {
         }
         
         movePathComparator = new AStarComparator(closest);
+        
+        // on large boards, plan the route over the board's regions first and only search the regions
+        // along it; jumping units aren't bound to the routes of the regions
+        corridor = null;
+        if (!jump && (clusterTracker != null)) {
+            RegionGraph regionGraph = clusterTracker.getRegionGraph(entity);
+            RegionGraph.Route route = regionGraph.findRoute(startPath.getFinalCoords(), closest);
+            if ((route != null) && (route.getRegionCount() < regionGraph.getRegionCount())) {
+                corridor = route;
+            }
+        }
+        
+        BulldozerMovePath bestPath = findBestPath(startPath, destinationCoords, clusterTracker, closest);
+        
+        // the regions' route is only an estimate; if there's no path along it
+        // or it turns out far more costly than expected, search the whole board
+        if ((corridor != null) && ((bestPath == null) ||
+                (bestPath.getMpUsed() + bestPath.getLevelingCost() > 2 * corridor.getCost()))) {
+            corridor = null;
+            bestPath = findBestPath(startPath, destinationCoords, clusterTracker, closest);
+        }
+  
+        return bestPath;
+    }
+    
+    /**
+     * Runs the A* search from the start path to the destination coordinates.
+     */
+    private BulldozerMovePath findBestPath(BulldozerMovePath startPath, Set<Coords> destinationCoords,
+            BoardClusterTracker clusterTracker, Coords closest) {
         maximumCost = Integer.MAX_VALUE;
         
         TreeSet<BulldozerMovePath> candidates = new TreeSet<>(movePathComparator);
@@ -188,6 +219,11 @@ public class DestructionAwareDestinationPathfinder extends BoardEdgePathFinder {
      */
     protected void processChild(BulldozerMovePath child, List<BulldozerMovePath> children, 
             Map<Coords, BulldozerMovePath> shortestPathsToCoords, BoardClusterTracker clusterTracker, Coords destinationCoords) {
+        // stay within the regions of the planned route, if there is one
+        if ((corridor != null) && !corridor.contains(child.getFinalCoords())) {
+            return;
+        }
+        
         // (if we haven't visited these coordinates before
         // or we have, and this is a shorter path)
         // and (it is a legal move
@@ -62,7 +62,7 @@ public class LongestPathFinder extends MovePathFinder<Deque<MovePath>> {
      */
     public static LongestPathFinder newInstanceOfLongestPath(int maxMP, MoveStepType stepType, IGame game) {
         LongestPathFinder lpf = new LongestPathFinder(new LongestPathRelaxer(),
-                new NextStepsAdjacencyMap(stepType),
+                new NextStepsAdjacencyMap(stepType, true),
                 new MovePathMinMPMaxDistanceComparator(),
                 game);
         lpf.addFilter(new MovePathLengthFilter(maxMP));
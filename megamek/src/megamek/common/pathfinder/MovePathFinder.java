@@ -30,11 +30,13 @@ import megamek.common.Coords;
 import megamek.common.Entity;
 import megamek.common.EntityMovementType;
 import megamek.common.Facing;
+import megamek.common.IBoard;
 import megamek.common.IGame;
 import megamek.common.MovePath;
 import megamek.common.MovePath.MoveStepType;
 import megamek.common.MoveStep;
 import megamek.common.Tank;
+import megamek.common.pathfinder.BoardClusterTracker.MovementType;
 
 /**
  * Generic implementation of AbstractPathFinder when we restrict graph nodes to
@@ -254,13 +256,57 @@ public class MovePathFinder<C> extends AbstractPathFinder<MovePathFinder.CoordsW
     public static class NextStepsAdjacencyMap implements AdjacencyMap<MovePath> {
         protected final MoveStepType stepType;
         protected final boolean backwardsStep;
+        protected final boolean legalOnly;
+
+        // the movement table of the last path's board and movement type
+        private MovementCostGraph graph;
+        private IBoard graphBoard;
 
         /**
          * @param stepType
          */
         public NextStepsAdjacencyMap(MoveStepType stepType) {
+            this(stepType, false);
+        }
+
+        /**
+         * @param stepType
+         * @param legalOnly whether only legal paths are wanted, so that
+         *            steps which surely aren't possible can be left out
+         *            before they are compiled
+         */
+        public NextStepsAdjacencyMap(MoveStepType stepType, boolean legalOnly) {
             this.stepType = stepType;
             backwardsStep = stepType == MoveStepType.BACKWARDS;
+            this.legalOnly = legalOnly;
+        }
+
+        /**
+         * Returns false when {@link MovePathLegalityFilter} would surely
+         * remove the path extended by a step in the direction.
+         */
+        protected boolean mayStep(MovePath mp, int direction) {
+            final Entity entity = mp.getEntity();
+            if (!legalOnly || entity.isAero()) {
+                return true;
+            }
+            final IBoard board = mp.getGame().getBoard();
+            final MovementType movementType = MovementType.getMovementType(entity);
+            if ((graph == null) || (graphBoard != board) || (graph.getMovementType() != movementType)) {
+                graph = MovementCostGraph.of(board, movementType);
+                graphBoard = board;
+            }
+            if (mp.isJumping()) {
+                return graph.canEnter(mp.getFinalCoords(), direction);
+            }
+            if (!graph.canStep(mp.getFinalCoords(), mp.getFinalElevation(), direction,
+                    entity.getMaxElevationChange())) {
+                return false;
+            }
+            // Ground units can't walk into prohibited terrain, except along a road
+            final Coords dest = mp.getFinalCoords().translated(direction);
+            return !graph.isGroundMovement() || board.getHex(dest).hasPavement()
+                    || !mp.getCachedEntityState().isLocationProhibited(dest);
         }
 
         /**
@@ -316,13 +362,17 @@ public class MovePathFinder<C> extends AbstractPathFinder<MovePathFinder.CoordsW
 
             if (backwardsStep &&
                     mp.getGame().getBoard().contains(mp.getFinalCoords().translated((mp.getFinalFacing() + 3) % 6))) {
-                MovePath newPath = mp.clone();
-                PathDecorator.AdjustElevationForForwardMovement(newPath);
-                result.add(newPath.addStep(MoveStepType.BACKWARDS));
+                if (mayStep(mp, (mp.getFinalFacing() + 3) % 6)) {
+                    MovePath newPath = mp.clone();
+                    PathDecorator.AdjustElevationForForwardMovement(newPath);
+                    result.add(newPath.addStep(MoveStepType.BACKWARDS));
+                }
             } else if(mp.getGame().getBoard().contains(mp.getFinalCoords().translated(mp.getFinalFacing()))) {
-                MovePath newPath = mp.clone();
-                PathDecorator.AdjustElevationForForwardMovement(newPath);
-                result.add(newPath.addStep(MoveStepType.FORWARDS));
+                if (mayStep(mp, mp.getFinalFacing())) {
+                    MovePath newPath = mp.clone();
+                    PathDecorator.AdjustElevationForForwardMovement(newPath);
+                    result.add(newPath.addStep(MoveStepType.FORWARDS));
+                }
             }
 
             return result;
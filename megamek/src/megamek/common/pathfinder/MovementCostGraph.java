@@ -0,0 +1,222 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.pathfinder;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import megamek.common.Coords;
+import megamek.common.IBoard;
+import megamek.common.IHex;
+import megamek.common.Terrains;
+import megamek.common.event.BoardEvent;
+import megamek.common.event.BoardListenerAdapter;
+import megamek.common.pathfinder.BoardClusterTracker.MovementType;
+
+/**
+ * A table, per board and movement type, of the steps from each hex into each
+ * of its six neighbors. For every step it holds the least change in height a
+ * unit of the movement type can make, or {@link #BLOCKED} when the neighbor
+ * is off the board or impassable.
+ * <p>
+ * Path finders use it to drop steps that {@link megamek.common.MoveStep}
+ * would find illegal, before copying the path and compiling the step. It
+ * only rules out steps that are never possible; a step it allows may still
+ * be illegal. The table is kept up to date with the hexes the board reports
+ * as changed.
+ */
+public class MovementCostGraph {
+
+    /** The least climb of a step that is never possible */
+    public static final byte BLOCKED = Byte.MAX_VALUE;
+
+    private static final Map<IBoard, Map<MovementType, MovementCostGraph>> graphs =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final MovementType movementType;
+
+    /** Whether the movement type is that of ground units */
+    private final boolean groundMovement;
+
+    private volatile int width;
+    private volatile int height;
+
+    /** The least climbs, six per hex in the order of the board's hexes */
+    private volatile byte[] climbs;
+
+    private final BoardListenerAdapter boardListener = new BoardListenerAdapter() {
+        @Override
+        public void boardNewBoard(BoardEvent b) {
+            build((IBoard) b.getSource());
+        }
+
+        @Override
+        public void boardChangedHex(BoardEvent b) {
+            hexChanged((IBoard) b.getSource(), b.getCoords());
+        }
+
+        @Override
+        public void boardChangedAllHexes(BoardEvent b) {
+            build((IBoard) b.getSource());
+        }
+    };
+
+    /**
+     * Returns the table of the board for the movement type, building it when
+     * it is first asked for.
+     */
+    public static MovementCostGraph of(IBoard board, MovementType movementType) {
+        synchronized (graphs) {
+            return graphs.computeIfAbsent(board, b -> new EnumMap<>(MovementType.class))
+                    .computeIfAbsent(movementType, t -> new MovementCostGraph(board, t));
+        }
+    }
+
+    private MovementCostGraph(IBoard board, MovementType movementType) {
+        this.movementType = movementType;
+        switch (movementType) {
+            case Walker:
+            case Wheeled:
+            case WheeledAmphi:
+            case Tracked:
+            case TrackedAmphi:
+            case Hover:
+            case Foot:
+                groundMovement = true;
+                break;
+            default:
+                groundMovement = false;
+        }
+        build(board);
+        // The board keeps the listener, not the other way round, so the
+        // table is dropped together with the board
+        board.addBoardListener(boardListener);
+    }
+
+    public MovementType getMovementType() {
+        return movementType;
+    }
+
+    /**
+     * @return whether the movement type is that of ground units, which can't
+     *         climb more than their maximum elevation change in one step and
+     *         are kept out of prohibited terrain unless moving along a road
+     */
+    public boolean isGroundMovement() {
+        return groundMovement;
+    }
+
+    /**
+     * Returns the least height difference between a unit standing at the
+     * surface of the hex and one of this movement type in the neighbor in
+     * the direction, or {@link #BLOCKED}.
+     */
+    public int getLeastClimb(Coords coords, int direction) {
+        byte[] table = climbs;
+        int w = width;
+        if ((coords.getX() < 0) || (coords.getX() >= w) || (coords.getY() < 0) || (coords.getY() >= height)
+                || (table.length != w * height * 6)) {
+            return BLOCKED;
+        }
+        return table[((coords.getY() * w) + coords.getX()) * 6 + direction];
+    }
+
+    /**
+     * Returns false when a unit of this movement type at the elevation in the
+     * hex surely can't step into the neighbor in the direction without
+     * jumping. A unit can never climb more than its maximum elevation change
+     * in one step.
+     */
+    public boolean canStep(Coords coords, int elevation, int direction, int maxElevationChange) {
+        int climb = getLeastClimb(coords, direction);
+        if (climb == BLOCKED) {
+            return false;
+        }
+        return !groundMovement || (climb - elevation <= maxElevationChange);
+    }
+
+    /**
+     * Returns false when the neighbor in the direction is off the board or
+     * impassable, which no unit can step into, jumping or not.
+     */
+    public boolean canEnter(Coords coords, int direction) {
+        return getLeastClimb(coords, direction) != BLOCKED;
+    }
+
+    private synchronized void build(IBoard board) {
+        int w = board.getWidth();
+        int h = board.getHeight();
+        byte[] table = new byte[w * h * 6];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                fill(board, table, w, x, y);
+            }
+        }
+        climbs = table;
+        width = w;
+        height = h;
+    }
+
+    private synchronized void hexChanged(IBoard board, Coords coords) {
+        if ((coords == null) || (board.getWidth() != width) || (board.getHeight() != height)) {
+            build(board);
+            return;
+        }
+        if (!board.contains(coords)) {
+            return;
+        }
+        // The steps out of the hex and the steps into it from its neighbors
+        fill(board, climbs, width, coords.getX(), coords.getY());
+        for (int direction = 0; direction < 6; direction++) {
+            Coords neighbor = coords.translated(direction);
+            if (board.contains(neighbor)) {
+                fill(board, climbs, width, neighbor.getX(), neighbor.getY());
+            }
+        }
+    }
+
+    /**
+     * Fills in the six steps out of the hex.
+     */
+    private void fill(IBoard board, byte[] table, int w, int x, int y) {
+        IHex hex = board.getHex(x, y);
+        int index = ((y * w) + x) * 6;
+        Coords coords = new Coords(x, y);
+        for (int direction = 0; direction < 6; direction++) {
+            IHex neighbor = board.getHex(coords.translated(direction));
+            if ((hex == null) || (neighbor == null) || neighbor.containsTerrain(Terrains.IMPASSABLE)) {
+                table[index + direction] = BLOCKED;
+            } else {
+                int climb = lowestAltitude(neighbor) - hex.getLevel();
+                table[index + direction] = (byte) Math.max(Byte.MIN_VALUE, Math.min(BLOCKED - 1, climb));
+            }
+        }
+    }
+
+    /**
+     * Returns the lowest altitude a unit of this movement type can have in
+     * the hex.
+     */
+    private int lowestAltitude(IHex hex) {
+        if ((movementType == MovementType.Hover) && !hex.containsTerrain(Terrains.BLDG_ELEV)) {
+            // Hovercraft stay on the water's surface
+            return hex.getLevel();
+        }
+        // The bottom of any water and of basements
+        return hex.getLevel() - hex.depth(true);
+    }
+}
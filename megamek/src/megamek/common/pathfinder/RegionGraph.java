@@ -0,0 +1,445 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.pathfinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import megamek.common.BulldozerMovePath;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.IBoard;
+import megamek.common.IHex;
+import megamek.common.pathfinder.BoardClusterTracker.MovementType;
+
+/**
+ * An abstract graph of the board for long-range path finding of ground units.
+ * <p>
+ * The board is split into regions the size of a map sheet. Where a unit can
+ * step from one region into the next, the hexes on both sides of the border
+ * become portals, and the costs between the portals of each region are
+ * computed when the graph is built. A long-range query then only searches the
+ * portals and returns a {@link Route}: the estimated cost and the regions the
+ * route passes through. A path finder refines the route by searching just
+ * those regions instead of the whole board.
+ * <p>
+ * Costs follow a simple model of the MP a unit spends: one per hex, plus the
+ * movement cost of the terrain, the change in elevation and the cost of
+ * leveling terrain that is in the way. Like the clusters of
+ * {@link BoardClusterTracker}, the graph is built for one unit and shared by
+ * units of the same movement type.
+ */
+public class RegionGraph {
+
+    /** The size of a region, that of a standard map sheet */
+    public static final int REGION_WIDTH = 16;
+    public static final int REGION_HEIGHT = 17;
+
+    /** The cost of a route that doesn't exist */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * Entrances longer than this many steps get a portal at each end and
+     * between them every this many steps, shorter ones one in the middle
+     */
+    private static final int PORTAL_SPACING = 4;
+
+    private final int width;
+    private final int height;
+    private final int regionsAcross;
+    private final int regionCount;
+    private final int maxElevationChange;
+
+    /** Per hex, the cost to enter it, or -1 where the unit can't go */
+    private final int[] enterCost;
+
+    /** Per hex, the elevation of the unit standing there */
+    private final int[] elevation;
+
+    /** Per hex, the six neighbors, or -1 off the board */
+    private final int[] neighbors;
+
+    /** Per portal node, its hex, and per hex, its node or -1 */
+    private final int[] nodeHex;
+    private final int[] hexNode;
+
+    /** Per portal node, the nodes reachable directly and the costs to get there */
+    private final int[][] edgeTargets;
+    private final int[][] edgeCosts;
+
+    /** Per region, its portal nodes */
+    private final int[][] regionNodes;
+
+    public RegionGraph(Entity entity) {
+        IBoard board = entity.getGame().getBoard();
+        width = board.getWidth();
+        height = board.getHeight();
+        regionsAcross = (width + REGION_WIDTH - 1) / REGION_WIDTH;
+        regionCount = regionsAcross * ((height + REGION_HEIGHT - 1) / REGION_HEIGHT);
+        maxElevationChange = entity.getMaxElevationChange();
+
+        MovementType movementType = MovementType.getMovementType(entity);
+        boolean isHovercraft = movementType == MovementType.Hover;
+        boolean isAmphibious = movementType == MovementType.WheeledAmphi ||
+                movementType == MovementType.TrackedAmphi;
+
+        enterCost = new int[width * height];
+        elevation = new int[width * height];
+        neighbors = new int[width * height * 6];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = (y * width) + x;
+                Coords c = new Coords(x, y);
+                IHex hex = board.getHex(c);
+                enterCost[index] = -1;
+                if (hex != null) {
+                    elevation[index] = BoardEdgePathFinder.calculateUnitElevationInHex(hex, entity, isHovercraft, isAmphibious);
+                    int cost = 1 + Math.max(0, hex.movementCost(entity));
+                    if (!entity.isLocationProhibited(c)
+                            && !BoardClusterTracker.buildingPlowThroughRequired(entity, movementType, c)) {
+                        enterCost[index] = cost;
+                    } else {
+                        // terrain in the way can be leveled, which takes a while
+                        int levelingCost = BulldozerMovePath.calculateLevelingCost(c, entity);
+                        if (levelingCost > BulldozerMovePath.CANNOT_LEVEL) {
+                            enterCost[index] = cost + levelingCost;
+                        }
+                    }
+                }
+                for (int direction = 0; direction < 6; direction++) {
+                    Coords neighbor = c.translated(direction);
+                    neighbors[(index * 6) + direction] = board.contains(neighbor)
+                            ? (neighbor.getY() * width) + neighbor.getX() : -1;
+                }
+            }
+        }
+
+        // find the entrances between neighboring regions: runs of steps across their border
+        // that can be made both ways; each gets one or more portals
+        hexNode = new int[width * height];
+        Arrays.fill(hexNode, -1);
+        List<Integer> nodes = new ArrayList<>();
+        List<List<int[]>> edges = new ArrayList<>();
+        Map<Long, List<int[]>> crossings = new HashMap<>();
+        for (int index = 0; index < width * height; index++) {
+            int region = getRegion(index);
+            for (int direction = 0; direction < 6; direction++) {
+                int neighbor = neighbors[(index * 6) + direction];
+                if ((neighbor < 0) || (getRegion(neighbor) <= region)
+                        || (stepCost(index, neighbor) < 0) || (stepCost(neighbor, index) < 0)) {
+                    continue;
+                }
+                long key = ((long) region * regionCount) + getRegion(neighbor);
+                crossings.computeIfAbsent(key, k -> new ArrayList<>()).add(new int[] { index, neighbor });
+            }
+        }
+        for (List<int[]> border : crossings.values()) {
+            int runStart = 0;
+            for (int i = 1; i <= border.size(); i++) {
+                if ((i < border.size()) && (touches(border.get(i - 1)[0], border.get(i)[0])
+                        || touches(border.get(i - 1)[1], border.get(i)[1]))) {
+                    continue;
+                }
+                if (i - runStart > PORTAL_SPACING) {
+                    for (int portal = runStart; portal < i - 1; portal += PORTAL_SPACING) {
+                        addPortal(border.get(portal), nodes, edges);
+                    }
+                    addPortal(border.get(i - 1), nodes, edges);
+                } else {
+                    addPortal(border.get((runStart + i - 1) / 2), nodes, edges);
+                }
+                runStart = i;
+            }
+        }
+
+        nodeHex = new int[nodes.size()];
+        List<List<Integer>> nodesByRegion = new ArrayList<>();
+        for (int region = 0; region < regionCount; region++) {
+            nodesByRegion.add(new ArrayList<>());
+        }
+        for (int node = 0; node < nodeHex.length; node++) {
+            nodeHex[node] = nodes.get(node);
+            nodesByRegion.get(getRegion(nodeHex[node])).add(node);
+        }
+        regionNodes = new int[regionCount][];
+        for (int region = 0; region < regionCount; region++) {
+            regionNodes[region] = nodesByRegion.get(region).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // the costs between the portals of each region, moving within the region
+        for (int region = 0; region < regionCount; region++) {
+            for (int node : regionNodes[region]) {
+                int[] distances = searchRegion(nodeHex[node], region, false);
+                for (int other : regionNodes[region]) {
+                    int distance = distances[localIndex(nodeHex[other])];
+                    if ((other != node) && (distance != UNREACHABLE)) {
+                        edges.get(node).add(new int[] { other, distance });
+                    }
+                }
+            }
+        }
+        edgeTargets = new int[nodeHex.length][];
+        edgeCosts = new int[nodeHex.length][];
+        for (int node = 0; node < nodeHex.length; node++) {
+            List<int[]> nodeEdges = edges.get(node);
+            edgeTargets[node] = nodeEdges.stream().mapToInt(e -> e[0]).toArray();
+            edgeCosts[node] = nodeEdges.stream().mapToInt(e -> e[1]).toArray();
+        }
+    }
+
+    /**
+     * @return whether the hexes are the same or neighbors
+     */
+    private boolean touches(int first, int second) {
+        if (first == second) {
+            return true;
+        }
+        for (int direction = 0; direction < 6; direction++) {
+            if (neighbors[(first * 6) + direction] == second) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addPortal(int[] crossing, List<Integer> nodes, List<List<int[]>> edges) {
+        int from = getOrAddNode(crossing[0], nodes, edges);
+        int to = getOrAddNode(crossing[1], nodes, edges);
+        edges.get(from).add(new int[] { to, stepCost(crossing[0], crossing[1]) });
+        edges.get(to).add(new int[] { from, stepCost(crossing[1], crossing[0]) });
+    }
+
+    private int getOrAddNode(int hex, List<Integer> nodes, List<List<int[]>> edges) {
+        if (hexNode[hex] < 0) {
+            hexNode[hex] = nodes.size();
+            nodes.add(hex);
+            edges.add(new ArrayList<>());
+        }
+        return hexNode[hex];
+    }
+
+    /**
+     * Returns the cost of the step between the neighboring hexes, or -1 when
+     * the unit can't make it.
+     */
+    private int stepCost(int from, int to) {
+        if ((enterCost[from] < 0) || (enterCost[to] < 0)) {
+            return -1;
+        }
+        int elevationChange = Math.abs(elevation[to] - elevation[from]);
+        return (elevationChange > maxElevationChange) ? -1 : enterCost[to] + elevationChange;
+    }
+
+    /**
+     * Returns the cost of the step from the hex into the neighbor in the
+     * direction, or -1 when the unit can't make it.
+     */
+    public int getStepCost(Coords coords, int direction) {
+        if (!contains(coords)) {
+            return -1;
+        }
+        int index = (coords.getY() * width) + coords.getX();
+        int neighbor = neighbors[(index * 6) + direction];
+        return (neighbor < 0) ? -1 : stepCost(index, neighbor);
+    }
+
+    private boolean contains(Coords coords) {
+        return (coords != null) && (coords.getX() >= 0) && (coords.getX() < width)
+                && (coords.getY() >= 0) && (coords.getY() < height);
+    }
+
+    /**
+     * @return the region the hex lies in
+     */
+    public int getRegion(Coords coords) {
+        return (coords.getX() / REGION_WIDTH) + ((coords.getY() / REGION_HEIGHT) * regionsAcross);
+    }
+
+    private int getRegion(int hex) {
+        return ((hex % width) / REGION_WIDTH) + ((hex / width / REGION_HEIGHT) * regionsAcross);
+    }
+
+    public int getRegionCount() {
+        return regionCount;
+    }
+
+    /**
+     * @return the index of the hex among the hexes of its region
+     */
+    private int localIndex(int hex) {
+        return ((((hex / width) % REGION_HEIGHT) * REGION_WIDTH) + ((hex % width) % REGION_WIDTH));
+    }
+
+    /**
+     * Finds the costs between the hex and every hex of the region, moving
+     * within the region.
+     *
+     * @param reverse whether to find the costs to the hex instead of from it
+     * @return the costs by the hexes' index in the region
+     */
+    private int[] searchRegion(int start, int region, boolean reverse) {
+        int[] distances = new int[REGION_WIDTH * REGION_HEIGHT];
+        Arrays.fill(distances, UNREACHABLE);
+        distances[localIndex(start)] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[] { 0, start });
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int hex = (int) entry[1];
+            if (entry[0] > distances[localIndex(hex)]) {
+                continue;
+            }
+            for (int direction = 0; direction < 6; direction++) {
+                int neighbor = neighbors[(hex * 6) + direction];
+                if ((neighbor < 0) || (getRegion(neighbor) != region)) {
+                    continue;
+                }
+                int cost = reverse ? stepCost(neighbor, hex) : stepCost(hex, neighbor);
+                if (cost < 0) {
+                    continue;
+                }
+                int distance = (int) entry[0] + cost;
+                if (distance < distances[localIndex(neighbor)]) {
+                    distances[localIndex(neighbor)] = distance;
+                    queue.add(new long[] { distance, neighbor });
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Finds the cheapest route between the hexes over the portals.
+     *
+     * @return the route, or null when there is none
+     */
+    public Route findRoute(Coords from, Coords to) {
+        if (!contains(from) || !contains(to)) {
+            return null;
+        }
+        int fromHex = (from.getY() * width) + from.getX();
+        int toHex = (to.getY() * width) + to.getX();
+        int fromRegion = getRegion(fromHex);
+        int toRegion = getRegion(toHex);
+        int[] fromDistances = searchRegion(fromHex, fromRegion, false);
+        int[] toDistances = searchRegion(toHex, toRegion, true);
+
+        int bestCost = UNREACHABLE;
+        int bestNode = -1;
+        if (fromRegion == toRegion) {
+            bestCost = fromDistances[localIndex(toHex)];
+        }
+
+        int[] distances = new int[nodeHex.length];
+        int[] previous = new int[nodeHex.length];
+        Arrays.fill(distances, UNREACHABLE);
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        for (int node : regionNodes[fromRegion]) {
+            int distance = fromDistances[localIndex(nodeHex[node])];
+            if (distance != UNREACHABLE) {
+                distances[node] = distance;
+                previous[node] = -1;
+                queue.add(new long[] { distance, node });
+            }
+        }
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int node = (int) entry[1];
+            if (entry[0] >= bestCost) {
+                break;
+            } else if (entry[0] > distances[node]) {
+                continue;
+            }
+            if (getRegion(nodeHex[node]) == toRegion) {
+                int remaining = toDistances[localIndex(nodeHex[node])];
+                if ((remaining != UNREACHABLE) && (distances[node] + remaining < bestCost)) {
+                    bestCost = distances[node] + remaining;
+                    bestNode = node;
+                }
+            }
+            for (int i = 0; i < edgeTargets[node].length; i++) {
+                int target = edgeTargets[node][i];
+                int distance = distances[node] + edgeCosts[node][i];
+                if (distance < distances[target]) {
+                    distances[target] = distance;
+                    previous[target] = node;
+                    queue.add(new long[] { distance, target });
+                }
+            }
+        }
+
+        if (bestCost == UNREACHABLE) {
+            return null;
+        }
+        boolean[] regions = new boolean[regionCount];
+        regions[fromRegion] = true;
+        regions[toRegion] = true;
+        for (int node = bestNode; node >= 0; node = previous[node]) {
+            regions[getRegion(nodeHex[node])] = true;
+        }
+        return new Route(bestCost, regions);
+    }
+
+    /**
+     * @return the cost of the cheapest route between the hexes, or
+     *         {@link #UNREACHABLE}
+     */
+    public int getDistance(Coords from, Coords to) {
+        Route route = findRoute(from, to);
+        return (route == null) ? UNREACHABLE : route.getCost();
+    }
+
+    /**
+     * A route over the portals: its cost and the regions it passes through.
+     */
+    public class Route {
+        private final int cost;
+        private final boolean[] regions;
+
+        private Route(int cost, boolean[] regions) {
+            this.cost = cost;
+            this.regions = regions;
+        }
+
+        public int getCost() {
+            return cost;
+        }
+
+        /**
+         * @return the number of regions the route passes through
+         */
+        public int getRegionCount() {
+            int count = 0;
+            for (boolean region : regions) {
+                if (region) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * @return whether the hex lies in one of the regions the route passes
+         *         through
+         */
+        public boolean contains(Coords coords) {
+            return RegionGraph.this.contains(coords) && regions[getRegion(coords)];
+        }
+    }
+}
@@ -230,8 +230,8 @@ public class ShortestPathFinder extends MovePathFinder<MovePath> {
     }
 
     private ShortestPathFinder(EdgeRelaxer<MovePath, MovePath> costRelaxer,
-            Comparator<MovePath> comparator, final MoveStepType stepType, IGame game) {
-        super(costRelaxer, new NextStepsAdjacencyMap(stepType), comparator, game);
+            Comparator<MovePath> comparator, final MoveStepType stepType, IGame game, boolean legalOnly) {
+        super(costRelaxer, new NextStepsAdjacencyMap(stepType, legalOnly), comparator, game);
     }
 
     /**
@@ -248,7 +248,7 @@ public class ShortestPathFinder extends MovePathFinder<MovePath> {
         final ShortestPathFinder spf = new ShortestPathFinder(
                 new ShortestPathFinder.MovePathRelaxer(),
                 new ShortestPathFinder.MovePathAStarComparator(destination,
-                        stepType, game.getBoard()), stepType, game);
+                        stepType, game.getBoard()), stepType, game, true);
 
         spf.addStopCondition(new DestinationReachedStopCondition(destination));
         spf.addFilter(new MovePathLegalityFilter(game));
@@ -269,7 +269,7 @@ public class ShortestPathFinder extends MovePathFinder<MovePath> {
                 new ShortestPathFinder(
                         new ShortestPathFinder.MovePathRelaxer(),
                         new ShortestPathFinder.MovePathMPCostComparator(),
-                        stepType, game);
+                        stepType, game, true);
         spf.addFilter(new MovePathLengthFilter(maxMP));
         spf.addFilter(new MovePathLegalityFilter(game));
         return spf;
@@ -286,7 +286,7 @@ public class ShortestPathFinder extends MovePathFinder<MovePath> {
         final ShortestPathFinder spf =
                 new ShortestPathFinder(new ShortestPathFinder.MovePathRelaxer(),
                         new MovePathGreedyComparator(destination),
-                        stepType, game);
+                        stepType, game, false);
 
         spf.addStopCondition(new DestinationReachedStopCondition(destination));
         spf.addFilter(new MovePathGreedyFilter(destination));
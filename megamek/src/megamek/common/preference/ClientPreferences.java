@@ -54,6 +54,8 @@ class ClientPreferences extends PreferenceStoreProxy implements
         store.setDefault(DEBUG_OUTPUT_ON,false);
         store.setDefault(MEMORY_DUMP_ON,false);
         store.setDefault(IP_ADDRESSES_IN_CHAT, false);
+        store.setDefault(USE_BOARD_CACHE, true);
+        store.setDefault(AUTO_SAVE_BINARY, false);
         setLocale(store.getString(LOCALE));
         setMekHitLocLog();
     }
@@ -176,6 +178,14 @@ class ClientPreferences extends PreferenceStoreProxy implements
         return store.getBoolean(DEBUG_OUTPUT_ON);
     }
 
+    public boolean useBoardCache() {
+        return store.getBoolean(USE_BOARD_CACHE);
+    }
+
+    public boolean autoSaveBinary() {
+        return store.getBoolean(AUTO_SAVE_BINARY);
+    }
+
     public void setDefaultAutoejectDisabled(boolean state) {
         store.setValue(DEFAULT_AUTOEJECT_DISABLED, state);
     }
@@ -55,6 +55,8 @@ public interface IClientPreferences extends IPreferenceStore {
     public static final String MAP_WIDTH = "MapWidth";
     public static final String MAP_HEIGHT = "MapHeight";
     public static final String IP_ADDRESSES_IN_CHAT = "IPAddressesInChat";
+    public static final String USE_BOARD_CACHE = "UseBoardCache";
+    public static final String AUTO_SAVE_BINARY = "AutoSaveBinary";
 
     boolean getPrintEntityChange();
 
@@ -116,6 +118,10 @@ public interface IClientPreferences extends IPreferenceStore {
     
     boolean debugOutputOn();
 
+    boolean useBoardCache();
+
+    boolean autoSaveBinary();
+
     void setDefaultAutoejectDisabled(boolean state);
 
     void setUseAverageSkills(boolean state);
@@ -28,7 +28,6 @@ package megamek.common.util; // add to this package so BLKMechFile can read
 
 // it's files...
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -36,8 +35,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.Vector;
 
 /**
@@ -50,6 +53,16 @@ public class BuildingBlock {
     private static final int version = 1;
     private static final char comment = '#';
 
+    /**
+     * The line index of the first occurrence of each block tag, e.g.
+     * "&lt;Name&gt;" and "&lt;/Name&gt;", ignoring case. Built in one pass on the
+     * first lookup, so that finding a block does not scan all lines again.
+     */
+    private Map<String, Integer> tagIndex;
+
+    /** The number of lines when the tag index was built */
+    private int indexedSize;
+
     /**
      * Creates new empty buildingBlock
      */
@@ -90,42 +103,93 @@ public class BuildingBlock {
     }
 
     public boolean readInputStream(InputStream is) {
-        String data;
-        BufferedReader in;
+        // empty the rawData holder...
+        rawData.clear();
+        tagIndex = null;
+
+        // read the whole stream into one buffer and split it into lines there,
+        // without going through a String for each raw line
+        char[] buffer = new char[8192];
+        int length = 0;
+        try (Reader in = new InputStreamReader(is, StandardCharsets.UTF_8)) {
+            int read;
+            while ((read = in.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("An IO Exception occured while attempting to read a BuildingBlock stream."); //$NON-NLS-1$
+            return false;
+        }
 
-        try {
-            in = new BufferedReader(new InputStreamReader(is, "UTF-8"));
-            // empty the rawData holder...
-            rawData.clear();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while ((lineEnd < length) && (buffer[lineEnd] != '\n') && (buffer[lineEnd] != '\r')) {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if ((lineEnd < length) && (buffer[lineEnd] == '\r') && (next < length) && (buffer[next] == '\n')) {
+                next++;
+            }
 
-            try {
+            // trim the line the same way String.trim() does
+            int start = lineStart;
+            int end = lineEnd;
+            while ((start < end) && (buffer[start] <= ' ')) {
+                start++;
+            }
+            while ((end > start) && (buffer[end - 1] <= ' ')) {
+                end--;
+            }
 
-                // read the file till can't read no more...
-                while (in.ready()) {
+            // check for blank lines & comment lines...
+            // don't add them to the rawData if they are
+            if ((end > start) && (buffer[start] != BuildingBlock.comment)) {
+                rawData.add(new String(buffer, start, end - start));
+            }
+            lineStart = next;
+        }
+        return true;
+    }
 
-                    data = in.readLine();
-                    if (data == null) {
-                        continue;
-                    }
-                    data = data.trim();
+    /**
+     * Returns the line index of the first line that equals the given tag,
+     * ignoring case, or -1 if there is none. The index of all tags is built on
+     * the first call and rebuilt if the lines have changed since.
+     */
+    private int findTag(String tag) {
+        if ((tagIndex == null) || (indexedSize != rawData.size())) {
+            buildTagIndex();
+        }
+        Integer lineNum = tagIndex.get(tag);
+        if (lineNum == null) {
+            return -1;
+        }
+        if (!rawData.get(lineNum).equalsIgnoreCase(tag)) {
+            // the lines were changed through getVector()
+            buildTagIndex();
+            lineNum = tagIndex.get(tag);
+            return (lineNum == null) ? -1 : lineNum;
+        }
+        return lineNum;
+    }
 
-                    // check for blank lines & comment lines...
-                    // don't add them to the rawData if they are
-                    if ((data.length() > 0) && !data.startsWith("" + BuildingBlock.comment)) {
-                        rawData.add(data);
-                    }
-                }
-                in.close();
-            } catch (IOException e) {
-                System.err.println("An IO Exception occured while attempting to read a BuildingBlock stream."); //$NON-NLS-1$
-                return false;
+    private void buildTagIndex() {
+        // The order matches String.equalsIgnoreCase, which the tags were
+        // always compared with
+        Map<String, Integer> index = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int lineNum = 0; lineNum < rawData.size(); lineNum++) {
+            String line = rawData.get(lineNum);
+            if ((line.length() >= 3) && (line.charAt(0) == '<')
+                    && (line.charAt(line.length() - 1) == '>')) {
+                index.putIfAbsent(line, lineNum);
             }
-            return true;
-        } catch (UnsupportedEncodingException e1) {
-            System.err.println("An UnsupportedEncodingException occured while attempting to read a BuildingBlock stream."); //$NON-NLS-1$
-            return false;
         }
-
+        tagIndex = index;
+        indexedSize = rawData.size();
     }
 
     /**
@@ -140,42 +204,9 @@ public class BuildingBlock {
      * @see getAllDataAsVector()
      */
     public int findStartIndex(String blockName) {
-
-        String line;
-        int startIndex = -1;
-        StringBuffer buf = new StringBuffer();
-        String key = null;
-
-        // Translate the block name to a key.
-        buf.append('<').append(blockName).append('>');
-        key = buf.toString();
-        buf = null;
-
-        // look for the block...
-        for (int lineNum = 0; lineNum < rawData.size(); lineNum++) {
-
-            line = rawData.get(lineNum).toString();
-
-            // look for "<blockName>"
-            try {
-                if ((line.length() >= 3) && line.equalsIgnoreCase(key)) {
-                    startIndex = ++lineNum;
-                    break;
-                }
-            } catch (StringIndexOutOfBoundsException e) {
-
-                System.err.print("Was looking for "); //$NON-NLS-1$
-                System.err.print(key);
-                System.err.println(" and caught a"); //$NON-NLS-1$
-                System.err.print("string index out of bounds exception on line: \""); //$NON-NLS-1$
-                System.err.print(line);
-                System.err.println("\""); //$NON-NLS-1$
-                System.err.print("rawData index number: "); //$NON-NLS-1$
-                System.err.println(lineNum);
-
-            }
-        }
-        return startIndex;
+        // look for "<blockName>"
+        int lineNum = findTag("<" + blockName + ">"); //$NON-NLS-1$ //$NON-NLS-2$
+        return (lineNum == -1) ? -1 : lineNum + 1;
     }
 
     /**
@@ -190,40 +221,8 @@ public class BuildingBlock {
      * @see getAllDataAsVector()
      */
     public int findEndIndex(String blockName) {
-        String line;
-        int endIndex = -1;
-        StringBuffer buf = new StringBuffer();
-        String key = null;
-
-        // Translate the block name to a key.
-        buf.append('<').append('/').append(blockName).append('>');
-        key = buf.toString();
-        buf = null;
-
-        // look for the block...
-        for (int lineNum = 0; lineNum < rawData.size(); lineNum++) {
-
-            line = rawData.get(lineNum).toString();
-
-            // look for "</blockName>"
-            try {
-                if ((line.length() >= 3) && line.equalsIgnoreCase(key)) {
-                    endIndex = lineNum;
-                    break;
-                }
-            } catch (StringIndexOutOfBoundsException e) {
-
-                System.err.print("Was looking for "); //$NON-NLS-1$
-                System.err.print(key);
-                System.err.println(" and caught a"); //$NON-NLS-1$
-                System.err.print("string index out of bounds exception on line: \""); //$NON-NLS-1$
-                System.err.print(line);
-                System.err.println("\""); //$NON-NLS-1$
-                System.err.print("rawData index number: "); //$NON-NLS-1$
-                System.err.println(lineNum);
-            }
-        }
-        return endIndex;
+        // look for "</blockName>"
+        return findTag("</" + blockName + ">"); //$NON-NLS-1$ //$NON-NLS-2$
     }
 
     /**
@@ -471,6 +470,7 @@ public class BuildingBlock {
     public boolean createNewBlock() {
 
         rawData.clear();
+        tagIndex = null;
 
         writeBlockComment("building block data file"); //$NON-NLS-1$
         this.writeBlockData("BlockVersion", "" + BuildingBlock.version); //$NON-NLS-1$ //$NON-NLS-2$
@@ -656,6 +656,7 @@ public class BuildingBlock {
     public void clearData() {
 
         rawData.clear();
+        tagIndex = null;
 
     }
 
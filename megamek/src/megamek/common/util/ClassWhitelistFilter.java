@@ -0,0 +1,83 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.common.util;
+
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+import megamek.MegaMek;
+import megamek.utils.MegaMekXmlUtil;
+
+/**
+ * An {@link ObjectInputFilter} that only lets classes through whose names
+ * match one of the whitelist patterns of SerialKiller configuration files,
+ * the same way SerialKiller matches them. Unlike a SerialKiller stream, the
+ * filter is built once and can be set on any number of streams.
+ */
+public class ClassWhitelistFilter implements ObjectInputFilter {
+
+    private final List<Pattern> whitelist;
+
+    public ClassWhitelistFilter(List<Pattern> whitelist) {
+        this.whitelist = new ArrayList<>(whitelist);
+    }
+
+    /**
+     * Creates a filter that allows the classes whitelisted in any of the
+     * given SerialKiller configuration resources. A configuration that cannot
+     * be read allows nothing.
+     */
+    public static ClassWhitelistFilter fromConfigs(String... resources) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String resource : resources) {
+            try (InputStream is = ClassWhitelistFilter.class.getResourceAsStream(resource)) {
+                if (is == null) {
+                    MegaMek.getLogger().error("Missing serialization whitelist " + resource);
+                    continue;
+                }
+                Document doc = MegaMekXmlUtil.newSafeDocumentBuilder().parse(is);
+                NodeList regexps = doc.getElementsByTagName("regexp");
+                for (int i = 0; i < regexps.getLength(); i++) {
+                    patterns.add(Pattern.compile(regexps.item(i).getTextContent().trim()));
+                }
+            } catch (Exception e) {
+                MegaMek.getLogger().error("Unable to read serialization whitelist " + resource, e);
+            }
+        }
+        return new ClassWhitelistFilter(patterns);
+    }
+
+    @Override
+    public Status checkInput(FilterInfo filterInfo) {
+        Class<?> serialClass = filterInfo.serialClass();
+        if (serialClass == null) {
+            // only array lengths, depths and reference counts; those are not limited
+            return Status.UNDECIDED;
+        }
+        String name = serialClass.getName();
+        for (Pattern pattern : whitelist) {
+            if (pattern.matcher(name).find()) {
+                return Status.ALLOWED;
+            }
+        }
+        return Status.REJECTED;
+    }
+}
@@ -16,11 +16,13 @@ package megamek.common.util;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
 
 import megamek.common.Compute;
 import megamek.common.MechSearchFilter;
+import megamek.common.MechSearchIndex;
 import megamek.common.MechSummary;
 import megamek.common.MechSummaryCache;
 import megamek.common.TechConstants;
@@ -187,12 +189,15 @@ public class RandomArmyCreator {
 
     public static List<MechSummary> generateArmy(Parameters p) {
         int allowedVariance = java.lang.Math.abs(p.maxBV - p.minBV);
-        MechSummary[] all = MechSummaryCache.getInstance().getAllMechs();
+        MechSearchIndex index = MechSummaryCache.getInstance().getSearchIndex();
+        MechSummary[] all = index.getUnits();
+        BitSet advancedSearchMatches = index.match(p.advancedSearchFilter);
         List<MechSummary> allMechs = new ArrayList<>();
         List<MechSummary> allTanks = new ArrayList<>();
         List<MechSummary> allInfantry = new ArrayList<>();
         List<MechSummary> allBA = new ArrayList<>();
-        for (MechSummary m : all) {
+        for (int i = 0; i < all.length; i++) {
+            MechSummary m = all[i];
             if ((p.tech != TechConstants.T_ALL) && (p.tech != m.getType())) {
                 // advanced rules includes basic too
                 if (p.tech == TechConstants.T_CLAN_ADVANCED) {
@@ -251,7 +256,7 @@ public class RandomArmyCreator {
             if (((!m.getUnitType().equals(UnitType.getTypeName(UnitType.INFANTRY)))
                     && (!m.getUnitType().equals(UnitType.getTypeName(UnitType.PROTOMEK)))
                     && (!m.getUnitType().equals(UnitType.getTypeName(UnitType.BATTLE_ARMOR))))
-                    && (p.advancedSearchFilter != null && !MechSearchFilter.isMatch(m, p.advancedSearchFilter)))
+                    && !advancedSearchMatches.get(i))
             {
                 continue;
             }
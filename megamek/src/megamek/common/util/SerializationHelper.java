@@ -19,24 +19,73 @@
 
 package megamek.common.util;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.MarshallingContext;
+import com.thoughtworks.xstream.converters.SingleValueConverter;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.converters.reflection.ReflectionConverter;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.ReaderWrapper;
+import com.thoughtworks.xstream.io.xml.XppDriver;
 
+import megamek.MegaMek;
 import megamek.common.Coords;
+import megamek.common.EquipmentType;
 
 /**
  * Class that off-loads serialization related code from Server.java
  */
 public class SerializationHelper {
-    
+
+    /** Strings up to this length are interned when loading, e.g. equipment names and themes */
+    private static final int INTERN_LENGTH_LIMIT = 64;
+
+    private static class XStreamHolder {
+        private static final XStream XSTREAM = createXStream();
+    }
+
     /**
-     * Factory method that produces an XStream object suitable for loading MegaMek save games
+     * Returns the XStream object for loading MegaMek save games. It is built
+     * once and shared; it must not be configured any further.
      */
     public static XStream getXStream() {
+        return XStreamHolder.XSTREAM;
+    }
+
+    /**
+     * Reads a save game from the XML in the stream, logging the time spent
+     * on each part of the game.
+     */
+    public static Object loadSaveGame(InputStream stream) {
+        long start = System.nanoTime();
+        SectionTimingReader reader = new SectionTimingReader(
+                new XppDriver().createReader(new InputStreamReader(stream, StandardCharsets.UTF_8)));
+        Object result;
+        try {
+            result = getXStream().unmarshal(reader);
+        } finally {
+            reader.close();
+        }
+
+        StringBuilder times = new StringBuilder("Loaded save game in ")
+                .append((System.nanoTime() - start) / 1000000).append(" ms");
+        reader.sectionTimes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(e -> times.append(", ").append(e.getKey()).append(' ')
+                        .append(e.getValue() / 1000000).append(" ms"));
+        MegaMek.getLogger().info(times.toString());
+        return result;
+    }
+
+    private static XStream createXStream() {
         XStream xstream = new XStream();
 
         // This mirrors the settings is saveGame
@@ -77,7 +126,93 @@ public class SerializationHelper {
                 // Unused here
             }
         });
-        
+
+        // Equipment types that are saved by value, such as the weapon types of
+        // attack handlers, resolve to the registry's instances instead of
+        // copies. Mounts keep their type in a transient field and look it up
+        // by name themselves, so they don't go through this.
+        Converter equipmentReflection = new ReflectionConverter(xstream.getMapper(),
+                xstream.getReflectionProvider());
+        xstream.registerConverter(new Converter() {
+            @Override
+            @SuppressWarnings("rawtypes") // XStream 1.4 declares the raw type, so Class<?> does not override it
+            public boolean canConvert(Class cls) {
+                return (cls != null) && EquipmentType.class.isAssignableFrom(cls);
+            }
+
+            @Override
+            public Object unmarshal(HierarchicalStreamReader reader, UnmarshallingContext context) {
+                // The saved copy is read in full, so that equipment that is no
+                // longer in the registry, e.g. after a rename, still loads
+                EquipmentType saved = (EquipmentType) equipmentReflection.unmarshal(reader, context);
+                EquipmentType type = (saved.getInternalName() == null) ? null
+                        : EquipmentType.get(saved.getInternalName());
+                if (type == null) {
+                    MegaMek.getLogger().warning("Unknown equipment in save game, using the saved copy: "
+                            + saved.getInternalName());
+                    return saved;
+                }
+                return type;
+            }
+
+            @Override
+            public void marshal(Object object, HierarchicalStreamWriter writer, MarshallingContext context) {
+                // Unused here
+            }
+        });
+
+        xstream.registerConverter(new SingleValueConverter() {
+            @Override
+            @SuppressWarnings("rawtypes") // XStream 1.4 declares the raw type, so Class<?> does not override it
+            public boolean canConvert(Class cls) {
+                return cls == String.class;
+            }
+
+            @Override
+            public Object fromString(String str) {
+                return (str.length() <= INTERN_LENGTH_LIMIT) ? str.intern() : str;
+            }
+
+            @Override
+            public String toString(Object obj) {
+                return (String) obj;
+            }
+        }, XStream.PRIORITY_VERY_HIGH);
+
         return xstream;
     }
+
+    /**
+     * Reader that adds up the time spent reading each kind of child of the
+     * root element.
+     */
+    private static class SectionTimingReader extends ReaderWrapper {
+        private final Map<String, Long> sectionTimes = new HashMap<>();
+        private int depth;
+        private String section;
+        private long sectionStart;
+
+        SectionTimingReader(HierarchicalStreamReader reader) {
+            super(reader);
+        }
+
+        @Override
+        public void moveDown() {
+            super.moveDown();
+            depth++;
+            if (depth == 1) {
+                section = getNodeName();
+                sectionStart = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void moveUp() {
+            if (depth == 1) {
+                sectionTimes.merge(section, System.nanoTime() - sectionStart, Long::sum);
+            }
+            depth--;
+            super.moveUp();
+        }
+    }
 }
@@ -23,7 +23,7 @@ import megamek.common.util.AbstractCommandLineParser;
 public class DedicatedServer {
     private static final String INCORRECT_ARGUMENTS_MESSAGE = "Incorrect arguments:";
     private static final String ARGUMENTS_DESCRIPTION_MESSAGE = "Arguments syntax:\n\t "
-            + "[-password <pass>] [-port <port>] [<saved game>]";
+            + "[-password <pass>] [-port <port>] [-nio] [<saved game>]";
 
     public static void start(String[] args) {
         CommandLineParser cp = new CommandLineParser(args);
@@ -47,7 +47,8 @@ public class DedicatedServer {
                 if (password == null || password.length() == 0) {
                     password = PreferenceManager.getClientPreferences().getLastServerPass();
                 }
-                dedicated = new Server(password, usePort, !announceUrl.equals(""), announceUrl);
+                dedicated = new Server(password, usePort, !announceUrl.equals(""), announceUrl,
+                        cp.useSelector());
             } catch (IOException ex) {
                 MegaMek.getLogger().error("Error: could not start server at localhost" + ":" + usePort + " ("
                         + ex.getMessage() + ").");
@@ -71,11 +72,13 @@ public class DedicatedServer {
         private int port;
         private String password;
         private String announceUrl = "";
+        private boolean useSelector;
 
         // Options
         private static final String OPTION_PORT = "port";
         private static final String OPTION_PASSWORD = "password";
         private static final String OPTION_ANNOUNCE = "announce";
+        private static final String OPTION_NIO = "nio";
 
         public CommandLineParser(String[] args) {
             super(args);
@@ -101,6 +104,14 @@ public class DedicatedServer {
             return announceUrl;
         }
 
+        /**
+         *
+         * @return true if the connections should be served by a single selector thread
+         */
+        public boolean useSelector() {
+            return useSelector;
+        }
+
         /**
          *
          * @return the game file name option value or <code>null</code> if it wasn't set
@@ -128,6 +139,9 @@ public class DedicatedServer {
                             nextToken();
                             parsePassword();
                             break;
+                        case OPTION_NIO:
+                            useSelector = true;
+                            break;
                     }
                     break;
                 case TOK_LITERAL:
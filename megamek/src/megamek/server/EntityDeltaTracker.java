@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2021 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with MegaMek. If not, see <http://www.gnu.org/licenses/>.
+ */
+package megamek.server;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+
+import megamek.common.Entity;
+import megamek.common.EntityStateUpdate;
+import megamek.common.net.Packet;
+
+/**
+ * Keeps, for every connection, the state of each entity as it was last sent
+ * to that client. Full entity list updates can then be replaced by a
+ * {@link Packet#COMMAND_ENTITY_DELTA} packet that carries only what changed
+ * since, plus the ordered ids of the whole list. An entity of which only the
+ * fields of an {@link EntityStateUpdate} changed, such as its position, heat
+ * or damage, is sent as such an update; any other change sends the entity.
+ * <p>
+ * Any other packet that carries an entity to a client invalidates the
+ * baseline of that entity for that client, and any full entity list resets
+ * the client's whole baseline, so the client never keeps a stale unit.
+ * <p>
+ * Telling the other changes apart takes an {@link EntityFingerprint}, which
+ * costs about as much as serializing the entity once per update. That is
+ * paid once per update for all connections together, whereas a full entity
+ * list is serialized again for every connection, so with a single client
+ * the server sends the full list instead.
+ */
+class EntityDeltaTracker {
+
+    /** The state of an entity as it was sent */
+    private static class Sent {
+        final byte[] fingerprint;
+        final EntityStateUpdate state;
+
+        Sent(byte[] fingerprint, EntityStateUpdate state) {
+            this.fingerprint = fingerprint;
+            this.state = state;
+        }
+    }
+
+    /** Connection id to (entity id to the state last sent) */
+    private final Map<Integer, Map<Integer, Sent>> baselines = new HashMap<>();
+
+    /**
+     * The current entity states, shared by all connections during one update.
+     * Cleared by {@link #startUpdate()}.
+     */
+    private final Map<Integer, Sent> currentStates = new HashMap<>();
+
+    /**
+     * Starts a new update round. Must be called before creating the delta
+     * packets for the connections, as the entity states may have changed since
+     * the previous update.
+     */
+    synchronized void startUpdate() {
+        currentStates.clear();
+    }
+
+    /**
+     * Creates the packet that brings the client on the given connection up to
+     * date with the given entity list.
+     *
+     * @param connId the connection the packet will be sent to
+     * @param entities the full, ordered list of entities the client should have
+     * @return a {@link Packet#COMMAND_ENTITY_DELTA} packet with the changed
+     *         entities, the ids of all entities and the state updates
+     */
+    synchronized Packet createDeltaPacket(int connId, List<Entity> entities) {
+        Map<Integer, Sent> baseline = baselines.computeIfAbsent(connId, k -> new HashMap<>());
+        Vector<Entity> changed = new Vector<>();
+        Vector<EntityStateUpdate> updates = new Vector<>();
+        int[] ids = new int[entities.size()];
+        int i = 0;
+        for (Entity entity : entities) {
+            ids[i++] = entity.getId();
+            Sent current = currentStates.computeIfAbsent(entity.getId(),
+                    k -> new Sent(EntityFingerprint.of(entity), new EntityStateUpdate(entity)));
+            Sent last = baseline.get(entity.getId());
+            if ((current.fingerprint == null) || (last == null)
+                    || !Arrays.equals(current.fingerprint, last.fingerprint)) {
+                changed.add(entity);
+            } else if (!current.state.equals(last.state)) {
+                updates.add(current.state);
+            } else {
+                continue;
+            }
+            if (current.fingerprint == null) {
+                baseline.remove(entity.getId());
+            } else {
+                baseline.put(entity.getId(), current);
+            }
+        }
+        // Entities the client no longer gets, e.g. units hidden in double blind,
+        // must be sent in full when they come back
+        Set<Integer> sent = new HashSet<>(ids.length * 2);
+        for (int id : ids) {
+            sent.add(id);
+        }
+        baseline.keySet().retainAll(sent);
+        return new Packet(Packet.COMMAND_ENTITY_DELTA, new Object[] { changed, ids, updates });
+    }
+
+    /**
+     * Updates the baseline of the given connection for a packet sent to it by
+     * other means than {@link #createDeltaPacket(int, List)}.
+     *
+     * @param connId the connection the packet was sent to
+     * @param packet the packet
+     */
+    synchronized void packetSent(int connId, Packet packet) {
+        if ((packet.getCommand() == Packet.COMMAND_ENTITY_DELTA) || (packet.getData() == null)
+                || !baselines.containsKey(connId)) {
+            return;
+        }
+        if (packet.getCommand() == Packet.COMMAND_SENDING_ENTITIES) {
+            baselines.remove(connId);
+            return;
+        }
+        Map<Integer, Sent> baseline = baselines.get(connId);
+        for (Object o : packet.getData()) {
+            if (o instanceof Entity) {
+                baseline.remove(((Entity) o).getId());
+            } else if (o instanceof Collection) {
+                for (Object element : (Collection<?>) o) {
+                    if (element instanceof Entity) {
+                        baseline.remove(((Entity) element).getId());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets the baseline of the given connection, so that its next delta
+     * contains all entities.
+     */
+    synchronized void reset(int connId) {
+        baselines.remove(connId);
+    }
+
+    /**
+     * Forgets the baselines of all connections, e.g. when connection ids are
+     * reassigned.
+     */
+    synchronized void resetAll() {
+        baselines.clear();
+        currentStates.clear();
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.server;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import megamek.MegaMek;
+import megamek.common.Entity;
+import megamek.common.EntityStateUpdate;
+
+/**
+ * Computes a digest of everything an entity's serialization would contain
+ * except the fields carried by an {@link EntityStateUpdate}. Two entities with
+ * the same fingerprint differ at most in those fields.
+ * <p>
+ * The fields of MegaMek classes are walked directly, skipping static and
+ * transient ones as serialization does; collections and maps are walked by
+ * their elements. Other objects are digested through their Java
+ * serialization.
+ */
+final class EntityFingerprint {
+
+    private static final String MEGAMEK_PACKAGE = "megamek.";
+
+    private static final byte NULL = 0;
+    private static final byte HANDLE = 1;
+    private static final byte STRING = 2;
+    private static final byte VALUE = 3;
+    private static final byte ENUM = 4;
+    private static final byte OBJECT = 5;
+
+    /** An output stream that discards everything; only the digest is kept */
+    private static final OutputStream NULL_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    /**
+     * The serialized fields of each MegaMek class, including those of its
+     * superclasses, or null if the class has a superclass that isn't a
+     * MegaMek class, whose state can't be walked.
+     */
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+                if (!c.getName().startsWith(MEGAMEK_PACKAGE)) {
+                    return null;
+                }
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)
+                            && !EntityStateUpdate.isStateField(field)) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    private final MessageDigest digest;
+    private final DataOutputStream out;
+    private final Map<Object, Integer> handles = new IdentityHashMap<>();
+    private final Queue<Object> pending = new ArrayDeque<>();
+
+    private EntityFingerprint() throws NoSuchAlgorithmException {
+        digest = MessageDigest.getInstance("MD5");
+        out = new DataOutputStream(new DigestOutputStream(NULL_STREAM, digest));
+    }
+
+    /**
+     * Returns the fingerprint of the given entity, or null if the entity can't
+     * be serialized; such entities are always sent whole.
+     */
+    static byte[] of(Entity entity) {
+        try {
+            EntityFingerprint fingerprint = new EntityFingerprint();
+            fingerprint.writeReference(entity);
+            Object o;
+            while ((o = fingerprint.pending.poll()) != null) {
+                fingerprint.writeContents(o);
+            }
+            fingerprint.out.flush();
+            return fingerprint.digest.digest();
+        } catch (IOException | ReflectiveOperationException | NoSuchAlgorithmException e) {
+            MegaMek.getLogger().error(e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a reference to the given object. Objects are written in full
+     * when they are first seen; the contents of those that other objects may
+     * share are written later, so deep graphs don't recurse.
+     */
+    private void writeReference(Object o) throws IOException {
+        if (o == null) {
+            out.writeByte(NULL);
+        } else if (o instanceof String) {
+            out.writeByte(STRING);
+            writeString((String) o);
+        } else if ((o instanceof Number) || (o instanceof Boolean) || (o instanceof Character)) {
+            out.writeByte(VALUE);
+            writeString(o.getClass().getName());
+            writeString(o.toString());
+        } else if (o instanceof Enum) {
+            out.writeByte(ENUM);
+            writeString(((Enum<?>) o).getDeclaringClass().getName());
+            writeString(((Enum<?>) o).name());
+        } else {
+            Integer handle = handles.get(o);
+            if (handle != null) {
+                out.writeByte(HANDLE);
+                out.writeInt(handle);
+            } else {
+                handles.put(o, handles.size());
+                out.writeByte(OBJECT);
+                writeString(o.getClass().getName());
+                pending.add(o);
+            }
+        }
+    }
+
+    private void writeContents(Object o) throws IOException, ReflectiveOperationException {
+        Class<?> type = o.getClass();
+        if (type.isArray()) {
+            writeArray(o);
+        } else if (o instanceof Collection) {
+            Collection<?> collection = (Collection<?>) o;
+            out.writeInt(collection.size());
+            for (Object element : collection) {
+                writeReference(element);
+            }
+        } else if (o instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) o;
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeReference(entry.getKey());
+                writeReference(entry.getValue());
+            }
+        } else if (!(o instanceof Serializable)) {
+            // the entity itself couldn't be serialized
+            throw new NotSerializableException(type.getName());
+        } else if (type.getName().startsWith(MEGAMEK_PACKAGE) && (FIELDS.get(type) != null)) {
+            for (Field field : FIELDS.get(type)) {
+                writeField(o, field);
+            }
+        } else {
+            try (ObjectOutputStream objectOut = new ObjectOutputStream(new NonClosingStream(out))) {
+                objectOut.writeObject(o);
+            }
+        }
+    }
+
+    private void writeField(Object o, Field field) throws IOException, IllegalAccessException {
+        Class<?> type = field.getType();
+        if (!type.isPrimitive()) {
+            writeReference(field.get(o));
+        } else if (type == int.class) {
+            out.writeInt(field.getInt(o));
+        } else if (type == boolean.class) {
+            out.writeBoolean(field.getBoolean(o));
+        } else if (type == double.class) {
+            out.writeDouble(field.getDouble(o));
+        } else if (type == long.class) {
+            out.writeLong(field.getLong(o));
+        } else if (type == float.class) {
+            out.writeFloat(field.getFloat(o));
+        } else if (type == short.class) {
+            out.writeShort(field.getShort(o));
+        } else if (type == byte.class) {
+            out.writeByte(field.getByte(o));
+        } else {
+            out.writeChar(field.getChar(o));
+        }
+    }
+
+    private void writeArray(Object array) throws IOException {
+        if (array instanceof Object[]) {
+            Object[] elements = (Object[]) array;
+            out.writeInt(elements.length);
+            for (Object element : elements) {
+                writeReference(element);
+            }
+        } else if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            out.writeInt(values.length);
+            for (int value : values) {
+                out.writeInt(value);
+            }
+        } else if (array instanceof boolean[]) {
+            boolean[] values = (boolean[]) array;
+            out.writeInt(values.length);
+            for (boolean value : values) {
+                out.writeBoolean(value);
+            }
+        } else if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            out.writeInt(values.length);
+            for (double value : values) {
+                out.writeDouble(value);
+            }
+        } else {
+            // the other primitive arrays are rare enough to serialize
+            try (ObjectOutputStream objectOut = new ObjectOutputStream(new NonClosingStream(out))) {
+                objectOut.writeObject(array);
+            }
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        out.writeInt(s.length());
+        out.writeChars(s);
+    }
+
+    /** Passes everything on to the digest, but isn't closed along with a wrapping stream */
+    private static class NonClosingStream extends OutputStream {
+        private final OutputStream out;
+
+        NonClosingStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
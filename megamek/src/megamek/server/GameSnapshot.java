@@ -0,0 +1,200 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.server;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import com.thoughtworks.xstream.XStream;
+
+import megamek.common.IGame;
+import megamek.common.util.ClassWhitelistFilter;
+import megamek.common.util.SerializationHelper;
+
+/**
+ * A copy of a game as it was at one moment, held as the bytes of its Java
+ * serialization. Taking a snapshot is quick enough to do on the game thread
+ * between phases; the snapshot can then be written out on another thread
+ * while the game goes on.
+ * <p>
+ * Snapshots are written either as XStream save games (<code>.sav.gz</code>)
+ * or in a binary format (<code>.msav</code>): a short header followed by the
+ * deflated snapshot bytes. The binary format is much faster to write and to
+ * read, but only readable by versions of MegaMek whose classes are
+ * compatible with those of the game that was saved.
+ */
+public class GameSnapshot {
+
+    public static final String BINARY_EXTENSION = ".msav";
+
+    /** The start of every binary save game */
+    private static final byte[] MAGIC = { 'M', 'M', 'S', 'V' };
+
+    /** The version of the binary format, to be raised on incompatible changes */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Save games may come from anywhere, so only the classes of packets and
+     * those the server keeps besides are allowed in them
+     */
+    private static final ClassWhitelistFilter SAVE_GAME_FILTER = ClassWhitelistFilter
+            .fromConfigs("/megamek/serialkiller.xml", "/megamek/serialkiller-savegame.xml");
+
+    private final byte[] data;
+
+    private GameSnapshot(byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Takes a snapshot of the game. Must be called on the thread that changes
+     * the game.
+     */
+    public static GameSnapshot of(IGame game) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(game);
+        }
+        return new GameSnapshot(bytes.toByteArray());
+    }
+
+    /**
+     * @return a new game object as the game was when the snapshot was taken
+     */
+    public IGame restore() throws IOException, ClassNotFoundException {
+        // The bytes were serialized from a game of this process, so they are
+        // trusted and need no filter
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (IGame) in.readObject();
+        }
+    }
+
+    /**
+     * @return the size of the snapshot in bytes, before compression
+     */
+    public int size() {
+        return data.length;
+    }
+
+    /**
+     * Writes the snapshot in the binary save game format. The stream is
+     * closed afterwards.
+     */
+    public void writeBinary(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.write(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream deflated = new DeflaterOutputStream(out, deflater, 1 << 16)) {
+            deflated.write(data);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Writes the snapshot as a GZIPped XStream save game. The stream is
+     * closed afterwards.
+     */
+    public void writeXml(OutputStream stream) throws IOException, ClassNotFoundException {
+        writeXml(restore(), stream);
+    }
+
+    /**
+     * Writes the game as a GZIPped XStream save game. The stream is closed
+     * afterwards.
+     */
+    public static void writeXml(IGame game, OutputStream stream) throws IOException {
+        XStream xstream = new XStream();
+
+        // This will make save games much smaller
+        // by using a more efficient means of referencing
+        // objects in the XML graph
+        xstream.setMode(XStream.ID_REFERENCES);
+
+        try (OutputStream gzo = new GZIPOutputStream(stream);
+             Writer writer = new OutputStreamWriter(gzo, StandardCharsets.UTF_8)) {
+            xstream.toXML(game, writer);
+        }
+    }
+
+    /**
+     * Returns true if the stream starts with a binary save game. The stream
+     * must support marks; it is reset to where it was.
+     */
+    public static boolean isBinary(InputStream stream) throws IOException {
+        stream.mark(MAGIC.length);
+        byte[] start = new byte[MAGIC.length];
+        int read = stream.readNBytes(start, 0, start.length);
+        stream.reset();
+        return (read == MAGIC.length) && Arrays.equals(start, MAGIC);
+    }
+
+    /**
+     * Reads a game from a binary save game.
+     */
+    public static IGame readBinary(InputStream stream) throws IOException, ClassNotFoundException {
+        DataInputStream in = new DataInputStream(stream);
+        byte[] start = new byte[MAGIC.length];
+        in.readFully(start);
+        if (!Arrays.equals(start, MAGIC)) {
+            throw new IOException("Not a binary save game");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary save game version " + version);
+        }
+        return readGame(new BufferedInputStream(new InflaterInputStream(in, new Inflater(), 1 << 16), 1 << 16));
+    }
+
+    /**
+     * Reads a save game in either format: binary or GZIPped XStream.
+     */
+    public static IGame readSaveGame(File file) throws IOException, ClassNotFoundException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+            if (isBinary(in)) {
+                return readBinary(in);
+            }
+            return (IGame) SerializationHelper.loadSaveGame(new GZIPInputStream(in, 1 << 16));
+        }
+    }
+
+    private static IGame readGame(InputStream stream) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(stream)) {
+            in.setObjectInputFilter(SAVE_GAME_FILTER);
+            return (IGame) in.readObject();
+        }
+    }
+}
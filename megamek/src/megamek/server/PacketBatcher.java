@@ -0,0 +1,288 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import megamek.MegaMek;
+import megamek.common.net.IConnection;
+import megamek.common.net.Packet;
+import megamek.common.net.PacketBatch;
+import megamek.common.net.marshall.PacketMarshaller;
+import megamek.common.net.marshall.PacketMarshallerFactory;
+
+/**
+ * Collects the packets the server sends while it handles one event, such as
+ * a received packet and the phase changes it triggers, and sends them to each
+ * connection as a single {@link PacketBatch} when the event is done. A packet
+ * that goes to several connections is marshalled only once per marshalling
+ * type. Only connections whose client announced that it can unpack batches
+ * get them; all others are sent their packets right away, as before.
+ * <p>
+ * Client feedback requests and close commands are never held back, since the
+ * server waits for the answer or drops the connection right after them.
+ * <p>
+ * Packets are handed to the connections outside of the batcher's lock, since
+ * a send may block while a slow client's queue is full. Each connection has
+ * an outbox that keeps its packets in order; whichever thread finds the
+ * outbox idle sends everything in it, so a blocked send only holds up the
+ * thread sending to that connection.
+ */
+class PacketBatcher {
+
+    /** The packets waiting to be handed to one connection */
+    private static class Outbox {
+        final Queue<Packet> packets = new ArrayDeque<>();
+        boolean sending;
+    }
+
+    /** The connections that may be sent batches */
+    private final Set<IConnection> batchingConnections = ConcurrentHashMap.newKeySet();
+
+    /** The held back packets, in the order they were sent */
+    private final Map<IConnection, List<Packet>> pending = new LinkedHashMap<>();
+
+    /** The packets ready to be sent, by connection */
+    private final Map<IConnection, Outbox> outboxes = new IdentityHashMap<>();
+
+    /** The number of batches currently open; nested batches are merged */
+    private int depth;
+
+    private long frames;
+
+    private long packets;
+
+    private long bytesSaved;
+
+    /**
+     * Allows or forbids batches for the given connection.
+     */
+    void setBatching(IConnection conn, boolean batching) {
+        if (batching) {
+            batchingConnections.add(conn);
+        } else {
+            batchingConnections.remove(conn);
+        }
+    }
+
+    /**
+     * Forgets the given connection along with any packets held back for it.
+     */
+    synchronized void remove(IConnection conn) {
+        batchingConnections.remove(conn);
+        pending.remove(conn);
+        Outbox outbox = outboxes.remove(conn);
+        if (outbox != null) {
+            outbox.packets.clear();
+        }
+    }
+
+    /**
+     * Starts holding back packets. Every call must be followed by a call to
+     * {@link #end()}.
+     */
+    synchronized void begin() {
+        depth++;
+    }
+
+    /**
+     * Ends the batch started by the matching {@link #begin()}; when no batch
+     * is left open, the held back packets are sent.
+     */
+    void end() {
+        List<IConnection> ready;
+        synchronized (this) {
+            depth--;
+            if (depth > 0) {
+                return;
+            }
+            depth = 0;
+            ready = flush();
+        }
+        deliver(ready);
+    }
+
+    /**
+     * Sends the packet to the connection, or holds it back until the current
+     * batch ends.
+     */
+    void send(IConnection conn, Packet packet) {
+        List<IConnection> ready;
+        synchronized (this) {
+            if ((depth == 0) || !batchingConnections.contains(conn)) {
+                post(conn, packet);
+                ready = Collections.singletonList(conn);
+            } else {
+                pending.computeIfAbsent(conn, k -> new ArrayList<>()).add(packet);
+                if (!isUrgent(packet)) {
+                    return;
+                }
+                ready = flush();
+            }
+        }
+        deliver(ready);
+    }
+
+    private static boolean isUrgent(Packet packet) {
+        return (packet.getCommand() == Packet.COMMAND_CLIENT_FEEDBACK_REQUEST)
+                || (packet.getCommand() == Packet.COMMAND_CLOSE_CONNECTION);
+    }
+
+    /**
+     * Moves all held back packets to the outboxes, one batch per connection.
+     * Must be called with the lock held.
+     *
+     * @return the connections that were given a batch
+     */
+    private List<IConnection> flush() {
+        List<IConnection> ready = new ArrayList<>(pending.size());
+        if (pending.isEmpty()) {
+            return ready;
+        }
+        // Marshalling type to the packets marshalled with it
+        Map<Integer, Map<Packet, byte[]>> marshalled = new HashMap<>();
+        for (Map.Entry<IConnection, List<Packet>> entry : pending.entrySet()) {
+            IConnection conn = entry.getKey();
+            if (conn.isClosed()) {
+                continue;
+            }
+            int marshallingType = conn.getMarshallingType();
+            PacketMarshaller marshaller = PacketMarshallerFactory.getInstance()
+                    .getMarshaller(marshallingType);
+            Map<Packet, byte[]> cache = marshalled.computeIfAbsent(marshallingType,
+                    k -> new IdentityHashMap<>());
+            PacketBatch batch = new PacketBatch();
+            for (Packet packet : entry.getValue()) {
+                byte[] bytes = cache.get(packet);
+                if (bytes != null) {
+                    bytesSaved += bytes.length;
+                } else {
+                    bytes = marshaller.marshall(packet);
+                    if (bytes == null) {
+                        MegaMek.getLogger().error("s: could not marshall packet with command "
+                                + packet.getCommand() + " for connection " + conn.getId());
+                        continue;
+                    }
+                    cache.put(packet, bytes);
+                }
+                batch.add(marshallingType, bytes);
+            }
+            if (batch.size() > 0) {
+                post(conn, batch.toPacket());
+                ready.add(conn);
+                frames++;
+                packets += batch.size();
+            }
+        }
+        pending.clear();
+        return ready;
+    }
+
+    /**
+     * Queues a packet for the connection. Must be called with the lock held.
+     */
+    private void post(IConnection conn, Packet packet) {
+        outboxes.computeIfAbsent(conn, k -> new Outbox()).packets.add(packet);
+    }
+
+    /**
+     * Sends the queued packets of the given connections without holding the
+     * lock. An outbox that another thread is already sending from is left to
+     * that thread, which picks up the new packets after its current ones.
+     */
+    private void deliver(List<IConnection> ready) {
+        for (IConnection conn : ready) {
+            Outbox outbox;
+            synchronized (this) {
+                outbox = outboxes.get(conn);
+                if ((outbox == null) || outbox.sending) {
+                    continue;
+                }
+                outbox.sending = true;
+            }
+            try {
+                for (Packet packet = next(conn, outbox); packet != null; packet = next(conn, outbox)) {
+                    conn.send(packet);
+                }
+            } catch (RuntimeException e) {
+                // Leave the rest for the next send to this connection
+                synchronized (this) {
+                    outbox.sending = false;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return the next packet of the outbox, or null once it is empty, in
+     *         which case the outbox is no longer being sent from
+     */
+    private synchronized Packet next(IConnection conn, Outbox outbox) {
+        Packet packet = outbox.packets.poll();
+        if (packet == null) {
+            outbox.sending = false;
+            if (outboxes.get(conn) == outbox) {
+                outboxes.remove(conn);
+            }
+        }
+        return packet;
+    }
+
+    /**
+     * @return the number of batches sent so far
+     */
+    synchronized long getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return the number of packets sent in batches so far
+     */
+    synchronized long getPackets() {
+        return packets;
+    }
+
+    /**
+     * @return the average number of packets per batch
+     */
+    synchronized double getPacketsPerFrame() {
+        return (frames == 0) ? 0 : (double) packets / frames;
+    }
+
+    /**
+     * @return the marshalled bytes that were reused for another connection
+     *         instead of marshalling the same packet again
+     */
+    synchronized long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d packets in %d batches (%.1f per batch), %d marshalled bytes reused",
+                packets, frames, getPacketsPerFrame(), bytesSaved);
+    }
+}
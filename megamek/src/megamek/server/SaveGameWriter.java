@@ -0,0 +1,127 @@
+/*
+ * MegaMek - Copyright (C) 2021 - The MegaMek Team
+ *
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License as published by the Free
+ *  Software Foundation; either version 2 of the License, or (at your option)
+ *  any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ *  or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ *  for more details.
+ */
+
+package megamek.server;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import megamek.MegaMek;
+
+/**
+ * Writes game snapshots to save game files on a background thread, so the
+ * game thread only spends the time to take the snapshot.
+ * <p>
+ * Each file is first written next to its target and then moved over it, so
+ * a save game is never left half written. When saves to the same file pile
+ * up, only the latest snapshot is written.
+ */
+public class SaveGameWriter {
+
+    /** How long {@link #shutdown()} waits for the pending saves */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Save Game Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Per file, the save waiting to be written */
+    private final Map<File, PendingSave> pending = new HashMap<>();
+
+    /**
+     * Queues the snapshot to be written to the file, in the binary format or
+     * as XStream save game.
+     */
+    public void queue(GameSnapshot snapshot, File file, boolean binary) {
+        synchronized (pending) {
+            // a snapshot that is still waiting is replaced by the newer one
+            if (pending.put(file, new PendingSave(snapshot, binary)) != null) {
+                return;
+            }
+        }
+        executor.execute(() -> {
+            PendingSave save;
+            synchronized (pending) {
+                save = pending.remove(file);
+            }
+            long start = System.currentTimeMillis();
+            try {
+                write(save.snapshot, file, save.binary);
+                MegaMek.getLogger().debug("Saved the game to " + file + " in "
+                        + (System.currentTimeMillis() - start) + " ms");
+            } catch (Exception e) {
+                MegaMek.getLogger().error("Unable to save file: " + file, e);
+            }
+        });
+    }
+
+    /**
+     * Writes the snapshot to the file right away, on the calling thread.
+     */
+    public static void write(GameSnapshot snapshot, File file, boolean binary) throws Exception {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp.toPath()), 1 << 16)) {
+                if (binary) {
+                    snapshot.writeBinary(out);
+                } else {
+                    snapshot.writeXml(out);
+                }
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    /**
+     * Writes the saves still waiting and stops the writer thread.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                MegaMek.getLogger().error("Gave up waiting for the game to be saved");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class PendingSave {
+        final GameSnapshot snapshot;
+        final boolean binary;
+
+        PendingSave(GameSnapshot snapshot, boolean binary) {
+            this.snapshot = snapshot;
+            this.binary = binary;
+        }
+    }
+}
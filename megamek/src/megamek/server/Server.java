@@ -19,11 +19,13 @@ package megamek.server;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
+import java.nio.channels.ServerSocketChannel;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -49,10 +51,7 @@ import java.util.TreeSet;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
-import com.thoughtworks.xstream.XStream;
 
 import megamek.MegaMek;
 import megamek.client.ui.swing.util.PlayerColour;
@@ -70,10 +69,12 @@ import megamek.common.force.Forces;
 import megamek.common.icons.Camouflage;
 import megamek.common.net.ConnectionFactory;
 import megamek.common.net.ConnectionListenerAdapter;
+import megamek.common.net.ConnectionSelector;
 import megamek.common.net.DisconnectedEvent;
 import megamek.common.net.IConnection;
 import megamek.common.net.Packet;
 import megamek.common.net.PacketReceivedEvent;
+import megamek.common.net.marshall.PacketMarshaller;
 import megamek.common.options.GameOptions;
 import megamek.common.options.IBasicOption;
 import megamek.common.options.IOption;
@@ -81,7 +82,6 @@ import megamek.common.options.OptionsConstants;
 import megamek.common.preference.PreferenceManager;
 import megamek.common.util.BoardUtilities;
 import megamek.common.util.fileUtils.MegaMekFile;
-import megamek.common.util.SerializationHelper;
 import megamek.common.util.StringUtil;
 import megamek.common.verifier.EntityVerifier;
 import megamek.common.verifier.TestAero;
@@ -149,6 +149,11 @@ public class Server implements Runnable {
 
     private ServerSocket serverSocket;
 
+    /**
+     * Serves the connections when they don't get a thread each, null otherwise
+     */
+    private ConnectionSelector connectionSelector;
+
     private String motd;
 
     private static class ReceivedPacket {
@@ -180,7 +185,12 @@ public class Server implements Runnable {
                 while (!packetQueue.isEmpty()) {
                     ReceivedPacket rp = packetQueue.poll();
                     synchronized (serverLock) {
-                        handle(rp.connId, rp.packet);
+                        packetBatcher.begin();
+                        try {
+                            handle(rp.connId, rp.packet);
+                        } finally {
+                            packetBatcher.end();
+                        }
                     }
                 }
                 try {
@@ -203,6 +213,11 @@ public class Server implements Runnable {
 
     private final ConcurrentLinkedQueue<ReceivedPacket> packetQueue = new ConcurrentLinkedQueue<>();
 
+    /**
+     * Holds back the packets sent while one received packet is handled
+     */
+    private final PacketBatcher packetBatcher = new PacketBatcher();
+
     /**
      * Special packet queue for client feedback requests.
      */
@@ -212,10 +227,30 @@ public class Server implements Runnable {
 
     private Hashtable<Integer, IConnection> connectionIds = new Hashtable<>();
 
+    /**
+     * Tracks the entity states last sent to each connection, for delta updates.
+     */
+    private final EntityDeltaTracker entityDeltaTracker = new EntityDeltaTracker();
+
+    /**
+     * Writes the autosaves in the background.
+     */
+    private final SaveGameWriter saveGameWriter = new SaveGameWriter();
+
     private int connectionCounter;
 
     private IGame game = new Game();
 
+    /**
+     * Line of sight results for double blind, kept across entity updates.
+     */
+    private VisibilityCache visibilityCache = new VisibilityCache(game);
+
+    /**
+     * The E(C)CM fields for sensor checks, updated as units change.
+     */
+    private ECMField ecmField = new ECMField(game);
+
     private Vector<Report> vPhaseReport = new Vector<>();
 
     public Vector<Report> getvPhaseReport() {
@@ -293,6 +328,8 @@ public class Server implements Runnable {
                 connections.removeElement(conn);
                 connectionsPending.removeElement(conn);
                 connectionIds.remove(conn.getId());
+                entityDeltaTracker.reset(conn.getId());
+                packetBatcher.remove(conn);
                 ConnectionHandler ch = connectionHandlers.get(conn.getId());
                 if (ch != null) {
                     ch.signalStop();
@@ -323,7 +360,12 @@ public class Server implements Runnable {
                     || (cmd == Packet.COMMAND_CLIENT_NAME)
                     || (cmd == Packet.COMMAND_CLIENT_VERSIONS)
                     || (cmd == Packet.COMMAND_CHAT)) {
-                handle(rp.connId, rp.packet);
+                packetBatcher.begin();
+                try {
+                    handle(rp.connId, rp.packet);
+                } finally {
+                    packetBatcher.end();
+                }
             } else {
                 synchronized (packetQueue) {
                     packetQueue.add(rp);
@@ -355,10 +397,35 @@ public class Server implements Runnable {
      */
     public Server(String password, int port, boolean registerWithServerBrowser,
                   String metaServerUrl) throws IOException {
+        this(password, port, registerWithServerBrowser, metaServerUrl, false);
+    }
+
+    /**
+     * Construct a new GameHost and begin listening for incoming clients.
+     *
+     * @param password                  the <code>String</code> that is set as a password
+     * @param port                      the <code>int</code> value that specifies the port that is
+     *                                  used
+     * @param registerWithServerBrowser a <code>boolean</code> indicating whether we should register
+     *                                  with the master server browser on megamek.info
+     * @param useSelector               a <code>boolean</code> indicating whether all connections
+     *                                  should be served by a single selector thread instead of a
+     *                                  thread per connection
+     */
+    public Server(String password, int port, boolean registerWithServerBrowser,
+                  String metaServerUrl, boolean useSelector) throws IOException {
         this.metaServerUrl = metaServerUrl;
         this.password = password.length() > 0 ? password : null;
         // initialize server socket
-        serverSocket = new ServerSocket(port);
+        if (useSelector) {
+            ServerSocketChannel channel = ServerSocketChannel.open();
+            channel.bind(new InetSocketAddress(port));
+            serverSocket = channel.socket();
+            connectionSelector = new ConnectionSelector();
+            connectionSelector.start();
+        } else {
+            serverSocket = new ServerSocket(port);
+        }
 
         motd = createMotd();
 
@@ -468,6 +535,9 @@ public class Server implements Runnable {
         Vector<GameListener> gameListenersClone = new Vector<>(getGame().getGameListeners());
 
         game = g;
+        visibilityCache.die();
+        visibilityCache = new VisibilityCache(game);
+        ecmField = new ECMField(game);
 
         for (GameListener listener : gameListenersClone) {
             getGame().addGameListener(listener);
@@ -610,6 +680,11 @@ public class Server implements Runnable {
 
         connections.removeAllElements();
         connectionIds.clear();
+        if (connectionSelector != null) {
+            connectionSelector.shutdown();
+        }
+        saveGameWriter.shutdown();
+        visibilityCache.die();
         if (serverBrowserUpdateTimer != null) {
             serverBrowserUpdateTimer.cancel();
         }
@@ -633,7 +708,10 @@ public class Server implements Runnable {
      */
     void greeting(int cn) {
         // send server greeting -- client should reply with client info.
-        sendToPending(cn, new Packet(Packet.COMMAND_SERVER_GREETING));
+        // The greeting advertises the binary marshalling, which the client
+        // may acknowledge in its version packet.
+        sendToPending(cn, new Packet(Packet.COMMAND_SERVER_GREETING,
+                PacketMarshaller.BINARY_MARSHALING));
     }
 
     /**
@@ -715,6 +793,21 @@ public class Server implements Runnable {
         String version = (String) packet.getObject(0);
         String clientChecksum = (String) packet.getObject(1);
         String serverChecksum = MegaMek.getMegaMekSHA256();
+        IConnection conn = getConnection(connId);
+        if (conn == null) {
+            conn = getPendingConnection(connId);
+        }
+        // Older clients only send the version and checksum and keep using
+        // native serialization
+        if ((conn != null) && (packet.getData().length > 2)
+                && Integer.valueOf(PacketMarshaller.BINARY_MARSHALING).equals(packet.getObject(2))) {
+            conn.setMarshallingType(PacketMarshaller.BINARY_MARSHALING);
+        }
+        // Clients that can unpack packet batches say so after the marshalling
+        if ((conn != null) && (packet.getData().length > 3)
+                && Boolean.TRUE.equals(packet.getObject(3))) {
+            packetBatcher.setBatching(conn, true);
+        }
         StringBuilder buf = new StringBuilder();
         boolean needs = false;
         if (!version.equals(MegaMek.VERSION)) {
@@ -941,7 +1034,7 @@ public class Server implements Runnable {
      */
     public void sendEntities(int connId) {
         if (doBlind()) {
-            send(connId, createFilteredEntitiesPacket(getPlayer(connId), null));
+            send(connId, createFilteredEntitiesPacket(getPlayer(connId)));
         } else {
             send(connId, createEntitiesPacket());
         }
@@ -1124,14 +1217,28 @@ public class Server implements Runnable {
     }
 
     /**
-     * automatically save the game
+     * automatically save the game; the game is written to the file on a
+     * background thread
      */
     public void autoSave() {
         String fileName = "autosave";
         if (PreferenceManager.getClientPreferences().stampFilenames()) {
             fileName = StringUtil.addDateTimeStamp(fileName);
         }
-        saveGame(fileName, game.getOptions().booleanOption(OptionsConstants.BASE_AUTOSAVE_MSG));
+        if (PreferenceManager.getClientPreferences().autoSaveBinary()) {
+            fileName += GameSnapshot.BINARY_EXTENSION;
+        }
+        File file = getSaveGameFile(fileName);
+        try {
+            saveGameWriter.queue(GameSnapshot.of(game), file, isBinarySaveGame(file));
+        } catch (Exception e) {
+            MegaMek.getLogger().error("Unable to save file: " + file, e);
+            return;
+        }
+
+        if (game.getOptions().booleanOption(OptionsConstants.BASE_AUTOSAVE_MSG)) {
+            sendChat("MegaMek", "Game saved to " + file);
+        }
     }
 
     /**
@@ -1144,14 +1251,7 @@ public class Server implements Runnable {
      */
     public void sendSaveGame(int connId, String sFile, String sLocalPath) {
         saveGame(sFile, false);
-        String sFinalFile = sFile;
-        if (!sFinalFile.endsWith(".sav.gz")) {
-            if (sFinalFile.endsWith(".sav")) {
-                sFinalFile = sFile + ".gz";
-            } else {
-                sFinalFile = sFile + ".sav.gz";
-            }
-        }
+        String sFinalFile = getSaveGameFile(sFile).getName();
         sLocalPath = sLocalPath.replaceAll("\\|", " ");
         String localFile = "savegames" + File.separator + sFinalFile;
         try (InputStream in = new FileInputStream(localFile); InputStream bin = new BufferedInputStream(in)) {
@@ -1169,47 +1269,58 @@ public class Server implements Runnable {
     }
 
     /**
-     * save the game
-     *
-     * @param sFile    The <code>String</code> filename to use
-     * @param sendChat A <code>boolean</code> value whether or not to announce the
-     *                 saving to the server chat.
+     * Returns the file in the savegames directory for the save game name,
+     * creating the directory if needed. Save games are GZIPped XStream files
+     * ending in <code>.sav.gz</code>, unless the name ends in the extension of
+     * binary save games.
      */
-    public void saveGame(String sFile, boolean sendChat) {
+    private File getSaveGameFile(String sFile) {
         // We need to strip the .gz if it exists,
         // otherwise we'll double up on it.
         if (sFile.endsWith(".gz")) {
             sFile = sFile.replace(".gz", "");
         }
-        XStream xstream = new XStream();
-
-        // This will make save games much smaller
-        // by using a more efficient means of referencing
-        // objects in the XML graph
-        xstream.setMode(XStream.ID_REFERENCES);
-
         String sFinalFile = sFile;
-        if (!sFinalFile.endsWith(".sav")) {
+        if (!sFinalFile.endsWith(".sav") && !sFinalFile.endsWith(GameSnapshot.BINARY_EXTENSION)) {
             sFinalFile = sFile + ".sav";
         }
+        if (sFinalFile.endsWith(".sav")) {
+            sFinalFile += ".gz";
+        }
         File sDir = new File("savegames");
         if (!sDir.exists()) {
             sDir.mkdir();
         }
+        return new File(sDir, sFinalFile);
+    }
 
-        sFinalFile = sDir + File.separator + sFinalFile;
-
-        try (OutputStream os = new FileOutputStream(sFinalFile + ".gz");
-             OutputStream gzo = new GZIPOutputStream(os);
-             Writer writer = new OutputStreamWriter(gzo, StandardCharsets.UTF_8)) {
+    private static boolean isBinarySaveGame(File file) {
+        return file.getName().endsWith(GameSnapshot.BINARY_EXTENSION);
+    }
 
-            xstream.toXML(game, writer);
+    /**
+     * save the game
+     *
+     * @param sFile    The <code>String</code> filename to use
+     * @param sendChat A <code>boolean</code> value whether or not to announce the
+     *                 saving to the server chat.
+     */
+    public void saveGame(String sFile, boolean sendChat) {
+        File file = getSaveGameFile(sFile);
+        try {
+            if (isBinarySaveGame(file)) {
+                SaveGameWriter.write(GameSnapshot.of(game), file, true);
+            } else {
+                try (OutputStream os = new BufferedOutputStream(new FileOutputStream(file))) {
+                    GameSnapshot.writeXml(game, os);
+                }
+            }
         } catch (Exception e) {
-            MegaMek.getLogger().error("Unable to save file: " + sFinalFile, e);
+            MegaMek.getLogger().error("Unable to save file: " + file, e);
         }
 
         if (sendChat) {
-            sendChat("MegaMek", "Game saved to " + sFinalFile);
+            sendChat("MegaMek", "Game saved to " + file);
         }
     }
 
@@ -1230,10 +1341,11 @@ public class Server implements Runnable {
      */
     public void sendLoadGame(int connId, String sFile) {
         String sFinalFile = sFile;
-        if (!sFinalFile.endsWith(".sav") && !sFinalFile.endsWith(".sav.gz")) {
+        if (!sFinalFile.endsWith(".sav") && !sFinalFile.endsWith(".sav.gz")
+                && !sFinalFile.endsWith(GameSnapshot.BINARY_EXTENSION)) {
             sFinalFile = sFile + ".sav";
         }
-        if (!sFinalFile.endsWith(".gz")) {
+        if (sFinalFile.endsWith(".sav")) {
             sFinalFile = sFinalFile + ".gz";
         }
         send(connId, new Packet(Packet.COMMAND_LOAD_SAVEGAME, new Object[]{sFinalFile}));
@@ -1264,9 +1376,8 @@ public class Server implements Runnable {
         MegaMek.getLogger().info("s: loading saved game file '" + f + "'");
 
         IGame newGame;
-        try (InputStream is = new FileInputStream(f); InputStream gzi = new GZIPInputStream(is)) {
-            XStream xstream = SerializationHelper.getXStream();
-            newGame = (IGame) xstream.fromXML(gzi);
+        try {
+            newGame = GameSnapshot.readSaveGame(f);
         } catch (Exception e) {
             MegaMek.getLogger().error("Unable to load file: " + f, e);
             return false;
@@ -1300,6 +1411,8 @@ public class Server implements Runnable {
      *            inverse mapping from nameToIdMap
      */
     public void remapConnIds(Map<String, Integer> nameToIdMap, Map<Integer, String> idToNameMap) {
+        // The entity baselines are kept per connection id
+        entityDeltaTracker.resetAll();
         // Keeps track of connections without Ids
         List<IConnection> unassignedConns = new ArrayList<>();
        // Keep track of which ids are used
@@ -2179,6 +2292,7 @@ public class Server implements Runnable {
      * @param phase the <code>int</code> id of the phase to change to
      */
     private void changePhase(IGame.Phase phase) {
+        MegaMek.getLogger().debug("s: sent " + packetBatcher);
         game.setLastPhase(game.getPhase());
         game.setPhase(phase);
 
@@ -3004,7 +3118,7 @@ public class Server implements Runnable {
         }
         for (int i = 0; i < connections.size(); i++) {
             if (connections.get(i) != null) {
-                connections.get(i).send(createSpecialHexDisplayPacket(i));
+                packetBatcher.send(connections.get(i), createSpecialHexDisplayPacket(i));
             }
         }
     }
@@ -3015,7 +3129,7 @@ public class Server implements Runnable {
         }
         for (IConnection connection : connections) {
             if (connection != null) {
-                connection.send(createTagInfoUpdatesPacket());
+                packetBatcher.send(connection, createTagInfoUpdatesPacket());
             }
         }
     }
@@ -3026,7 +3140,7 @@ public class Server implements Runnable {
         }
         for (IConnection connection : connections) {
             if (connection != null) {
-                connection.send(new Packet(Packet.COMMAND_RESET_TAGINFO));
+                packetBatcher.send(connection, new Packet(Packet.COMMAND_RESET_TAGINFO));
             }
         }
     }
@@ -9513,7 +9627,7 @@ public class Server implements Runnable {
         // if using double blind, update the player on new units he might see
         if (doBlind()) {
             send(entity.getOwner().getId(),
-                    createFilteredEntitiesPacket(entity.getOwner(), losCache));
+                    createFilteredEntitiesPacket(entity.getOwner()));
         }
 
         // if we generated a charge attack, report it now
@@ -14189,6 +14303,14 @@ public class Server implements Runnable {
         }
     }
 
+    /**
+     * @return the E(C)CM fields of all units, brought up to date
+     */
+    private ECMField getECMField() {
+        ecmField.update();
+        return ecmField;
+    }
+
     /**
      * Called to what players can see what units. This is used to determine who
      * can see what in double blind reports.
@@ -14196,8 +14318,7 @@ public class Server implements Runnable {
     private void resolveWhatPlayersCanSeeWhatUnits() {
         List<ECMInfo> allECMInfo = null;
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_SENSORS)) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game
-                    .getEntitiesVector());
+            allECMInfo = getECMField();
         }
         Map<EntityTargetPair, LosEffects> losCache = new HashMap<>();
         for (Entity entity : game.getEntitiesVector()) {
@@ -29243,8 +29364,7 @@ public class Server implements Runnable {
 
         List<ECMInfo> allECMInfo = null;
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_SENSORS) && useSensors) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game
-                    .getEntitiesVector());
+            allECMInfo = getECMField();
         }
 
         boolean bTeamVision = game.getOptions().booleanOption(OptionsConstants.ADVANCED_TEAM_VISION);
@@ -29381,32 +29501,47 @@ public class Server implements Runnable {
      * effect, enforce it by filtering the entities
      */
     private void entityAllUpdate() {
+        if (connections == null) {
+            return;
+        }
+        // With a single client, telling the changed entities apart costs more
+        // than sending them all
+        boolean delta = connections.size() > 1;
+        // Only the entities that changed since the last update sent to each
+        // client are sent; the fingerprints are shared by all clients
+        entityDeltaTracker.startUpdate();
         // If double-blind is in effect, filter each players' list individually,
         // and then quit out...
         if (doBlind()) {
             Vector<IPlayer> playersVector = game.getPlayersVector();
             for (int x = 0; x < playersVector.size(); x++) {
                 IPlayer p = playersVector.elementAt(x);
-                send(p.getId(), createFilteredEntitiesPacket(p, null));
+                send(p.getId(), delta ? entityDeltaTracker.createDeltaPacket(p.getId(),
+                        filterEntities(p, game.getEntitiesVector())) : createFilteredEntitiesPacket(p));
             }
             return;
         }
 
         // Otherwise, send the full list.
-        send(createEntitiesPacket());
+        if (!delta) {
+            send(createEntitiesPacket());
+            return;
+        }
+        for (Enumeration<IConnection> connEnum = connections.elements(); connEnum.hasMoreElements(); ) {
+            IConnection conn = connEnum.nextElement();
+            packetBatcher.send(conn, entityDeltaTracker.createDeltaPacket(conn.getId(),
+                    game.getEntitiesVector()));
+        }
     }
 
     /**
      * Filters an entity vector according to LOS
      */
-    private List<Entity> filterEntities(IPlayer pViewer,
-            List<Entity> vEntities,
-            Map<EntityTargetPair, LosEffects> losCache) {
-        if (losCache == null) {
-            losCache = new HashMap<>();
-        }
-        Vector<Entity> vCanSee = new Vector<>();
-        Vector<Entity> vMyEntities = new Vector<>();
+    private List<Entity> filterEntities(IPlayer pViewer, List<Entity> vEntities) {
+        // The visible entities are kept in insertion order; the set makes
+        // the duplicate checks cheap
+        Set<Entity> vCanSee = new LinkedHashSet<>();
+        Set<Entity> vMyEntities = new LinkedHashSet<>();
         boolean bTeamVision = game.getOptions().booleanOption(OptionsConstants.ADVANCED_TEAM_VISION);
 
         // If they can see all, return the input list
@@ -29416,29 +29551,31 @@ public class Server implements Runnable {
 
         List<ECMInfo> allECMInfo = null;
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_SENSORS)) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game.getEntitiesVector());
+            allECMInfo = getECMField();
         }
 
+        visibilityCache.refresh();
+
         // If they're an observer, they can see anything seen by any enemy.
         if (pViewer.isObserver()) {
             vMyEntities.addAll(vEntities);
             for (Entity a : vMyEntities) {
                 for (Entity b : vMyEntities) {
                     if (a.isEnemyOf(b)
-                        && Compute.canSee(game, b, a, true, null, allECMInfo)) {
+                        && Compute.canSee(game, b, a, true, visibilityCache.getLos(b, a), allECMInfo)) {
                         addVisibleEntity(vCanSee, a);
                         break;
                     }
                 }
             }
-            return vCanSee;
+            return new Vector<>(vCanSee);
         }
 
         // If they aren't an observer and can't see all, create the list of
         // "friendly" units.
         for (Entity e : vEntities) {
             if ((e.getOwner() == pViewer) || (bTeamVision && !e.getOwner().isEnemyOf(pViewer))) {
-                vMyEntities.addElement(e);
+                vMyEntities.add(e);
             }
         }
 
@@ -29462,13 +29599,7 @@ public class Server implements Runnable {
                     continue;
                 }
 
-                // See if the LosEffects is cached, and if not cache it
-                EntityTargetPair etp = new EntityTargetPair(spotter, e);
-                LosEffects los = losCache.get(etp);
-                if (los == null) {
-                    los = LosEffects.calculateLos(game, spotter.getId(), e);
-                    losCache.put(etp, los);
-                }
+                LosEffects los = visibilityCache.getLos(spotter, e);
                 // Otherwise, if they can see the entity in question
                 if (Compute.canSee(game, spotter, e, true, los, allECMInfo)) {
                     addVisibleEntity(vCanSee, e);
@@ -29490,7 +29621,7 @@ public class Server implements Runnable {
             }
         }
 
-        return vCanSee;
+        return new Vector<>(vCanSee);
     }
 
     /**
@@ -29505,10 +29636,8 @@ public class Server implements Runnable {
      * @param e       An Entity that is seen and needs to be added to the collection
      *                of seen entities. All of
      */
-    private void addVisibleEntity(Vector<Entity> vCanSee, Entity e) {
-        if (!vCanSee.contains(e)) {
-            vCanSee.add(e);
-        }
+    private void addVisibleEntity(Set<Entity> vCanSee, Entity e) {
+        vCanSee.add(e);
         for (Entity transported : e.getLoadedUnits()) {
             addVisibleEntity(vCanSee, transported);
         }
@@ -29657,8 +29786,7 @@ public class Server implements Runnable {
         }
         List<ECMInfo> allECMInfo = null;
         if (game.getOptions().booleanOption(OptionsConstants.ADVANCED_TACOPS_SENSORS)) {
-            allECMInfo = ComputeECM.computeAllEntitiesECMInfo(game
-                    .getEntitiesVector());
+            allECMInfo = getECMField();
         }
 
         List<Entity> vAllEntities = game.getEntitiesVector();
@@ -30814,10 +30942,9 @@ public class Server implements Runnable {
      * Creates a packet containing all entities visible to the player in a blind
      * game
      */
-    private Packet createFilteredEntitiesPacket(IPlayer p, Map<EntityTargetPair,
-            LosEffects> losCache) {
+    private Packet createFilteredEntitiesPacket(IPlayer p) {
         return new Packet(Packet.COMMAND_SENDING_ENTITIES,
-                filterEntities(p, game.getEntitiesVector(), losCache));
+                filterEntities(p, game.getEntitiesVector()));
     }
 
     /**
@@ -30826,7 +30953,7 @@ public class Server implements Runnable {
      */
     private Packet createFilteredFullEntitiesPacket(IPlayer p) {
         final Object[] data = new Object[3];
-        data[0] = filterEntities(p, game.getEntitiesVector(), null);
+        data[0] = filterEntities(p, game.getEntitiesVector());
         data[1] = game.getOutOfGameEntitiesVector();
         data[2] = game.getForces();
         return new Packet(Packet.COMMAND_SENDING_ENTITIES, data);
@@ -30975,6 +31102,7 @@ public class Server implements Runnable {
      * Sends notification to clients that the specified hex has changed.
      */
     public void sendChangedHex(Coords coords) {
+        visibilityCache.hexChanged(coords);
         send(createHexChangePacket(coords, game.getBoard().getHex(coords)));
     }
 
@@ -30994,6 +31122,7 @@ public class Server implements Runnable {
     public void sendChangedHexes(Set<Coords> coords) {
         Set<IHex> hexes = new LinkedHashSet<>();
         for (Coords coord : coords) {
+            visibilityCache.hexChanged(coord);
             hexes.add(game.getBoard().getHex(coord));
         }
         send(createHexesChangePacket(coords, hexes));
@@ -31118,7 +31247,8 @@ public class Server implements Runnable {
         }
         for (Enumeration<IConnection> connEnum = connections.elements(); connEnum.hasMoreElements(); ) {
             IConnection conn = connEnum.nextElement();
-            conn.send(packet);
+            entityDeltaTracker.packetSent(conn.getId(), packet);
+            packetBatcher.send(conn, packet);
         }
     }
 
@@ -31150,7 +31280,7 @@ public class Server implements Runnable {
             } else {
                 packet = createReportPacket(p);
             }
-            conn.send(packet);
+            packetBatcher.send(conn, packet);
         }
     }
 
@@ -31159,7 +31289,8 @@ public class Server implements Runnable {
      */
     public void send(int connId, Packet packet) {
         if (getClient(connId) != null) {
-            getClient(connId).send(packet);
+            entityDeltaTracker.packetSent(connId, packet);
+            packetBatcher.send(getClient(connId), packet);
         }
         // What should we do if we've lost this client?
         // For now, nothing.
@@ -31171,7 +31302,7 @@ public class Server implements Runnable {
     private void sendToPending(int connId, Packet packet) {
         IConnection pendingConn = getPendingConnection(connId);
         if (pendingConn != null) {
-            pendingConn.send(packet);
+            packetBatcher.send(pendingConn, packet);
         }
         // What should we do if we've lost this client?
         // For now, nothing.
@@ -31524,14 +31655,22 @@ public class Server implements Runnable {
                     int id = getFreeConnectionId();
                     MegaMek.getLogger().info("s: accepting player connection #" + id + "...");
 
-                    IConnection c = ConnectionFactory.getInstance().createServerConnection(s, id);
+                    IConnection c;
+                    if (connectionSelector != null) {
+                        c = ConnectionFactory.getInstance().createServerConnection(s.getChannel(), id,
+                                connectionSelector);
+                    } else {
+                        c = ConnectionFactory.getInstance().createServerConnection(s, id);
+                    }
                     c.addConnectionListener(connectionListener);
                     c.open();
                     connectionsPending.addElement(c);
-                    ConnectionHandler ch = new ConnectionHandler(c);
-                    Thread newConnThread = new Thread(ch, "Connection " + id);
-                    newConnThread.start();
-                    connectionHandlers.put(id, ch);
+                    if (connectionSelector == null) {
+                        ConnectionHandler ch = new ConnectionHandler(c);
+                        Thread newConnThread = new Thread(ch, "Connection " + id);
+                        newConnThread.start();
+                        connectionHandlers.put(id, ch);
+                    }
 
                     greeting(id);
                     ConnectionWatchdog w = new ConnectionWatchdog(this, id);
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2021 - The MegaMek Team. All Rights Reserved.
+ *
+ * This file is part of MegaMek.
+ *
+ * MegaMek is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * MegaMek is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ */
+package megamek.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.IBoard;
+import megamek.common.IGame;
+import megamek.common.LosEffects;
+import megamek.common.event.BoardEvent;
+import megamek.common.event.BoardListenerAdapter;
+import megamek.common.options.OptionsConstants;
+
+/**
+ * A line of sight cache for double blind visibility checks that lives across
+ * entity updates. Every cached {@link LosEffects} between a spotter and a
+ * target stays valid until one of them changes its position or height, until
+ * an entity moves into or out of the hexes between them, or until one of
+ * those hexes changes. Only the affected pairs are recomputed.
+ * <p>
+ * Entity states are compared against a snapshot taken at the previous
+ * {@link #refresh()}. Changed hexes are collected from the board's events and
+ * from {@link #hexChanged(Coords)}; a new board or different LOS rule options
+ * clear the cache.
+ */
+class VisibilityCache {
+
+    /**
+     * A hex may affect the line of sight between two positions if it lies
+     * within this many hexes of a shortest path between them. One hex is
+     * needed for divided lines; the other allows for checks of the hexes
+     * adjacent to the line, such as dead zones.
+     */
+    private static final int LINE_MARGIN = 2;
+
+    /** The extra margin for a position standing in for a multi-hex unit */
+    private static final int LARGE_UNIT_MARGIN = 2;
+
+    /**
+     * The parts of an entity's state that line of sight depends on, as seen at
+     * the last refresh.
+     */
+    private static class EntityState {
+        private final Set<Coords> occupied = new HashSet<>();
+        private final int height;
+        private final int relHeight;
+        private final int altitude;
+        private final boolean airborne;
+        private final boolean offBoard;
+
+        EntityState(Entity entity) {
+            if (entity.getPosition() != null) {
+                occupied.add(entity.getPosition());
+            }
+            occupied.addAll(entity.getSecondaryPositions().values());
+            height = entity.getHeight();
+            relHeight = entity.relHeight();
+            altitude = entity.getAltitude();
+            airborne = entity.isAirborne();
+            offBoard = entity.isOffBoard();
+        }
+
+        boolean isLarge() {
+            return occupied.size() > 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EntityState)) {
+                return false;
+            }
+            EntityState other = (EntityState) o;
+            return (height == other.height) && (relHeight == other.relHeight)
+                    && (altitude == other.altitude) && (airborne == other.airborne)
+                    && (offBoard == other.offBoard) && occupied.equals(other.occupied);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(occupied, height, relHeight, altitude, airborne, offBoard);
+        }
+    }
+
+    /** A cached line of sight and the positions it was computed for */
+    private static class CachedLos {
+        private final LosEffects los;
+        private final Coords spotterPos;
+        private final Coords targetPos;
+        private final int margin;
+
+        CachedLos(LosEffects los, Entity spotter, Entity target) {
+            this.los = los;
+            spotterPos = spotter.getPosition();
+            targetPos = target.getPosition();
+            margin = LINE_MARGIN
+                    + (spotter.getSecondaryPositions().isEmpty() ? 0 : LARGE_UNIT_MARGIN)
+                    + (target.getSecondaryPositions().isEmpty() ? 0 : LARGE_UNIT_MARGIN);
+        }
+
+        /** Returns true when a change at the given hex may affect this LOS */
+        boolean isAffectedBy(Coords hex) {
+            if ((spotterPos == null) || (targetPos == null)) {
+                return false;
+            }
+            return spotterPos.distance(hex) + hex.distance(targetPos)
+                    <= spotterPos.distance(targetPos) + margin;
+        }
+    }
+
+    private final IGame game;
+
+    /** Cached LOS keyed by spotter and target id, see {@link #key(int, int)} */
+    private final Map<Long, CachedLos> losCache = new HashMap<>();
+
+    /** Entity states at the last refresh, by entity id */
+    private final Map<Integer, EntityState> entityStates = new HashMap<>();
+
+    /** Hexes changed since the last refresh */
+    private final Set<Coords> changedHexes = new HashSet<>();
+
+    /** The board the cached results belong to */
+    private IBoard board;
+
+    /** The LOS rule options the cached results were computed with */
+    private String optionsKey;
+
+    private final BoardListenerAdapter boardListener = new BoardListenerAdapter() {
+        @Override
+        public void boardNewBoard(BoardEvent b) {
+            clear();
+        }
+
+        @Override
+        public void boardChangedHex(BoardEvent b) {
+            hexChanged(b.getCoords());
+        }
+
+        @Override
+        public void boardChangedAllHexes(BoardEvent b) {
+            clear();
+        }
+    };
+
+    VisibilityCache(IGame game) {
+        this.game = game;
+    }
+
+    /**
+     * Returns the line of sight from the spotter to the target, computing it
+     * only if no valid cached result exists. {@link #refresh()} must have been
+     * called after the last changes to the game.
+     */
+    synchronized LosEffects getLos(Entity spotter, Entity target) {
+        long key = key(spotter.getId(), target.getId());
+        CachedLos cached = losCache.get(key);
+        if (cached == null) {
+            cached = new CachedLos(LosEffects.calculateLos(game, spotter.getId(), target),
+                    spotter, target);
+            losCache.put(key, cached);
+        }
+        return cached.los;
+    }
+
+    /**
+     * Marks a hex as changed, e.g. after its terrain was modified without a
+     * board event.
+     */
+    synchronized void hexChanged(Coords coords) {
+        if (coords != null) {
+            changedHexes.add(coords);
+        }
+    }
+
+    /**
+     * Stops listening to the board and drops all cached results. Must be
+     * called when the cache is no longer used, as the board would otherwise
+     * keep it alive.
+     */
+    synchronized void die() {
+        if (board != null) {
+            board.removeBoardListener(boardListener);
+            board = null;
+        }
+        clear();
+    }
+
+    /** Drops all cached results. */
+    synchronized void clear() {
+        losCache.clear();
+        entityStates.clear();
+        changedHexes.clear();
+    }
+
+    /**
+     * Brings the cache up to date with the game: drops the results for all
+     * pairs that involve a changed entity or that pass near a changed hex or
+     * a hex that a changed entity left or entered.
+     */
+    synchronized void refresh() {
+        if (board != game.getBoard()) {
+            if (board != null) {
+                board.removeBoardListener(boardListener);
+            }
+            board = game.getBoard();
+            board.addBoardListener(boardListener);
+            clear();
+        }
+        String newOptionsKey = game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_LOS1)
+                + ":" + game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_PARTIAL_COVER)
+                + ":" + game.getOptions().booleanOption(OptionsConstants.ADVCOMBAT_TACOPS_DEAD_ZONES);
+        if (!newOptionsKey.equals(optionsKey)) {
+            optionsKey = newOptionsKey;
+            clear();
+        }
+
+        Set<Integer> changedEntities = new HashSet<>();
+        Set<Coords> dirtyHexes = new HashSet<>(changedHexes);
+        changedHexes.clear();
+        Set<Integer> seen = new HashSet<>();
+        for (Entity entity : game.getEntitiesVector()) {
+            seen.add(entity.getId());
+            EntityState state = new EntityState(entity);
+            EntityState previous = entityStates.put(entity.getId(), state);
+            if (!state.equals(previous)) {
+                changedEntities.add(entity.getId());
+                dirtyHexes.addAll(state.occupied);
+                if (previous != null) {
+                    dirtyHexes.addAll(previous.occupied);
+                }
+            }
+        }
+        for (Iterator<Map.Entry<Integer, EntityState>> it = entityStates.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, EntityState> entry = it.next();
+            if (!seen.contains(entry.getKey())) {
+                changedEntities.add(entry.getKey());
+                dirtyHexes.addAll(entry.getValue().occupied);
+                it.remove();
+            }
+        }
+        if (changedEntities.isEmpty() && dirtyHexes.isEmpty()) {
+            return;
+        }
+
+        List<Long> stale = new ArrayList<>();
+        for (Map.Entry<Long, CachedLos> entry : losCache.entrySet()) {
+            long key = entry.getKey();
+            if (changedEntities.contains(spotterId(key)) || changedEntities.contains(targetId(key))
+                    || isAffected(entry.getValue(), dirtyHexes)) {
+                stale.add(key);
+            }
+        }
+        for (Long key : stale) {
+            losCache.remove(key);
+        }
+    }
+
+    private static boolean isAffected(CachedLos cached, Collection<Coords> hexes) {
+        for (Coords hex : hexes) {
+            if (cached.isAffectedBy(hex)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long key(int spotterId, int targetId) {
+        return ((long) spotterId << 32) | (targetId & 0xFFFFFFFFL);
+    }
+
+    private static int spotterId(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int targetId(long key) {
+        return (int) key;
+    }
+}
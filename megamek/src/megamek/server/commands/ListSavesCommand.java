@@ -22,6 +22,7 @@ package megamek.server.commands;
 
 import java.io.File;
 
+import megamek.server.GameSnapshot;
 import megamek.server.Server;
 
 /**
@@ -51,7 +52,8 @@ public class ListSavesCommand extends ServerCommand {
             if (saveGames[i].isFile()) {
                 File save = saveGames[i];
                 if (save.getName().endsWith(".sav")
-                        || save.getName().endsWith(".sav.gz")) {
+                        || save.getName().endsWith(".sav.gz")
+                        || save.getName().endsWith(GameSnapshot.BINARY_EXTENSION)) {
                     server.sendServerChat("  " + save.getName());
                     listedAFile = true;
                 }
@@ -27,6 +27,7 @@ import java.util.Map;
 
 import megamek.common.IPlayer;
 import megamek.common.net.IConnection;
+import megamek.server.GameSnapshot;
 import megamek.server.Server;
 
 /**
@@ -56,10 +57,11 @@ public class LoadGameCommand extends ServerCommand {
         if (args.length > 1) {
             String sFinalFile = args[1];
             if (!sFinalFile.endsWith(".sav") 
-                    && !sFinalFile.endsWith(".sav.gz")) {
+                    && !sFinalFile.endsWith(".sav.gz")
+                    && !sFinalFile.endsWith(GameSnapshot.BINARY_EXTENSION)) {
                 sFinalFile = sFinalFile + ".sav";
             }
-            if (!sFinalFile.endsWith(".gz")) {
+            if (sFinalFile.endsWith(".sav")) {
                 sFinalFile = sFinalFile + ".gz";
             }
             load(new File("savegames", sFinalFile), connId);
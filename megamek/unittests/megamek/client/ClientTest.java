@@ -0,0 +1,49 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.client;
+
+import static org.junit.Assert.*;
+
+import java.util.Vector;
+
+import org.junit.Test;
+
+import megamek.common.Report;
+import megamek.common.net.Packet;
+
+public class ClientTest {
+
+    private static Vector<Report> reports() {
+        Vector<Report> reports = new Vector<>();
+        Report initiative = new Report(1000);
+        initiative.add(3);
+        reports.add(initiative);
+        reports.add(new Report(7005));
+        return reports;
+    }
+
+    @Test
+    public void testPreparedReportsMatch() {
+        Client client = new Client("test", "localhost", 0);
+        Vector<Report> prepared = reports();
+        client.preparePacket(new Packet(Packet.COMMAND_SENDING_REPORTS, prepared));
+
+        String expected = client.receiveReport(reports());
+        assertEquals(expected, client.receiveReport(prepared));
+        assertTrue(expected.contains("Round #3"));
+        // Formatting the same reports again gives the same text
+        assertEquals(expected, client.receiveReport(prepared));
+    }
+}
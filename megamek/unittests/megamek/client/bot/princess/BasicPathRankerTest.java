@@ -59,6 +59,7 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.TreeMap;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author Deric "Netzilla" Page (deric dot page at usa dot net)
@@ -1000,6 +1001,64 @@ public class BasicPathRankerTest {
                .findClosestEnemy(Mockito.eq(mockMover), Mockito.nullable(Coords.class), Mockito.any(IGame.class));
     }
 
+    @Test
+    public void testRankPathsSerialAndParallel() {
+        final BasicPathRanker testRanker = Mockito.spy(new BasicPathRanker(mockPrincess));
+        Mockito.doReturn(1.0)
+               .when(testRanker)
+               .getMovePathSuccessProbability(Mockito.any(MovePath.class), Mockito.any(StringBuilder.class));
+        Mockito.doReturn(null)
+               .when(testRanker)
+               .findClosestEnemy(Mockito.any(Entity.class), Mockito.nullable(Coords.class), Mockito.any(IGame.class));
+
+        final Entity mockMover = Mockito.mock(BipedMech.class);
+        final List<MovePath> testPaths = new ArrayList<>();
+        final Map<MovePath, Double> testRanks = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            final MovePath mockPath = Mockito.mock(MovePath.class);
+            Mockito.when(mockPath.getEntity()).thenReturn(mockMover);
+            Mockito.when(mockPath.isMoveLegal()).thenReturn(true);
+            Mockito.when(mockPath.getSteps()).thenReturn(new Vector<MoveStep>().elements());
+            testPaths.add(mockPath);
+            testRanks.put(mockPath, (double) ((i * 37) % 101));
+        }
+        // Each ranking takes a different time, so the parallel rankings finish out of order.
+        Mockito.doAnswer(invocation -> {
+            final MovePath path = invocation.getArgument(0);
+            Thread.sleep(testPaths.indexOf(path) % 3);
+            final RankedPath rankedPath = new RankedPath(testRanks.get(path), path, "test");
+            rankedPath.setExpectedDamage(1.0);
+            return rankedPath;
+        }).when(testRanker).rankPath(Mockito.any(MovePath.class), Mockito.any(IGame.class), Mockito.anyInt(),
+                Mockito.anyDouble(), Mockito.anyInt(), Mockito.anyList(), Mockito.nullable(Coords.class));
+
+        final IGame mockGame = Mockito.mock(IGame.class);
+
+        Mockito.when(mockPrincess.acquirePathCalculationPool()).thenReturn(null);
+        final List<RankedPath> serialPaths = testRanker.rankPaths(testPaths, mockGame, 21, 0.5, 20,
+                new ArrayList<>(), new ArrayList<>());
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Mockito.when(mockPrincess.acquirePathCalculationPool()).thenReturn(pool);
+            final List<RankedPath> parallelPaths = testRanker.rankPaths(testPaths, mockGame, 21, 0.5, 20,
+                    new ArrayList<>(), new ArrayList<>());
+
+            Assert.assertEquals(testPaths.size(), serialPaths.size());
+            Assert.assertEquals(serialPaths.size(), parallelPaths.size());
+            for (int i = 0; i < serialPaths.size(); i++) {
+                Assert.assertSame(testPaths.get(i), serialPaths.get(i).getPath());
+                Assert.assertSame(serialPaths.get(i).getPath(), parallelPaths.get(i).getPath());
+                Assert.assertEquals(serialPaths.get(i).getRank(), parallelPaths.get(i).getRank(), TOLERANCE);
+            }
+            Assert.assertSame(testRanker.getBestPath(serialPaths).getPath(),
+                    testRanker.getBestPath(parallelPaths).getPath());
+            Mockito.verify(mockPrincess).releasePathCalculationPool(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     public void testFindClosestEnemy() {
         final List<Entity> enemyList = new ArrayList<>(3);
@@ -480,4 +480,33 @@ public class BehaviorSettingsTest {
         Assert.assertEquals(expectedTargets, behaviorSettings.getStrategicBuildingTargets());
         Assert.assertEquals(expectedUnits, behaviorSettings.getPriorityUnitTargets());
     }
+
+    @Test
+    public void testPathCalculationThreads() throws PrincessException {
+        BehaviorSettings behaviorSettings = new BehaviorSettings();
+        behaviorSettings.setLogger(new FakeLogger());
+
+        // The default calculates paths on the bot's own thread.
+        Assert.assertEquals(1, behaviorSettings.getPathCalculationThreads());
+        Assert.assertEquals(1, behaviorSettings.getEffectivePathCalculationThreads());
+
+        behaviorSettings.setPathCalculationThreads(0);
+        Assert.assertEquals(Runtime.getRuntime().availableProcessors(),
+                behaviorSettings.getEffectivePathCalculationThreads());
+
+        behaviorSettings.setPathCalculationThreads("3");
+        Assert.assertEquals(3, behaviorSettings.getEffectivePathCalculationThreads());
+        Assert.assertEquals(behaviorSettings, behaviorSettings.getCopy());
+
+        // Negative counts fall back to the default.
+        behaviorSettings.setPathCalculationThreads(-2);
+        Assert.assertEquals(1, behaviorSettings.getPathCalculationThreads());
+
+        try {
+            behaviorSettings.setPathCalculationThreads("many");
+            Assert.fail("Should have thrown an error!");
+        } catch (PrincessException e) {
+            Assert.assertTrue(true);
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.client.ui.swing.boardview;
+
+import static org.junit.Assert.*;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import megamek.common.Coords;
+
+public class BoardTileCacheTest {
+
+    private static BufferedImage tile() {
+        return new BufferedImage(BoardTileCache.TILE_SIZE, BoardTileCache.TILE_SIZE,
+                BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Test
+    public void testHexArea() {
+        // odd columns are half a hex lower
+        assertEquals(new Rectangle(189, 324, 84, 72), BoardTileCache.getHexArea(new Coords(3, 4), 1f));
+        assertEquals(new Rectangle(126, 288, 84, 72), BoardTileCache.getHexArea(new Coords(2, 4), 1f));
+        assertEquals(new Rectangle(93, 162, 42, 36), BoardTileCache.getHexArea(new Coords(3, 4), 0.5f));
+    }
+
+    @Test
+    public void testInvalidatesOnlyOverlappedTiles() {
+        BoardTileCache cache = new BoardTileCache();
+        for (int x = 0; x < 3; x++) {
+            for (int y = 0; y < 3; y++) {
+                cache.put(7, 1f, x, y, tile());
+                cache.put(2, 0.5f, x, y, tile());
+            }
+        }
+
+        // at full size the hex spans two tiles, at half size it lies in one
+        cache.invalidate(Collections.singleton(new Coords(3, 4)));
+        for (int x = 0; x < 3; x++) {
+            for (int y = 0; y < 3; y++) {
+                boolean overlapped = (y == 1) && (x <= 1);
+                assertEquals(x + "," + y, overlapped, cache.get(7, x, y) == null);
+                assertEquals(x + "," + y, (x == 0) && (y == 0), cache.get(2, x, y) == null);
+            }
+        }
+
+        cache.clear();
+        assertNull(cache.get(7, 2, 2));
+        assertNull(cache.get(2, 2, 2));
+    }
+}
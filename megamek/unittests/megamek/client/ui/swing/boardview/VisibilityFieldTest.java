@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.client.ui.swing.boardview;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Game;
+import megamek.common.Hex;
+import megamek.common.IBoard;
+import megamek.common.IGame;
+import megamek.common.IHex;
+import megamek.common.LosEffects;
+
+public class VisibilityFieldTest {
+
+    private static IGame createGame() {
+        IGame game = new Game();
+        IHex[] hexes = new IHex[16 * 17];
+        for (int i = 0; i < hexes.length; i++) {
+            // a ridge of level 3 hexes across the middle of the board
+            hexes[i] = new Hex((i / 16) == 8 ? 3 : 0);
+        }
+        IBoard board = new Board(16, 17, hexes);
+        game.setBoard(board);
+        return game;
+    }
+
+    @Test
+    public void testMatchesLosEffects() {
+        IGame game = createGame();
+        Coords viewer = new Coords(7, 3);
+        VisibilityField field = new VisibilityField(game,
+                new VisibilityField.Key(game.getBoard(), viewer, 1, 2, 1, 0, 0));
+
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 17; y++) {
+                Coords dest = new Coords(x, y);
+                LosEffects.AttackInfo ai = new LosEffects.AttackInfo();
+                ai.attackPos = viewer;
+                ai.targetPos = dest;
+                ai.attackHeight = 1;
+                ai.attackAbsHeight = 2;
+                ai.targetHeight = 1;
+                ai.targetAbsHeight = game.getBoard().getHex(dest).surface() + 1;
+                LosEffects expected = LosEffects.calculateLos(game, ai);
+                assertEquals(dest.toString(), expected.canSee(), field.getLosEffects(dest).canSee());
+            }
+        }
+        // the ridge hides the far side of the board
+        assertFalse(field.getLosEffects(new Coords(7, 14)).canSee());
+        assertTrue(field.getLosEffects(new Coords(7, 6)).canSee());
+        // looked up again, not recalculated
+        assertSame(field.getLosEffects(new Coords(3, 12)), field.getLosEffects(new Coords(3, 12)));
+        assertNull(field.getLosEffects(new Coords(16, 2)));
+    }
+
+    @Test
+    public void testKey() {
+        IBoard board = new Board(16, 17);
+        VisibilityField.Key key = new VisibilityField.Key(board, new Coords(2, 2), 1, 2, 1, 0, 0);
+        assertEquals(key, new VisibilityField.Key(board, new Coords(2, 2), 1, 2, 1, 0, 0));
+        assertEquals(key.hashCode(), new VisibilityField.Key(board, new Coords(2, 2), 1, 2, 1, 0, 0).hashCode());
+        assertFalse(key.equals(new VisibilityField.Key(board, new Coords(2, 2), 1, 3, 1, 0, 0)));
+        assertFalse(key.equals(new VisibilityField.Key(board, new Coords(2, 2), 1, 2, 1, 1, 0)));
+        assertFalse(key.equals(new VisibilityField.Key(new Board(16, 17), new Coords(2, 2), 1, 2, 1, 0, 0)));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.client.ui.swing.util;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+public class ImageCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsedByEntries() {
+        ImageCache<Integer, String> cache = new ImageCache<>(10, Long.MAX_VALUE, false, v -> 0);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "v" + i);
+        }
+        // Use the first entry, so that the second is the least recently used
+        assertEquals("v0", cache.get(0));
+        cache.put(10, "v10");
+        assertTrue(cache.size() <= 10);
+        assertEquals("v0", cache.get(0));
+        assertNull(cache.get(1));
+        assertEquals("v10", cache.get(10));
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    @Test
+    public void testEvictsByEstimatedBytes() {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        long imageBytes = ImageCache.estimateBytes(image);
+        assertEquals(40000, imageBytes);
+        ImageCache<Integer, BufferedImage> cache = new ImageCache<>(1000, 5 * imageBytes, false,
+                ImageCache::estimateBytes);
+        for (int i = 0; i < 20; i++) {
+            cache.put(i, image);
+        }
+        assertTrue(cache.getSizeInBytes() <= 5 * imageBytes);
+        assertTrue(cache.size() < 5);
+        assertNotNull(cache.get(19));
+        assertNull(cache.get(0));
+    }
+
+    @Test
+    public void testCountersAndRemoval() {
+        ImageCache<String, String> cache = new ImageCache<>(100, 1000, true, v -> 10);
+        cache.put("a", "A");
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNull(cache.get(null));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertNull(cache.put(null, "X"));
+
+        cache.remove("a");
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getSizeInBytes());
+        cache.put("c", "C");
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getSizeInBytes());
+    }
+
+    @Test
+    public void testConcurrentUseKeepsTheSizeConsistent() throws InterruptedException {
+        ImageCache<Integer, String> cache = new ImageCache<>(50, 400, false, v -> 3);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    int key = (i * 7 + offset) % 200;
+                    if (cache.get(key) == null) {
+                        cache.put(key, "v" + key);
+                    }
+                    if (i % 97 == 0) {
+                        cache.remove(key + 1);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(cache.size() <= 50);
+        assertEquals(cache.size() * (3 + 64), cache.getSizeInBytes());
+        assertTrue(cache.getHits() > 0);
+        assertTrue(cache.getEvictions() > 0);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+public class BoardFileTest {
+
+    private static final String BOARD = "size 2 1\r\n"
+            + "option exit_roads_to_pavement false\r\n"
+            + "hex 0101 1 \"woods:1;road:1:9\" \"snow\"\r\n"
+            + "hex 0201 -2 \"woods:1;road:1:9\" \"\" # a comment\r\n"
+            + "description \"A \\\"quoted\\\" description\"\r\n"
+            + "note 0201 \"a note\"\r\n"
+            + "end\r\n"
+            + "hex 0301 5 \"\" \"\"\r\n";
+
+    @Test
+    public void testParse() {
+        BoardFile board = BoardFile.parse(BOARD);
+        assertEquals(2, board.width);
+        assertEquals(1, board.height);
+        assertEquals(0, board.roadsAutoExit);
+        assertEquals(2, board.hexCount);
+        assertEquals(1, board.levels[0]);
+        assertEquals(-2, board.levels[1]);
+        // Both hexes share the terrain string
+        assertEquals(board.terrains[0], board.terrains[1]);
+        assertEquals("woods:1;road:1:9", board.strings.get(board.terrains[0]));
+        assertEquals("snow", board.strings.get(board.themes[0]));
+        assertEquals("", board.strings.get(board.themes[1]));
+        assertEquals("A \"quoted\" description", board.descriptions.get(0));
+        assertEquals(2, board.notes.get(0).x);
+        assertEquals(1, board.notes.get(0).y);
+        assertEquals("a note", board.notes.get(0).text);
+    }
+
+    @Test
+    public void testCacheRoundTrip() throws IOException {
+        BoardFile board = BoardFile.parse(BOARD);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            board.write(out);
+        }
+        BoardFile read = BoardFile.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(board.width, read.width);
+        assertEquals(board.roadsAutoExit, read.roadsAutoExit);
+        assertEquals(board.strings, read.strings);
+        assertEquals(board.hexCount, read.hexCount);
+        for (int i = 0; i < board.hexCount; i++) {
+            assertEquals(board.levels[i], read.levels[i]);
+            assertEquals(board.terrains[i], read.terrains[i]);
+            assertEquals(board.themes[i], read.themes[i]);
+        }
+        assertEquals(board.descriptions, read.descriptions);
+        assertEquals(board.notes.get(0).text, read.notes.get(0).text);
+    }
+
+    @Test
+    public void testLoadedHexesDoNotShareTerrains() {
+        Board board = new Board();
+        board.load(new ByteArrayInputStream(BOARD.getBytes(StandardCharsets.UTF_8)), null, false);
+        assertEquals(2, board.getWidth());
+        assertFalse(board.getRoadsAutoExit());
+        IHex first = board.getHex(0, 0);
+        IHex second = board.getHex(1, 0);
+        assertEquals("snow", first.getTheme());
+        assertNull(second.getTheme());
+        assertEquals(-2, second.getLevel());
+        assertTrue(second.containsTerrain(Terrains.WOODS));
+        assertNotSame(first.getTerrain(Terrains.ROAD), second.getTerrain(Terrains.ROAD));
+        assertEquals("A \"quoted\" description", board.getDescription());
+        assertEquals(1, board.getAnnotations(new Coords(2, 1)).size());
+    }
+
+    @Test
+    public void testPruneDeletesLeastRecentlyUsed() throws IOException {
+        File dir = Files.createTempDirectory("boardcache").toFile();
+        try {
+            long now = System.currentTimeMillis();
+            File[] files = new File[4];
+            for (int i = 0; i < files.length; i++) {
+                files[i] = new File(dir, i + ".cache");
+                Files.write(files[i].toPath(), new byte[100]);
+                files[i].setLastModified(now - ((files.length - i) * 60000L));
+            }
+            // The oldest file is the most recently used one
+            files[0].setLastModified(now);
+
+            BoardFileCache.prune(dir, 1000);
+            assertEquals(4, dir.listFiles().length);
+
+            // 400 bytes down to no more than three quarters of 300
+            BoardFileCache.prune(dir, 300);
+            assertTrue(files[0].exists());
+            assertFalse(files[1].exists());
+            assertFalse(files[2].exists());
+            assertTrue(files[3].exists());
+        } finally {
+            for (File file : dir.listFiles()) {
+                file.delete();
+            }
+            dir.delete();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Test;
+
+import megamek.common.loaders.EntityLoadingException;
+
+public class ECMFieldTest {
+
+    private static Entity load(String file, IGame game, IPlayer owner, int id, Coords pos)
+            throws EntityLoadingException {
+        Entity entity = new MechFileParser(new File("data/mechfiles/mechs", file)).getEntity();
+        entity.setId(id);
+        entity.setGame(game);
+        entity.setOwner(owner);
+        entity.setPosition(pos);
+        entity.setDeployed(true);
+        game.addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * Checks the effects along lines from the unit against the computation
+     * from the list of all fields.
+     */
+    private static void assertSameEffects(ECMField field, Entity ae) {
+        List<ECMInfo> allEcmInfo = ComputeECM.computeAllEntitiesECMInfo(ae.getGame().getEntitiesVector());
+        assertEquals(allEcmInfo, field);
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 17; y++) {
+                Coords target = new Coords(x, y);
+                assertEquals(target.toString(),
+                        ComputeECM.getECMEffects(ae, ae.getPosition(), target, true, allEcmInfo),
+                        ComputeECM.getECMEffects(ae, ae.getPosition(), target, true, field));
+                assertEquals(ComputeECM.getECMEffects(ae, ae.getPosition(), target, false, allEcmInfo),
+                        ComputeECM.getECMEffects(ae, ae.getPosition(), target, false, field));
+            }
+        }
+    }
+
+    @Test
+    public void testFieldFollowsEmitters() throws EntityLoadingException {
+        IGame game = new Game();
+        game.setBoard(new Board(16, 17));
+        IPlayer blue = new Player(0, "blue");
+        blue.setTeam(1);
+        IPlayer red = new Player(1, "red");
+        red.setTeam(2);
+        game.addPlayer(0, blue);
+        game.addPlayer(1, red);
+
+        Entity archer = load("3039u/Archer ARC-2R.mtf", game, blue, 1, new Coords(2, 2));
+        Entity raven = load("3050U/Raven RVN-3L.mtf", game, red, 2, new Coords(8, 8));
+        ECMField field = new ECMField(game);
+        assertEquals(1, field.size());
+        assertTrue(ComputeECM.isAffectedByECM(archer, archer.getPosition(), new Coords(8, 12), field));
+        assertFalse(ComputeECM.isAffectedByECM(archer, archer.getPosition(), new Coords(1, 0), field));
+        assertSameEffects(field, archer);
+
+        // The field moves with the unit
+        raven.setPosition(new Coords(13, 14));
+        field.update();
+        assertFalse(ComputeECM.isAffectedByECM(archer, archer.getPosition(), new Coords(8, 8), field));
+        assertSameEffects(field, archer);
+
+        // A second field and one that is gone
+        load("3050U/Raven RVN-3L.mtf", game, red, 3, new Coords(4, 4));
+        field.update();
+        assertEquals(2, field.size());
+        assertSameEffects(field, archer);
+        for (Mounted m : raven.getMisc()) {
+            if (m.getType().hasFlag(MiscType.F_ECM)) {
+                m.setDestroyed(true);
+            }
+        }
+        field.update();
+        assertEquals(1, field.size());
+        assertSameEffects(field, archer);
+
+        game.removeEntity(3, IEntityRemovalConditions.REMOVE_SALVAGEABLE);
+        field.update();
+        assertTrue(field.isEmpty());
+        assertNull(ComputeECM.getECMEffects(archer, archer.getPosition(), new Coords(4, 4), true, field));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Golden result tests of the cached hex lines against the direct computation.
+ */
+public class HexLineTableTest {
+
+    private static final File BOARD_DIR = new File("data/boards");
+
+    /** Hex pairs checked per shipped board */
+    private static final int PAIRS_PER_BOARD = 25;
+
+    @After
+    public void tearDown() {
+        HexLineTable.enabled = true;
+    }
+
+    @Test
+    public void testLinesMatchDirectComputation() {
+        for (int parity = 0; parity < 2; parity++) {
+            Coords src = new Coords(10 + parity, 10);
+            for (int dx = -HexLineTable.MAX_OFFSET; dx <= HexLineTable.MAX_OFFSET; dx += 3) {
+                for (int dy = -HexLineTable.MAX_OFFSET; dy <= HexLineTable.MAX_OFFSET; dy += 3) {
+                    Coords dest = new Coords(src.getX() + dx, src.getY() + dy);
+                    assertEquals(Coords.computeIntervening(src, dest, false),
+                            Coords.intervening(src, dest, false));
+                    assertEquals(Coords.computeIntervening(src, dest, true),
+                            Coords.intervening(src, dest, true));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testHexLineMatchesIntervening() {
+        HexLine line = new HexLine();
+        Coords src = new Coords(11, 10);
+        // short, long, divided and uncached lines, filled into the same buffer
+        Coords[] dests = { src, new Coords(12, 14), new Coords(40, 3), src.translated(1, 4).translated(2, 4),
+                new Coords(11 + HexLineTable.MAX_OFFSET + 5, 90) };
+        for (Coords dest : dests) {
+            for (boolean split : new boolean[] { false, true }) {
+                List<Coords> expected = Coords.intervening(src, dest, split);
+                line.fill(src, dest, split);
+                assertEquals(expected.size(), line.size());
+                for (int i = 0; i < line.size(); i++) {
+                    assertEquals(expected.get(i), new Coords(line.getX(i), line.getY(i)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDividedLinesMatchDirectComputation() {
+        // Lines along the hex vertices, which are split between two hexes
+        Coords src = new Coords(7, 9);
+        for (int dir = 0; dir < 6; dir++) {
+            Coords dest = src.translated(dir, 4).translated((dir + 1) % 6, 4);
+            assertEquals(Coords.computeIntervening(src, dest, false),
+                    Coords.intervening(src, dest, false));
+            assertEquals(Coords.computeIntervening(src, dest, true),
+                    Coords.intervening(src, dest, true));
+        }
+    }
+
+    @Test
+    public void testLosOnShippedBoards() throws IOException {
+        List<File> boardFiles;
+        try (Stream<java.nio.file.Path> paths = Files.walk(BOARD_DIR.toPath())) {
+            boardFiles = paths.map(java.nio.file.Path::toFile)
+                    .filter(f -> f.getName().endsWith(".board"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        assertFalse(boardFiles.isEmpty());
+
+        Random random = new Random(4711);
+        for (File file : boardFiles) {
+            IBoard board = new Board();
+            board.load(file);
+            if ((board.getWidth() < 2) || (board.getHeight() < 2)) {
+                continue;
+            }
+            IGame game = new Game();
+            game.setBoard(board);
+            for (int i = 0; i < PAIRS_PER_BOARD; i++) {
+                Coords attackPos = new Coords(random.nextInt(board.getWidth()),
+                        random.nextInt(board.getHeight()));
+                Coords targetPos = new Coords(random.nextInt(board.getWidth()),
+                        random.nextInt(board.getHeight()));
+                int height = random.nextInt(2);
+
+                HexLineTable.enabled = false;
+                String expected = describe(game, attackPos, targetPos, height);
+                HexLineTable.enabled = true;
+                String actual = describe(game, attackPos, targetPos, height);
+                assertEquals(file + " " + attackPos + " -> " + targetPos, expected, actual);
+            }
+        }
+    }
+
+    /**
+     * Returns a summary of all observable results of the LOS between two
+     * units of the given height standing in the given hexes.
+     */
+    private static String describe(IGame game, Coords attackPos, Coords targetPos, int height) {
+        LosEffects.AttackInfo ai = new LosEffects.AttackInfo();
+        ai.attackPos = attackPos;
+        ai.targetPos = targetPos;
+        ai.targetEntity = false;
+        ai.attackHeight = height;
+        ai.targetHeight = height;
+        ai.attackAbsHeight = game.getBoard().getHex(attackPos).surface() + height;
+        ai.targetAbsHeight = game.getBoard().getHex(targetPos).surface() + height;
+        ai.attOnLand = true;
+        ai.targetOnLand = true;
+        LosEffects los = LosEffects.calculateLos(game, ai);
+        ToHitData mods = los.losModifiers(game);
+        return los.isBlocked() + " " + los.canSee() + " " + los.getTargetCover() + " "
+                + los.getAttackerCover() + " " + los.getLightWoods() + " " + los.getHeavyWoods() + " "
+                + los.getUltraWoods() + " " + los.getLightSmoke() + " " + los.getHeavySmoke() + " "
+                + los.getSoftBuildings() + " " + los.getHardBuildings() + " " + mods.getValue() + " "
+                + mods.getDesc();
+    }
+}
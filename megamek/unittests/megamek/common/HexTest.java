@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+public class HexTest {
+
+    @Test
+    public void testAddAndRemoveTerrains() {
+        IHex hex = new Hex(2, "woods:2;foliage_elev:2;water:1;road:1:9", "");
+        assertArrayEquals(new int[] { Terrains.WOODS, Terrains.WATER, Terrains.ROAD,
+                Terrains.FOLIAGE_ELEV }, hex.getTerrainTypes());
+        assertEquals(4, hex.terrainsPresent());
+        assertTrue(hex.containsTerrain(Terrains.WOODS, 2));
+        assertFalse(hex.containsTerrain(Terrains.WOODS, 1));
+        assertEquals(1, hex.terrainLevel(Terrains.WATER));
+        assertEquals(ITerrain.LEVEL_NONE, hex.terrainLevel(Terrains.ROUGH));
+        assertEquals(9, hex.getTerrain(Terrains.ROAD).getExits());
+        assertEquals(1, hex.floor());
+        assertEquals(4, hex.ceiling());
+
+        hex.addTerrain(new Terrain(Terrains.WOODS, 1));
+        assertEquals(1, hex.terrainLevel(Terrains.WOODS));
+        assertEquals(4, hex.terrainsPresent());
+
+        hex.removeTerrain(Terrains.WATER);
+        assertFalse(hex.containsTerrain(Terrains.WATER));
+        assertNull(hex.getTerrain(Terrains.WATER));
+        assertEquals(1, hex.terrainLevel(Terrains.WOODS));
+        assertEquals(9, hex.getTerrain(Terrains.ROAD).getExits());
+        assertEquals(2, hex.floor());
+
+        hex.removeAllTerrains();
+        assertEquals(0, hex.terrainsPresent());
+        assertFalse(hex.containsTerrain(Terrains.ROAD));
+        assertEquals(2, hex.ceiling());
+    }
+
+    @Test
+    public void testTerrainTypesFitTheMask() {
+        assertTrue(Terrains.SIZE <= Long.SIZE);
+    }
+
+    @Test
+    public void testInvalidTerrainTypes() {
+        IHex hex = new Hex();
+        assertFalse(hex.containsTerrain(-1));
+        assertFalse(hex.containsTerrain(ITerrain.WILDCARD));
+        assertEquals(ITerrain.LEVEL_NONE, hex.terrainLevel(ITerrain.WILDCARD));
+    }
+
+    @Test
+    public void testTerrainExitsAreShared() {
+        IHex hex = new Hex(0, "pavement:1", "");
+        hex.getTerrain(Terrains.PAVEMENT).setExit(2, true);
+        assertTrue(hex.containsTerrainExit(Terrains.PAVEMENT, 2));
+        assertTrue(hex.containsExit(2));
+        assertFalse(hex.containsExit(3));
+    }
+
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        IHex hex = new Hex(1, "building:2;bldg_cf:40;bldg_elev:3", "", new Coords(3, 4));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(hex);
+        }
+        IHex copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (IHex) in.readObject();
+        }
+        assertArrayEquals(hex.getTerrainTypes(), copy.getTerrainTypes());
+        assertEquals(40, copy.terrainLevel(Terrains.BLDG_CF));
+        assertEquals(4, copy.ceiling());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Vector;
+
+import org.junit.Test;
+
+public class MechSearchIndexTest {
+
+    private static MechSummary unit(String name, int year, int walk, int jump, String... equipment) {
+        MechSummary ms = new MechSummary();
+        ms.setName(name);
+        ms.setYear(year);
+        ms.setWalkMp(walk);
+        ms.setJumpMp(jump);
+        Vector<String> names = new Vector<>();
+        Vector<Integer> quantities = new Vector<>();
+        for (int i = 0; i < equipment.length; i += 2) {
+            names.add(equipment[i]);
+            quantities.add(Integer.parseInt(equipment[i + 1]));
+        }
+        ms.setEquipment(names, quantities);
+        return ms;
+    }
+
+    private static final MechSummary[] UNITS = {
+            unit("Atlas AS7-D", 2755, 3, 0, "AC/20", "1", "LRM 20", "1", "Medium Laser", "4"),
+            unit("Locust LCT-1V", 2499, 8, 0, "Medium Laser", "1", "Machine Gun", "2"),
+            unit("Jenner JR7-D", 2784, 7, 5, "Medium Laser", "4", "SRM 4", "1"),
+            unit("Atlas AS7-K", 3050, 3, 3, "Gauss Rifle", "1", "Medium Laser", "2", "Medium Laser", "2")
+    };
+
+    private static void assertMatches(MechSearchIndex index, MechSearchFilter f) {
+        BitSet expected = new BitSet();
+        for (int i = 0; i < UNITS.length; i++) {
+            if (MechSearchFilter.isMatch(UNITS[i], f)) {
+                expected.set(i);
+            }
+        }
+        assertEquals(expected, index.match(f));
+    }
+
+    @Test
+    public void testNameSearch() {
+        MechSearchIndex index = new MechSearchIndex(UNITS);
+        assertEquals(BitSet.valueOf(new long[] { 0b1001 }), index.nameContains("atlas"));
+        assertEquals(BitSet.valueOf(new long[] { 0b0101 }), index.nameContains("-d"));
+        assertEquals(BitSet.valueOf(new long[] { 0b1111 }), index.nameContains(""));
+        assertTrue(index.nameContains("Atlas AS7-X").isEmpty());
+    }
+
+    @Test
+    public void testRanges() {
+        MechSearchIndex index = new MechSearchIndex(UNITS);
+        assertEquals(BitSet.valueOf(new long[] { 0b0101 }),
+                index.range(MechSearchIndex.Attribute.YEAR, 2750, 2800));
+        assertEquals(BitSet.valueOf(new long[] { 0b0110 }),
+                index.range(MechSearchIndex.Attribute.WALK, 4, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testMatchesFilter() {
+        MechSearchIndex index = new MechSearchIndex(UNITS);
+        MechSearchFilter f = new MechSearchFilter();
+        assertMatches(index, f);
+
+        f.isDisabled = false;
+        f.sWalk = "3";
+        f.iWalk = 1;
+        f.sStartYear = "2700";
+        assertMatches(index, f);
+        assertEquals(2, index.match(f).cardinality());
+
+        f.sWalk = "";
+        f.checkEquipment = true;
+        MechSearchFilter.ExpNode lasers = f.new ExpNode("Medium Laser", 3);
+        MechSearchFilter.ExpNode gauss = f.new ExpNode("Gauss Rifle", 1);
+        MechSearchFilter.ExpNode root = f.equipmentCriteria.getRoot();
+        root.operation = MechSearchFilter.BoolOp.OR;
+        root.children.addAll(Arrays.asList(lasers, gauss));
+        assertMatches(index, f);
+        // The AS7-K carries four lasers, but in two entries of two
+        root.operation = MechSearchFilter.BoolOp.AND;
+        assertMatches(index, f);
+        assertTrue(index.match(f).isEmpty());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MechSummaryIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        File cacheFile = folder.newFile("units.cache");
+        File unitFile = new File("data/mechfiles/Atlas AS7-D.mtf");
+        File zipFile = new File("data/mechfiles/units.zip");
+
+        MechSummaryIndex.Source plain = new MechSummaryIndex.Source(unitFile, null, 1234, 5678);
+        MechSummary atlas = new MechSummary();
+        atlas.setName("Atlas AS7-D");
+        atlas.setChassis("Atlas");
+        atlas.setModel("AS7-D");
+        atlas.setUnitType("Mek");
+        atlas.setSourceFile(unitFile);
+        atlas.setTons(100);
+        atlas.setBV(1897);
+        atlas.setCost(9626000);
+        atlas.setCanon(true);
+        atlas.setAltTypes(new int[] { 1, 2, 3 });
+        atlas.setArmorType(new int[] { 0, 0, 1 });
+        atlas.setArmorTypes(new int[] { 0, 0, 1 });
+        atlas.setEquipment(new Vector<>(Arrays.asList("AC/20", "LRM 20")),
+                new Vector<>(Arrays.asList(1, 1)));
+        plain.setSummaries(Collections.singletonList(atlas));
+
+        MechSummaryIndex.Source entry = new MechSummaryIndex.Source(zipFile, "Broken.blk", 10, 20);
+        entry.setFailure("Unable to parse");
+
+        MechSummaryIndex.write(cacheFile, Arrays.asList(plain, entry));
+        Map<String, MechSummaryIndex.Source> sources = MechSummaryIndex.read(cacheFile);
+
+        assertEquals(2, sources.size());
+        MechSummaryIndex.Source readPlain = sources.get(MechSummaryIndex.key(unitFile, null));
+        assertTrue(readPlain.isUnchanged(1234, 5678));
+        assertFalse(readPlain.isUnchanged(1234, 5679));
+        List<MechSummary> summaries = readPlain.getSummaries();
+        assertEquals(1, summaries.size());
+        MechSummary copy = summaries.get(0);
+        assertEquals(atlas, copy);
+        assertEquals("Atlas AS7-D", copy.getName());
+        assertEquals(100, copy.getTons(), 0);
+        assertEquals(1897, copy.getBV());
+        assertEquals(9626000, copy.getCost());
+        assertTrue(copy.isCanon());
+        assertNull(copy.getEntryName());
+        assertArrayEquals(new int[] { 1, 2, 3 }, copy.getAltTypes());
+        assertEquals(atlas.getArmorType(), copy.getArmorType());
+        assertArrayEquals(new int[] { 0, 0, 1 }, copy.getArmorTypes());
+        assertNull(copy.getArmorTechTypes());
+        assertEquals(atlas.getEquipmentNames(), copy.getEquipmentNames());
+        assertEquals(atlas.getEquipmentQuantities(), copy.getEquipmentQuantities());
+
+        MechSummaryIndex.Source readEntry = sources.get(MechSummaryIndex.key(zipFile, "Broken.blk"));
+        assertEquals("Broken.blk", readEntry.getEntryName());
+        assertEquals("Unable to parse", readEntry.getFailure());
+        assertTrue(readEntry.getSummaries().isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        File cacheFile = folder.newFile("units.cache");
+        Files.write(cacheFile.toPath(), new byte[] { (byte) 0xAC, (byte) 0xED, 0, 5, 1, 2 });
+        MechSummaryIndex.read(cacheFile);
+    }
+}
@@ -14,6 +14,7 @@
  */
 package megamek.common;
 
+import java.io.File;
 import java.util.Vector;
 
 import org.junit.Assert;
@@ -22,6 +23,8 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.mockito.Mockito;
 
+import megamek.common.MovePath.MoveStepType;
+
 /**
  * @author Deric "Netzilla" Page (deric dot page at usa dot net)
  * @version $Id$
@@ -57,4 +60,51 @@ public class MovePathTest {
         stepVector.add(null);
         Assert.assertEquals(mockStep4, testPath.getLastStep());
     }
+
+    @Test
+    public void testClonesAreIndependent() throws Exception {
+        IGame game = new Game();
+        IHex[] hexes = new IHex[16 * 17];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        game.setBoard(new Board(16, 17, hexes));
+        game.setPhase(IGame.Phase.PHASE_MOVEMENT);
+        IPlayer player = new Player(0, "player");
+        game.addPlayer(0, player);
+        Entity mech = new MechFileParser(new File("data/mechfiles/mechs/3039u/Archer ARC-2R.mtf")).getEntity();
+        mech.setId(1);
+        mech.setGame(game);
+        mech.setOwner(player);
+        mech.setPosition(new Coords(8, 8));
+        mech.setFacing(0);
+        mech.setDeployed(true);
+        game.addEntity(mech);
+
+        MovePath path = new MovePath(game, mech);
+        path.addStep(MoveStepType.FORWARDS);
+        Assert.assertTrue(path.getCoordsSet().contains(new Coords(8, 7)));
+
+        // The clone shares the steps until one of the paths changes them
+        MovePath clone = path.clone();
+        clone.addStep(MoveStepType.TURN_RIGHT);
+        clone.addStep(MoveStepType.FORWARDS);
+        path.addStep(MoveStepType.BACKWARDS);
+        Assert.assertEquals(2, path.length());
+        Assert.assertEquals(3, clone.length());
+        Assert.assertTrue(path.contains(MoveStepType.BACKWARDS));
+        Assert.assertFalse(clone.contains(MoveStepType.BACKWARDS));
+        Assert.assertTrue(clone.contains(MoveStepType.TURN_RIGHT));
+        Assert.assertFalse(path.contains(MoveStepType.TURN_RIGHT));
+        Assert.assertEquals(new Coords(8, 8), path.getFinalCoords());
+        Assert.assertEquals(new Coords(9, 6), clone.getFinalCoords());
+        Assert.assertTrue(clone.getCoordsSet().contains(new Coords(9, 6)));
+
+        MovePath second = clone.clone();
+        clone.removeLastStep();
+        Assert.assertEquals(2, clone.length());
+        Assert.assertEquals(3, second.length());
+        Assert.assertEquals(new Coords(9, 6), second.getFinalCoords());
+        Assert.assertFalse(clone.getCoordsSet().contains(new Coords(9, 6)));
+    }
 }
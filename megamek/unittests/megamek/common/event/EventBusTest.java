@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common.event;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class EventBusTest {
+
+    static class BaseEvent extends MMEvent {
+    }
+
+    static class CancellableEvent extends BaseEvent {
+        @Override
+        public boolean isCancellable() {
+            return true;
+        }
+    }
+
+    /** Deliberately not public, like most handlers in anonymous classes */
+    private static class Handler {
+        final List<String> calls = new ArrayList<>();
+
+        @Subscribe
+        public void base(BaseEvent e) {
+            calls.add("base");
+        }
+
+        @Subscribe(priority = 5)
+        public void cancellable(CancellableEvent e) {
+            calls.add("cancellable");
+        }
+
+        @Subscribe(priority = 10)
+        public void cancellableFirst(CancellableEvent e) {
+            calls.add("cancellableFirst");
+        }
+    }
+
+    @Test
+    public void testDispatchOrder() {
+        EventBus bus = new EventBus();
+        Handler handler = new Handler();
+        bus.register(handler);
+
+        assertFalse(bus.trigger(new CancellableEvent()));
+        // By priority within the event class, then up the class hierarchy
+        assertEquals(List.of("cancellableFirst", "cancellable", "base"), handler.calls);
+
+        handler.calls.clear();
+        bus.trigger(new BaseEvent());
+        assertEquals(List.of("base"), handler.calls);
+    }
+
+    @Test
+    public void testRegisterAndUnregisterUpdateDispatch() {
+        EventBus bus = new EventBus();
+        Handler first = new Handler();
+        bus.register(first);
+        bus.trigger(new BaseEvent());
+
+        Object canceller = new Object() {
+            @Subscribe(priority = 20)
+            public void cancel(CancellableEvent e) {
+                e.cancel();
+            }
+        };
+        bus.register(canceller);
+        assertTrue(bus.trigger(new CancellableEvent()));
+        // Cancelled before any of the first handler's methods ran
+        assertEquals(List.of("base"), first.calls);
+
+        bus.unregister(canceller);
+        assertFalse(bus.trigger(new CancellableEvent()));
+        assertEquals(List.of("base", "cancellableFirst", "cancellable", "base"), first.calls);
+
+        bus.unregister(first);
+        bus.trigger(new BaseEvent());
+        assertEquals(4, first.calls.size());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common.net;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class NioConnectionTest {
+
+    @Test
+    public void testDecoderReassemblesSplitFrames() throws IOException {
+        ByteBuffer wire = ByteBuffer.allocate(64);
+        FrameDecoder.putHeader(wire, true, 3, 4);
+        wire.put(new byte[] { 1, 2, 3, 4 });
+        FrameDecoder.putHeader(wire, false, 1, 0);
+        FrameDecoder.putHeader(wire, false, 2, 2);
+        wire.put(new byte[] { 5, 6 });
+        wire.flip();
+
+        List<AbstractConnection.INetworkPacket> frames = new ArrayList<>();
+        FrameDecoder decoder = new FrameDecoder();
+        // One byte at a time, so that every field gets split
+        while (wire.hasRemaining()) {
+            ByteBuffer chunk = ByteBuffer.wrap(new byte[] { wire.get() });
+            decoder.decode(chunk, frames::add);
+        }
+
+        assertEquals(3, frames.size());
+        assertTrue(frames.get(0).isCompressed());
+        assertEquals(3, frames.get(0).getMarshallingType());
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, frames.get(0).getData());
+        assertFalse(frames.get(1).isCompressed());
+        assertEquals(0, frames.get(1).getData().length);
+        assertEquals(2, frames.get(2).getMarshallingType());
+        assertArrayEquals(new byte[] { 5, 6 }, frames.get(2).getData());
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecoderRejectsNegativeLength() throws IOException {
+        ByteBuffer wire = ByteBuffer.allocate(FrameDecoder.HEADER_LENGTH);
+        FrameDecoder.putHeader(wire, false, 1, -1);
+        wire.flip();
+        new FrameDecoder().decode(wire, frame -> fail());
+    }
+
+    @Test
+    public void testBufferPoolReusesBuffers() {
+        DirectBufferPool pool = new DirectBufferPool(16, 1);
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+        assertTrue(first.isDirect());
+        first.put((byte) 1);
+        pool.release(first);
+        pool.release(second);
+        pool.release(ByteBuffer.allocate(16));
+        assertEquals(1, pool.getPooledCount());
+        ByteBuffer reused = pool.acquire();
+        assertSame(first, reused);
+        assertEquals(0, reused.position());
+        assertEquals(0, pool.getPooledCount());
+    }
+
+    @Test(timeout = 30000)
+    public void testExchangeWithStreamClient() throws Exception {
+        ConnectionSelector selector = new ConnectionSelector();
+        selector.start();
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        int port = serverChannel.socket().getLocalPort();
+
+        BlockingQueue<Packet> serverReceived = new LinkedBlockingQueue<>();
+        BlockingQueue<Packet> clientReceived = new LinkedBlockingQueue<>();
+        IConnection client = ConnectionFactory.getInstance().createClientConnection(
+                InetAddress.getLoopbackAddress().getHostAddress(), port, 0);
+        client.addConnectionListener(new ConnectionListenerAdapter() {
+            @Override
+            public void packetReceived(PacketReceivedEvent e) {
+                clientReceived.add(e.getPacket());
+            }
+        });
+        assertTrue(client.open());
+        Thread clientThread = new Thread(() -> {
+            while (!client.isClosed()) {
+                client.update();
+            }
+        });
+        clientThread.setDaemon(true);
+        clientThread.start();
+
+        SocketChannel accepted = serverChannel.accept();
+        IConnection server = ConnectionFactory.getInstance().createServerConnection(accepted, 1,
+                selector);
+        server.addConnectionListener(new ConnectionListenerAdapter() {
+            @Override
+            public void packetReceived(PacketReceivedEvent e) {
+                serverReceived.add(e.getPacket());
+            }
+        });
+        assertTrue(server.open());
+
+        try {
+            client.send(new Packet(Packet.COMMAND_CHAT, "hello"));
+            Packet chat = serverReceived.poll(10, TimeUnit.SECONDS);
+            assertNotNull(chat);
+            assertEquals(Packet.COMMAND_CHAT, chat.getCommand());
+            assertEquals("hello", chat.getObject(0));
+
+            // Spans several of the selector's buffers, even when compressed
+            byte[] payload = new byte[(3 * ConnectionSelector.BUFFER_SIZE) + 17];
+            new Random(42).nextBytes(payload);
+            server.send(new Packet(Packet.COMMAND_SENDING_BOARD, payload));
+            server.send(new Packet(Packet.COMMAND_SERVER_GREETING));
+            Packet board = clientReceived.poll(10, TimeUnit.SECONDS);
+            assertNotNull(board);
+            assertEquals(Packet.COMMAND_SENDING_BOARD, board.getCommand());
+            assertArrayEquals(payload, (byte[]) board.getObject(0));
+            Packet greeting = clientReceived.poll(10, TimeUnit.SECONDS);
+            assertNotNull(greeting);
+            assertEquals(Packet.COMMAND_SERVER_GREETING, greeting.getCommand());
+        } finally {
+            client.close();
+            server.close();
+            selector.shutdown();
+            serverChannel.close();
+        }
+        assertTrue(server.isClosed());
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2020 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common.net.marshall;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.TreeMap;
+import java.util.Vector;
+
+import org.junit.Test;
+
+import megamek.common.BipedMech;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.EntityStateUpdate;
+import megamek.common.Mech;
+import megamek.common.Minefield;
+import megamek.common.MovePath;
+import megamek.common.MovePath.MoveStepType;
+import megamek.common.MoveStep;
+import megamek.common.Report;
+import megamek.common.Tank;
+import megamek.common.logging.MMLogger;
+import megamek.common.net.Packet;
+
+public class BinaryMarshallerTest {
+
+    private final PacketMarshaller marshaller = PacketMarshallerFactory.getInstance()
+            .getMarshaller(PacketMarshaller.BINARY_MARSHALING);
+
+    private Packet roundTrip(Packet packet) {
+        return marshaller.unmarshall(marshaller.marshall(packet));
+    }
+
+    @Test
+    public void testNoData() {
+        Packet packet = roundTrip(new Packet(Packet.COMMAND_SERVER_GREETING));
+        assertEquals(Packet.COMMAND_SERVER_GREETING, packet.getCommand());
+        assertNull(packet.getData());
+    }
+
+    @Test
+    public void testPrimitives() {
+        Object[] data = { 7, true, 12345678901L, 2.5, "chat", null, new int[] { 1, 2, 3 },
+                new byte[] { 4, 5 } };
+        Packet packet = roundTrip(new Packet(Packet.COMMAND_CHAT, data));
+        assertEquals(Packet.COMMAND_CHAT, packet.getCommand());
+        assertEquals(7, packet.getIntValue(0));
+        assertTrue(packet.getBooleanValue(1));
+        assertEquals(12345678901L, packet.getObject(2));
+        assertEquals(2.5, packet.getObject(3));
+        assertEquals("chat", packet.getObject(4));
+        assertNull(packet.getObject(5));
+        assertArrayEquals(new int[] { 1, 2, 3 }, (int[]) packet.getObject(6));
+        assertArrayEquals(new byte[] { 4, 5 }, (byte[]) packet.getObject(7));
+    }
+
+    @Test
+    public void testCollectionsKeepTheirType() {
+        Vector<Coords> vector = new Vector<>();
+        vector.add(new Coords(3, 4));
+        ArrayList<Integer> list = new ArrayList<>();
+        list.add(5);
+        HashSet<Coords> set = new HashSet<>();
+        set.add(new Coords(-1, 8));
+        Packet packet = roundTrip(new Packet(Packet.COMMAND_SENDING_ILLUM_HEXES,
+                new Object[] { vector, list, set }));
+        assertEquals(vector, packet.getObject(0));
+        assertEquals(Vector.class, packet.getObject(0).getClass());
+        assertEquals(list, packet.getObject(1));
+        assertEquals(ArrayList.class, packet.getObject(1).getClass());
+        assertEquals(set, packet.getObject(2));
+        assertEquals(HashSet.class, packet.getObject(2).getClass());
+    }
+
+    @Test
+    public void testReport() {
+        Report r = new Report(3455);
+        r.indent(2);
+        r.add(6);
+        r.add("visible", false);
+        r.addObscuredRecipient("Player");
+        Vector<Report> reports = new Vector<>();
+        reports.add(r);
+        Packet packet = roundTrip(new Packet(Packet.COMMAND_SENDING_REPORTS, reports));
+        Report copy = (Report) ((Vector<?>) packet.getObject(0)).get(0);
+        assertEquals(3455, copy.messageId);
+        assertEquals(2, copy.dataCount());
+        assertTrue(copy.isValueObscured(0));
+        assertFalse(copy.isValueObscured(1));
+        assertTrue(copy.isObscuredRecipient("Player"));
+        assertEquals(r.getText(), copy.getText());
+    }
+
+    @Test
+    public void testReportWithLongText() {
+        // writeUTF() would fail above 64k
+        char[] text = new char[100000];
+        Arrays.fill(text, '\u00e9');
+        Report r = new Report(1230);
+        r.add(new String(text));
+        Vector<Report> reports = new Vector<>();
+        reports.add(r);
+        Packet packet = roundTrip(new Packet(Packet.COMMAND_SENDING_REPORTS, reports));
+        Report copy = (Report) ((Vector<?>) packet.getObject(0)).get(0);
+        assertEquals(r.getText(), copy.getText());
+    }
+
+    @Test
+    public void testReportRejectsInvalidCounts() {
+        Vector<Report> reports = new Vector<>();
+        reports.add(new Report(1230));
+        byte[] bytes = marshaller.marshall(new Packet(Packet.COMMAND_SENDING_REPORTS, reports));
+        // the tag data count follows the vector tag and size, the report tag,
+        // the message id, the indentation and the newlines
+        ByteBuffer.wrap(bytes).putInt(26, Integer.MAX_VALUE);
+        assertNull(marshaller.unmarshall(bytes));
+        ByteBuffer.wrap(bytes).putInt(26, -1);
+        assertNull(marshaller.unmarshall(bytes));
+    }
+
+    /**
+     * Gives every serialized field of the object a value that differs from
+     * its default, so that a field the compact form leaves out fails the test.
+     */
+    private static void fill(Object o, Class<?> type, int seed) throws Exception {
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)
+                    || (field.getType() == Entity.class) || (field.getType() == MMLogger.class)) {
+                continue;
+            }
+            field.setAccessible(true);
+            int value = seed + field.getName().length();
+            Class<?> fieldType = field.getType();
+            if (fieldType == int.class) {
+                field.setInt(o, value);
+            } else if (fieldType == boolean.class) {
+                field.setBoolean(o, !field.getBoolean(o));
+            } else if (fieldType == Coords.class) {
+                field.set(o, new Coords(value, -value));
+            } else if (fieldType.isEnum()) {
+                Object[] constants = fieldType.getEnumConstants();
+                field.set(o, constants[value % constants.length]);
+            } else if (fieldType == int[].class) {
+                field.set(o, new int[] { value, 2 * value });
+            } else if (fieldType == TreeMap.class) {
+                TreeMap<Integer, Vector<Integer>> launched = new TreeMap<>();
+                launched.put(value, new Vector<>(Arrays.asList(1, 2)));
+                field.set(o, launched);
+            } else if (fieldType == ArrayList.class) {
+                field.set(o, new ArrayList<>(Arrays.asList(new Coords(value, 1), new Coords(2, value))));
+            } else if (fieldType == Minefield.class) {
+                Minefield mf = Minefield.createMinefield(new Coords(1, 2), 3, Minefield.TYPE_ACTIVE, 20);
+                fill(mf, Minefield.class, seed);
+                field.set(o, mf);
+            } else {
+                fail("No test value for " + type.getSimpleName() + "." + field.getName());
+            }
+        }
+    }
+
+    private static void assertFieldsEqual(Object expected, Object actual, Class<?> type) throws Exception {
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)
+                    || (field.getType() == Entity.class) || (field.getType() == MMLogger.class)) {
+                continue;
+            }
+            field.setAccessible(true);
+            if (field.getType() == Minefield.class) {
+                assertFieldsEqual(field.get(expected), field.get(actual), Minefield.class);
+            } else if (field.getType() == int[].class) {
+                assertTrue(field.getName(), Arrays.equals((int[]) field.get(expected), (int[]) field.get(actual)));
+            } else if (!field.getName().equals("coordsSet") && !field.getName().equals("steps")) {
+                assertEquals(field.getName(), field.get(expected), field.get(actual));
+            }
+        }
+    }
+
+    @Test
+    public void testMovePath() throws Exception {
+        MovePath path = new MovePath(null, null);
+        MoveStep first = new MoveStep(path, MoveStepType.FORWARDS);
+        fill(first, MoveStep.class, 1);
+        MoveStep second = new MoveStep(path, MoveStepType.LAY_MINE);
+        fill(second, MoveStep.class, 2);
+        path.getStepVector().add(first);
+        path.getStepVector().add(second);
+        path.setCareful(false);
+        Field stepTypes = MovePath.class.getDeclaredField("containedStepTypes");
+        stepTypes.setAccessible(true);
+        stepTypes.set(path, EnumSet.of(MoveStepType.FORWARDS, MoveStepType.LAY_MINE));
+        Field fliesOverEnemy = MovePath.class.getDeclaredField("fliesOverEnemy");
+        fliesOverEnemy.setAccessible(true);
+        fliesOverEnemy.setBoolean(path, true);
+        assertTrue(BinaryMarshaller.isEncodable(path));
+
+        Packet packet = roundTrip(new Packet(Packet.COMMAND_ENTITY_MOVE, new Object[] { 4, path }));
+        MovePath copy = (MovePath) packet.getObject(1);
+        assertFieldsEqual(path, copy, MovePath.class);
+        assertEquals(2, copy.getStepVector().size());
+        assertFieldsEqual(first, copy.getStepVector().get(0), MoveStep.class);
+        assertFieldsEqual(second, copy.getStepVector().get(1), MoveStep.class);
+
+        // the receiver's entity is given to the steps
+        Entity entity = new BipedMech();
+        copy.setEntity(entity);
+        assertSame(entity, copy.getStepVector().get(0).getEntity());
+    }
+
+    @Test
+    public void testEntityStateUpdates() {
+        Mech mech = new BipedMech();
+        mech.setId(5);
+        mech.setPosition(new Coords(2, 3));
+        mech.heat = 12;
+        mech.setArmor(4, Mech.LOC_CT, true);
+        Vector<EntityStateUpdate> updates = new Vector<>();
+        updates.add(new EntityStateUpdate(mech));
+        updates.add(new EntityStateUpdate(new Tank()));
+        Packet packet = roundTrip(new Packet(Packet.COMMAND_ENTITY_DELTA,
+                new Object[] { new Vector<Entity>(), new int[] { 5 }, updates }));
+        assertTrue(BinaryMarshaller.isEncodable(updates));
+        assertEquals(updates, packet.getObject(2));
+    }
+
+    @Test
+    public void testFallbackToNativeSerialization() {
+        // StringBuffer has no schema encoding, so the whole element is serialized natively
+        Vector<Object> mixed = new Vector<>();
+        mixed.add(new Coords(1, 1));
+        mixed.add(new StringBuffer("native"));
+        assertFalse(BinaryMarshaller.isEncodable(mixed));
+        Packet packet = roundTrip(new Packet(Packet.COMMAND_ENTITY_UPDATE, mixed));
+        Vector<?> copy = (Vector<?>) packet.getObject(0);
+        assertEquals(new Coords(1, 1), copy.get(0));
+        assertEquals("native", copy.get(1).toString());
+    }
+
+    @Test
+    public void testRejectsClassesNotInWhitelist() {
+        // StringBuilder is not in the serialization whitelist
+        Packet packet = roundTrip(new Packet(Packet.COMMAND_ENTITY_UPDATE, new StringBuilder("native")));
+        assertNull(packet);
+    }
+
+    @Test
+    public void testRejectsInvalidLengths() {
+        byte[] bytes = marshaller.marshall(new Packet(Packet.COMMAND_CHAT, "chat"));
+        // the string length follows the command, the data length and the tag
+        ByteBuffer.wrap(bytes).putInt(9, -5);
+        assertNull(marshaller.unmarshall(bytes));
+        ByteBuffer.wrap(bytes).putInt(9, Integer.MAX_VALUE);
+        assertNull(marshaller.unmarshall(bytes));
+        // a length beyond the data runs into its end before allocating all of it
+        ByteBuffer.wrap(bytes).putInt(9, 100 << 20);
+        assertNull(marshaller.unmarshall(bytes));
+    }
+}
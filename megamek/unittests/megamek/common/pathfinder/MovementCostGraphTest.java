@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common.pathfinder;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Hex;
+import megamek.common.IHex;
+import megamek.common.pathfinder.BoardClusterTracker.MovementType;
+
+public class MovementCostGraphTest {
+
+    private static Board createBoard() {
+        IHex[] hexes = new IHex[8 * 8];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        Board board = new Board(8, 8, hexes);
+        board.setHex(4, 3, new Hex(3));
+        board.setHex(4, 5, new Hex(0, "water:2", ""));
+        return board;
+    }
+
+    @Test
+    public void testLeastClimbs() {
+        Board board = createBoard();
+        MovementCostGraph walker = MovementCostGraph.of(board, MovementType.Walker);
+        assertSame(walker, MovementCostGraph.of(board, MovementType.Walker));
+        assertTrue(walker.isGroundMovement());
+
+        Coords center = new Coords(4, 4);
+        // Up the hill to the north, down to the bottom of the water to the south
+        assertEquals(3, walker.getLeastClimb(center, 0));
+        assertEquals(-2, walker.getLeastClimb(center, 3));
+        assertEquals(0, walker.getLeastClimb(center, 1));
+        // Hovercraft stay on the water's surface
+        assertEquals(0, MovementCostGraph.of(board, MovementType.Hover).getLeastClimb(center, 3));
+
+        assertFalse(walker.canStep(center, 0, 0, 2));
+        assertTrue(walker.canStep(center, 0, 0, 3));
+        // From a higher elevation, e.g. the roof of a building, the climb is less
+        assertTrue(walker.canStep(center, 1, 0, 2));
+        assertTrue(walker.canStep(center, 0, 3, 2));
+        // Flyers aren't limited by the climb
+        assertTrue(MovementCostGraph.of(board, MovementType.Flyer).canStep(center, 0, 0, 0));
+
+        // Nothing steps off the board
+        assertEquals(MovementCostGraph.BLOCKED, walker.getLeastClimb(new Coords(0, 0), 0));
+        assertFalse(walker.canEnter(new Coords(0, 0), 0));
+        assertTrue(walker.canEnter(new Coords(0, 0), 2));
+    }
+
+    @Test
+    public void testChangedHexes() {
+        Board board = createBoard();
+        MovementCostGraph walker = MovementCostGraph.of(board, MovementType.Walker);
+        Coords center = new Coords(4, 4);
+
+        board.setHex(4, 3, new Hex(0, "impassable:1", ""));
+        assertFalse(walker.canEnter(center, 0));
+        assertFalse(walker.canStep(center, 0, 0, 10));
+
+        board.setHex(4, 3, new Hex(1));
+        assertEquals(1, walker.getLeastClimb(center, 0));
+        // The steps out of the changed hex are updated, too
+        assertEquals(-1, walker.getLeastClimb(new Coords(4, 3), 3));
+
+        // A new, larger board
+        IHex[] hexes = new IHex[10 * 10];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        board.newData(10, 10, hexes, null);
+        assertEquals(0, walker.getLeastClimb(center, 0));
+        assertTrue(walker.canEnter(new Coords(8, 8), 3));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common.pathfinder;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Test;
+
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.Game;
+import megamek.common.Hex;
+import megamek.common.IBoard;
+import megamek.common.IGame;
+import megamek.common.IHex;
+import megamek.common.IPlayer;
+import megamek.common.MechFileParser;
+import megamek.common.Player;
+import megamek.common.loaders.EntityLoadingException;
+import megamek.common.util.BoardUtilities;
+
+public class RegionGraphTest {
+
+    private static Board createBoard(int width, int height) {
+        IHex[] hexes = new IHex[width * height];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        return new Board(width, height, hexes);
+    }
+
+    private static Entity load(IBoard board) throws EntityLoadingException {
+        IGame game = new Game();
+        game.setBoard(board);
+        IPlayer player = new Player(0, "test");
+        game.addPlayer(0, player);
+        Entity entity = new MechFileParser(new File("data/mechfiles/mechs/3039u/Marauder MAD-3R.mtf")).getEntity();
+        entity.setId(1);
+        entity.setOwner(player);
+        entity.setGame(game);
+        entity.setPosition(new Coords(0, 0));
+        entity.setDeployed(true);
+        game.addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * Returns the cost of the cheapest path between the hexes over every
+     * hex of the board.
+     */
+    private static int flatDistance(RegionGraph graph, IBoard board, Coords from, Coords to) {
+        int[] distances = new int[board.getWidth() * board.getHeight()];
+        Arrays.fill(distances, RegionGraph.UNREACHABLE);
+        distances[(from.getY() * board.getWidth()) + from.getX()] = 0;
+        PriorityQueue<Object[]> queue = new PriorityQueue<>((a, b) -> (Integer) a[0] - (Integer) b[0]);
+        queue.add(new Object[] { 0, from });
+        while (!queue.isEmpty()) {
+            Object[] entry = queue.poll();
+            int distance = (Integer) entry[0];
+            Coords coords = (Coords) entry[1];
+            if (coords.equals(to)) {
+                return distance;
+            }
+            for (int direction = 0; direction < 6; direction++) {
+                int cost = graph.getStepCost(coords, direction);
+                Coords neighbor = coords.translated(direction);
+                int index = (neighbor.getY() * board.getWidth()) + neighbor.getX();
+                if ((cost >= 0) && (distance + cost < distances[index])) {
+                    distances[index] = distance + cost;
+                    queue.add(new Object[] { distance + cost, neighbor });
+                }
+            }
+        }
+        return RegionGraph.UNREACHABLE;
+    }
+
+    @Test
+    public void testDistancesOnCombinedBoard() throws Exception {
+        File[] files = new File("data/boards/MapSet2").listFiles();
+        Arrays.sort(files);
+        IBoard[] sheets = new IBoard[9];
+        for (int i = 0; i < sheets.length; i++) {
+            Board sheet = new Board();
+            sheet.load(files[i % files.length]);
+            sheets[i] = sheet;
+        }
+        IBoard board = BoardUtilities.combine(16, 17, 3, 3, sheets, Collections.nCopies(9, false), 0);
+        Entity entity = load(board);
+        RegionGraph graph = new RegionGraph(entity);
+        assertEquals(9, graph.getRegionCount());
+
+        Random random = new Random(1);
+        int compared = 0;
+        for (int i = 0; i < 100; i++) {
+            Coords from = new Coords(random.nextInt(48), random.nextInt(51));
+            Coords to = new Coords(random.nextInt(48), random.nextInt(51));
+            int expected = flatDistance(graph, board, from, to);
+            RegionGraph.Route route = graph.findRoute(from, to);
+            if (expected == RegionGraph.UNREACHABLE) {
+                assertNull(route);
+                continue;
+            }
+            assertNotNull(route);
+            assertTrue(route.contains(from));
+            assertTrue(route.contains(to));
+            // the route over the portals is never cheaper and at most a tenth more costly
+            assertTrue(from + " " + to, route.getCost() >= expected);
+            assertTrue(from + " " + to + " " + route.getCost() + " " + expected,
+                    route.getCost() <= expected + Math.max(2, expected / 10));
+            compared++;
+        }
+        assertTrue(compared > 50);
+    }
+
+    @Test
+    public void testBlockedRegion() throws Exception {
+        IBoard board = createBoard(32, 17);
+        Entity entity = load(board);
+        RegionGraph graph = new RegionGraph(entity);
+        assertEquals(2, graph.getRegionCount());
+        assertEquals(0, graph.getRegion(new Coords(15, 16)));
+        assertEquals(1, graph.getRegion(new Coords(16, 0)));
+        assertEquals(31, graph.getDistance(new Coords(0, 8), new Coords(31, 8)));
+
+        // a wall along the border between the regions
+        board = createBoard(32, 17);
+        for (int y = 0; y < 17; y++) {
+            board.setHex(16, y, new Hex(4));
+        }
+        entity = load(board);
+        graph = new RegionGraph(entity);
+        assertNull(graph.findRoute(new Coords(0, 8), new Coords(31, 8)));
+        assertEquals(RegionGraph.UNREACHABLE, graph.getDistance(new Coords(0, 8), new Coords(31, 8)));
+        assertEquals(8, graph.getDistance(new Coords(0, 8), new Coords(8, 8)));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class BuildingBlockTest {
+
+    private static BuildingBlock read(String text) {
+        return new BuildingBlock(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testReadSkipsCommentsAndBlankLines() {
+        BuildingBlock bb = read("#comment\r\n\r\n  <Name>  \r\nAtlas\r\n</Name>\n\t\n<Tonnage>\r100\r</Tonnage>");
+        assertArrayEquals(new String[] { "<Name>", "Atlas", "</Name>", "<Tonnage>", "100", "</Tonnage>" },
+                bb.getAllDataAsString());
+        assertArrayEquals(new String[] { "Atlas" }, bb.getDataAsString("Name"));
+        assertArrayEquals(new int[] { 100 }, bb.getDataAsInt("Tonnage"));
+        assertEquals(4, bb.findStartIndex("Tonnage"));
+        assertEquals(5, bb.findEndIndex("Tonnage"));
+    }
+
+    @Test
+    public void testBlockNamesIgnoreCase() {
+        BuildingBlock bb = read("<name>\nAtlas\n</NAME>\n<Name>\nOther\n</Name>\n");
+        // The first occurrence of each tag is used
+        assertArrayEquals(new String[] { "Atlas" }, bb.getDataAsString("Name"));
+        assertTrue(bb.exists("nAmE"));
+    }
+
+    @Test
+    public void testMissingAndEmptyBlocks() {
+        BuildingBlock bb = read("<Empty>\n</Empty>\n<Open>\n1\n");
+        assertArrayEquals(new String[] { "" }, bb.getDataAsString("Empty"));
+        assertArrayEquals(new String[] { "" }, bb.getDataAsString("Open"));
+        assertEquals(1, bb.getDataAsDouble("Missing").length);
+        assertFalse(bb.exists("Open"));
+        assertFalse(bb.exists(""));
+        assertTrue(bb.getDataAsVector("Missing").isEmpty());
+    }
+
+    @Test
+    public void testIndexFollowsChanges() {
+        BuildingBlock bb = new BuildingBlock();
+        bb.createNewBlock();
+        assertFalse(bb.exists("Name"));
+        bb.writeBlockData("Name", "Atlas");
+        assertArrayEquals(new String[] { "Atlas" }, bb.getDataAsString("Name"));
+
+        bb.getVector().set(bb.findStartIndex("Name") - 1, "<Model>");
+        bb.getVector().set(bb.findEndIndex("Name"), "</Model>");
+        assertFalse(bb.exists("Name"));
+        assertArrayEquals(new String[] { "Atlas" }, bb.getDataAsString("Model"));
+
+        bb.clearData();
+        assertFalse(bb.exists("Model"));
+    }
+}
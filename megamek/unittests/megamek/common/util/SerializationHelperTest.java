@@ -0,0 +1,56 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.common.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Vector;
+
+import org.junit.Test;
+
+import com.thoughtworks.xstream.XStream;
+
+import megamek.common.EquipmentType;
+
+public class SerializationHelperTest {
+
+    @Test
+    public void testEquipmentResolvesToRegistryOrSavedCopy() {
+        EquipmentType laser = EquipmentType.get("ISMediumLaser");
+        Vector<EquipmentType> types = new Vector<>();
+        types.add(laser);
+        XStream xstream = new XStream();
+        xstream.setMode(XStream.ID_REFERENCES);
+        String xml = xstream.toXML(types);
+        // The same type saved under a name the registry no longer knows
+        String renamed = xml.replace("<internalName>" + laser.getInternalName() + "</internalName>",
+                "<internalName>ISRenamedLaser</internalName>");
+        assertFalse(xml.equals(renamed));
+
+        Vector<?> loaded = (Vector<?>) SerializationHelper.loadSaveGame(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        assertSame(laser, loaded.get(0));
+
+        loaded = (Vector<?>) SerializationHelper.loadSaveGame(
+                new ByteArrayInputStream(renamed.getBytes(StandardCharsets.UTF_8)));
+        EquipmentType copy = (EquipmentType) loaded.get(0);
+        assertNotNull(copy);
+        assertEquals("ISRenamedLaser", copy.getInternalName());
+        assertEquals(laser.getClass(), copy.getClass());
+        assertEquals(laser.getName(), copy.getName());
+    }
+}
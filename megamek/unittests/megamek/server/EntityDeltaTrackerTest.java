@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.server;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import megamek.common.BipedMech;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.EntityStateUpdate;
+import megamek.common.Mech;
+import megamek.common.net.Packet;
+
+public class EntityDeltaTrackerTest {
+
+    private static Entity createEntity(int id) {
+        Entity entity = new BipedMech();
+        entity.setId(id);
+        entity.setChassis("Test");
+        entity.setModel("M-" + id);
+        return entity;
+    }
+
+    private static Packet deltaPacket(EntityDeltaTracker tracker, int connId, Entity... entities) {
+        tracker.startUpdate();
+        Packet packet = tracker.createDeltaPacket(connId, Arrays.asList(entities));
+        assertEquals(Packet.COMMAND_ENTITY_DELTA, packet.getCommand());
+        assertArrayEquals(Arrays.stream(entities).mapToInt(Entity::getId).toArray(),
+                (int[]) packet.getObject(1));
+        return packet;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Entity> update(EntityDeltaTracker tracker, int connId, Entity... entities) {
+        return (List<Entity>) deltaPacket(tracker, connId, entities).getObject(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<EntityStateUpdate> stateUpdates(Packet packet) {
+        return (List<EntityStateUpdate>) packet.getObject(2);
+    }
+
+    @Test
+    public void testSendsOnlyChangedEntities() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        Entity first = createEntity(1);
+        Entity second = createEntity(2);
+        assertEquals(Arrays.asList(first, second), update(tracker, 0, first, second));
+        assertEquals(Collections.emptyList(), update(tracker, 0, first, second));
+
+        second.setModel("M-3");
+        assertEquals(Collections.singletonList(second), update(tracker, 0, first, second));
+        // another connection has its own baseline
+        assertEquals(Arrays.asList(first, second), update(tracker, 1, first, second));
+    }
+
+    @Test
+    public void testSendsStateOfMovedOrDamagedEntities() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        Entity first = createEntity(1);
+        Mech second = (Mech) createEntity(2);
+        update(tracker, 0, first, second);
+
+        second.setPosition(new Coords(3, 4));
+        second.setFacing(2);
+        second.heat = 7;
+        second.setArmor(5, Mech.LOC_CT, true);
+        second.setInternal(3, Mech.LOC_LARM);
+        Packet packet = deltaPacket(tracker, 0, first, second);
+        assertEquals(Collections.emptyList(), packet.getObject(0));
+        assertEquals(1, stateUpdates(packet).size());
+
+        // the update brings a copy of the old state up to date
+        Mech copy = (Mech) createEntity(2);
+        stateUpdates(packet).get(0).applyTo(copy);
+        assertEquals(new Coords(3, 4), copy.getPosition());
+        assertEquals(2, copy.getFacing());
+        assertEquals(7, copy.heat);
+        assertEquals(5, copy.getArmor(Mech.LOC_CT, true));
+        assertEquals(3, copy.getInternal(Mech.LOC_LARM));
+        assertEquals(new EntityStateUpdate(second), new EntityStateUpdate(copy));
+
+        assertEquals(Collections.emptyList(), stateUpdates(deltaPacket(tracker, 0, first, second)));
+        // any other change sends the entity
+        second.setPosition(new Coords(4, 4));
+        second.setDone(true);
+        packet = deltaPacket(tracker, 0, first, second);
+        assertEquals(Collections.singletonList(second), packet.getObject(0));
+        assertEquals(Collections.emptyList(), stateUpdates(packet));
+    }
+
+    @Test
+    public void testHiddenEntityIsSentWhenItReappears() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        Entity first = createEntity(1);
+        Entity hidden = createEntity(2);
+        update(tracker, 0, first, hidden);
+
+        // the unit is hidden from the client, which drops it
+        assertEquals(Collections.emptyList(), update(tracker, 0, first));
+        // it comes back unchanged and the client must get it in full
+        assertEquals(Collections.singletonList(hidden), update(tracker, 0, first, hidden));
+        assertEquals(Collections.emptyList(), update(tracker, 0, first, hidden));
+    }
+
+    @Test
+    public void testOtherPacketsInvalidateTheBaseline() {
+        EntityDeltaTracker tracker = new EntityDeltaTracker();
+        Entity first = createEntity(1);
+        Entity second = createEntity(2);
+        update(tracker, 0, first, second);
+
+        tracker.packetSent(0, new Packet(Packet.COMMAND_ENTITY_UPDATE, new Object[] { 2, second, null }));
+        assertEquals(Collections.singletonList(second), update(tracker, 0, first, second));
+
+        tracker.packetSent(0, new Packet(Packet.COMMAND_SENDING_ENTITIES, new Object[] { null }));
+        assertEquals(Arrays.asList(first, second), update(tracker, 0, first, second));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.server;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.Game;
+import megamek.common.IGame;
+import megamek.common.IPlayer;
+import megamek.common.MechFileParser;
+import megamek.common.Player;
+import megamek.common.util.SerializationHelper;
+
+public class GameSnapshotTest {
+
+    private static IGame createGame() throws Exception {
+        IGame game = new Game();
+        game.setBoard(new Board(16, 17));
+        IPlayer player = new Player(0, "blue");
+        game.addPlayer(0, player);
+        Entity entity = new MechFileParser(new File("data/mechfiles/mechs/3039u/Archer ARC-2R.mtf")).getEntity();
+        entity.setId(1);
+        entity.setOwner(player);
+        entity.setGame(game);
+        entity.setPosition(new Coords(3, 4));
+        game.addEntity(entity);
+        return game;
+    }
+
+    private static void assertSameGame(IGame expected, IGame actual) {
+        assertNotSame(expected, actual);
+        assertEquals(expected.getBoard().getWidth(), actual.getBoard().getWidth());
+        assertEquals(expected.getPlayer(0).getName(), actual.getPlayer(0).getName());
+        assertEquals(expected.getNoOfEntities(), actual.getNoOfEntities());
+        assertEquals(expected.getEntity(1).getShortName(), actual.getEntity(1).getShortName());
+        assertEquals(expected.getEntity(1).getPosition(), actual.getEntity(1).getPosition());
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws Exception {
+        IGame game = createGame();
+        GameSnapshot snapshot = GameSnapshot.of(game);
+        // Later changes to the game don't show in the snapshot
+        game.getEntity(1).setPosition(new Coords(8, 8));
+        assertEquals(new Coords(3, 4), snapshot.restore().getEntity(1).getPosition());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.writeBinary(bytes);
+        assertTrue(bytes.size() < snapshot.size());
+        try (InputStream in = new BufferedInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertTrue(GameSnapshot.isBinary(in));
+            game.getEntity(1).setPosition(new Coords(3, 4));
+            assertSameGame(game, GameSnapshot.readBinary(in));
+        }
+    }
+
+    @Test
+    public void testXmlIsNotBinary() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write("<megamek.common.Game/>".getBytes());
+        }
+        try (InputStream in = new BufferedInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertFalse(GameSnapshot.isBinary(in));
+            // the stream is where it was
+            assertEquals(0x1f, in.read());
+        }
+        assertFalse(GameSnapshot.isBinary(new BufferedInputStream(new ByteArrayInputStream(new byte[2]))));
+    }
+
+    @Test
+    public void testReadBinarySaveGame() throws Exception {
+        IGame game = createGame();
+        File file = File.createTempFile("savegame", GameSnapshot.BINARY_EXTENSION);
+        try {
+            SaveGameWriter.write(GameSnapshot.of(game), file, true);
+            assertSameGame(game, GameSnapshot.readSaveGame(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testWriterReplacesFile() throws Exception {
+        IGame game = createGame();
+        File dir = Files.createTempDirectory("savegames").toFile();
+        File file = new File(dir, "autosave" + GameSnapshot.BINARY_EXTENSION);
+        try {
+            Files.write(file.toPath(), new byte[] { 1, 2, 3 });
+            SaveGameWriter writer = new SaveGameWriter();
+            writer.queue(GameSnapshot.of(game), file, true);
+            game.getEntity(1).setPosition(new Coords(5, 5));
+            writer.queue(GameSnapshot.of(game), file, true);
+            writer.shutdown();
+
+            // only the save game is left, with the latest snapshot
+            assertArrayEquals(new String[] { file.getName() }, dir.list());
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+                assertSameGame(game, GameSnapshot.readBinary(in));
+            }
+        } finally {
+            for (File f : dir.listFiles()) {
+                f.delete();
+            }
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testXmlFromSnapshot() throws Exception {
+        IGame game = createGame();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GameSnapshot.of(game).writeXml(bytes);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSameGame(game, (IGame) SerializationHelper.loadSaveGame(in));
+        }
+    }
+
+    @Test
+    public void testReadBinaryRejectsUnlistedClasses() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(new byte[] { 'M', 'M', 'S', 'V' });
+        out.writeInt(1);
+        try (ObjectOutputStream objects = new ObjectOutputStream(new DeflaterOutputStream(out))) {
+            objects.writeObject(new Random());
+        }
+        try {
+            GameSnapshot.readBinary(new ByteArrayInputStream(bytes.toByteArray()));
+            fail("java.util.Random is not whitelisted");
+        } catch (InvalidClassException expected) {
+            // expected
+        }
+    }
+}
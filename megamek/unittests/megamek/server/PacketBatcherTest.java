@@ -0,0 +1,197 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.server;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import megamek.common.net.ConnectionListener;
+import megamek.common.net.IConnection;
+import megamek.common.net.Packet;
+import megamek.common.net.PacketBatch;
+import megamek.common.net.marshall.PacketMarshaller;
+
+public class PacketBatcherTest {
+
+    /** Records the sent packets instead of sending them */
+    private static class RecordingConnection implements IConnection {
+        final List<Packet> sent = new ArrayList<>();
+        final int marshallingType;
+
+        RecordingConnection(int marshallingType) {
+            this.marshallingType = marshallingType;
+        }
+
+        public boolean open() { return true; }
+        public void close() { }
+        public boolean isClosed() { return false; }
+        public int getId() { return 0; }
+        public void setId(int id) { }
+        public String getInetAddress() { return "test"; }
+        public int getMarshallingType() { return marshallingType; }
+        public void setMarshallingType(int marshallingType) { }
+        public void update() { }
+        public void flush() { }
+        public void send(Packet packet) {
+            synchronized (sent) {
+                sent.add(packet);
+            }
+        }
+        public boolean hasPending() { return false; }
+        public long bytesSent() { return 0; }
+        public long bytesReceived() { return 0; }
+        public void addConnectionListener(ConnectionListener listener) { }
+        public void removeConnectionListener(ConnectionListener listener) { }
+    }
+
+    @Test
+    public void testBatchesUntilEnd() throws IOException {
+        PacketBatcher batcher = new PacketBatcher();
+        RecordingConnection first = new RecordingConnection(PacketMarshaller.BINARY_MARSHALING);
+        RecordingConnection second = new RecordingConnection(PacketMarshaller.BINARY_MARSHALING);
+        RecordingConnection old = new RecordingConnection(PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING);
+        batcher.setBatching(first, true);
+        batcher.setBatching(second, true);
+
+        Packet phase = new Packet(Packet.COMMAND_PHASE_CHANGE, "phase");
+        Packet chat = new Packet(Packet.COMMAND_CHAT, "hello");
+        batcher.begin();
+        batcher.send(first, phase);
+        batcher.send(second, phase);
+        batcher.send(old, phase);
+        batcher.begin();
+        batcher.send(first, chat);
+        batcher.end();
+        // Only the connection that can't unpack batches got anything yet
+        assertTrue(first.sent.isEmpty());
+        assertSame(phase, old.sent.get(0));
+        batcher.end();
+
+        assertEquals(1, first.sent.size());
+        List<Packet> unpacked = PacketBatch.unpack(first.sent.get(0));
+        assertEquals(2, unpacked.size());
+        assertEquals(Packet.COMMAND_PHASE_CHANGE, unpacked.get(0).getCommand());
+        assertEquals("phase", unpacked.get(0).getObject(0));
+        assertEquals("hello", unpacked.get(1).getObject(0));
+        assertEquals(1, PacketBatch.unpack(second.sent.get(0)).size());
+
+        assertEquals(2, batcher.getFrames());
+        assertEquals(3, batcher.getPackets());
+        assertEquals(1.5, batcher.getPacketsPerFrame(), 0.001);
+        // The phase packet was marshalled once for both connections
+        assertTrue(batcher.getBytesSaved() > 0);
+
+        // Outside of a batch, packets go out right away
+        batcher.send(first, chat);
+        assertSame(chat, first.sent.get(1));
+    }
+
+    @Test
+    public void testUrgentPacketsFlush() throws IOException {
+        PacketBatcher batcher = new PacketBatcher();
+        RecordingConnection conn = new RecordingConnection(PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING);
+        batcher.setBatching(conn, true);
+        batcher.begin();
+        batcher.send(conn, new Packet(Packet.COMMAND_CHAT, "before"));
+        batcher.send(conn, new Packet(Packet.COMMAND_CLIENT_FEEDBACK_REQUEST, 1));
+        assertEquals(1, conn.sent.size());
+        assertEquals(2, PacketBatch.unpack(conn.sent.get(0)).size());
+        batcher.send(conn, new Packet(Packet.COMMAND_CHAT, "after"));
+        batcher.remove(conn);
+        batcher.end();
+        assertEquals(1, conn.sent.size());
+    }
+
+    /** Blocks in its first send until released, like a client whose queue is full */
+    private static class BlockingConnection extends RecordingConnection {
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingConnection() {
+            super(PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING);
+        }
+
+        @Override
+        public void send(Packet packet) {
+            sending.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.send(packet);
+        }
+    }
+
+    @Test
+    public void testSlowConnectionDoesNotBlockOthers() throws InterruptedException {
+        PacketBatcher batcher = new PacketBatcher();
+        BlockingConnection slow = new BlockingConnection();
+        RecordingConnection fast = new RecordingConnection(PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING);
+        Packet first = new Packet(Packet.COMMAND_CHAT, "first");
+        Packet second = new Packet(Packet.COMMAND_CHAT, "second");
+
+        Thread sender = new Thread(() -> batcher.send(slow, first));
+        sender.start();
+        assertTrue(slow.sending.await(10, TimeUnit.SECONDS));
+
+        // Neither sending to another connection nor queueing more for the
+        // blocked one waits for the blocked send
+        batcher.send(fast, first);
+        batcher.send(slow, second);
+        assertEquals(1, fast.sent.size());
+        assertTrue(slow.sent.isEmpty());
+
+        slow.release.countDown();
+        sender.join(10000);
+        assertFalse(sender.isAlive());
+        assertEquals(2, slow.sent.size());
+        assertSame(first, slow.sent.get(0));
+        assertSame(second, slow.sent.get(1));
+    }
+
+    @Test
+    public void testUnpackRejectsBadLengths() {
+        PacketBatch batch = new PacketBatch();
+        batch.add(PacketMarshaller.NATIVE_SERIALIZATION_MARSHALING, new byte[] { 1, 2, 3 });
+        byte[] data = (byte[]) batch.toPacket().getObject(0);
+
+        // Claims more bytes than the batch holds
+        byte[] tooLong = data.clone();
+        tooLong[7] = 100;
+        try {
+            PacketBatch.unpack(new Packet(Packet.COMMAND_PACKET_BATCH, tooLong));
+            fail("length beyond the end of the batch");
+        } catch (IOException expected) {
+            // expected
+        }
+
+        byte[] negative = data.clone();
+        negative[4] = (byte) 0xff;
+        try {
+            PacketBatch.unpack(new Packet(Packet.COMMAND_PACKET_BATCH, negative));
+            fail("negative length");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2021 - The MegaMek Team
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation; either version 2 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ */
+
+package megamek.server;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import megamek.common.BipedMech;
+import megamek.common.Board;
+import megamek.common.Coords;
+import megamek.common.Entity;
+import megamek.common.Game;
+import megamek.common.Hex;
+import megamek.common.IGame;
+import megamek.common.IHex;
+import megamek.common.IPlayer;
+import megamek.common.LosEffects;
+import megamek.common.Player;
+import megamek.common.event.BoardListener;
+
+public class VisibilityCacheTest {
+
+    /** A board that keeps track of its listeners */
+    private static class ListenedBoard extends Board {
+        private static final long serialVersionUID = 1L;
+        final List<BoardListener> listeners = new ArrayList<>();
+
+        ListenedBoard() {
+            super(16, 17, flatHexes());
+        }
+
+        @Override
+        public void addBoardListener(BoardListener listener) {
+            super.addBoardListener(listener);
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeBoardListener(BoardListener listener) {
+            super.removeBoardListener(listener);
+            listeners.remove(listener);
+        }
+    }
+
+    private IGame game;
+    private ListenedBoard board;
+    private Entity spotter;
+    private Entity target;
+    private Entity bystander;
+    private VisibilityCache cache;
+
+    private static IHex[] flatHexes() {
+        IHex[] hexes = new IHex[16 * 17];
+        for (int i = 0; i < hexes.length; i++) {
+            hexes[i] = new Hex();
+        }
+        return hexes;
+    }
+
+    private Entity addEntity(int id, Coords position) {
+        Entity entity = new BipedMech();
+        entity.setId(id);
+        entity.setOwner(game.getPlayer(0));
+        entity.setGame(game);
+        entity.setPosition(position);
+        game.addEntity(entity);
+        return entity;
+    }
+
+    @Before
+    public void setUp() {
+        game = new Game();
+        board = new ListenedBoard();
+        game.setBoard(board);
+        IPlayer player = new Player(0, "blue");
+        game.addPlayer(0, player);
+        spotter = addEntity(1, new Coords(2, 2));
+        target = addEntity(2, new Coords(2, 10));
+        bystander = addEntity(3, new Coords(12, 2));
+        cache = new VisibilityCache(game);
+        cache.refresh();
+    }
+
+    @Test
+    public void testCachedUntilSomethingChanges() {
+        LosEffects los = cache.getLos(spotter, target);
+        assertTrue(los.canSee());
+        cache.refresh();
+        assertSame(los, cache.getLos(spotter, target));
+
+        // an entity far from the line does not affect it
+        bystander.setPosition(new Coords(13, 3));
+        cache.refresh();
+        assertSame(los, cache.getLos(spotter, target));
+    }
+
+    @Test
+    public void testEntityChangesInvalidate() {
+        LosEffects los = cache.getLos(spotter, target);
+        target.setPosition(new Coords(2, 9));
+        cache.refresh();
+        assertNotSame(los, cache.getLos(spotter, target));
+
+        // an entity moving onto the line
+        los = cache.getLos(spotter, target);
+        bystander.setPosition(new Coords(2, 5));
+        cache.refresh();
+        assertNotSame(los, cache.getLos(spotter, target));
+    }
+
+    @Test
+    public void testBoardChangesInvalidate() {
+        LosEffects los = cache.getLos(spotter, target);
+        LosEffects bystanderLos = cache.getLos(spotter, bystander);
+        // a hill between spotter and target blocks the line of sight
+        board.setHex(new Coords(2, 6), new Hex(5));
+        cache.refresh();
+        assertFalse(cache.getLos(spotter, target).canSee());
+        assertNotSame(los, cache.getLos(spotter, target));
+        assertSame(bystanderLos, cache.getLos(spotter, bystander));
+
+        board.setHex(new Coords(12, 3), new Hex(5));
+        cache.hexChanged(new Coords(12, 3));
+        cache.refresh();
+        assertNotSame(bystanderLos, cache.getLos(spotter, bystander));
+    }
+
+    @Test
+    public void testListensToTheCurrentBoardOnly() {
+        assertEquals(1, board.listeners.size());
+        ListenedBoard newBoard = new ListenedBoard();
+        game.setBoard(newBoard);
+        cache.refresh();
+        assertTrue(board.listeners.isEmpty());
+        assertEquals(1, newBoard.listeners.size());
+
+        cache.die();
+        assertTrue(newBoard.listeners.isEmpty());
+    }
+}